@@ -0,0 +1,71 @@
+package geom.benchmarks;
+
+import geom.Point;
+import geom.Segment;
+import geom.Vector;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible random input of the benchmarks.
+ */
+final class Data {
+    /** Seed of all generated data **/
+    private static final long SEED = 20240101L;
+
+    private Data() {
+    }
+
+    /**
+     * Points with coordinates uniform in [-1000, 1000).
+     * @param dimension number of dimensions
+     * @param size number of points
+     * @param stream index of the stream, distinct streams give distinct points
+     * @return new points
+     */
+    static Point[] points(int dimension, int size, int stream) {
+        SplittableRandom random = new SplittableRandom(SEED + stream);
+        Point[] result = new Point[size];
+        double[] coords = new double[dimension];
+        for (int i = 0; i < size; i++) {
+            for (int d = 0; d < dimension; d++) {
+                coords[d] = random.nextDouble(-1000, 1000);
+            }
+            result[i] = new Point(coords);
+        }
+        return result;
+    }
+
+    /**
+     * Segments between the random points.
+     * @param dimension number of dimensions
+     * @param size number of segments
+     * @param stream index of the stream
+     * @return new segments
+     */
+    static Segment[] segments(int dimension, int size, int stream) {
+        Point[] from = points(dimension, size, 2 * stream);
+        Point[] to = points(dimension, size, 2 * stream + 1);
+        Segment[] result = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = new Segment(from[i], to[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Vectors to the random points.
+     * @param dimension number of dimensions
+     * @param size number of vectors
+     * @param stream index of the stream
+     * @return new vectors
+     */
+    static Vector[] vectors(int dimension, int size, int stream) {
+        Point[] sources = points(dimension, size, stream);
+        Vector[] result = new Vector[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = new Vector(sources[i]);
+        }
+        return result;
+    }
+}
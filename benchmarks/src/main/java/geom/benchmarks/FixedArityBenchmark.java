@@ -0,0 +1,82 @@
+package geom.benchmarks;
+
+import geom.Point;
+import geom.Point2D;
+import geom.Segment;
+import geom.Segment2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planar points and segments of the generic types
+ * against the fixed-arity ones. Every invocation
+ * handles all size items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FixedArityBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Point[] points;
+    private Point2D[] points2D;
+    private Segment[] segments;
+    private Segment2D[] segments2D;
+
+    @Setup
+    public void setUp() {
+        points = Data.points(2, size, 0);
+        segments = Data.segments(2, size, 1);
+        points2D = new Point2D[size];
+        segments2D = new Segment2D[size];
+        for (int i = 0; i < size; i++) {
+            points2D[i] = Point2D.of(points[i]);
+            segments2D[i] = Segment2D.of(segments[i]);
+        }
+    }
+
+    @Benchmark
+    public double centroidPoint() {
+        Point sum = new Point(0, 0);
+        for (Point point : points) {
+            sum = sum.sum(point);
+        }
+        return sum.div(size).getX();
+    }
+
+    @Benchmark
+    public double centroidPoint2D() {
+        Point2D sum = new Point2D(0, 0);
+        for (Point2D point : points2D) {
+            sum = sum.sum(point);
+        }
+        return sum.div(size).getX();
+    }
+
+    @Benchmark
+    public double lengthSegment() {
+        double result = 0;
+        for (Segment segment : segments) {
+            result += segment.length();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double lengthSegment2D() {
+        double result = 0;
+        for (Segment2D segment : segments2D) {
+            result += segment.length();
+        }
+        return result;
+    }
+}
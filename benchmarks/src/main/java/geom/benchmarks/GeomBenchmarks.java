@@ -0,0 +1,42 @@
+package geom.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark suite. Accepts the usual JMH
+ * command line options and always adds the GC profiler, so
+ * allocation rate is reported next to the time, and writes
+ * the results as JSON to jmh-result.json unless -rff is given.
+ * Results of two runs can be compared to see the effect of
+ * an optimisation against the baseline, e.g.
+ * java -jar benchmarks/target/benchmarks.jar -rff baseline.json Point
+ */
+public final class GeomBenchmarks {
+    private GeomBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(GeomBenchmarks.class.getPackageName() + ".");
+        }
+        if (!commandLine.getResult().hasValue()) {
+            builder.result("jmh-result.json");
+        }
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .jvmArgsAppend("--add-modules=jdk.incubator.vector")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,97 @@
+package geom.benchmarks;
+
+import geom.Point;
+import geom.PointAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arithmetic, comparison and hashing of points.
+ * Every invocation handles all size points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PointBenchmark {
+    @Param({"2", "3", "8"})
+    public int dimension;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Point[] first;
+    private Point[] second;
+    private PointAccumulator accumulator;
+
+    @Setup
+    public void setUp() {
+        first = Data.points(dimension, size, 0);
+        second = Data.points(dimension, size, 1);
+        accumulator = new PointAccumulator(dimension);
+    }
+
+    @Benchmark
+    public void sum(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(first[i].sum(second[i]));
+        }
+    }
+
+    @Benchmark
+    public void sub(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(first[i].sub(second[i]));
+        }
+    }
+
+    @Benchmark
+    public void mul(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(first[i].mul(second[i]));
+        }
+    }
+
+    @Benchmark
+    public void div(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(first[i].div(3.0));
+        }
+    }
+
+    @Benchmark
+    public void compareTo(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(first[i].compareTo(second[i]));
+        }
+    }
+
+    @Benchmark
+    public void hashCode(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(first[i].hashCode());
+        }
+    }
+
+    @Benchmark
+    public void chain(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(first[i].sub(second[i]).mul(3).div(2.0).getCoord(0));
+        }
+    }
+
+    @Benchmark
+    public void chainAccumulator(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(accumulator.set(first[i]).sub(second[i]).mul(3).div(2.0).getCoord(0));
+        }
+    }
+}
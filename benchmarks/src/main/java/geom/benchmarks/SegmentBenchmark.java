@@ -0,0 +1,69 @@
+package geom.benchmarks;
+
+import geom.Segment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intersection test and length of segments.
+ * Every invocation handles all size segments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SegmentBenchmark {
+    /** Pairs of the planar segments, intersection is defined for 2 dimensions only **/
+    @State(Scope.Benchmark)
+    public static class Planar {
+        @Param({"1000", "100000"})
+        public int size;
+
+        Segment[] first;
+        Segment[] second;
+
+        @Setup
+        public void setUp() {
+            first = Data.segments(2, size, 0);
+            second = Data.segments(2, size, 1);
+        }
+    }
+
+    /** Segments of any dimension **/
+    @State(Scope.Benchmark)
+    public static class Spatial {
+        @Param({"2", "3", "8"})
+        public int dimension;
+
+        @Param({"1000", "100000"})
+        public int size;
+
+        Segment[] segments;
+
+        @Setup
+        public void setUp() {
+            segments = Data.segments(dimension, size, 0);
+        }
+    }
+
+    @Benchmark
+    public void isIntersect(Planar data, Blackhole blackhole) {
+        for (int i = 0; i < data.size; i++) {
+            blackhole.consume(data.first[i].isIntersect(data.second[i]));
+        }
+    }
+
+    @Benchmark
+    public void length(Spatial data, Blackhole blackhole) {
+        for (int i = 0; i < data.size; i++) {
+            blackhole.consume(data.segments[i].length());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package geom.benchmarks;
+
+import geom.Point;
+import geom.PointColumns;
+import geom.SpaceCurve;
+import geom.SpaceOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordering of the points: sorting of Point objects with
+ * compareTo() against the radix sort of the columns in
+ * the same order and the orders along the curves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortBenchmark {
+    @Param({"2", "3", "8"})
+    public int dimension;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Point[] points;
+
+    private PointColumns columns;
+
+    @Setup
+    public void setUp() {
+        points = Data.points(dimension, size, 0);
+        columns = new PointColumns(dimension, size);
+        for (Point point : points) {
+            columns.add(point);
+        }
+    }
+
+    @Benchmark
+    public Point[] compareTo() {
+        Point[] sorted = points.clone();
+        Arrays.sort(sorted, Point::compareTo);
+        return sorted;
+    }
+
+    @Benchmark
+    public int[] radix() {
+        return SpaceOrder.sort(columns);
+    }
+
+    @Benchmark
+    public int[] morton() {
+        return SpaceOrder.order(columns, SpaceCurve.MORTON);
+    }
+
+    @Benchmark
+    public int[] hilbert() {
+        return SpaceOrder.order(columns, SpaceCurve.HILBERT);
+    }
+}
@@ -0,0 +1,50 @@
+package geom.benchmarks;
+
+import geom.ColumnarSpace;
+import geom.Point;
+import geom.Space;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk adding of points to the empty space.
+ * Every invocation fills a new space with all size points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpaceBenchmark {
+    @Param({"2", "3", "8"})
+    public int dimension;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    /** Implementation of the space: objects or columns **/
+    @Param({"objects", "columns"})
+    public String storage;
+
+    private Point[] points;
+
+    @Setup
+    public void setUp() {
+        points = Data.points(dimension, size, 0);
+    }
+
+    @Benchmark
+    public Space addObject() {
+        Space space = "columns".equals(storage) ? new ColumnarSpace(dimension) : new Space(dimension);
+        for (Point point : points) {
+            space.addObject(point);
+        }
+        return space;
+    }
+}
@@ -0,0 +1,78 @@
+package geom.benchmarks;
+
+import geom.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiplications and unit vectors of vectors.
+ * Every invocation handles all size vectors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VectorBenchmark {
+    /** Pairs of the planar vectors, vector multiplication is defined for 2 dimensions only **/
+    @State(Scope.Benchmark)
+    public static class Planar {
+        @Param({"1000", "100000"})
+        public int size;
+
+        Vector[] first;
+        Vector[] second;
+
+        @Setup
+        public void setUp() {
+            first = Data.vectors(2, size, 0);
+            second = Data.vectors(2, size, 1);
+        }
+    }
+
+    /** Pairs of the vectors of any dimension **/
+    @State(Scope.Benchmark)
+    public static class Spatial {
+        @Param({"2", "3", "8"})
+        public int dimension;
+
+        @Param({"1000", "100000"})
+        public int size;
+
+        Vector[] first;
+        Vector[] second;
+
+        @Setup
+        public void setUp() {
+            first = Data.vectors(dimension, size, 0);
+            second = Data.vectors(dimension, size, 1);
+        }
+    }
+
+    @Benchmark
+    public void vectorMul(Planar data, Blackhole blackhole) {
+        for (int i = 0; i < data.size; i++) {
+            blackhole.consume(data.first[i].vectorMul(data.second[i]));
+        }
+    }
+
+    @Benchmark
+    public void scalarMul(Spatial data, Blackhole blackhole) {
+        for (int i = 0; i < data.size; i++) {
+            blackhole.consume(data.first[i].scalarMul(data.second[i]));
+        }
+    }
+
+    @Benchmark
+    public void unitVector(Spatial data, Blackhole blackhole) {
+        for (int i = 0; i < data.size; i++) {
+            blackhole.consume(data.first[i].unitVector());
+        }
+    }
+}
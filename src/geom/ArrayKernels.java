@@ -0,0 +1,34 @@
+package geom;
+
+/**
+ * Element-wise operations over the ranges of double
+ * arrays, for the batch kernels of the package.
+ * Every implementation has to return results equal
+ * bit for bit to the scalar ones, so no fused
+ * multiply-add and no reordering of the sums.
+ */
+interface ArrayKernels {
+    /** out[i] = a[i] + b[i] **/
+    void add(double[] a, double[] b, double[] out, int size);
+
+    /** out[i] = a[i] + value **/
+    void add(double[] a, double value, double[] out, int size);
+
+    /** out[i] = a[i] * b[i] **/
+    void mul(double[] a, double[] b, double[] out, int size);
+
+    /** out[i] = a[i] * value **/
+    void mul(double[] a, double value, double[] out, int size);
+
+    /** out[i] = a[i] / value **/
+    void div(double[] a, double value, double[] out, int size);
+
+    /** sum[i] += a[i] * b[i] **/
+    void addProduct(double[] a, double[] b, double[] sum, int size);
+
+    /** sum[i] += (a[i] - value) * (a[i] - value) **/
+    void addSquaredDiff(double[] a, double value, double[] sum, int size);
+
+    /** a[i] = sqrt(a[i]) **/
+    void sqrt(double[] a, int size);
+}
@@ -0,0 +1,191 @@
+package geom;
+
+/**
+ * Batch versions of the operations of points and vectors
+ * over whole point columns: every point of the result is
+ * computed from the points with the same index. Results are
+ * equal bit for bit to Point.sum(), Point.mul(), Point.div(),
+ * Vector.length() and Vector.scalarMul() of the single points.
+ * Loops run on the SIMD registers through the incubating
+ * Vector API when the jdk.incubator.vector module is present
+ * and the system property "BatchKernels.scalar" is not set,
+ * plain loops are used - else.
+ */
+final public class BatchKernels {
+    /** Implementation of the loops **/
+    private static final ArrayKernels KERNELS = load();
+
+    private BatchKernels() {
+    }
+
+    /**
+     * @return TRUE - Vector API is used, FALSE - plain loops
+     */
+    public static boolean isVectorized() {
+        return !(KERNELS instanceof ScalarKernels);
+    }
+
+    /**
+     * Sums of the points with the same index.
+     * @param a first points
+     * @param b second points
+     * @return new columns of the sums
+     */
+    public static PointColumns sum(PointColumns a, PointColumns b) {
+        checkAligned(a, b);
+        PointColumns result = new PointColumns(a.getDimension(), a.size());
+        for (int d = 0; d < a.getDimension(); d++) {
+            KERNELS.add(a.column(d), b.column(d), result.column(d), a.size());
+        }
+        result.setSize(a.size());
+        return result;
+    }
+
+    /**
+     * Sums of the points with the point.
+     * @param a points
+     * @param point point to sum with
+     * @return new columns of the sums
+     */
+    public static PointColumns sum(PointColumns a, Point point) {
+        checkDimension(a, point);
+        PointColumns result = new PointColumns(a.getDimension(), a.size());
+        for (int d = 0; d < a.getDimension(); d++) {
+            KERNELS.add(a.column(d), point.getCoord(d), result.column(d), a.size());
+        }
+        result.setSize(a.size());
+        return result;
+    }
+
+    /**
+     * Coordinate-wise products of the points with the same index.
+     * @param a first points
+     * @param b second points
+     * @return new columns of the products
+     */
+    public static PointColumns mul(PointColumns a, PointColumns b) {
+        checkAligned(a, b);
+        PointColumns result = new PointColumns(a.getDimension(), a.size());
+        for (int d = 0; d < a.getDimension(); d++) {
+            KERNELS.mul(a.column(d), b.column(d), result.column(d), a.size());
+        }
+        result.setSize(a.size());
+        return result;
+    }
+
+    /**
+     * Multiplying all coordinates of the points with the value.
+     * @param a points
+     * @param value value to multiply with
+     * @return new columns of the products
+     */
+    public static PointColumns mul(PointColumns a, double value) {
+        PointColumns result = new PointColumns(a.getDimension(), a.size());
+        for (int d = 0; d < a.getDimension(); d++) {
+            KERNELS.mul(a.column(d), value, result.column(d), a.size());
+        }
+        result.setSize(a.size());
+        return result;
+    }
+
+    /**
+     * Dividing all coordinates of the points by the value.
+     * @param a points
+     * @param value value to divide by
+     * @return new columns of the quotients
+     */
+    public static PointColumns div(PointColumns a, double value) {
+        if (value == 0) {
+            throw new IllegalArgumentException(
+                    "Value should not be 0"
+            );
+        }
+        PointColumns result = new PointColumns(a.getDimension(), a.size());
+        for (int d = 0; d < a.getDimension(); d++) {
+            KERNELS.div(a.column(d), value, result.column(d), a.size());
+        }
+        result.setSize(a.size());
+        return result;
+    }
+
+    /**
+     * Lengths of the vectors given by the points.
+     * @param a sources of the vectors
+     * @return array length of a.size()
+     */
+    public static double[] lengths(PointColumns a) {
+        double[] result = new double[a.size()];
+        for (int d = 0; d < a.getDimension(); d++) {
+            double[] column = a.column(d);
+            KERNELS.addProduct(column, column, result, a.size());
+        }
+        KERNELS.sqrt(result, a.size());
+        return result;
+    }
+
+    /**
+     * Scalar multiplications of the vectors with the same index.
+     * @param a sources of the first vectors
+     * @param b sources of the second vectors
+     * @return array length of a.size()
+     */
+    public static double[] scalarMul(PointColumns a, PointColumns b) {
+        checkAligned(a, b);
+        double[] result = new double[a.size()];
+        for (int d = 0; d < a.getDimension(); d++) {
+            KERNELS.addProduct(a.column(d), b.column(d), result, a.size());
+        }
+        return result;
+    }
+
+    /**
+     * Distances from the point to all points.
+     * @param a points
+     * @param point point to measure distances to
+     * @return array length of a.size()
+     */
+    public static double[] distances(PointColumns a, Point point) {
+        checkDimension(a, point);
+        double[] result = new double[a.size()];
+        for (int d = 0; d < a.getDimension(); d++) {
+            KERNELS.addSquaredDiff(a.column(d), point.getCoord(d), result, a.size());
+        }
+        KERNELS.sqrt(result, a.size());
+        return result;
+    }
+
+    private static void checkAligned(PointColumns a, PointColumns b) {
+        if (a.getDimension() != b.getDimension()) {
+            throw new IllegalArgumentException(
+                    "Points are in the distinct dimensions"
+            );
+        }
+        if (a.size() != b.size()) {
+            throw new IllegalArgumentException(
+                    "Numbers of points are not equal: " + a.size() + " and " + b.size()
+            );
+        }
+    }
+
+    private static void checkDimension(PointColumns a, Point point) {
+        if (a.getDimension() != point.getDimension()) {
+            throw new IllegalArgumentException(
+                    "Points are in the distinct dimensions"
+            );
+        }
+    }
+
+    private static ArrayKernels load() {
+        if (!Boolean.getBoolean("BatchKernels.scalar") &&
+                ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                String name = BatchKernels.class.getPackageName() + ".VectorKernels";
+                return (ArrayKernels) Class.forName(name)
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // falling back to the plain loops
+            }
+        }
+        return new ScalarKernels();
+    }
+}
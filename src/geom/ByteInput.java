@@ -0,0 +1,326 @@
+package geom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte-by-byte view of the channel read in chunks into
+ * one reused buffer, with parsing of the decimal numbers
+ * straight from the bytes, for the readers of the package.
+ */
+final class ByteInput {
+    /** End of the input **/
+    static final int EOF = -1;
+
+    /** Exact powers of ten **/
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    /** Longest mantissa exactly representable by double **/
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /** Source of the bytes **/
+    private final ReadableByteChannel channel;
+
+    /** Buffer of the current chunk **/
+    private final ByteBuffer buffer;
+
+    /** Bytes of the buffer **/
+    private final byte[] bytes;
+
+    /** Position of the next byte and the end of the chunk **/
+    private int position;
+    private int limit;
+
+    /** Called after every chunk **/
+    private final Runnable onChunk;
+
+    /** Number of bytes read from the channel **/
+    private long bytesRead;
+
+    /** Text of the current number for the slow path **/
+    private byte[] text = new byte[32];
+    private int textLength;
+
+    /** Number of the current line starting from 1 **/
+    private long line = 1;
+
+    /** Constructor **/
+    ByteInput(ReadableByteChannel channel, int bufferSize, Runnable onChunk) {
+        this.channel = channel;
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(bytes);
+        this.onChunk = onChunk;
+    }
+
+    /**
+     * @return number of bytes read from the channel
+     */
+    long bytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return number of the current line
+     */
+    long line() {
+        return line;
+    }
+
+    /**
+     * @return next byte without consuming it or EOF
+     */
+    int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return bytes[position] & 0xFF;
+    }
+
+    /**
+     * @return next byte or EOF
+     */
+    int next() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        int b = bytes[position++] & 0xFF;
+        if (b == '\n') {
+            line++;
+        }
+        return b;
+    }
+
+    /**
+     * Skipping spaces and tabs, and line ends if they are asked for.
+     * @param lineEnds TRUE - line ends are skipped too
+     * @return next byte after the skipped ones, not consumed
+     */
+    int skipBlanks(boolean lineEnds) throws IOException {
+        int b = peek();
+        while (b == ' ' || b == '\t' || (lineEnds && (b == '\n' || b == '\r'))) {
+            next();
+            b = peek();
+        }
+        return b;
+    }
+
+    /**
+     * Skipping the rest of the line with the line end.
+     */
+    void skipLine() throws IOException {
+        int b = next();
+        while (b != '\n' && b != EOF) {
+            b = next();
+        }
+    }
+
+    /**
+     * @param b byte to check
+     * @return TRUE - the byte can start a number, FALSE - else
+     */
+    static boolean isNumberStart(int b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.';
+    }
+
+    /**
+     * Parsing the decimal number in the plain or the scientific
+     * notation. Numbers of up to 15 significant digits with small
+     * exponents, which are most of the real data, are computed
+     * exactly from the digits; longer ones are passed to
+     * Double.parseDouble() to keep the correct rounding.
+     * Numbers at the end of the chunk and numbers with exponents
+     * are parsed byte by byte.
+     * @return parsed number
+     * @throws IllegalArgumentException if there is no number
+     */
+    double parseNumber() throws IOException {
+        if (position == limit) {
+            fill();
+        }
+        double result = parseInChunk();
+        return result == result ? result : parseAcrossChunks();
+    }
+
+    /**
+     * Parsing the number which ends inside the current chunk
+     * with the local position, the common case.
+     * @return parsed number or NaN if the chunk ends first
+     */
+    private double parseInChunk() {
+        int p = position;
+        int start = p;
+        boolean negative = false;
+        if (p < limit && (bytes[p] == '-' || bytes[p] == '+')) {
+            negative = bytes[p] == '-';
+            p++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean any = false;
+        int b;
+        while (p < limit && (b = bytes[p] - '0') >= 0 && b <= 9) {
+            any = true;
+            if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                mantissa = mantissa * 10 + b;
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exact = false;
+                exponent++;
+            }
+            p++;
+        }
+        if (p < limit && bytes[p] == '.') {
+            p++;
+            while (p < limit && (b = bytes[p] - '0') >= 0 && b <= 9) {
+                any = true;
+                if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                    mantissa = mantissa * 10 + b;
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else if (b != 0) {
+                    exact = false;
+                }
+                p++;
+            }
+        }
+        if (p == limit || !any || bytes[p] == 'e' || bytes[p] == 'E') {
+            // the rest is left to the general path
+            return Double.NaN;
+        }
+        double result;
+        if (mantissa == 0) {
+            result = 0;
+        } else if (exact && digits <= 15 && exponent >= -22) {
+            result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+                    : mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            result = Double.parseDouble(new String(bytes, start, p - start, StandardCharsets.US_ASCII));
+            position = p;
+            return result;
+        }
+        position = p;
+        return negative ? -result : result;
+    }
+
+    /** Parsing the number byte by byte with refilling of the buffer **/
+    private double parseAcrossChunks() throws IOException {
+        textLength = 0;
+        boolean negative = false;
+        int b = peek();
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            take();
+            b = peek();
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean any = false;
+        while (b >= '0' && b <= '9') {
+            any = true;
+            if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exact = false;
+                exponent++;
+            }
+            take();
+            b = peek();
+        }
+        if (b == '.') {
+            take();
+            b = peek();
+            while (b >= '0' && b <= '9') {
+                any = true;
+                if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else if (b != '0') {
+                    exact = false;
+                }
+                take();
+                b = peek();
+            }
+        }
+        if (!any) {
+            throw new IllegalArgumentException("Line " + line + ": number expected");
+        }
+        if (b == 'e' || b == 'E') {
+            take();
+            b = peek();
+            boolean negativeExponent = false;
+            if (b == '-' || b == '+') {
+                negativeExponent = b == '-';
+                take();
+                b = peek();
+            }
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException("Line " + line + ": exponent expected");
+            }
+            int value = 0;
+            while (b >= '0' && b <= '9') {
+                if (value < 100000) {
+                    value = value * 10 + (b - '0');
+                }
+                take();
+                b = peek();
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        double result;
+        if (mantissa == 0) {
+            result = 0;
+        } else if (exact && digits <= 15 && exponent >= -22 && exponent <= 22) {
+            // both operands are exact, so the single operation rounds correctly
+            result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+                    : mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            return Double.parseDouble(new String(text, 0, textLength, StandardCharsets.US_ASCII));
+        }
+        return negative ? -result : result;
+    }
+
+    /** Consuming the byte of the number and keeping its text **/
+    private void take() throws IOException {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, text.length * 2);
+        }
+        text[textLength++] = (byte) next();
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read = 0;
+        while (read == 0) {
+            read = channel.read(buffer);
+        }
+        position = 0;
+        limit = Math.max(read, 0);
+        if (read < 0) {
+            return false;
+        }
+        bytesRead += read;
+        onChunk.run();
+        return true;
+    }
+}
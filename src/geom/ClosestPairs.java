@@ -0,0 +1,492 @@
+package geom;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Closest pair and distance joins of the points of any
+ * number of dimensions. Points are reordered and their
+ * coordinates are copied point by point in that order, so
+ * the distance kernels scan memory sequentially. The closest
+ * pair is found by the parallel divide and conquer over the
+ * points sorted by the widest axis, the joins by the parallel
+ * scan of the neighbouring slabs of a grid.
+ * Results are the indices of the points in the columns.
+ */
+final public class ClosestPairs {
+    /** Ranges not longer than this are compared pairwise **/
+    private static final int BRUTE_FORCE_SIZE = 32;
+
+    /** Ranges longer than this are split in parallel **/
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private ClosestPairs() {
+    }
+
+    /**
+     * Finding the closest pair of the points.
+     * @param columns points to search
+     * @return one pair, first index less than second,
+     *         or no pairs for less than two points
+     */
+    public static IndexPairs closestPair(PointColumns columns) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.CLOSEST_PAIR);
+        try {
+            IndexPairs result = new IndexPairs(1);
+            if (columns.size() < 2) {
+                return result;
+            }
+            Sorted sorted = new Sorted(columns);
+            Pair best = ForkJoinPool.commonPool().invoke(new Closest(sorted, 0, sorted.size));
+            int first = sorted.indices[best.first];
+            int second = sorted.indices[best.second];
+            result.add(Math.min(first, second), Math.max(first, second), Math.sqrt(best.distance));
+            return result;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Finding the closest pair of the points of the space.
+     * @param space space to search
+     * @return one pair of indices of the points in space.toColumns()
+     */
+    public static IndexPairs closestPair(Space space) {
+        return closestPair(space.toColumns());
+    }
+
+    /**
+     * Finding all pairs of the points not farther than the distance.
+     * @param columns points to search
+     * @param distance maximal distance
+     * @return pairs with first index less than second, in no particular order
+     */
+    public static IndexPairs withinDistance(PointColumns columns, double distance) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.DISTANCE_JOIN);
+        try {
+            checkDistance(distance);
+            Grid grid = Grid.of(distance, columns, columns);
+            double limit = distance * distance;
+            List<IndexPairs> chunks = ParallelRanges.map(grid.size, (from, to) -> {
+                IndexPairs pairs = new IndexPairs();
+                for (int i = from; i < to; i++) {
+                    int cell = grid.cells[i];
+                    double key = grid.keys[i];
+                    // Pairs within the cell are found from the lower position,
+                    // pairs across the cells from the lower cell
+                    int end = grid.starts[cell + 1];
+                    for (int j = i + 1; j < end && grid.keys[j] <= key + distance; j++) {
+                        addPair(pairs, grid, i, grid, j, limit, true);
+                    }
+                    if (cell + 1 < grid.cellCount) {
+                        scanCell(pairs, grid, i, grid, cell + 1, distance, limit, true);
+                    }
+                }
+                return pairs;
+            });
+            return concat(chunks);
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Finding all pairs of the points of two sets
+     * which are not farther than the distance.
+     * @param first first points
+     * @param second second points
+     * @param distance maximal distance
+     * @return pairs of index in first and index in second, in no particular order
+     */
+    public static IndexPairs withinDistance(PointColumns first, PointColumns second, double distance) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.DISTANCE_JOIN);
+        try {
+            checkDistance(distance);
+            if (first.getDimension() != second.getDimension()) {
+                throw new IllegalArgumentException(
+                        "Points are in the distinct dimensions"
+                );
+            }
+            Grid left = Grid.of(distance, first, second);
+            Grid right = Grid.of(distance, second, first);
+            double limit = distance * distance;
+            List<IndexPairs> chunks = ParallelRanges.map(left.size, (from, to) -> {
+                IndexPairs pairs = new IndexPairs();
+                for (int i = from; i < to; i++) {
+                    int cell = left.cells[i];
+                    for (int c = Math.max(0, cell - 1); c <= Math.min(right.cellCount - 1, cell + 1); c++) {
+                        scanCell(pairs, left, i, right, c, distance, limit, false);
+                    }
+                }
+                return pairs;
+            });
+            return concat(chunks);
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Distance join of the points of two spaces.
+     * @param first first space
+     * @param second second space
+     * @param distance maximal distance
+     * @return pairs of indices of the points in toColumns() of the spaces
+     */
+    public static IndexPairs withinDistance(Space first, Space second, double distance) {
+        return withinDistance(first.toColumns(), second.toColumns(), distance);
+    }
+
+    private static void checkDistance(double distance) {
+        if (!(distance >= 0)) {
+            throw new IllegalArgumentException(
+                    "Distance cannot be negative"
+            );
+        }
+    }
+
+    /** Comparing the point with the points of the cell close to it by the secondary axis **/
+    private static void scanCell(IndexPairs pairs, Grid grid, int position,
+                                 Grid other, int cell, double distance, double limit, boolean ordered) {
+        double key = grid.keys[position];
+        int end = other.starts[cell + 1];
+        int j = lowerBound(other.keys, other.starts[cell], end, key - distance);
+        for (; j < end && other.keys[j] <= key + distance; j++) {
+            addPair(pairs, grid, position, other, j, limit, ordered);
+        }
+    }
+
+    private static void addPair(IndexPairs pairs, Grid grid, int position,
+                                Grid other, int otherPosition, double limit, boolean ordered) {
+        double squared = distance(grid.coords, position, other.coords, otherPosition, grid.dimension, limit);
+        if (squared <= limit) {
+            int first = grid.indices[position];
+            int second = other.indices[otherPosition];
+            if (ordered && first > second) {
+                pairs.add(second, first, Math.sqrt(squared));
+            } else {
+                pairs.add(first, second, Math.sqrt(squared));
+            }
+        }
+    }
+
+    /** Squared distance, computation stops as soon as the limit is exceeded **/
+    private static double distance(double[] coords, int position,
+                                   double[] otherCoords, int otherPosition, int dimension, double limit) {
+        int a = position * dimension;
+        int b = otherPosition * dimension;
+        double result = 0;
+        for (int d = 0; d < dimension && result <= limit; d++) {
+            double diff = coords[a + d] - otherCoords[b + d];
+            result += diff * diff;
+        }
+        return result;
+    }
+
+    private static int lowerBound(double[] keys, int from, int to, double key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Copying the coordinates point by point in the order **/
+    private static double[] pointMajor(PointColumns columns, int[] indices) {
+        int dimension = columns.getDimension();
+        double[] coords = new double[indices.length * dimension];
+        for (int d = 0; d < dimension; d++) {
+            double[] source = columns.column(d);
+            for (int i = 0; i < indices.length; i++) {
+                coords[i * dimension + d] = source[indices[i]];
+            }
+        }
+        return coords;
+    }
+
+    /** Minimum and maximum of the coordinates by the axis **/
+    private static double[] range(PointColumns columns, int axis) {
+        double[] column = columns.column(axis);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < columns.size(); i++) {
+            min = Math.min(min, column[i]);
+            max = Math.max(max, column[i]);
+        }
+        return new double[]{min, max};
+    }
+
+    /** Axes ordered by the spread of the coordinates of both sets, widest first **/
+    private static int[] axesBySpread(PointColumns first, PointColumns second) {
+        int dimension = first.getDimension();
+        double[] spreads = new double[dimension];
+        int[] axes = new int[dimension];
+        for (int d = 0; d < dimension; d++) {
+            double[] a = range(first, d);
+            double[] b = range(second, d);
+            spreads[d] = -(Math.max(a[1], b[1]) - Math.min(a[0], b[0]));
+            axes[d] = d;
+        }
+        PrimitiveSort.sort(spreads, axes, 0, dimension);
+        return axes;
+    }
+
+    private static IndexPairs concat(List<IndexPairs> chunks) {
+        int total = 0;
+        for (IndexPairs chunk : chunks) {
+            total += chunk.size();
+        }
+        IndexPairs result = new IndexPairs(total);
+        for (IndexPairs chunk : chunks) {
+            result.addAll(chunk);
+        }
+        return result;
+    }
+
+    /** Points sorted by one axis with the coordinates copied in that order **/
+    private static final class Sorted {
+        final int dimension;
+        final int size;
+        final int axis;
+        /** Coordinate by the axis at the position, ascending **/
+        final double[] keys;
+        /** Index in the columns of the point at the position **/
+        final int[] indices;
+        /** Coordinates: coords[position * dimension + axis] **/
+        final double[] coords;
+
+        Sorted(PointColumns columns) {
+            dimension = columns.getDimension();
+            size = columns.size();
+            axis = axesBySpread(columns, columns)[0];
+            keys = new double[size];
+            indices = new int[size];
+            double[] column = columns.column(axis);
+            for (int i = 0; i < size; i++) {
+                keys[i] = column[i];
+                indices[i] = i;
+            }
+            PrimitiveSort.sort(keys, indices, 0, size);
+            coords = pointMajor(columns, indices);
+        }
+
+        double distance(int position, int otherPosition, double limit) {
+            return ClosestPairs.distance(coords, position, coords, otherPosition, dimension, limit);
+        }
+    }
+
+    /**
+     * Points bucketed into the slabs not narrower than the distance
+     * along the widest axis and sorted by the second widest axis
+     * inside the slab, so the neighbours of a point are in its own
+     * and the adjacent slabs within the distance by the key.
+     */
+    private static final class Grid {
+        final int dimension;
+        final int size;
+        final int cellCount;
+        /** Coordinate by the secondary axis at the position, ascending in the cell **/
+        final double[] keys;
+        /** Cell of the point at the position **/
+        final int[] cells;
+        /** First position of the cell, cellCount + 1 entries **/
+        final int[] starts;
+        /** Index in the columns of the point at the position **/
+        final int[] indices;
+        /** Coordinates: coords[position * dimension + axis] **/
+        final double[] coords;
+
+        private Grid(PointColumns columns, int axis, int secondary, double origin, double width, int cellCount) {
+            this.dimension = columns.getDimension();
+            this.size = columns.size();
+            this.cellCount = cellCount;
+            double[] sortKeys = new double[size];
+            int[] order = new int[size];
+            double[] column = columns.column(secondary);
+            for (int i = 0; i < size; i++) {
+                sortKeys[i] = column[i];
+                order[i] = i;
+            }
+            PrimitiveSort.sort(sortKeys, order, 0, size);
+            // Stable counting sort by the cell keeps the secondary order inside the cells
+            double[] slab = columns.column(axis);
+            int[] orderCells = new int[size];
+            starts = new int[cellCount + 1];
+            for (int i = 0; i < size; i++) {
+                int cell = (int) Math.min(cellCount - 1, Math.max(0, Math.floor((slab[order[i]] - origin) / width)));
+                orderCells[i] = cell;
+                starts[cell + 1]++;
+            }
+            for (int c = 0; c < cellCount; c++) {
+                starts[c + 1] += starts[c];
+            }
+            int[] next = starts.clone();
+            keys = new double[size];
+            cells = new int[size];
+            indices = new int[size];
+            for (int i = 0; i < size; i++) {
+                int position = next[orderCells[i]]++;
+                keys[position] = sortKeys[i];
+                cells[position] = orderCells[i];
+                indices[position] = order[i];
+            }
+            coords = pointMajor(columns, indices);
+        }
+
+        /**
+         * Grid of the points with the slabs shared with the other points.
+         * Slabs are widened when there would be more of them than points.
+         */
+        static Grid of(double distance, PointColumns columns, PointColumns other) {
+            int[] axes = axesBySpread(columns, other);
+            int axis = axes[0];
+            int secondary = axes.length > 1 ? axes[1] : axis;
+            double[] a = range(columns, axis);
+            double[] b = range(other, axis);
+            double origin = Math.min(a[0], b[0]);
+            double spread = Math.max(a[1], b[1]) - origin;
+            if (!(spread >= 0) || Double.isInfinite(spread)) {
+                return new Grid(columns, axis, secondary, 0, 1, 1);
+            }
+            double width = Math.max(distance, spread / Math.max(1, Math.max(columns.size(), other.size())));
+            if (width == 0) {
+                width = 1;
+            }
+            int cellCount = (int) Math.min(Integer.MAX_VALUE - 1, Math.floor(spread / width)) + 1;
+            return new Grid(columns, axis, secondary, origin, width, cellCount);
+        }
+    }
+
+    /** Pair of the positions with the squared distance **/
+    private static final class Pair {
+        final int first;
+        final int second;
+        final double distance;
+
+        Pair(int first, int second, double distance) {
+            this.first = first;
+            this.second = second;
+            this.distance = distance;
+        }
+    }
+
+    /** Closest pair of the positions [from, to) **/
+    @SuppressWarnings("serial")
+    private static final class Closest extends RecursiveTask<Pair> {
+        private final Sorted sorted;
+        private final int from;
+        private final int to;
+
+        Closest(Sorted sorted, int from, int to) {
+            this.sorted = sorted;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Pair compute() {
+            if (to - from <= BRUTE_FORCE_SIZE) {
+                return bruteForce();
+            }
+            int mid = (from + to) >>> 1;
+            Closest left = new Closest(sorted, from, mid);
+            Closest right = new Closest(sorted, mid, to);
+            Pair leftPair;
+            Pair rightPair;
+            if (to - from > PARALLEL_THRESHOLD) {
+                right.fork();
+                leftPair = left.compute();
+                rightPair = right.join();
+            } else {
+                leftPair = left.compute();
+                rightPair = right.compute();
+            }
+            Pair best = leftPair.distance <= rightPair.distance ? leftPair : rightPair;
+            return strip(mid, best);
+        }
+
+        private Pair bruteForce() {
+            int first = from;
+            int second = from + 1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                double bound = sorted.keys[i];
+                for (int j = i + 1; j < to; j++) {
+                    double diff = sorted.keys[j] - bound;
+                    if (diff * diff >= best) {
+                        break;
+                    }
+                    double distance = sorted.distance(i, j, best);
+                    if (distance < best) {
+                        best = distance;
+                        first = i;
+                        second = j;
+                    }
+                }
+            }
+            return new Pair(first, second, best);
+        }
+
+        /**
+         * Checking the pairs across the middle which are closer than the best.
+         * Points of the strip are sorted by the next axis, so each point is
+         * compared only with the points close to it by both axes.
+         */
+        private Pair strip(int mid, Pair best) {
+            double limit = best.distance;
+            double split = sorted.keys[mid];
+            int low = mid;
+            while (low > from && square(split - sorted.keys[low - 1]) < limit) {
+                low--;
+            }
+            int high = mid;
+            while (high < to && square(sorted.keys[high] - split) < limit) {
+                high++;
+            }
+            if (low == mid || high == mid) {
+                return best;
+            }
+            int dimension = sorted.dimension;
+            int axis = dimension > 1 ? (sorted.axis + 1) % dimension : sorted.axis;
+            int count = high - low;
+            double[] keys = new double[count];
+            int[] positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = low + i;
+                keys[i] = sorted.coords[(low + i) * dimension + axis];
+            }
+            PrimitiveSort.sort(keys, positions, 0, count);
+            int first = best.first;
+            int second = best.second;
+            for (int i = 0; i < count; i++) {
+                for (int j = i + 1; j < count; j++) {
+                    if (square(keys[j] - keys[i]) >= limit) {
+                        break;
+                    }
+                    if ((positions[i] < mid) == (positions[j] < mid)) {
+                        continue;
+                    }
+                    double distance = sorted.distance(positions[i], positions[j], limit);
+                    if (distance < limit) {
+                        limit = distance;
+                        first = Math.min(positions[i], positions[j]);
+                        second = Math.max(positions[i], positions[j]);
+                    }
+                }
+            }
+            return limit < best.distance ? new Pair(first, second, limit) : best;
+        }
+
+        private static double square(double value) {
+            return value * value;
+        }
+    }
+}
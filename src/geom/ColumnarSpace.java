@@ -0,0 +1,168 @@
+package geom;
+
+/**
+ * Space which keeps coordinates of its points
+ * in primitive columns instead of Point objects.
+ * Points are addressed by index and come first,
+ * objects which are not points are kept in the
+ * list of objects after them.
+ */
+public class ColumnarSpace extends Space {
+    /** Coordinates of the points **/
+    protected final PointColumns points;
+
+    /** Constructor **/
+    public ColumnarSpace() {
+        super();
+        points = new PointColumns(getDimension());
+    }
+
+    /** Constructor **/
+    public ColumnarSpace(int numOfDimensions) {
+        super(numOfDimensions);
+        points = new PointColumns(numOfDimensions);
+    }
+
+    /** Constructor **/
+    public ColumnarSpace(int numOfDimensions, int capacity) {
+        super(numOfDimensions);
+        points = new PointColumns(numOfDimensions, capacity);
+    }
+
+    /**
+     * Constructor of the space over the given columns.
+     * @param points columns to keep the points in
+     */
+    protected ColumnarSpace(PointColumns points) {
+        super(points.getDimension());
+        this.points = points;
+    }
+
+    /**
+     * Add object to the space.
+     * Coordinates of points go to the columns.
+     * @param object object to add
+     * @return success of adding
+     */
+    @Override
+    public boolean addObject(GeomObject object) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_ADD);
+        try {
+            if (object.getDimension() != getDimension()) {
+                throw new IllegalArgumentException("ColumnarSpace.addObject()" +
+                        " illegal dimension of the object.");
+            }
+            if (object instanceof Point) {
+                points.add((Point) object);
+            } else {
+                objects.add(object);
+            }
+            indexObject(object);
+            return true;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Add point given by its coordinates
+     * without creating Point object.
+     * @param coords coordinates of the point
+     * @return index of the point
+     */
+    public int addPoint(double... coords) {
+        int index = points.add(coords);
+        if (!indexes.isEmpty()) {
+            indexObject(points.getPoint(index));
+        }
+        return index;
+    }
+
+    /**
+     * Add points given by interleaved coordinates.
+     * @param coords interleaved coordinates
+     * @return index of the first added point
+     */
+    public int addPoints(double[] coords) {
+        int first = points.addAll(coords);
+        if (!indexes.isEmpty()) {
+            for (int i = first; i < points.size(); i++) {
+                indexObject(points.getPoint(i));
+            }
+        }
+        return first;
+    }
+
+    /**
+     * @return number of points in the space
+     */
+    public int pointCount() {
+        return points.size();
+    }
+
+    /**
+     * Creating point view by the index.
+     * @param index index of the point
+     * @return new point
+     */
+    public Point getPoint(int index) {
+        return points.getPoint(index);
+    }
+
+    /**
+     * @return number of objects in the space
+     */
+    @Override
+    public int size() {
+        return points.size() + objects.size();
+    }
+
+    /**
+     * Returning object by the index.
+     * Points are created on demand.
+     * @param index index of the object
+     * @return object of the space
+     */
+    @Override
+    public GeomObject getObject(int index) {
+        if (index < points.size()) {
+            return points.getPoint(index);
+        }
+        return objects.get(index - points.size());
+    }
+
+    /**
+     * Returning the columns of the space itself.
+     * NOTE: changes of the space are visible in them.
+     * @return columns of the points
+     */
+    @Override
+    public PointColumns toColumns() {
+        return points;
+    }
+
+    /**
+     * Moving the points into the order in the columns.
+     * @param columns points of the space
+     * @param order indices of the points in the new order
+     */
+    @Override
+    protected void reorderPoints(PointColumns columns, int[] order) {
+        points.reorder(order);
+    }
+
+    @Override
+    PointColumns pointColumns() {
+        return points;
+    }
+
+    /**
+     * Distances from the point to all
+     * points of the space.
+     * @param point point to measure distances to
+     * @return array length of pointCount()
+     */
+    public double[] distances(Point point) {
+        return points.distances(point);
+    }
+}
@@ -0,0 +1,311 @@
+package geom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Space which can be appended to and read from many threads
+ * without locks. Objects are kept in chunks doubling in size,
+ * so they never move once added. A writer reserves a slot
+ * with one atomic increment and fills it, the filled prefix
+ * of the slots is then published by whichever writer finds
+ * it complete. Readers see only the published prefix, so
+ * size(), getObject() and iteration never wait for writers
+ * and never see a gap. The number of published objects is
+ * the version of the space: objects are only appended, so
+ * equal versions mean equal contents. Attached indexes are
+ * brought up to date by the writers, readers never lock.
+ */
+public class ConcurrentSpace extends Space {
+    /** Size of the first chunk, each next one is twice bigger **/
+    private static final int FIRST_CHUNK = 1 << 10;
+
+    /** Slots of the chunks 0..20, the chunk 21 would not fit into an array **/
+    private static final int MAX_SLOTS = FIRST_CHUNK * ((1 << 21) - 1);
+
+    /** Chunks of the objects, created on demand **/
+    private final AtomicReferenceArray<AtomicReferenceArray<GeomObject>> chunks =
+            new AtomicReferenceArray<AtomicReferenceArray<GeomObject>>(32);
+
+    /** Number of reserved slots **/
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    /** Number of published objects, all slots before it are filled **/
+    private final AtomicInteger published = new AtomicInteger();
+
+    /** Indexes of the space with the versions they are up to date with **/
+    private final List<AttachedIndex> attached = new CopyOnWriteArrayList<AttachedIndex>();
+
+    /** Constructor **/
+    public ConcurrentSpace(int numOfDimensions) {
+        super(numOfDimensions);
+    }
+
+    /**
+     * Add object to the space, safe to call from many threads.
+     * The object is visible to the readers once all objects
+     * added before it are.
+     * @param object object to add
+     * @return success of adding
+     */
+    @Override
+    public boolean addObject(GeomObject object) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_ADD);
+        try {
+            if (object.getDimension() != getDimension()) {
+                throw new IllegalArgumentException("ConcurrentSpace.addObject()" +
+                        " illegal dimension of the object.");
+            }
+            int slot = reserved.getAndIncrement();
+            if (slot < 0 || slot >= MAX_SLOTS) {
+                reserved.set(MAX_SLOTS);
+                throw new IllegalStateException(
+                        "ConcurrentSpace is full"
+                );
+            }
+            chunk(slot, true).set(offset(slot), object);
+            publish();
+            for (AttachedIndex entry : attached) {
+                entry.update(this);
+            }
+            return true;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Moving the published size over the filled slots. The writer of the
+     * last missing slot always sees the slots after it filled, so no slot
+     * stays unpublished.
+     */
+    private void publish() {
+        while (true) {
+            int size = published.get();
+            if (size == reserved.get()) {
+                return;
+            }
+            AtomicReferenceArray<GeomObject> chunk = chunk(size, false);
+            if (chunk == null || chunk.get(offset(size)) == null) {
+                return;
+            }
+            published.compareAndSet(size, size + 1);
+        }
+    }
+
+    /**
+     * @return number of published objects
+     */
+    @Override
+    public int size() {
+        return published.get();
+    }
+
+    /**
+     * Version of the space, which grows with each published object.
+     * Derived structures can compare it with the version they were
+     * built for to find out if the space was changed.
+     * @return number of published objects
+     */
+    public long getVersion() {
+        return published.get();
+    }
+
+    /**
+     * Returning object by the index.
+     * @param index index of the object, less than size()
+     * @return object of the space
+     */
+    @Override
+    public GeomObject getObject(int index) {
+        if (index < 0 || index >= published.get()) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", size: " + published.get()
+            );
+        }
+        return chunk(index, false).get(offset(index));
+    }
+
+    /**
+     * Taking the objects published so far. The snapshot
+     * does not change while the space is appended to.
+     * @return read-only space of the published objects
+     */
+    public SpaceSnapshot snapshot() {
+        return new SpaceSnapshot(this, published.get());
+    }
+
+    /**
+     * Attaching the thread-safe spatial index, such as GridIndex. Writers
+     * add the published objects to the index, one writer at a time while
+     * the others go on. Queries of intersects() check the objects which
+     * are published but not indexed yet by their envelopes.
+     * @param index thread-safe index to attach
+     */
+    @Override
+    public void attachIndex(SpatialIndex index) {
+        if (!index.isThreadSafe()) {
+            throw new IllegalArgumentException(
+                    "ConcurrentSpace needs a thread-safe index"
+            );
+        }
+        AttachedIndex entry = new AttachedIndex(index);
+        attached.add(entry);
+        entry.update(this);
+    }
+
+    /**
+     * Detaching the spatial index from the space.
+     * @param index index to detach
+     * @return TRUE - index was attached, FALSE - else
+     */
+    @Override
+    public boolean detachIndex(SpatialIndex index) {
+        for (AttachedIndex entry : attached) {
+            if (entry.index == index) {
+                return attached.remove(entry);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indexes are brought up to date after publishing.
+     * @param object added object
+     */
+    @Override
+    protected void indexObject(GeomObject object) {
+    }
+
+    /**
+     * Finding points and segments which envelopes intersect
+     * the envelope, without waiting for the writers. The first
+     * attached index is used if there is any, published objects
+     * it does not have yet are scanned. Without indexes all
+     * published objects are scanned.
+     * @param envelope envelope to search with
+     * @return list of found objects
+     */
+    @Override
+    public List<GeomObject> intersects(Envelope envelope) {
+        if (attached.isEmpty()) {
+            return super.intersects(envelope);
+        }
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_QUERY);
+        try {
+            AttachedIndex entry = attached.get(0);
+            int size = published.get();
+            List<GeomObject> result = new ArrayList<GeomObject>();
+            // the object being indexed now can be found twice
+            Set<GeomObject> tail = null;
+            for (int i = Math.min(entry.version, size); i < size; i++) {
+                GeomObject object = getObject(i);
+                if (tail == null) {
+                    tail = Collections.newSetFromMap(new IdentityHashMap<GeomObject, Boolean>());
+                }
+                tail.add(object);
+                if ((object instanceof Point || object instanceof Segment) &&
+                        Envelope.of(object).intersects(envelope)) {
+                    result.add(object);
+                }
+            }
+            Set<GeomObject> scanned = tail;
+            entry.index.intersects(envelope, object -> {
+                if (scanned == null || !scanned.contains(object)) {
+                    result.add(object);
+                }
+            });
+            return result;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Copying coordinates of the published points into the columns.
+     * @return columns of the points
+     */
+    @Override
+    public PointColumns toColumns() {
+        int size = published.get();
+        PointColumns columns = new PointColumns(getDimension(), size);
+        for (int i = 0; i < size; i++) {
+            GeomObject object = getObject(i);
+            if (object instanceof Point) {
+                columns.add((Point) object);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Published objects never move.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    protected void reorderPoints(PointColumns columns, int[] order) {
+        throw new UnsupportedOperationException("ConcurrentSpace is append-only");
+    }
+
+    /** Chunk of the slot, created if it is absent and asked for **/
+    private AtomicReferenceArray<GeomObject> chunk(int slot, boolean create) {
+        int index = chunkIndex(slot);
+        AtomicReferenceArray<GeomObject> chunk = chunks.get(index);
+        if (chunk == null && create) {
+            chunks.compareAndSet(index, null, new AtomicReferenceArray<GeomObject>(FIRST_CHUNK << index));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    /** Chunk k keeps the slots [FIRST_CHUNK * (2^k - 1), FIRST_CHUNK * (2^(k + 1) - 1)) **/
+    private static int chunkIndex(int slot) {
+        return 31 - Integer.numberOfLeadingZeros(slot / FIRST_CHUNK + 1);
+    }
+
+    private static int offset(int slot) {
+        return slot - FIRST_CHUNK * ((1 << chunkIndex(slot)) - 1);
+    }
+
+    /** Index with the number of objects inserted into it **/
+    private static final class AttachedIndex {
+        final SpatialIndex index;
+        /** Objects before it are in the index **/
+        volatile int version;
+        /** Held by the writer which updates the index **/
+        final ReentrantLock lock = new ReentrantLock();
+
+        AttachedIndex(SpatialIndex index) {
+            this.index = index;
+        }
+
+        /**
+         * Adding the published objects to the index. A writer finding the
+         * lock taken goes on: the holder checks the size again after
+         * unlocking, so it sees the objects published before.
+         */
+        void update(ConcurrentSpace space) {
+            while (version < space.size() && lock.tryLock()) {
+                try {
+                    int size = space.size();
+                    for (int i = version; i < size; i++) {
+                        GeomObject object = space.getObject(i);
+                        if (object instanceof Point || object instanceof Segment) {
+                            index.insert(object);
+                        }
+                        version = i + 1;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package geom;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Convex hull of the planar points in primitive arrays.
+ * Points strictly inside the octagon of the extreme points
+ * are dropped first (Akl-Toussaint), then the hulls of even
+ * chunks of the rest are built by monotone chains in parallel
+ * and merged by one more chain over their vertices.
+ */
+final public class ConvexHull {
+    private ConvexHull() {
+    }
+
+    /**
+     * Computing the convex hull of the planar points.
+     * Points on the edges of the hull are not its vertices.
+     * @param columns points of 2 dimensions
+     * @return indices of the vertices of the hull in the
+     *         counterclockwise order, starting from the point
+     *         with the smallest X (and then Y)
+     */
+    public static int[] compute(PointColumns columns) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.CONVEX_HULL);
+        try {
+            if (columns.getDimension() != 2) {
+                throw new IllegalArgumentException(
+                        "Convex hull is computed for 2-dimensional points only"
+                );
+            }
+            double[] x = columns.column(0);
+            double[] y = columns.column(1);
+            int size = columns.size();
+            if (size == 0) {
+                return new int[0];
+            }
+            int[] octagon = extremes(x, y, size);
+            List<int[]> survivors = ParallelRanges.map(size, (from, to) -> {
+                int[] kept = new int[16];
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    if (!insideOctagon(x, y, octagon, i)) {
+                        if (count == kept.length) {
+                            kept = Arrays.copyOf(kept, count * 2);
+                        }
+                        kept[count++] = i;
+                    }
+                }
+                return Arrays.copyOf(kept, count);
+            });
+            int total = 0;
+            for (int[] chunk : survivors) {
+                total += chunk.length;
+            }
+            int[] candidates = new int[total];
+            int offset = 0;
+            for (int[] chunk : survivors) {
+                System.arraycopy(chunk, 0, candidates, offset, chunk.length);
+                offset += chunk.length;
+            }
+            List<int[]> hulls = ParallelRanges.map(total,
+                    (from, to) -> chain(x, y, Arrays.copyOfRange(candidates, from, to)));
+            if (hulls.size() == 1) {
+                return hulls.get(0);
+            }
+            int vertices = 0;
+            for (int[] hull : hulls) {
+                vertices += hull.length;
+            }
+            int[] merged = new int[vertices];
+            offset = 0;
+            for (int[] hull : hulls) {
+                System.arraycopy(hull, 0, merged, offset, hull.length);
+                offset += hull.length;
+            }
+            return chain(x, y, merged);
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Indices of the points extreme in X, Y, X + Y and X - Y,
+     * in the counterclockwise order from the bottom.
+     */
+    private static int[] extremes(double[] x, double[] y, int size) {
+        List<int[]> chunks = ParallelRanges.map(size, (from, to) -> {
+            int[] best = new int[8];
+            Arrays.fill(best, from);
+            for (int i = from + 1; i < to; i++) {
+                best[0] = better(x, y, i, best[0], 0, -1);
+                best[1] = better(x, y, i, best[1], 1, -1);
+                best[2] = better(x, y, i, best[2], 1, 0);
+                best[3] = better(x, y, i, best[3], 1, 1);
+                best[4] = better(x, y, i, best[4], 0, 1);
+                best[5] = better(x, y, i, best[5], -1, 1);
+                best[6] = better(x, y, i, best[6], -1, 0);
+                best[7] = better(x, y, i, best[7], -1, -1);
+            }
+            return best;
+        });
+        int[] result = chunks.get(0);
+        for (int[] chunk : chunks) {
+            result[0] = better(x, y, chunk[0], result[0], 0, -1);
+            result[1] = better(x, y, chunk[1], result[1], 1, -1);
+            result[2] = better(x, y, chunk[2], result[2], 1, 0);
+            result[3] = better(x, y, chunk[3], result[3], 1, 1);
+            result[4] = better(x, y, chunk[4], result[4], 0, 1);
+            result[5] = better(x, y, chunk[5], result[5], -1, 1);
+            result[6] = better(x, y, chunk[6], result[6], -1, 0);
+            result[7] = better(x, y, chunk[7], result[7], -1, -1);
+        }
+        return result;
+    }
+
+    /** Point which is farther in the direction (dx, dy) **/
+    private static int better(double[] x, double[] y, int i, int j, int dx, int dy) {
+        return dx * x[i] + dy * y[i] > dx * x[j] + dy * y[j] ? i : j;
+    }
+
+    /** TRUE for the point strictly inside the octagon, so it cannot be a vertex **/
+    private static boolean insideOctagon(double[] x, double[] y, int[] octagon, int i) {
+        boolean anyEdge = false;
+        for (int k = 0; k < octagon.length; k++) {
+            int a = octagon[k];
+            int b = octagon[(k + 1) % octagon.length];
+            if (x[a] == x[b] && y[a] == y[b]) {
+                continue;
+            }
+            anyEdge = true;
+            if (cross(x, y, a, b, i) <= 0) {
+                return false;
+            }
+        }
+        return anyEdge;
+    }
+
+    /**
+     * Monotone chain over the points.
+     * @param items indices of the points, reordered
+     * @return indices of the vertices of the hull
+     */
+    private static int[] chain(double[] x, double[] y, int[] items) {
+        int n = items.length;
+        if (n <= 1) {
+            return items;
+        }
+        sortByXY(x, y, items);
+        int[] hull = new int[2 * n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            while (k >= 2 && cross(x, y, hull[k - 2], hull[k - 1], items[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = items[i];
+        }
+        for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+            while (k >= lower && cross(x, y, hull[k - 2], hull[k - 1], items[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = items[i];
+        }
+        k--;
+        if (k == 2 && x[hull[0]] == x[hull[1]] && y[hull[0]] == y[hull[1]]) {
+            // all points are the same
+            k = 1;
+        }
+        return Arrays.copyOf(hull, k);
+    }
+
+    /** Sorting by X and the points with equal X by Y **/
+    private static void sortByXY(double[] x, double[] y, int[] items) {
+        int n = items.length;
+        double[] keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = x[items[i]];
+        }
+        PrimitiveSort.sort(keys, items, 0, n);
+        for (int from = 0; from < n; ) {
+            int to = from + 1;
+            while (to < n && keys[to] == keys[from]) {
+                to++;
+            }
+            if (to - from > 1) {
+                for (int i = from; i < to; i++) {
+                    keys[i] = y[items[i]];
+                }
+                PrimitiveSort.sort(keys, items, from, to);
+            }
+            from = to;
+        }
+    }
+
+    /** Cross product of (b - a) and (c - a) with the exact sign: positive for the left turn **/
+    private static double cross(double[] x, double[] y, int a, int b, int c) {
+        return Predicates.orient2d(x[a], y[a], x[b], y[b], x[c], y[c]);
+    }
+}
@@ -0,0 +1,138 @@
+package geom;
+
+import java.util.Arrays;
+
+/**
+ * Count, sum, minimum and maximum per coordinate
+ * of a set of points. Statistics are built by the
+ * package and do not change after publishing.
+ */
+final public class CoordinateStatistics extends Dimension {
+    /** Number of the points **/
+    private long count;
+
+    /** Sums of the coordinates **/
+    private final double[] sum;
+
+    /** Minimal coordinates **/
+    private final double[] min;
+
+    /** Maximal coordinates **/
+    private final double[] max;
+
+    /** Constructor of the empty statistics **/
+    CoordinateStatistics(int numOfDimensions) {
+        super(numOfDimensions);
+        sum = new double[numOfDimensions];
+        min = new double[numOfDimensions];
+        max = new double[numOfDimensions];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    }
+
+    /** Adding the point **/
+    void add(Point point) {
+        for (int d = 0; d < sum.length; d++) {
+            double value = point.getCoord(d);
+            sum[d] += value;
+            min[d] = Math.min(min[d], value);
+            max[d] = Math.max(max[d], value);
+        }
+        count++;
+    }
+
+    /** Adding the points [from, to) of the columns **/
+    void add(PointColumns columns, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        for (int d = 0; d < sum.length; d++) {
+            double[] column = columns.column(d);
+            double s = 0;
+            double lo = min[d];
+            double hi = max[d];
+            for (int i = from; i < to; i++) {
+                double value = column[i];
+                s += value;
+                lo = Math.min(lo, value);
+                hi = Math.max(hi, value);
+            }
+            sum[d] += s;
+            min[d] = lo;
+            max[d] = hi;
+        }
+        count += to - from;
+    }
+
+    /** Adding the other statistics **/
+    void add(CoordinateStatistics other) {
+        for (int d = 0; d < sum.length; d++) {
+            sum[d] += other.sum[d];
+            min[d] = Math.min(min[d], other.min[d]);
+            max[d] = Math.max(max[d], other.max[d]);
+        }
+        count += other.count;
+    }
+
+    /**
+     * @return number of the points
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return sums of the coordinates
+     */
+    public double[] getSum() {
+        return sum.clone();
+    }
+
+    /**
+     * @return minimal coordinates, positive infinities if empty
+     */
+    public double[] getMin() {
+        return min.clone();
+    }
+
+    /**
+     * @return maximal coordinates, negative infinities if empty
+     */
+    public double[] getMax() {
+        return max.clone();
+    }
+
+    /**
+     * @return mean point of the points
+     */
+    public Point getCentroid() {
+        checkNotEmpty();
+        double[] mean = new double[sum.length];
+        for (int d = 0; d < sum.length; d++) {
+            mean[d] = sum[d] / count;
+        }
+        return new Point(mean);
+    }
+
+    /**
+     * @return bounding box of the points
+     */
+    public Envelope getEnvelope() {
+        checkNotEmpty();
+        return new Envelope(min, max);
+    }
+
+    private void checkNotEmpty() {
+        if (count == 0) {
+            throw new IllegalStateException("There are no points");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CoordinateStatistics: count " + count +
+                ", min " + Arrays.toString(min) +
+                ", max " + Arrays.toString(max) +
+                ", sum " + Arrays.toString(sum) + ".";
+    }
+}
@@ -0,0 +1,248 @@
+package geom;
+
+import java.util.Arrays;
+
+/**
+ * Columnar space which keeps every point only once.
+ * Points get stable ids from the PointDictionary: the
+ * index of the point in the space. Segments are kept as
+ * pairs of ids of their ends, so shared ends are stored
+ * once. Objects are ordered as points, segments, and
+ * then all other objects.
+ * NOTE: segments are created on demand by getObject(),
+ * so the added Segment objects are not kept.
+ */
+public class DedupSpace extends ColumnarSpace {
+    /** Unique points of the space **/
+    protected final PointDictionary dictionary;
+
+    /** Ids of the ends of the segments: from, to, from, to... **/
+    private int[] segmentEnds = new int[16];
+
+    /** Number of the segments **/
+    private int segmentCount;
+
+    /** Constructor **/
+    public DedupSpace() {
+        this(new PointDictionary(2));
+    }
+
+    /** Constructor **/
+    public DedupSpace(int numOfDimensions) {
+        this(new PointDictionary(numOfDimensions));
+    }
+
+    /** Constructor **/
+    public DedupSpace(int numOfDimensions, int capacity) {
+        this(new PointDictionary(numOfDimensions, capacity));
+    }
+
+    private DedupSpace(PointDictionary dictionary) {
+        super(dictionary.columns());
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Add point if there is no such point.
+     * Ends of segments are added as points as well.
+     * @param object object to add
+     * @return FALSE for the point which is already in the space, TRUE - else
+     */
+    @Override
+    public boolean addObject(GeomObject object) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_ADD);
+        try {
+            if (object.getDimension() != getDimension()) {
+                throw new IllegalArgumentException("DedupSpace.addObject()" +
+                        " illegal dimension of the object.");
+            }
+            if (object instanceof Point) {
+                int size = dictionary.size();
+                if (dictionary.add((Point) object) < size) {
+                    return false;
+                }
+            } else if (object instanceof Segment) {
+                Segment segment = (Segment) object;
+                addSegment(addPointId(segment.getFrom()), addPointId(segment.getTo()));
+                indexObject(segment);
+                return true;
+            } else {
+                objects.add(object);
+            }
+            indexObject(object);
+            return true;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Add point if there is no such point.
+     * @param coords coordinates of the point
+     * @return id of the added or already present point
+     */
+    @Override
+    public int addPoint(double... coords) {
+        int size = dictionary.size();
+        int id = dictionary.add(coords);
+        if (id == size && !indexes.isEmpty()) {
+            indexObject(dictionary.getPoint(id));
+        }
+        return id;
+    }
+
+    /**
+     * Add points given by interleaved coordinates,
+     * skipping the ones which are already in the space.
+     * @param coords interleaved coordinates
+     * @return index of the first added point
+     */
+    @Override
+    public int addPoints(double[] coords) {
+        int dimension = getDimension();
+        if (coords.length % dimension != 0) {
+            throw new IllegalArgumentException(
+                    "DedupSpace.addPoints() number of coordinates" +
+                    " is not a multiple of the dimension."
+            );
+        }
+        int first = dictionary.size();
+        double[] point = new double[dimension];
+        for (int i = 0; i < coords.length; i += dimension) {
+            System.arraycopy(coords, i, point, 0, dimension);
+            addPoint(point);
+        }
+        return first;
+    }
+
+    /**
+     * Id of the point, adding it if there is no such point.
+     * @param point point to add
+     * @return id of the point
+     */
+    public int addPointId(Point point) {
+        int size = dictionary.size();
+        int id = dictionary.add(point);
+        if (id == size) {
+            indexObject(point);
+        }
+        return id;
+    }
+
+    /**
+     * Finding the id of the point.
+     * @param point point to find
+     * @return id of the point or -1 if there is no such point
+     */
+    public int pointId(Point point) {
+        return dictionary.indexOf(point);
+    }
+
+    /**
+     * Add segment between the points given by ids.
+     * NOTE: attached indexes are not updated, addObject()
+     * has to be used for the indexed segments.
+     * @param from id of the point from
+     * @param to id of the point to
+     * @return number of the segment
+     */
+    public int addSegment(int from, int to) {
+        checkPointId(from);
+        checkPointId(to);
+        if (2 * segmentCount == segmentEnds.length) {
+            segmentEnds = Arrays.copyOf(segmentEnds, segmentEnds.length * 2);
+        }
+        segmentEnds[2 * segmentCount] = from;
+        segmentEnds[2 * segmentCount + 1] = to;
+        return segmentCount++;
+    }
+
+    /**
+     * @return number of the segments in the space
+     */
+    public int segmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * @param segment number of the segment
+     * @return id of the point from
+     */
+    public int getSegmentFrom(int segment) {
+        checkSegment(segment);
+        return segmentEnds[2 * segment];
+    }
+
+    /**
+     * @param segment number of the segment
+     * @return id of the point to
+     */
+    public int getSegmentTo(int segment) {
+        checkSegment(segment);
+        return segmentEnds[2 * segment + 1];
+    }
+
+    /**
+     * Creating the segment by its number.
+     * @param segment number of the segment
+     * @return new segment
+     */
+    public Segment getSegment(int segment) {
+        checkSegment(segment);
+        return new Segment(dictionary.getPoint(segmentEnds[2 * segment]),
+                dictionary.getPoint(segmentEnds[2 * segment + 1]));
+    }
+
+    /**
+     * Points are referenced by their ids, which would change.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    protected void reorderPoints(PointColumns columns, int[] order) {
+        throw new UnsupportedOperationException(
+                "DedupSpace points cannot be reordered: they are referenced by ids"
+        );
+    }
+
+    /**
+     * @return number of objects in the space
+     */
+    @Override
+    public int size() {
+        return dictionary.size() + segmentCount + objects.size();
+    }
+
+    /**
+     * Returning object by the index.
+     * Points and segments are created on demand.
+     * @param index index of the object
+     * @return object of the space
+     */
+    @Override
+    public GeomObject getObject(int index) {
+        if (index < dictionary.size()) {
+            return dictionary.getPoint(index);
+        }
+        index -= dictionary.size();
+        if (index < segmentCount) {
+            return getSegment(index);
+        }
+        return objects.get(index - segmentCount);
+    }
+
+    private void checkPointId(int id) {
+        if (id < 0 || id >= dictionary.size()) {
+            throw new IndexOutOfBoundsException(
+                    "Point id: " + id + ", size: " + dictionary.size()
+            );
+        }
+    }
+
+    private void checkSegment(int segment) {
+        if (segment < 0 || segment >= segmentCount) {
+            throw new IndexOutOfBoundsException(
+                    "Segment: " + segment + ", size: " + segmentCount
+            );
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package geom;
+
 /**
  * Immutable basic class of the universe
  */
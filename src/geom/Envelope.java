@@ -0,0 +1,229 @@
+package geom;
+
+import java.util.Arrays;
+
+/**
+ * Immutable axis-aligned box (envelope)
+ * in the geometric universe.
+ */
+final public class Envelope extends Dimension {
+    /** Lower corner of the box **/
+    private final double[] min;
+
+    /** Upper corner of the box **/
+    private final double[] max;
+
+    /**
+     * Constructor of the envelope by two corners.
+     * @param min lower corner
+     * @param max upper corner
+     */
+    public Envelope(double[] min, double[] max) {
+        super(min.length);
+        if (min.length != max.length) {
+            throw new IllegalArgumentException(
+                    "Corners are in the distinct dimensions!"
+            );
+        }
+        for (int i = 0; i < min.length; i++) {
+            if (min[i] > max[i]) {
+                throw new IllegalArgumentException(
+                        "Lower corner is bigger than upper corner"
+                );
+            }
+        }
+        this.min = min.clone();
+        this.max = max.clone();
+    }
+
+    /**
+     * Constructor of the envelope by two points
+     * in any order.
+     * @param p1 first point
+     * @param p2 second point
+     */
+    public Envelope(Point p1, Point p2) {
+        super(p1.getDimension());
+        if (p1.getDimension() != p2.getDimension()) {
+            throw new IllegalArgumentException(
+                    "Points are in the distinct dimensions!"
+            );
+        }
+        min = new double[getDimension()];
+        max = new double[getDimension()];
+        for (int i = 0; i < getDimension(); i++) {
+            min[i] = Math.min(p1.getCoord(i), p2.getCoord(i));
+            max[i] = Math.max(p1.getCoord(i), p2.getCoord(i));
+        }
+    }
+
+    /**
+     * Envelope of the point, the segment, the polyline or the polygon.
+     * @param object point, segment, polyline or polygon
+     * @return new envelope of the point, cached envelope of the others
+     */
+    public static Envelope of(GeomObject object) {
+        if (object instanceof Point) {
+            return new Envelope((Point) object, (Point) object);
+        } else if (object instanceof Segment) {
+            return ((Segment) object).getEnvelope();
+        } else if (object instanceof Polyline) {
+            return ((Polyline) object).getEnvelope();
+        } else if (object instanceof Polygon) {
+            return ((Polygon) object).getEnvelope();
+        }
+        throw new IllegalArgumentException(
+                "Envelope is defined only for points, segments, polylines and polygons"
+        );
+    }
+
+    /**
+     * @param axis index of the coordinate
+     * @return lower bound on the axis
+     */
+    public double getMin(int axis) {
+        return min[axis];
+    }
+
+    /**
+     * @param axis index of the coordinate
+     * @return upper bound on the axis
+     */
+    public double getMax(int axis) {
+        return max[axis];
+    }
+
+    /**
+     * @return lower corner of the envelope
+     */
+    public Point getMinPoint() {
+        return new Point(min);
+    }
+
+    /**
+     * @return upper corner of the envelope
+     */
+    public Point getMaxPoint() {
+        return new Point(max);
+    }
+
+    /**
+     * Finding out if the point lies inside
+     * the envelope (borders included).
+     * @param point point to check
+     * @return TRUE - point is inside, FALSE - else
+     */
+    public boolean contains(Point point) {
+        checkDimension(point);
+        for (int i = 0; i < min.length; i++) {
+            double coord = point.getCoord(i);
+            if (coord < min[i] || coord > max[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finding out if the other envelope lies
+     * completely inside this one.
+     * @param envelope envelope to check
+     * @return TRUE - envelope is inside, FALSE - else
+     */
+    public boolean contains(Envelope envelope) {
+        checkDimension(envelope);
+        for (int i = 0; i < min.length; i++) {
+            if (envelope.min[i] < min[i] || envelope.max[i] > max[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finding out if two envelopes have
+     * at least one common point.
+     * @param envelope envelope to check
+     * @return TRUE - envelopes intersect, FALSE - else
+     */
+    public boolean intersects(Envelope envelope) {
+        checkDimension(envelope);
+        for (int i = 0; i < min.length; i++) {
+            if (envelope.max[i] < min[i] || envelope.min[i] > max[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Smallest envelope containing both envelopes.
+     * @param envelope envelope to union with
+     * @return new envelope
+     */
+    public Envelope union(Envelope envelope) {
+        checkDimension(envelope);
+        double[] resultMin = new double[min.length];
+        double[] resultMax = new double[max.length];
+        for (int i = 0; i < min.length; i++) {
+            resultMin[i] = Math.min(min[i], envelope.min[i]);
+            resultMax[i] = Math.max(max[i], envelope.max[i]);
+        }
+        return new Envelope(resultMin, resultMax);
+    }
+
+    private void checkDimension(Dimension dimension) {
+        if (dimension.getDimension() != getDimension()) {
+            throw new IllegalArgumentException(
+                    "Objects are in the distinct dimensions!"
+            );
+        }
+    }
+
+    /**
+     * toString() method
+     * @return string representation of the envelope
+     */
+    @Override
+    public String toString() {
+        String result = "Envelope: (";
+        for (int i = 0; i < min.length - 1; i++) {
+            result += min[i] + ", ";
+        }
+        result += min[min.length - 1] + ") - (";
+        for (int i = 0; i < max.length - 1; i++) {
+            result += max[i] + ", ";
+        }
+        result += max[max.length - 1] + ").";
+        return result;
+    }
+
+    /**
+     * Equals method.
+     * @param obj object to compare with
+     * @return TRUE - if the envelopes have identical corners,
+     *         FALSE - else.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Envelope)) {
+            return false;
+        }
+        Envelope envelope = (Envelope) obj;
+        return Arrays.equals(min, envelope.min) &&
+                Arrays.equals(max, envelope.max);
+    }
+
+    /**
+     * Overridden hash code.
+     * @return hash code of the envelope.
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(min) * 31 +
+                Arrays.hashCode(max);
+    }
+}
@@ -0,0 +1,191 @@
+package geom;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters, latency histograms and allocations of the geometry
+ * operations, and flight recorder events "geom.Operation" of the
+ * timed ones. Recording is switched on by the system property
+ * geom.metrics=true at start. Without it the checks are constant
+ * false and the JIT removes them, so the operations cost nothing.
+ */
+final public class GeomMetrics {
+    /** Recording is switched on **/
+    private static final boolean ENABLED = Boolean.getBoolean("geom.metrics");
+
+    /** Number of the buckets of the latency histograms **/
+    private static final int BUCKETS = 64;
+
+    /** Recorded values by the ordinal of the operation, null if disabled **/
+    private static final LongAdder[] COUNTS;
+    private static final LongAdder[] NANOS;
+    private static final LongAdder[] ALLOCATED;
+    private static final LongAdder[][] HISTOGRAMS;
+
+    /** Source of the allocated bytes of the threads, null if not supported **/
+    private static final com.sun.management.ThreadMXBean THREADS;
+
+    static {
+        int operations = GeomOperation.values().length;
+        if (ENABLED) {
+            COUNTS = adders(operations);
+            NANOS = adders(operations);
+            ALLOCATED = adders(operations);
+            HISTOGRAMS = new LongAdder[operations][];
+            for (int i = 0; i < operations; i++) {
+                HISTOGRAMS[i] = adders(BUCKETS);
+            }
+            THREADS = allocationSource();
+        } else {
+            COUNTS = null;
+            NANOS = null;
+            ALLOCATED = null;
+            HISTOGRAMS = null;
+            THREADS = null;
+        }
+    }
+
+    private GeomMetrics() {
+    }
+
+    /**
+     * @return TRUE - metrics are recorded, FALSE - else
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Taking the metrics of all operations recorded so far.
+     * Operations running at the moment may be partly seen.
+     * @return metrics by the operation, zero if recording is off
+     */
+    public static Map<GeomOperation, OperationMetrics> snapshot() {
+        Map<GeomOperation, OperationMetrics> result =
+                new EnumMap<GeomOperation, OperationMetrics>(GeomOperation.class);
+        for (GeomOperation operation : GeomOperation.values()) {
+            long[] histogram = new long[BUCKETS];
+            if (!ENABLED) {
+                result.put(operation, new OperationMetrics(operation, 0, 0, 0, histogram));
+                continue;
+            }
+            int i = operation.ordinal();
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                histogram[bucket] = HISTOGRAMS[i][bucket].sum();
+            }
+            result.put(operation, new OperationMetrics(operation, COUNTS[i].sum(),
+                    NANOS[i].sum(), ALLOCATED[i].sum(), histogram));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Resetting all metrics to zero. Operations running
+     * at the moment may be partly kept.
+     */
+    public static void reset() {
+        if (!ENABLED) {
+            return;
+        }
+        for (int i = 0; i < COUNTS.length; i++) {
+            COUNTS[i].reset();
+            NANOS[i].reset();
+            ALLOCATED[i].reset();
+            for (LongAdder bucket : HISTOGRAMS[i]) {
+                bucket.reset();
+            }
+        }
+    }
+
+    /**
+     * Counting the operation which is not timed.
+     * @param operation operation to count
+     */
+    static void count(GeomOperation operation) {
+        if (ENABLED) {
+            COUNTS[operation.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Starting the timing of the operation.
+     * @param operation operation to time
+     * @return timer to stop, null if recording is off
+     */
+    static Timer start(GeomOperation operation) {
+        return ENABLED ? new Timer(operation) : null;
+    }
+
+    /**
+     * Stopping the timing of the operation.
+     * @param timer timer of start(), may be null
+     */
+    static void stop(Timer timer) {
+        if (ENABLED && timer != null) {
+            timer.stop();
+        }
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] result = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new LongAdder();
+        }
+        return result;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationSource() {
+        try {
+            java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean source = (com.sun.management.ThreadMXBean) threads;
+                if (source.isThreadAllocatedMemorySupported() && source.isThreadAllocatedMemoryEnabled()) {
+                    return source;
+                }
+            }
+        } catch (LinkageError e) {
+            // the management modules are not in the runtime
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /** Timing of one operation in one thread **/
+    static final class Timer {
+        private final GeomOperation operation;
+        private final GeomOperationEvent event;
+        private final long startAllocated;
+        private final long startNanos;
+
+        private Timer(GeomOperation operation) {
+            this.operation = operation;
+            event = new GeomOperationEvent();
+            event.begin();
+            startAllocated = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        private void stop() {
+            long nanos = Math.max(0, System.nanoTime() - startNanos);
+            long allocated = Math.max(0, allocatedBytes() - startAllocated);
+            int i = operation.ordinal();
+            COUNTS[i].increment();
+            NANOS[i].add(nanos);
+            ALLOCATED[i].add(allocated);
+            HISTOGRAMS[i][nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos)].increment();
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation.name();
+                event.allocated = allocated;
+                event.commit();
+            }
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package geom;
+
 /**
  * Basic class for all geometric objects in the universe.
  * At this point we assume that we will work in the same dimensions all time.
@@ -0,0 +1,50 @@
+package geom;
+
+/**
+ * Operations recorded by GeomMetrics. Arithmetic of points
+ * and vectors is only counted: timing it would cost more
+ * than the operations themselves. Other operations are timed
+ * and their allocations are measured.
+ */
+public enum GeomOperation {
+    /** Segment.isIntersect() of two segments **/
+    SEGMENT_INTERSECT(true),
+    /** Arithmetic operations of Point, counted only **/
+    POINT_ARITHMETIC(false),
+    /** Arithmetic operations of Vector, counted only **/
+    VECTOR_ARITHMETIC(false),
+    /** addObject() of the spaces **/
+    SPACE_ADD(true),
+    /** Space.intersects() **/
+    SPACE_QUERY(true),
+    /** Insertion into GridIndex or RTree **/
+    INDEX_INSERT(true),
+    /** Queries of GridIndex, RTree and KdTree **/
+    INDEX_QUERY(true),
+    /** Closest pair of ClosestPairs **/
+    CLOSEST_PAIR(true),
+    /** Distance joins of ClosestPairs **/
+    DISTANCE_JOIN(true),
+    /** Convex hull of ConvexHull **/
+    CONVEX_HULL(true),
+    /** Intersections of SweepLineIntersector **/
+    SEGMENT_SWEEP(true),
+    /** Rendering of SpaceRenderer **/
+    RENDER(true),
+    /** Orders of SpaceOrder **/
+    SPACE_SORT(true);
+
+    /** Operation is timed, not only counted **/
+    private final boolean timed;
+
+    GeomOperation(boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     * @return TRUE - latency and allocations are recorded, FALSE - only the count
+     */
+    public boolean isTimed() {
+        return timed;
+    }
+}
@@ -0,0 +1,24 @@
+package geom;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a timed geometry operation.
+ */
+@Name("geom.Operation")
+@Label("Geometry Operation")
+@Category("Geometry")
+@Description("Timed operation of the geometry library")
+final class GeomOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+}
@@ -0,0 +1,599 @@
+package geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe uniform grid (spatial hash) of 2-dimensional
+ * points and segments. Segment is kept in every cell it
+ * passes through, segments crossing more than
+ * MAX_SEGMENT_CELLS cells are kept aside and checked by
+ * every query. Cells are spread over lock stripes,
+ * every stripe is an open-addressing table from the
+ * quantised cell coordinates to the bucket of objects,
+ * so threads working in different stripes never wait
+ * for each other.
+ * Unlike RTree, queries find segments which pass through
+ * the envelope, not the ones which envelopes intersect it.
+ * NOTE: segment spanning several cells is added and removed
+ * cell by cell, concurrent query can see it partially.
+ */
+final public class GridIndex implements SpatialIndex {
+    /** Default expected number of concurrently working threads **/
+    private static final int DEFAULT_CONCURRENCY = 16;
+
+    /** Segments crossing more cells are kept aside **/
+    private static final int MAX_SEGMENT_CELLS = 1 << 12;
+
+    /** Rounding margin (in ulps) of the cells of the segment **/
+    private static final double MARGIN_ULPS = 64;
+
+    /** Size of the cell **/
+    private final double cellSize;
+
+    /** Stripes of the cells **/
+    private final Stripe[] stripes;
+
+    /** Number of indexed objects **/
+    private final LongAdder size = new LongAdder();
+
+    /** Number of not empty cells **/
+    private final LongAdder cells = new LongAdder();
+
+    /** Segments crossing too many cells **/
+    private final Bucket oversized = new Bucket();
+    private final StampedLock oversizedLock = new StampedLock();
+
+    /** Number of the segments crossing too many cells **/
+    private volatile int oversizedCount;
+
+    /** Constructor **/
+    public GridIndex(double cellSize) {
+        this(cellSize, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Constructor.
+     * @param cellSize size of the cell
+     * @param concurrency expected number of concurrently working threads
+     */
+    public GridIndex(double cellSize, int concurrency) {
+        if (!(cellSize > 0) || Double.isInfinite(cellSize)) {
+            throw new IllegalArgumentException(
+                    "Cell size should be positive"
+            );
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException(
+                    "Concurrency should be positive"
+            );
+        }
+        this.cellSize = cellSize;
+        int count = Integer.highestOneBit(Math.max(1, concurrency * 4 - 1)) << 1;
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return size of the cell
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return number of indexed objects
+     */
+    @Override
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * @return TRUE, grid can be used from many threads
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Add point or segment to the index.
+     * @param object object to add
+     */
+    @Override
+    public void insert(GeomObject object) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.INDEX_INSERT);
+        try {
+            check(object);
+            long[] keys = cellKeys(object);
+            if (keys == null) {
+                long stamp = oversizedLock.writeLock();
+                try {
+                    oversized.add(object);
+                    oversizedCount = oversized.size;
+                } finally {
+                    oversizedLock.unlockWrite(stamp);
+                }
+            } else {
+                for (long key : keys) {
+                    Stripe stripe = stripeOf(key);
+                    long stamp = stripe.lock.writeLock();
+                    try {
+                        if (stripe.add(key, object)) {
+                            cells.increment();
+                        }
+                    } finally {
+                        stripe.lock.unlockWrite(stamp);
+                    }
+                }
+            }
+            size.increment();
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Remove point or segment from the index.
+     * Object is found by equals().
+     * @param object object to remove
+     * @return TRUE - object was removed, FALSE - there is no such object
+     */
+    @Override
+    public boolean remove(GeomObject object) {
+        check(object);
+        long[] keys = cellKeys(object);
+        boolean removed = false;
+        if (keys == null) {
+            long stamp = oversizedLock.writeLock();
+            try {
+                removed = oversized.remove(object);
+                oversizedCount = oversized.size;
+            } finally {
+                oversizedLock.unlockWrite(stamp);
+            }
+        } else {
+            for (long key : keys) {
+                Stripe stripe = stripeOf(key);
+                long stamp = stripe.lock.writeLock();
+                try {
+                    int result = stripe.remove(key, object);
+                    removed |= result != Stripe.ABSENT;
+                    if (result == Stripe.REMOVED_LAST) {
+                        cells.decrement();
+                    }
+                } finally {
+                    stripe.lock.unlockWrite(stamp);
+                }
+            }
+        }
+        if (removed) {
+            size.decrement();
+        }
+        return removed;
+    }
+
+    /**
+     * Moving the object: removing the old one and adding
+     * the new one. Move inside one cell takes one lock.
+     * @param from object to remove
+     * @param to object to add
+     * @return TRUE - old object was found, FALSE - else (new one is added anyway)
+     */
+    public boolean move(GeomObject from, GeomObject to) {
+        check(from);
+        check(to);
+        if (from instanceof Point && to instanceof Point) {
+            long fromKey = key(cell(((Point) from).getX()), cell(((Point) from).getY()));
+            long toKey = key(cell(((Point) to).getX()), cell(((Point) to).getY()));
+            if (fromKey == toKey) {
+                Stripe stripe = stripeOf(fromKey);
+                long stamp = stripe.lock.writeLock();
+                try {
+                    boolean found = stripe.replace(fromKey, from, to);
+                    if (!found && stripe.add(toKey, to)) {
+                        cells.increment();
+                    }
+                    if (!found) {
+                        size.increment();
+                    }
+                    return found;
+                } finally {
+                    stripe.lock.unlockWrite(stamp);
+                }
+            }
+        }
+        boolean found = remove(from);
+        insert(to);
+        return found;
+    }
+
+    /**
+     * Finding points inside the envelope and
+     * segments passing through it.
+     * @param envelope envelope to search with
+     * @param consumer consumer of found objects
+     */
+    @Override
+    public void intersects(Envelope envelope, Consumer<GeomObject> consumer) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.INDEX_QUERY);
+        try {
+            if (envelope.getDimension() != 2) {
+                throw new IllegalArgumentException(
+                        "GridIndex is 2-dimensional"
+                );
+            }
+            double minX = envelope.getMin(0);
+            double minY = envelope.getMin(1);
+            double maxX = envelope.getMax(0);
+            double maxY = envelope.getMax(1);
+            int cx0 = cell(minX);
+            int cy0 = cell(minY);
+            int cx1 = cell(maxX);
+            int cy1 = cell(maxY);
+            List<GeomObject> found = new ArrayList<GeomObject>();
+            long range = ((long) cx1 - cx0 + 1) * ((long) cy1 - cy0 + 1);
+            // segment of several cells is found once
+            Set<GeomObject> segments = range == 1 ? null :
+                    Collections.newSetFromMap(new IdentityHashMap<GeomObject, Boolean>());
+            if (range > cells.sum()) {
+                // cheaper to look through all not empty cells
+                for (Stripe stripe : stripes) {
+                    long stamp = stripe.lock.readLock();
+                    try {
+                        for (int i = 0; i < stripe.keys.length; i++) {
+                            Bucket bucket = stripe.buckets[i];
+                            long key = stripe.keys[i];
+                            int cx = (int) (key >> 32);
+                            int cy = (int) key;
+                            if (bucket != null && cx >= cx0 && cx <= cx1 && cy >= cy0 && cy <= cy1) {
+                                bucket.collect(minX, minY, maxX, maxY, found, segments);
+                            }
+                        }
+                    } finally {
+                        stripe.lock.unlockRead(stamp);
+                    }
+                }
+            } else {
+                for (long cx = cx0; cx <= cx1; cx++) {
+                    for (long cy = cy0; cy <= cy1; cy++) {
+                        long key = key((int) cx, (int) cy);
+                        Stripe stripe = stripeOf(key);
+                        long stamp = stripe.lock.readLock();
+                        try {
+                            Bucket bucket = stripe.get(key);
+                            if (bucket != null) {
+                                bucket.collect(minX, minY, maxX, maxY, found, segments);
+                            }
+                        } finally {
+                            stripe.lock.unlockRead(stamp);
+                        }
+                    }
+                }
+            }
+            if (oversizedCount > 0) {
+                long stamp = oversizedLock.readLock();
+                try {
+                    oversized.collect(minX, minY, maxX, maxY, found, null);
+                } finally {
+                    oversizedLock.unlockRead(stamp);
+                }
+            }
+            // consumer is called without locks, so it can change the index
+            for (GeomObject object : found) {
+                consumer.accept(object);
+            }
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Finding points inside the envelope and
+     * segments passing through it.
+     * @param envelope envelope to search with
+     * @return list of found objects
+     */
+    public List<GeomObject> intersects(Envelope envelope) {
+        List<GeomObject> result = new ArrayList<GeomObject>();
+        intersects(envelope, result::add);
+        return result;
+    }
+
+    /**
+     * Finding objects in the cell of the point
+     * and in the 8 cells around it.
+     * @param point point to search near
+     * @param consumer consumer of found objects
+     */
+    public void neighbours(Point point, Consumer<GeomObject> consumer) {
+        check(point);
+        double minX = (cell(point.getX()) - 1) * cellSize;
+        double minY = (cell(point.getY()) - 1) * cellSize;
+        intersects(new Envelope(new double[] {minX, minY},
+                new double[] {minX + 3 * cellSize, minY + 3 * cellSize}), consumer);
+    }
+
+    /** OPERATIONS WITH THE CELLS **/
+
+    private int cell(double coord) {
+        double cell = Math.floor(coord / cellSize);
+        if (cell >= Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        } else if (cell <= Integer.MIN_VALUE) {
+            return Integer.MIN_VALUE;
+        }
+        return (int) cell;
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private Stripe stripeOf(long key) {
+        return stripes[(hash(key) >>> 16) & (stripes.length - 1)];
+    }
+
+    /**
+     * Keys of the cells of the point or the segment.
+     * @return keys of the cells, null for the segment crossing too many cells
+     */
+    private long[] cellKeys(GeomObject object) {
+        if (object instanceof Point) {
+            return new long[] {key(cell(((Point) object).getX()), cell(((Point) object).getY()))};
+        }
+        Segment segment = (Segment) object;
+        double x1 = segment.getFrom().getX();
+        double y1 = segment.getFrom().getY();
+        double x2 = segment.getTo().getX();
+        double y2 = segment.getTo().getY();
+        // walking along the longer axis, so the slope is at most 1
+        boolean steep = Math.abs(y2 - y1) > Math.abs(x2 - x1);
+        double a1 = steep ? y1 : x1;
+        double b1 = steep ? x1 : y1;
+        double a2 = steep ? y2 : x2;
+        double b2 = steep ? x2 : y2;
+        if (a2 < a1) {
+            double a = a1;
+            a1 = a2;
+            a2 = a;
+            double b = b1;
+            b1 = b2;
+            b2 = b;
+        }
+        int first = cell(a1);
+        int last = cell(a2);
+        int low = cell(Math.min(b1, b2));
+        int high = cell(Math.max(b1, b2));
+        if ((long) last - first + (long) high - low + 1 > MAX_SEGMENT_CELLS) {
+            return null;
+        }
+        double slope = a2 == a1 ? 0 : (b2 - b1) / (a2 - a1);
+        double scale = Math.max(Math.max(Math.abs(a1), Math.abs(a2)),
+                Math.max(Math.max(Math.abs(b1), Math.abs(b2)), cellSize));
+        // coordinates at the borders are rounded, so the range of
+        // the cells in the column is widened: a neighbour can be
+        // added, but no cell the segment passes through is missed
+        double margin = MARGIN_ULPS * Math.ulp(scale);
+        long[] keys = new long[(last - first + 1) + (high - low + 1)];
+        int count = 0;
+        for (long column = first; column <= last; column++) {
+            double from = Math.max(a1, column * cellSize - margin);
+            double to = Math.min(a2, (column + 1) * cellSize + margin);
+            double bFrom = b1 + (from - a1) * slope;
+            double bTo = b1 + (to - a1) * slope;
+            int rowFrom = Math.max(low, cell(Math.min(bFrom, bTo) - margin));
+            int rowTo = Math.min(high, cell(Math.max(bFrom, bTo) + margin));
+            for (long row = rowFrom; row <= rowTo; row++) {
+                if (count == keys.length) {
+                    keys = Arrays.copyOf(keys, count * 2);
+                }
+                keys[count++] = steep ? key((int) row, (int) column) : key((int) column, (int) row);
+            }
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    /**
+     * Finding out exactly if the segment passes through the box:
+     * envelopes intersect and corners of the box are not all on
+     * one side of the line of the segment.
+     */
+    private static boolean crosses(Segment segment, double minX, double minY, double maxX, double maxY) {
+        double x1 = segment.getFrom().getX();
+        double y1 = segment.getFrom().getY();
+        double x2 = segment.getTo().getX();
+        double y2 = segment.getTo().getY();
+        if (Math.max(x1, x2) < minX || Math.min(x1, x2) > maxX ||
+                Math.max(y1, y2) < minY || Math.min(y1, y2) > maxY) {
+            return false;
+        }
+        double s1 = Math.signum(Predicates.orient2d(x1, y1, x2, y2, minX, minY));
+        double s2 = Math.signum(Predicates.orient2d(x1, y1, x2, y2, maxX, minY));
+        double s3 = Math.signum(Predicates.orient2d(x1, y1, x2, y2, maxX, maxY));
+        double s4 = Math.signum(Predicates.orient2d(x1, y1, x2, y2, minX, maxY));
+        return !(s1 == s2 && s2 == s3 && s3 == s4 && s1 != 0);
+    }
+
+    private static void check(GeomObject object) {
+        if (!(object instanceof Point) && !(object instanceof Segment)) {
+            throw new IllegalArgumentException(
+                    "GridIndex can index only points and segments"
+            );
+        }
+        if (object.getDimension() != 2) {
+            throw new IllegalArgumentException(
+                    "GridIndex is 2-dimensional"
+            );
+        }
+    }
+
+    /** END OF OPERATIONS WITH THE CELLS **/
+
+    /** Lock stripe: open-addressing table from cell keys to buckets **/
+    private static final class Stripe {
+        static final int ABSENT = 0;
+        static final int REMOVED = 1;
+        static final int REMOVED_LAST = 2;
+
+        final StampedLock lock = new StampedLock();
+        long[] keys = new long[8];
+        Bucket[] buckets = new Bucket[8];
+        int count;
+
+        Bucket get(long key) {
+            int mask = keys.length - 1;
+            for (int i = (hash(key) & mask); buckets[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return buckets[i];
+                }
+            }
+            return null;
+        }
+
+        /** @return TRUE if the new cell was created **/
+        boolean add(long key, GeomObject object) {
+            Bucket bucket = get(key);
+            if (bucket != null) {
+                bucket.add(object);
+                return false;
+            }
+            if (2 * (count + 1) > keys.length) {
+                grow();
+            }
+            bucket = new Bucket();
+            bucket.add(object);
+            put(key, bucket);
+            count++;
+            return true;
+        }
+
+        boolean replace(long key, GeomObject from, GeomObject to) {
+            Bucket bucket = get(key);
+            return bucket != null && bucket.replace(from, to);
+        }
+
+        int remove(long key, GeomObject object) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (buckets[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (buckets[i] == null || !buckets[i].remove(object)) {
+                return ABSENT;
+            }
+            if (buckets[i].size > 0) {
+                return REMOVED;
+            }
+            // backward shift deletion keeps probe chains without tombstones
+            buckets[i] = null;
+            count--;
+            for (int j = (i + 1) & mask; buckets[j] != null; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    buckets[i] = buckets[j];
+                    buckets[j] = null;
+                    i = j;
+                }
+            }
+            return REMOVED_LAST;
+        }
+
+        private void put(long key, Bucket bucket) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (buckets[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            buckets[i] = bucket;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            Bucket[] oldBuckets = buckets;
+            keys = new long[oldKeys.length * 2];
+            buckets = new Bucket[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldBuckets[i] != null) {
+                    put(oldKeys[i], oldBuckets[i]);
+                }
+            }
+        }
+    }
+
+    /** Objects of one cell **/
+    private static final class Bucket {
+        GeomObject[] items = new GeomObject[4];
+        int size;
+
+        void add(GeomObject object) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = object;
+        }
+
+        boolean replace(GeomObject from, GeomObject to) {
+            for (int i = 0; i < size; i++) {
+                if (items[i].equals(from)) {
+                    items[i] = to;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean remove(GeomObject object) {
+            for (int i = 0; i < size; i++) {
+                if (items[i].equals(object)) {
+                    items[i] = items[--size];
+                    items[size] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Collecting objects intersecting the query.
+         * @param segments segments found before, null if the query has one cell
+         */
+        void collect(double minX, double minY, double maxX, double maxY,
+                     List<GeomObject> found, Set<GeomObject> segments) {
+            for (int i = 0; i < size; i++) {
+                GeomObject object = items[i];
+                if (object instanceof Point) {
+                    double x = ((Point) object).getX();
+                    double y = ((Point) object).getY();
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        found.add(object);
+                    }
+                    continue;
+                }
+                if (crosses((Segment) object, minX, minY, maxX, maxY) &&
+                        (segments == null || segments.add(object))) {
+                    found.add(object);
+                }
+            }
+        }
+    }
+}
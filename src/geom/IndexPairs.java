@@ -0,0 +1,152 @@
+package geom;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of pairs of point indices with the
+ * distances between the points, kept in primitive arrays.
+ */
+final public class IndexPairs {
+    /** First indices **/
+    private int[] firsts;
+
+    /** Second indices **/
+    private int[] seconds;
+
+    /** Distances between the points of the pairs **/
+    private double[] distances;
+
+    /** Number of the pairs **/
+    private int size;
+
+    /** Constructor **/
+    public IndexPairs() {
+        this(16);
+    }
+
+    /** Constructor **/
+    public IndexPairs(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(
+                    "Capacity cannot be negative"
+            );
+        }
+        firsts = new int[capacity];
+        seconds = new int[capacity];
+        distances = new double[capacity];
+    }
+
+    /**
+     * Adding the pair.
+     * @param first first index
+     * @param second second index
+     * @param distance distance between the points
+     */
+    public void add(int first, int second, double distance) {
+        if (size == firsts.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            firsts = Arrays.copyOf(firsts, capacity);
+            seconds = Arrays.copyOf(seconds, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+        }
+        firsts[size] = first;
+        seconds[size] = second;
+        distances[size] = distance;
+        size++;
+    }
+
+    /**
+     * Adding all pairs of the other list.
+     * @param pairs pairs to add
+     */
+    public void addAll(IndexPairs pairs) {
+        int capacity = size + pairs.size;
+        if (capacity > firsts.length) {
+            firsts = Arrays.copyOf(firsts, capacity);
+            seconds = Arrays.copyOf(seconds, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+        }
+        System.arraycopy(pairs.firsts, 0, firsts, size, pairs.size);
+        System.arraycopy(pairs.seconds, 0, seconds, size, pairs.size);
+        System.arraycopy(pairs.distances, 0, distances, size, pairs.size);
+        size = capacity;
+    }
+
+    /**
+     * @return number of the pairs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param pair index of the pair
+     * @return first index of the pair
+     */
+    public int getFirst(int pair) {
+        checkPair(pair);
+        return firsts[pair];
+    }
+
+    /**
+     * @param pair index of the pair
+     * @return second index of the pair
+     */
+    public int getSecond(int pair) {
+        checkPair(pair);
+        return seconds[pair];
+    }
+
+    /**
+     * @param pair index of the pair
+     * @return distance between the points of the pair
+     */
+    public double getDistance(int pair) {
+        checkPair(pair);
+        return distances[pair];
+    }
+
+    /**
+     * @return copy of the first indices
+     */
+    public int[] getFirsts() {
+        return Arrays.copyOf(firsts, size);
+    }
+
+    /**
+     * @return copy of the second indices
+     */
+    public int[] getSeconds() {
+        return Arrays.copyOf(seconds, size);
+    }
+
+    /**
+     * @return copy of the distances
+     */
+    public double[] getDistances() {
+        return Arrays.copyOf(distances, size);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("IndexPairs: [");
+        for (int i = 0; i < Math.min(size, 10); i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append('(').append(firsts[i]).append(", ").append(seconds[i]).append(')');
+        }
+        if (size > 10) {
+            result.append(", ... ").append(size - 10).append(" more");
+        }
+        return result.append("].").toString();
+    }
+
+    private void checkPair(int pair) {
+        if (pair < 0 || pair >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Pair: " + pair + ", size: " + size
+            );
+        }
+    }
+}
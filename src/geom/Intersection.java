@@ -0,0 +1,90 @@
+package geom;
+
+/**
+ * Immutable result of the segment intersection
+ * search: pair of segment indices and the point
+ * where they intersect.
+ */
+final public class Intersection {
+    /** Index of the first segment **/
+    private final int first;
+
+    /** Index of the second segment **/
+    private final int second;
+
+    /** X coordinate of the intersection point **/
+    private final double x;
+
+    /** Y coordinate of the intersection point **/
+    private final double y;
+
+    /** Constructor **/
+    public Intersection(int first, int second, double x, double y) {
+        this.first = first;
+        this.second = second;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getSecond() {
+        return second;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return intersection point
+     */
+    public Point getPoint() {
+        return new Point(x, y);
+    }
+
+    /**
+     * toString() method
+     * @return string representation of the intersection
+     */
+    @Override
+    public String toString() {
+        return "Intersection: " + first + " and " + second +
+                " at (" + x + ", " + y + ").";
+    }
+
+    /**
+     * Equals method.
+     * @param obj object to compare with
+     * @return TRUE - if pairs and points are identical, FALSE - else
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Intersection)) {
+            return false;
+        }
+        Intersection intersection = (Intersection) obj;
+        return first == intersection.first && second == intersection.second &&
+                x == intersection.x && y == intersection.y;
+    }
+
+    /**
+     * Overridden hash code.
+     * @return hash code of the intersection.
+     */
+    @Override
+    public int hashCode() {
+        int result = first * 31 + second;
+        result = result * 31 + Double.hashCode(x);
+        return result * 31 + Double.hashCode(y);
+    }
+}
@@ -0,0 +1,17 @@
+package geom;
+
+/**
+ * Callback for streaming results of
+ * the segment intersection search.
+ */
+@FunctionalInterface
+public interface IntersectionListener {
+    /**
+     * Called once for every intersecting pair of segments.
+     * @param first index of the first segment
+     * @param second index of the second segment (first < second)
+     * @param x X coordinate of the intersection point
+     * @param y Y coordinate of the intersection point
+     */
+    void onIntersection(int first, int second, double x, double y);
+}
@@ -0,0 +1,413 @@
+package geom;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Immutable k-d tree of the points for any number of dimensions
+ * with nearest neighbour, k nearest neighbours and radius search.
+ * Tree is implicit: for every range of positions the median
+ * is in the middle, the smaller points are before it and the
+ * bigger ones after it. Coordinates are copied in the tree order,
+ * so later changes of the source columns are not visible.
+ * Points are identified by their indices in the source columns.
+ */
+final public class KdTree extends Dimension {
+    /** Ranges not longer than this are scanned without splitting **/
+    private static final int LEAF_SIZE = 8;
+
+    /** Ranges longer than this are built in parallel **/
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /** Coordinates in the tree order: coords[position * dimension + axis] **/
+    private final double[] coords;
+
+    /** Index in the source columns of the point at the position **/
+    private final int[] indices;
+
+    /** Position of the point by its index in the source columns **/
+    private final int[] positions;
+
+    /** Split axis of the range which median is at the position **/
+    private final byte[] axes;
+
+    /** Depth of the traversal stack enough for any query **/
+    private final int stackDepth;
+
+    /**
+     * Constructor building the tree of all points of the columns.
+     * @param columns points to index
+     */
+    public KdTree(PointColumns columns) {
+        super(columns.getDimension());
+        if (getDimension() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "KdTree supports up to " + Byte.MAX_VALUE + " dimensions"
+            );
+        }
+        int size = columns.size();
+        int dimension = getDimension();
+        indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        axes = new byte[size];
+        ForkJoinPool.commonPool().invoke(new Build(columns, new double[size], 0, size));
+        coords = new double[size * dimension];
+        for (int d = 0; d < dimension; d++) {
+            double[] column = columns.column(d);
+            for (int i = 0; i < size; i++) {
+                coords[i * dimension + d] = column[indices[i]];
+            }
+        }
+        positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[indices[i]] = i;
+        }
+        stackDepth = 2 * (32 - Integer.numberOfLeadingZeros(size)) + 2;
+    }
+
+    /**
+     * Building the tree of all points of the space.
+     * @param space space to index
+     * @return new tree
+     */
+    public static KdTree build(Space space) {
+        return new KdTree(space.toColumns());
+    }
+
+    /**
+     * @return number of points in the tree
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * Point by its index in the source columns, as it was built.
+     * @param index index of the point
+     * @return new point
+     */
+    public Point getPoint(int index) {
+        int dimension = getDimension();
+        int position = positions[index];
+        return new Point(Arrays.copyOfRange(coords, position * dimension, (position + 1) * dimension));
+    }
+
+    /**
+     * Finding the nearest point.
+     * @param point point to search near
+     * @return index of the nearest point or -1 for the empty tree
+     */
+    public int nearest(Point point) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.INDEX_QUERY);
+        try {
+            double[] query = prepare(point);
+            int dimension = getDimension();
+            int[] stack = new int[2 * stackDepth];
+            double[] bounds = new double[stackDepth];
+            int top = push(stack, bounds, 0, 0, indices.length, 0);
+            int best = -1;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            while (top > 0) {
+                top--;
+                if (bounds[top] >= bestDistance) {
+                    continue;
+                }
+                int from = stack[2 * top];
+                int to = stack[2 * top + 1];
+                if (to - from <= LEAF_SIZE) {
+                    for (int i = from; i < to; i++) {
+                        double distance = distance(query, i, bestDistance);
+                        if (distance < bestDistance) {
+                            bestDistance = distance;
+                            best = i;
+                        }
+                    }
+                    continue;
+                }
+                int mid = (from + to) >>> 1;
+                double distance = distance(query, mid, bestDistance);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = mid;
+                }
+                double diff = query[axes[mid]] - coords[mid * dimension + axes[mid]];
+                double farBound = Math.max(bounds[top], diff * diff);
+                double nearBound = bounds[top];
+                if (diff < 0) {
+                    top = push(stack, bounds, top, mid + 1, to, farBound);
+                    top = push(stack, bounds, top, from, mid, nearBound);
+                } else {
+                    top = push(stack, bounds, top, from, mid, farBound);
+                    top = push(stack, bounds, top, mid + 1, to, nearBound);
+                }
+            }
+            return best < 0 ? -1 : indices[best];
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Finding k nearest points.
+     * @param point point to search near
+     * @param k number of points to find
+     * @return indices of the points sorted by the distance,
+     *         shorter than k if the tree has less points
+     */
+    public int[] kNearest(Point point, int k) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.INDEX_QUERY);
+        try {
+            if (k < 0) {
+                throw new IllegalArgumentException(
+                        "Number of points cannot be negative"
+                );
+            }
+            double[] query = prepare(point);
+            int dimension = getDimension();
+            k = Math.min(k, indices.length);
+            // max-heap of the best found points
+            double[] heapDistances = new double[k];
+            int[] heapPositions = new int[k];
+            int heapSize = 0;
+            int[] stack = new int[2 * stackDepth];
+            double[] bounds = new double[stackDepth];
+            int top = k == 0 ? 0 : push(stack, bounds, 0, 0, indices.length, 0);
+            while (top > 0) {
+                top--;
+                double worst = heapSize < k ? Double.POSITIVE_INFINITY : heapDistances[0];
+                if (bounds[top] >= worst) {
+                    continue;
+                }
+                int from = stack[2 * top];
+                int to = stack[2 * top + 1];
+                if (to - from <= LEAF_SIZE) {
+                    for (int i = from; i < to; i++) {
+                        heapSize = offer(heapDistances, heapPositions, heapSize, k,
+                                distance(query, i, worst), i);
+                        worst = heapSize < k ? Double.POSITIVE_INFINITY : heapDistances[0];
+                    }
+                    continue;
+                }
+                int mid = (from + to) >>> 1;
+                heapSize = offer(heapDistances, heapPositions, heapSize, k,
+                        distance(query, mid, worst), mid);
+                double diff = query[axes[mid]] - coords[mid * dimension + axes[mid]];
+                double farBound = Math.max(bounds[top], diff * diff);
+                double nearBound = bounds[top];
+                if (diff < 0) {
+                    top = push(stack, bounds, top, mid + 1, to, farBound);
+                    top = push(stack, bounds, top, from, mid, nearBound);
+                } else {
+                    top = push(stack, bounds, top, from, mid, farBound);
+                    top = push(stack, bounds, top, mid + 1, to, nearBound);
+                }
+            }
+            // taking the heap apart from the farthest point
+            int[] result = new int[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                result[i] = indices[heapPositions[0]];
+                heapDistances[0] = heapDistances[i];
+                heapPositions[0] = heapPositions[i];
+                siftDown(heapDistances, heapPositions, 0, i);
+            }
+            return result;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Finding all points not farther than the radius.
+     * @param point point to search near
+     * @param radius radius of the search
+     * @return indices of the points in no particular order
+     */
+    public int[] withinRadius(Point point, double radius) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.INDEX_QUERY);
+        try {
+            if (radius < 0) {
+                throw new IllegalArgumentException(
+                        "Radius cannot be negative"
+                );
+            }
+            double[] query = prepare(point);
+            int dimension = getDimension();
+            double limit = radius * radius;
+            int[] result = new int[16];
+            int count = 0;
+            int[] stack = new int[2 * stackDepth];
+            double[] bounds = new double[stackDepth];
+            int top = push(stack, bounds, 0, 0, indices.length, 0);
+            while (top > 0) {
+                top--;
+                if (bounds[top] > limit) {
+                    continue;
+                }
+                int from = stack[2 * top];
+                int to = stack[2 * top + 1];
+                if (to - from <= LEAF_SIZE) {
+                    for (int i = from; i < to; i++) {
+                        if (distance(query, i, limit) <= limit) {
+                            if (count == result.length) {
+                                result = Arrays.copyOf(result, count * 2);
+                            }
+                            result[count++] = indices[i];
+                        }
+                    }
+                    continue;
+                }
+                int mid = (from + to) >>> 1;
+                if (distance(query, mid, limit) <= limit) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = indices[mid];
+                }
+                double diff = query[axes[mid]] - coords[mid * dimension + axes[mid]];
+                double farBound = Math.max(bounds[top], diff * diff);
+                double nearBound = bounds[top];
+                top = push(stack, bounds, top, from, mid, diff < 0 ? nearBound : farBound);
+                top = push(stack, bounds, top, mid + 1, to, diff < 0 ? farBound : nearBound);
+            }
+            return Arrays.copyOf(result, count);
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    private double[] prepare(Point point) {
+        if (point.getDimension() != getDimension()) {
+            throw new IllegalArgumentException(
+                    "Points are in the distinct dimensions"
+            );
+        }
+        return point.getCoords();
+    }
+
+    /**
+     * Squared distance from the query to the point at the position.
+     * Computation stops as soon as the limit is exceeded.
+     */
+    private double distance(double[] query, int position, double limit) {
+        int offset = position * query.length;
+        double result = 0;
+        for (int d = 0; d < query.length && result <= limit; d++) {
+            double diff = query[d] - coords[offset + d];
+            result += diff * diff;
+        }
+        return result;
+    }
+
+    private static int push(int[] stack, double[] bounds, int top, int from, int to, double bound) {
+        if (from >= to) {
+            return top;
+        }
+        stack[2 * top] = from;
+        stack[2 * top + 1] = to;
+        bounds[top] = bound;
+        return top + 1;
+    }
+
+    /** Adding the point to the bounded max-heap **/
+    private static int offer(double[] distances, int[] positions, int size, int capacity,
+                             double distance, int position) {
+        if (size < capacity) {
+            int i = size++;
+            while (i > 0 && distances[(i - 1) >>> 1] < distance) {
+                int parent = (i - 1) >>> 1;
+                distances[i] = distances[parent];
+                positions[i] = positions[parent];
+                i = parent;
+            }
+            distances[i] = distance;
+            positions[i] = position;
+        } else if (distance < distances[0]) {
+            distances[0] = distance;
+            positions[0] = position;
+            siftDown(distances, positions, 0, size);
+        }
+        return size;
+    }
+
+    private static void siftDown(double[] distances, int[] positions, int i, int size) {
+        double distance = distances[i];
+        int position = positions[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && distances[child + 1] > distances[child]) {
+                child++;
+            }
+            if (distances[child] <= distance) {
+                break;
+            }
+            distances[i] = distances[child];
+            positions[i] = positions[child];
+            i = child;
+        }
+        distances[i] = distance;
+        positions[i] = position;
+    }
+
+    /** Building of the range: median by the widest axis goes to the middle **/
+    @SuppressWarnings("serial")
+    private final class Build extends RecursiveAction {
+        private final PointColumns columns;
+        private final double[] keys;
+        private final int from;
+        private final int to;
+
+        Build(PointColumns columns, double[] keys, int from, int to) {
+            this.columns = columns;
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                return;
+            }
+            int axis = widestAxis();
+            double[] column = columns.column(axis);
+            for (int i = from; i < to; i++) {
+                keys[i] = column[indices[i]];
+            }
+            int mid = (from + to) >>> 1;
+            PrimitiveSort.select(keys, indices, from, to, mid);
+            axes[mid] = (byte) axis;
+            if (to - from > PARALLEL_THRESHOLD) {
+                invokeAll(new Build(columns, keys, from, mid), new Build(columns, keys, mid + 1, to));
+            } else {
+                new Build(columns, keys, from, mid).compute();
+                new Build(columns, keys, mid + 1, to).compute();
+            }
+        }
+
+        private int widestAxis() {
+            int best = 0;
+            double bestSpread = -1;
+            for (int d = 0; d < getDimension(); d++) {
+                double[] column = columns.column(d);
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i++) {
+                    double value = column[indices[i]];
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+                if (max - min > bestSpread) {
+                    bestSpread = max - min;
+                    best = d;
+                }
+            }
+            return best;
+        }
+    }
+}
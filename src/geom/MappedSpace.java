@@ -0,0 +1,261 @@
+package geom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only space over the memory-mapped space file.
+ * Coordinates are read straight from the mapped pages,
+ * points and segments are created only when they are asked
+ * for. Points come first and segments after them.
+ * Columns longer than CHUNK doubles are mapped by parts,
+ * since one mapping cannot be longer than 2 GB.
+ * @see SpaceFile
+ */
+public class MappedSpace extends Space {
+    /** Number of doubles in one mapping (1 GB) **/
+    private static final int CHUNK_SHIFT = 27;
+    private static final int CHUNK = 1 << CHUNK_SHIFT;
+
+    /** Number of the points **/
+    private final int pointCount;
+
+    /** Number of the segments **/
+    private final int segmentCount;
+
+    /** Mapped columns: [column][chunk], points then starts and ends of the segments **/
+    private final DoubleBuffer[][] columns;
+
+    /**
+     * Constructor mapping the file.
+     * @param path space file
+     * @throws IOException if the file cannot be mapped or is not a space file
+     */
+    public MappedSpace(Path path) throws IOException {
+        this(path, readHeader(path));
+    }
+
+    private MappedSpace(Path path, long[] header) throws IOException {
+        super((int) header[0]);
+        pointCount = (int) header[1];
+        segmentCount = (int) header[2];
+        int dimension = getDimension();
+        columns = new DoubleBuffer[3 * dimension][];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long expected = SpaceFile.HEADER_SIZE +
+                    8L * dimension * (pointCount + 2L * segmentCount);
+            if (channel.size() < expected) {
+                throw new IOException("Space file is truncated: " + path);
+            }
+            long offset = SpaceFile.HEADER_SIZE;
+            for (int c = 0; c < columns.length; c++) {
+                int length = c < dimension ? pointCount : segmentCount;
+                columns[c] = map(channel, offset, length);
+                offset += 8L * length;
+            }
+        }
+    }
+
+    /**
+     * @return number of the points in the file
+     */
+    public int pointCount() {
+        return pointCount;
+    }
+
+    /**
+     * @return number of the segments in the file
+     */
+    public int segmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Coordinate of the point read from the mapped file.
+     * @param index index of the point
+     * @param axis index of the coordinate
+     * @return coordinate of the point
+     */
+    public double getCoord(int index, int axis) {
+        checkIndex(index, pointCount);
+        return get(axis, index);
+    }
+
+    /**
+     * Coordinate of the start of the segment.
+     * @param segment index of the segment
+     * @param axis index of the coordinate
+     * @return coordinate of the point from
+     */
+    public double getFromCoord(int segment, int axis) {
+        checkIndex(segment, segmentCount);
+        return get(getDimension() + axis, segment);
+    }
+
+    /**
+     * Coordinate of the end of the segment.
+     * @param segment index of the segment
+     * @param axis index of the coordinate
+     * @return coordinate of the point to
+     */
+    public double getToCoord(int segment, int axis) {
+        checkIndex(segment, segmentCount);
+        return get(2 * getDimension() + axis, segment);
+    }
+
+    /**
+     * Creating the point by the index.
+     * @param index index of the point
+     * @return new point
+     */
+    public Point getPoint(int index) {
+        checkIndex(index, pointCount);
+        double[] coords = new double[getDimension()];
+        for (int d = 0; d < coords.length; d++) {
+            coords[d] = get(d, index);
+        }
+        return new Point(coords);
+    }
+
+    /**
+     * Creating the segment by the index.
+     * @param segment index of the segment
+     * @return new segment
+     */
+    public Segment getSegment(int segment) {
+        checkIndex(segment, segmentCount);
+        int dimension = getDimension();
+        double[] dots = new double[2 * dimension];
+        for (int d = 0; d < dots.length; d++) {
+            dots[d] = get(dimension + d, segment);
+        }
+        return new Segment(dots);
+    }
+
+    /**
+     * Space over the file cannot be changed.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addObject(GeomObject object) {
+        throw new UnsupportedOperationException("MappedSpace is read-only");
+    }
+
+    /**
+     * @return number of objects in the space
+     */
+    @Override
+    public int size() {
+        return pointCount + segmentCount;
+    }
+
+    /**
+     * Returning object by the index.
+     * Points and segments are created on demand.
+     * @param index index of the object
+     * @return object of the space
+     */
+    @Override
+    public GeomObject getObject(int index) {
+        if (index < pointCount) {
+            return getPoint(index);
+        }
+        return getSegment(index - pointCount);
+    }
+
+    /**
+     * Copying coordinates of the points into the columns
+     * in bulk, without creating points.
+     * @return columns of the points
+     */
+    @Override
+    public PointColumns toColumns() {
+        PointColumns result = new PointColumns(getDimension(), pointCount);
+        copyPoints(result);
+        return result;
+    }
+
+    /**
+     * Space over the file cannot be changed.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    protected void reorderPoints(PointColumns columns, int[] order) {
+        throw new UnsupportedOperationException("MappedSpace is read-only");
+    }
+
+    /**
+     * Appending coordinates of all points to the columns.
+     * @param target columns to fill
+     */
+    void copyPoints(PointColumns target) {
+        int first = target.size();
+        target.ensureCapacity(first + pointCount);
+        for (int d = 0; d < getDimension(); d++) {
+            double[] column = target.column(d);
+            DoubleBuffer[] chunks = columns[d];
+            for (int c = 0; c < chunks.length; c++) {
+                DoubleBuffer chunk = chunks[c].duplicate();
+                chunk.get(column, first + (c << CHUNK_SHIFT), chunk.remaining());
+            }
+        }
+        target.setSize(first + pointCount);
+    }
+
+    private double get(int column, int index) {
+        return columns[column][index >>> CHUNK_SHIFT].get(index & (CHUNK - 1));
+    }
+
+    private static DoubleBuffer[] map(FileChannel channel, long offset, int length) throws IOException {
+        int count = (length + CHUNK - 1) >>> CHUNK_SHIFT;
+        DoubleBuffer[] result = new DoubleBuffer[count];
+        for (int c = 0; c < count; c++) {
+            int chunkLength = Math.min(CHUNK, length - (c << CHUNK_SHIFT));
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY,
+                    offset + 8L * c * CHUNK, 8L * chunkLength);
+            result[c] = bytes.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return result;
+    }
+
+    /** Reading dimension, number of points and of segments **/
+    private static long[] readHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SpaceFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // reading the whole header
+            }
+            header.flip();
+            if (header.remaining() < SpaceFile.HEADER_SIZE || header.getInt() != SpaceFile.MAGIC) {
+                throw new IOException("Not a space file: " + path);
+            }
+            int version = header.getInt();
+            if (version != SpaceFile.VERSION) {
+                throw new IOException("Unsupported space file version " + version + ": " + path);
+            }
+            int dimension = header.getInt();
+            header.getInt();
+            long points = header.getLong();
+            long segments = header.getLong();
+            if (dimension <= 0 || points < 0 || points > Integer.MAX_VALUE ||
+                    segments < 0 || segments > Integer.MAX_VALUE - points) {
+                throw new IOException("Corrupted space file header: " + path);
+            }
+            return new long[] {dimension, points, segments};
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", size: " + size
+            );
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package geom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Source of the memory outside of the heap for the off-heap
+ * space: direct buffers, or regions of one file mapped to
+ * the memory one after another. Memory is given out and is
+ * never returned separately: direct buffers are freed when
+ * the space is collected, the file is closed by close().
+ */
+final class OffHeapArena implements AutoCloseable {
+    /** File of the regions or null for direct buffers **/
+    private final FileChannel channel;
+
+    /** Mapped regions, to flush them **/
+    private final List<MappedByteBuffer> mappings = new ArrayList<MappedByteBuffer>();
+
+    /** Position of the next region in the file **/
+    private long fileOffset;
+
+    /** Constructor of the arena of direct buffers **/
+    OffHeapArena() {
+        channel = null;
+    }
+
+    /**
+     * Constructor of the arena over the file.
+     * @param path file to create or to replace
+     * @throws IOException if the file cannot be opened
+     */
+    OffHeapArena(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Allocating the memory in the native byte order.
+     * @param bytes size of the memory
+     * @return new buffer
+     */
+    ByteBuffer allocate(int bytes) {
+        if (channel == null) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, fileOffset, bytes);
+            fileOffset += bytes;
+            mappings.add(buffer);
+            return buffer.order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writing the changes of the mapped regions to the file.
+     */
+    void force() {
+        for (MappedByteBuffer buffer : mappings) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            force();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package geom;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+/**
+ * Columns of doubles outside of the heap, for the off-heap
+ * space. Columns grow by chunks of CHUNK values taken from
+ * the arena, so growing never copies.
+ */
+final class OffHeapColumns {
+    /** Number of values in one chunk **/
+    static final int CHUNK_SHIFT = 16;
+    static final int CHUNK = 1 << CHUNK_SHIFT;
+
+    /** Number of the columns **/
+    private final int width;
+
+    /** Source of the chunks **/
+    private final OffHeapArena arena;
+
+    /** Chunks: chunks[chunk][column] **/
+    private DoubleBuffer[][] chunks = new DoubleBuffer[4][];
+
+    /** Number of the allocated chunks **/
+    private int chunkCount;
+
+    /** Number of the rows **/
+    private int size;
+
+    /** Constructor **/
+    OffHeapColumns(int width, OffHeapArena arena) {
+        this.width = width;
+        this.arena = arena;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adding the row.
+     * @param values array with the row
+     * @param offset position of the row in the array
+     * @return index of the row
+     */
+    int add(double[] values, int offset) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap columns are full");
+        }
+        int chunk = size >>> CHUNK_SHIFT;
+        if (chunk == chunkCount) {
+            allocate();
+        }
+        DoubleBuffer[] row = chunks[chunk];
+        int position = size & (CHUNK - 1);
+        for (int c = 0; c < width; c++) {
+            row[c].put(position, values[offset + c]);
+        }
+        return size++;
+    }
+
+    double get(int index, int column) {
+        return chunks[index >>> CHUNK_SHIFT][column].get(index & (CHUNK - 1));
+    }
+
+    /**
+     * Copying the rows [from, from + length) of the column.
+     * @param column index of the column
+     * @param from first row
+     * @param target array to copy to
+     * @param offset position in the array
+     * @param length number of the rows
+     */
+    void copy(int column, int from, double[] target, int offset, int length) {
+        while (length > 0) {
+            int position = from & (CHUNK - 1);
+            int count = Math.min(length, CHUNK - position);
+            chunks[from >>> CHUNK_SHIFT][column].get(position, target, offset, count);
+            from += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Overwriting the rows [from, from + length) of the column.
+     * @param column index of the column
+     * @param from first row
+     * @param source array to copy from
+     * @param offset position in the array
+     * @param length number of the rows
+     */
+    void put(int column, int from, double[] source, int offset, int length) {
+        if (from + length > size) {
+            throw new IndexOutOfBoundsException(
+                    "Rows up to " + (from + length) + ", size: " + size
+            );
+        }
+        while (length > 0) {
+            int position = from & (CHUNK - 1);
+            int count = Math.min(length, CHUNK - position);
+            chunks[from >>> CHUNK_SHIFT][column].put(position, source, offset, count);
+            from += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    private void allocate() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        DoubleBuffer[] row = new DoubleBuffer[width];
+        for (int c = 0; c < width; c++) {
+            row[c] = arena.allocate(CHUNK * Double.BYTES).asDoubleBuffer();
+        }
+        chunks[chunkCount++] = row;
+    }
+}
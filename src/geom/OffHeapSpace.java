@@ -0,0 +1,244 @@
+package geom;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Space which keeps coordinates of its points and segments
+ * outside of the heap, so they are not scanned by the GC.
+ * Memory is taken from direct buffers or from the file mapped
+ * to the memory. Points and segments are created only on
+ * access. Objects are ordered as points, segments, and then
+ * all other objects, which stay on the heap.
+ * NOTE: the file of the space is a scratch storage, it is
+ * replaced on creation; SpaceFile saves spaces for later.
+ */
+public class OffHeapSpace extends Space implements AutoCloseable {
+    /** Source of the memory **/
+    private final OffHeapArena arena;
+
+    /** Coordinates of the points **/
+    private final OffHeapColumns points;
+
+    /** Coordinates of the segments: point from, then point to **/
+    private final OffHeapColumns segments;
+
+    /** Buffer of the coordinates of the added object **/
+    private final double[] row;
+
+    /** Constructor of the space in direct buffers **/
+    public OffHeapSpace(int numOfDimensions) {
+        this(numOfDimensions, new OffHeapArena());
+    }
+
+    /**
+     * Constructor of the space in the file mapped to the memory.
+     * @param numOfDimensions number of dimensions
+     * @param path file to keep the coordinates in, replaced if it exists
+     * @throws IOException if the file cannot be opened
+     */
+    public OffHeapSpace(int numOfDimensions, Path path) throws IOException {
+        this(numOfDimensions, new OffHeapArena(path));
+    }
+
+    private OffHeapSpace(int numOfDimensions, OffHeapArena arena) {
+        super(numOfDimensions);
+        this.arena = arena;
+        points = new OffHeapColumns(numOfDimensions, arena);
+        segments = new OffHeapColumns(2 * numOfDimensions, arena);
+        row = new double[2 * numOfDimensions];
+    }
+
+    /**
+     * Add object to the space.
+     * Coordinates of points and segments go off the heap.
+     * @param object object to add
+     * @return success of adding
+     */
+    @Override
+    public boolean addObject(GeomObject object) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_ADD);
+        try {
+            if (object.getDimension() != getDimension()) {
+                throw new IllegalArgumentException("OffHeapSpace.addObject()" +
+                        " illegal dimension of the object.");
+            }
+            int dimension = getDimension();
+            if (object instanceof Point) {
+                Point point = (Point) object;
+                for (int d = 0; d < dimension; d++) {
+                    row[d] = point.getCoord(d);
+                }
+                points.add(row, 0);
+            } else if (object instanceof Segment) {
+                Segment segment = (Segment) object;
+                for (int d = 0; d < dimension; d++) {
+                    row[d] = segment.getFrom().getCoord(d);
+                    row[dimension + d] = segment.getTo().getCoord(d);
+                }
+                segments.add(row, 0);
+            } else {
+                objects.add(object);
+            }
+            indexObject(object);
+            return true;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Add point given by its coordinates
+     * without creating Point object.
+     * @param coords coordinates of the point
+     * @return index of the point
+     */
+    public int addPoint(double... coords) {
+        if (coords.length != getDimension()) {
+            throw new IllegalArgumentException("OffHeapSpace.addPoint()" +
+                    " illegal dimension of the point.");
+        }
+        int index = points.add(coords, 0);
+        if (!indexes.isEmpty()) {
+            indexObject(getPoint(index));
+        }
+        return index;
+    }
+
+    /**
+     * @return number of points in the space
+     */
+    public int pointCount() {
+        return points.size();
+    }
+
+    /**
+     * @return number of segments in the space
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returning coordinate of the point without creating it.
+     * @param index index of the point
+     * @param axis index of the coordinate
+     * @return coordinate of the point
+     */
+    public double getCoord(int index, int axis) {
+        checkIndex(index, points.size());
+        if (axis < 0 || axis >= getDimension()) {
+            throw new IllegalArgumentException("Index is bigger than dimension");
+        }
+        return points.get(index, axis);
+    }
+
+    /**
+     * Creating point view by the index.
+     * @param index index of the point
+     * @return new point
+     */
+    public Point getPoint(int index) {
+        checkIndex(index, points.size());
+        double[] coords = new double[getDimension()];
+        for (int d = 0; d < coords.length; d++) {
+            coords[d] = points.get(index, d);
+        }
+        return new Point(coords);
+    }
+
+    /**
+     * Creating segment view by the index.
+     * @param index index of the segment
+     * @return new segment
+     */
+    public Segment getSegment(int index) {
+        checkIndex(index, segments.size());
+        double[] dots = new double[2 * getDimension()];
+        for (int d = 0; d < dots.length; d++) {
+            dots[d] = segments.get(index, d);
+        }
+        return new Segment(dots);
+    }
+
+    /**
+     * @return number of objects in the space
+     */
+    @Override
+    public int size() {
+        return points.size() + segments.size() + objects.size();
+    }
+
+    /**
+     * Returning object by the index.
+     * Points and segments are created on demand.
+     * @param index index of the object
+     * @return object of the space
+     */
+    @Override
+    public GeomObject getObject(int index) {
+        if (index < points.size()) {
+            return getPoint(index);
+        }
+        index -= points.size();
+        if (index < segments.size()) {
+            return getSegment(index);
+        }
+        return objects.get(index - segments.size());
+    }
+
+    /**
+     * Copying coordinates of all points into the
+     * columns on the heap in bulk.
+     * @return columns of the points
+     */
+    @Override
+    public PointColumns toColumns() {
+        int size = points.size();
+        PointColumns result = new PointColumns(getDimension(), size);
+        for (int d = 0; d < getDimension(); d++) {
+            points.copy(d, 0, result.column(d), 0, size);
+        }
+        result.setSize(size);
+        return result;
+    }
+
+    /**
+     * Writing the coordinates of the points back in the order.
+     * @param columns points of the space copied to the heap
+     * @param order indices of the points in the new order
+     */
+    @Override
+    protected void reorderPoints(PointColumns columns, int[] order) {
+        columns.reorder(order);
+        for (int d = 0; d < getDimension(); d++) {
+            points.put(d, 0, columns.column(d), 0, columns.size());
+        }
+    }
+
+    /**
+     * Writing the coordinates to the file
+     * of the space, if there is one.
+     */
+    public void force() {
+        arena.force();
+    }
+
+    /**
+     * Closing the file of the space, if there is one.
+     * The space cannot be used after closing.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        arena.close();
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", size: " + size
+            );
+        }
+    }
+}
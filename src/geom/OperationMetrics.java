@@ -0,0 +1,102 @@
+package geom;
+
+/**
+ * Immutable metrics of one operation taken by GeomMetrics.snapshot().
+ * Latencies are kept in the power of two histogram: bucket i
+ * counts operations which took [2^i, 2^(i + 1)) nanoseconds,
+ * bucket 0 also counts those which took no time.
+ */
+final public class OperationMetrics {
+    /** Operation of the metrics **/
+    private final GeomOperation operation;
+
+    /** Number of the operations **/
+    private final long count;
+
+    /** Total time of the timed operations in nanoseconds **/
+    private final long totalNanos;
+
+    /** Bytes allocated by the timed operations **/
+    private final long allocatedBytes;
+
+    /** Histogram of the latencies **/
+    private final long[] histogram;
+
+    /** Constructor **/
+    OperationMetrics(GeomOperation operation, long count, long totalNanos,
+                     long allocatedBytes, long[] histogram) {
+        this.operation = operation;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.histogram = histogram;
+    }
+
+    /**
+     * @return operation of the metrics
+     */
+    public GeomOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return number of the operations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return total time of the operations in nanoseconds, 0 if they are not timed
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return bytes allocated by the operations, 0 if they are not timed
+     *         or the JVM does not measure allocations
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return copy of the histogram of the latencies
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Upper bound of the latency of the given share of the operations.
+     * @param quantile share of the operations from 0 to 1
+     * @return latency in nanoseconds, rounded up to the bucket bound
+     */
+    public long getPercentile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException(
+                    "Quantile should be from 0 to 1"
+            );
+        }
+        long total = 0;
+        for (long bucket : histogram) {
+            total += bucket;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank && seen > 0) {
+                return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics: {operation: " + operation + ", count: " + count +
+                ", totalNanos: " + totalNanos + ", allocatedBytes: " + allocatedBytes + "}.";
+    }
+}
@@ -0,0 +1,128 @@
+package geom;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Running a function over the even chunks of an index
+ * range in the common fork-join pool, for the parallel
+ * operations of the package.
+ */
+final class ParallelRanges {
+    /** Ranges shorter than this are not split **/
+    private static final int MIN_CHUNK = 1 << 12;
+
+    /** Chunks per worker thread, to balance uneven chunks **/
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Function of the index range.
+     * @param <R> type of the result
+     */
+    @FunctionalInterface
+    interface RangeFunction<R> {
+        R apply(int from, int to);
+    }
+
+    private ParallelRanges() {
+    }
+
+    /**
+     * Applying the function to the chunks of [0, size).
+     * @param size length of the range
+     * @param function function to apply
+     * @return results of the chunks in the order of the chunks
+     */
+    @SuppressWarnings("unchecked")
+    static <R> List<R> map(int size, RangeFunction<R> function) {
+        int chunks = chunks(size);
+        Object[] results = new Object[chunks];
+        if (chunks == 1) {
+            results[0] = function.apply(0, size);
+        } else {
+            ForkJoinPool.commonPool().invoke(new Chunks<R>(function, results, size, chunks, 0, chunks));
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * Number of the chunks map() splits [0, size) into. Operations
+     * running several passes over the same chunks take it once and
+     * pass it to forEach() with the bounds from start().
+     * @param size length of the range
+     * @return number of the chunks, at least one
+     */
+    static int chunks(int size) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunk = Math.max(MIN_CHUNK, size / (parallelism * CHUNKS_PER_THREAD) + 1);
+        return Math.max(1, (size + chunk - 1) / chunk);
+    }
+
+    /**
+     * Start of the chunk, the chunk ends at the start of the next one.
+     * Bounds are spread evenly, so chunks differ by one at most.
+     * @param size length of the range
+     * @param chunks number of the chunks
+     * @param chunk index of the chunk, chunks for the end of the range
+     * @return first index of the chunk
+     */
+    static int start(int size, int chunks, int chunk) {
+        return (int) ((long) size * chunk / chunks);
+    }
+
+    /**
+     * Running the action for each index of [0, count) as a separate
+     * task, for a few coarse tasks which are not worth chunking.
+     * @param count number of the indices
+     * @param action action to run
+     */
+    static void forEach(int count, IntConsumer action) {
+        if (count <= 1) {
+            for (int i = 0; i < count; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+        RangeFunction<Void> function = (from, to) -> {
+            for (int i = from; i < to; i++) {
+                action.accept(i);
+            }
+            return null;
+        };
+        ForkJoinPool.commonPool().invoke(new Chunks<Void>(function, new Object[count], count, count, 0, count));
+    }
+
+    /** Task computing the chunks [from, to) **/
+    @SuppressWarnings("serial")
+    private static final class Chunks<R> extends RecursiveAction {
+        private final RangeFunction<R> function;
+        private final Object[] results;
+        private final int size;
+        private final int chunks;
+        private final int from;
+        private final int to;
+
+        Chunks(RangeFunction<R> function, Object[] results, int size, int chunks, int from, int to) {
+            this.function = function;
+            this.results = results;
+            this.size = size;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = function.apply(start(size, chunks, from), start(size, chunks, to));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunks<R>(function, results, size, chunks, from, mid),
+                    new Chunks<R>(function, results, size, chunks, mid, to));
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package geom;
+
 import java.awt.*;
 
 /**
@@ -7,6 +9,15 @@ final public class Point extends GeomObject {
     /** Dots of point **/
     final private double[] coords;
 
+    /**
+     * Cached hash code, 0 - not computed yet. Racing threads
+     * compute the same value, so the field needs no locking.
+     */
+    private int hash;
+
+    /** Hash code was computed and it is 0 **/
+    private boolean hashIsZero;
+
     /** Constructor **/
     public Point(double... dots) {
         super(dots.length);
@@ -104,6 +115,7 @@ final public class Point extends GeomObject {
      * @return result point
      */
     public Point sub(Point point) {
+        GeomMetrics.count(GeomOperation.POINT_ARITHMETIC);
         double[][] prepared = prepareForOperation(point);
         double[] dots = new double[prepared[0].length];
         for (int i = 0; i < this.getDimension(); i++) {
@@ -118,6 +130,7 @@ final public class Point extends GeomObject {
      * @return result point
      */
     public Point sum(Point point) {
+        GeomMetrics.count(GeomOperation.POINT_ARITHMETIC);
         double[][] prepared = prepareForOperation(point);
         double[] dots = new double[prepared[0].length];
         for (int i = 0; i < this.getDimension(); i++) {
@@ -133,6 +146,7 @@ final public class Point extends GeomObject {
      * @return result point
      */
     public Point sum(int value) {
+        GeomMetrics.count(GeomOperation.POINT_ARITHMETIC);
         double[] coords = getCoords();
         for (int i = 0; i < coords.length; i++) {
             coords[i] += value;
@@ -147,6 +161,7 @@ final public class Point extends GeomObject {
      * @return result point
      */
     public Point mul(int value) {
+        GeomMetrics.count(GeomOperation.POINT_ARITHMETIC);
         double[] coords = getCoords();
         for (int i = 0; i < coords.length; i++) {
             coords[i] *= value;
@@ -161,6 +176,7 @@ final public class Point extends GeomObject {
      * @return result point
      */
     public Point mul(Point point) {
+        GeomMetrics.count(GeomOperation.POINT_ARITHMETIC);
         double[][] prepared = prepareForOperation(point);
         double[] dots = new double[prepared[0].length];
         for (int i = 0; i < this.getDimension(); i++) {
@@ -176,6 +192,7 @@ final public class Point extends GeomObject {
      * @return result point
      */
     public Point div(double value) {
+        GeomMetrics.count(GeomOperation.POINT_ARITHMETIC);
         if (value == 0) {
             throw new IllegalArgumentException(
                     "Value should not be 0"
@@ -226,9 +243,17 @@ final public class Point extends GeomObject {
      */
     @Override
     public int hashCode() {
-        int result = 1;
-        for (double coord : coords) {
-            result += (result + (int)(coord * 100)) * 31;
+        int result = hash;
+        if (result == 0 && !hashIsZero) {
+            result = 1;
+            for (double coord : coords) {
+                result += (result + (int)(coord * 100)) * 31;
+            }
+            if (result == 0) {
+                hashIsZero = true;
+            } else {
+                hash = result;
+            }
         }
         return result;
     }
@@ -258,6 +283,7 @@ final public class Point extends GeomObject {
 
     /**
      * Method to draw 2-dimensional point
+     * (to draw many objects use {@link SpaceRenderer})
      * @param g graphics instance
      * @param color color of the point
      * @param size size of the point (number of pixels)
@@ -0,0 +1,172 @@
+package geom;
+
+/**
+ * Immutable point of 2 dimensions kept in two
+ * double fields. Operations do no dimension checks
+ * and allocate only the result, so the JIT can
+ * scalar-replace the points of hot loops.
+ * Point2D is converted from and to Point.
+ */
+final public class Point2D {
+    /** X coordinate **/
+    private final double x;
+
+    /** Y coordinate **/
+    private final double y;
+
+    /** Constructor **/
+    public Point2D(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Converting the point of 2 dimensions.
+     * @param point point to convert
+     * @return new point
+     */
+    public static Point2D of(Point point) {
+        if (point.getDimension() != 2) {
+            throw new IllegalArgumentException(
+                    "Point is not 2-dimensional!"
+            );
+        }
+        return new Point2D(point.getX(), point.getY());
+    }
+
+    /**
+     * @return point with the same coordinates
+     */
+    public Point toPoint() {
+        return new Point(x, y);
+    }
+
+    /**
+     * @return X coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return Y coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Method to compute coordinates' sub,
+     * the same as Point.sub(): point - this.
+     * @param point point to sub with
+     * @return result point
+     */
+    public Point2D sub(Point2D point) {
+        return new Point2D(point.x - x, point.y - y);
+    }
+
+    /**
+     * Method to sum two points.
+     * @param point point to sum with
+     * @return result point
+     */
+    public Point2D sum(Point2D point) {
+        return new Point2D(x + point.x, y + point.y);
+    }
+
+    /**
+     * Method to multiply coordinates with the coordinates of the point.
+     * @param point point to multiply with
+     * @return result point
+     */
+    public Point2D mul(Point2D point) {
+        return new Point2D(x * point.x, y * point.y);
+    }
+
+    /**
+     * Method to multiply all coordinates with the value.
+     * @param value value to multiply with
+     * @return result point
+     */
+    public Point2D mul(double value) {
+        return new Point2D(x * value, y * value);
+    }
+
+    /**
+     * Method to divide all coordinates by the value.
+     * @param value value to divide by
+     * @return result point
+     */
+    public Point2D div(double value) {
+        if (value == 0) {
+            throw new IllegalArgumentException(
+                    "Value should not be 0"
+            );
+        }
+        return new Point2D(x / value, y / value);
+    }
+
+    /**
+     * Squared distance to the point.
+     * @param point point to measure distance to
+     * @return squared distance
+     */
+    public double distanceSquared(Point2D point) {
+        double dx = x - point.x;
+        double dy = y - point.y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Compares two points by the coordinates
+     * in reversed order (Y, X) as Point.compareTo().
+     * @param point point to compare with.
+     * @return 1 if this > point, 0 if this == point, -1 - else.
+     */
+    public int compareTo(Point2D point) {
+        if (y > point.y) {
+            return 1;
+        } else if (y < point.y) {
+            return -1;
+        }
+        if (x > point.x) {
+            return 1;
+        } else if (x < point.x) {
+            return -1;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Point: " + x + ", " + y + ".";
+    }
+
+    /**
+     * Compare point to the other
+     * @param obj object to compare with
+     * @return true if coordinates are equals
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Point2D)) {
+            return false;
+        }
+        return compareTo((Point2D) obj) == 0;
+    }
+
+    /**
+     * Hash code equal to the one of the same Point.
+     * @return hash code of the point
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        result += (result + (int) (x * 100)) * 31;
+        result += (result + (int) (y * 100)) * 31;
+        return result;
+    }
+}
@@ -0,0 +1,190 @@
+package geom;
+
+/**
+ * Immutable point of 3 dimensions kept in three
+ * double fields. Operations do no dimension checks
+ * and allocate only the result, so the JIT can
+ * scalar-replace the points of hot loops.
+ * Point3D is converted from and to Point.
+ */
+final public class Point3D {
+    /** X coordinate **/
+    private final double x;
+
+    /** Y coordinate **/
+    private final double y;
+
+    /** Z coordinate **/
+    private final double z;
+
+    /** Constructor **/
+    public Point3D(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Converting the point of 3 dimensions.
+     * @param point point to convert
+     * @return new point
+     */
+    public static Point3D of(Point point) {
+        if (point.getDimension() != 3) {
+            throw new IllegalArgumentException(
+                    "Point is not 3-dimensional!"
+            );
+        }
+        return new Point3D(point.getX(), point.getY(), point.getZ());
+    }
+
+    /**
+     * @return point with the same coordinates
+     */
+    public Point toPoint() {
+        return new Point(x, y, z);
+    }
+
+    /**
+     * @return X coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return Y coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return Z coordinate
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Method to compute coordinates' sub,
+     * the same as Point.sub(): point - this.
+     * @param point point to sub with
+     * @return result point
+     */
+    public Point3D sub(Point3D point) {
+        return new Point3D(point.x - x, point.y - y, point.z - z);
+    }
+
+    /**
+     * Method to sum two points.
+     * @param point point to sum with
+     * @return result point
+     */
+    public Point3D sum(Point3D point) {
+        return new Point3D(x + point.x, y + point.y, z + point.z);
+    }
+
+    /**
+     * Method to multiply coordinates with the coordinates of the point.
+     * @param point point to multiply with
+     * @return result point
+     */
+    public Point3D mul(Point3D point) {
+        return new Point3D(x * point.x, y * point.y, z * point.z);
+    }
+
+    /**
+     * Method to multiply all coordinates with the value.
+     * @param value value to multiply with
+     * @return result point
+     */
+    public Point3D mul(double value) {
+        return new Point3D(x * value, y * value, z * value);
+    }
+
+    /**
+     * Method to divide all coordinates by the value.
+     * @param value value to divide by
+     * @return result point
+     */
+    public Point3D div(double value) {
+        if (value == 0) {
+            throw new IllegalArgumentException(
+                    "Value should not be 0"
+            );
+        }
+        return new Point3D(x / value, y / value, z / value);
+    }
+
+    /**
+     * Squared distance to the point.
+     * @param point point to measure distance to
+     * @return squared distance
+     */
+    public double distanceSquared(Point3D point) {
+        double dx = x - point.x;
+        double dy = y - point.y;
+        double dz = z - point.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Compares two points by the coordinates
+     * in reversed order (Z, Y, X) as Point.compareTo().
+     * @param point point to compare with.
+     * @return 1 if this > point, 0 if this == point, -1 - else.
+     */
+    public int compareTo(Point3D point) {
+        if (z > point.z) {
+            return 1;
+        } else if (z < point.z) {
+            return -1;
+        }
+        if (y > point.y) {
+            return 1;
+        } else if (y < point.y) {
+            return -1;
+        }
+        if (x > point.x) {
+            return 1;
+        } else if (x < point.x) {
+            return -1;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Point: " + x + ", " + y + ", " + z + ".";
+    }
+
+    /**
+     * Compare point to the other
+     * @param obj object to compare with
+     * @return true if coordinates are equals
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Point3D)) {
+            return false;
+        }
+        return compareTo((Point3D) obj) == 0;
+    }
+
+    /**
+     * Hash code equal to the one of the same Point.
+     * @return hash code of the point
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        result += (result + (int) (x * 100)) * 31;
+        result += (result + (int) (y * 100)) * 31;
+        result += (result + (int) (z * 100)) * 31;
+        return result;
+    }
+}
@@ -0,0 +1,335 @@
+package geom;
+
+import java.util.Arrays;
+
+/**
+ * Mutable point for chains of arithmetic without garbage.
+ * Operations change the coordinates in place and return
+ * the accumulator itself, so a chain like
+ * acc.set(a).sub(b).mul(k).div(d) allocates nothing.
+ * Operations give the same results as the ones of
+ * Point and Vector, the accumulator holds the source
+ * of the vector for the vector operations.
+ * Immutable Point or Vector is created only by toPoint()
+ * and toVector(). Accumulator is not thread-safe.
+ */
+final public class PointAccumulator extends Dimension {
+    /** Current coordinates **/
+    private final double[] coords;
+
+    /** Constructor of the accumulator at the origin **/
+    public PointAccumulator(int numOfDimensions) {
+        super(numOfDimensions);
+        coords = new double[numOfDimensions];
+    }
+
+    /** Constructor **/
+    public PointAccumulator(Point point) {
+        this(point.getDimension());
+        set(point);
+    }
+
+    /**
+     * Setting the coordinates of the point.
+     * @param point point to copy
+     * @return this accumulator
+     */
+    public PointAccumulator set(Point point) {
+        checkDimension(point);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = point.getCoord(i);
+        }
+        return this;
+    }
+
+    /**
+     * Setting the coordinates of the source of the vector.
+     * @param vector vector to copy
+     * @return this accumulator
+     */
+    public PointAccumulator set(Vector vector) {
+        return set(vector.getSource());
+    }
+
+    /**
+     * Setting the coordinates of the other accumulator.
+     * @param accumulator accumulator to copy
+     * @return this accumulator
+     */
+    public PointAccumulator set(PointAccumulator accumulator) {
+        checkDimension(accumulator);
+        System.arraycopy(accumulator.coords, 0, coords, 0, coords.length);
+        return this;
+    }
+
+    /**
+     * Setting the coordinates.
+     * @param dots new coordinates
+     * @return this accumulator
+     */
+    public PointAccumulator set(double... dots) {
+        if (dots.length != coords.length) {
+            throw new IllegalArgumentException(
+                    "Dimensions of the points are distinct!");
+        }
+        System.arraycopy(dots, 0, coords, 0, coords.length);
+        return this;
+    }
+
+    /**
+     * Returning coordinate by the index.
+     * @param index index of the coordinate
+     * @return coordinate by index
+     */
+    public double getCoord(int index) {
+        return coords[index];
+    }
+
+    /**
+     * @return X coordinate
+     */
+    public double getX() {
+        return coords[0];
+    }
+
+    /**
+     * @return Y coordinate
+     */
+    public double getY() {
+        return coords[1];
+    }
+
+    /**
+     * Sub as Point.sub(): coordinates become point - this.
+     * @param point point to sub with
+     * @return this accumulator
+     */
+    public PointAccumulator sub(Point point) {
+        checkDimension(point);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = point.getCoord(i) - coords[i];
+        }
+        return this;
+    }
+
+    /**
+     * Sub as Point.sub(): coordinates become accumulator - this.
+     * @param accumulator accumulator to sub with
+     * @return this accumulator
+     */
+    public PointAccumulator sub(PointAccumulator accumulator) {
+        checkDimension(accumulator);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = accumulator.coords[i] - coords[i];
+        }
+        return this;
+    }
+
+    /**
+     * Adding the coordinates of the point.
+     * @param point point to sum with
+     * @return this accumulator
+     */
+    public PointAccumulator sum(Point point) {
+        checkDimension(point);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] += point.getCoord(i);
+        }
+        return this;
+    }
+
+    /**
+     * Adding the source of the vector as Vector.sum().
+     * @param vector vector to sum with
+     * @return this accumulator
+     */
+    public PointAccumulator sum(Vector vector) {
+        return sum(vector.getSource());
+    }
+
+    /**
+     * Adding the coordinates of the other accumulator.
+     * @param accumulator accumulator to sum with
+     * @return this accumulator
+     */
+    public PointAccumulator sum(PointAccumulator accumulator) {
+        checkDimension(accumulator);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] += accumulator.coords[i];
+        }
+        return this;
+    }
+
+    /**
+     * Adding the value to all coordinates.
+     * @param value value to sum with
+     * @return this accumulator
+     */
+    public PointAccumulator sum(double value) {
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] += value;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplying the coordinates with the coordinates of the point.
+     * @param point point to multiply with
+     * @return this accumulator
+     */
+    public PointAccumulator mul(Point point) {
+        checkDimension(point);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] *= point.getCoord(i);
+        }
+        return this;
+    }
+
+    /**
+     * Multiplying all coordinates with the value.
+     * @param value value to multiply with
+     * @return this accumulator
+     */
+    public PointAccumulator mul(double value) {
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] *= value;
+        }
+        return this;
+    }
+
+    /**
+     * Dividing all coordinates by the value.
+     * @param value value to divide by
+     * @return this accumulator
+     */
+    public PointAccumulator div(double value) {
+        if (value == 0) {
+            throw new IllegalArgumentException(
+                    "Value should not be 0"
+            );
+        }
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] /= value;
+        }
+        return this;
+    }
+
+    /**
+     * Length of the vector with the accumulator as the source.
+     * @return length of the vector
+     */
+    public double length() {
+        double value = 0;
+        for (int i = 0; i < coords.length; i++) {
+            value += coords[i] * coords[i];
+        }
+        return Math.sqrt(value);
+    }
+
+    /**
+     * Turning the vector into the unit vector.
+     * @return this accumulator
+     */
+    public PointAccumulator unitVector() {
+        return div(length());
+    }
+
+    /**
+     * Scalar multiplication with the vector.
+     * @param vector vector to multiply with
+     * @return value of the multiplication
+     */
+    public double scalarMul(Vector vector) {
+        Point source = vector.getSource();
+        checkDimension(source);
+        double result = 0;
+        for (int i = 0; i < coords.length; i++) {
+            result += coords[i] * source.getCoord(i);
+        }
+        return result;
+    }
+
+    /**
+     * Scalar multiplication with the other accumulator.
+     * @param accumulator accumulator to multiply with
+     * @return value of the multiplication
+     */
+    public double scalarMul(PointAccumulator accumulator) {
+        checkDimension(accumulator);
+        double result = 0;
+        for (int i = 0; i < coords.length; i++) {
+            result += coords[i] * accumulator.coords[i];
+        }
+        return result;
+    }
+
+    /**
+     * Vector multiplication of 2-dimensional vectors.
+     * @param vector vector to multiply with
+     * @return Z coordinate of the result vector
+     */
+    public double vectorMul(Vector vector) {
+        Point source = vector.getSource();
+        checkPlanar(source);
+        return Predicates.orient2d(coords[0], coords[1], source.getCoord(0), source.getCoord(1), 0, 0);
+    }
+
+    /**
+     * Vector multiplication of 2-dimensional vectors.
+     * @param accumulator accumulator to multiply with
+     * @return Z coordinate of the result vector
+     */
+    public double vectorMul(PointAccumulator accumulator) {
+        checkPlanar(accumulator);
+        return Predicates.orient2d(coords[0], coords[1], accumulator.coords[0], accumulator.coords[1], 0, 0);
+    }
+
+    /**
+     * @return new point with the current coordinates
+     */
+    public Point toPoint() {
+        return new Point(coords);
+    }
+
+    /**
+     * @return new vector with the current coordinates as the source
+     */
+    public Vector toVector() {
+        return new Vector(coords);
+    }
+
+    /**
+     * Accumulator is mutable, so only the same object is equal.
+     * @param obj object to compare with
+     * @return TRUE for the same object, FALSE - else
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "PointAccumulator: " + Arrays.toString(coords);
+    }
+
+    private void checkDimension(Dimension other) {
+        if (other.getDimension() != coords.length) {
+            throw new IllegalArgumentException(
+                    "Dimensions of the points are distinct!");
+        }
+    }
+
+    private void checkPlanar(Dimension other) {
+        if (other.getDimension() != coords.length || coords.length != 2) {
+            throw new IllegalArgumentException(
+                    "Vectors have dimensions which are not equal to 2"
+            );
+        }
+    }
+}
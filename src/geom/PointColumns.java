@@ -0,0 +1,294 @@
+package geom;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage of points.
+ * Every coordinate axis is kept in its own
+ * contiguous double[] column and every point
+ * is addressed by its index in the columns.
+ * Point objects are created only on demand.
+ */
+final public class PointColumns extends Dimension {
+    /** Capacity used when nothing is specified **/
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Coordinates: columns[axis][index] **/
+    private double[][] columns;
+
+    /** Number of stored points **/
+    private int size;
+
+    /** Constructor **/
+    public PointColumns(int numOfDimensions) {
+        this(numOfDimensions, DEFAULT_CAPACITY);
+    }
+
+    /** Constructor **/
+    public PointColumns(int numOfDimensions, int capacity) {
+        super(numOfDimensions);
+        if (capacity < 0) {
+            throw new IllegalArgumentException(
+                    "Capacity cannot be negative"
+            );
+        }
+        columns = new double[numOfDimensions][capacity];
+    }
+
+    /**
+     * @return number of stored points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Making sure that columns can hold
+     * given number of points without growing.
+     * @param capacity required number of points
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= columns[0].length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, columns[0].length + (columns[0].length >> 1));
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Arrays.copyOf(columns[i], newCapacity);
+        }
+    }
+
+    /**
+     * Setting the number of points after the columns
+     * were filled directly, for the bulk algorithms.
+     * @param size new number of points
+     */
+    void setSize(int size) {
+        if (size < 0 || size > columns[0].length) {
+            throw new IllegalArgumentException(
+                    "Size " + size + " is out of the capacity " + columns[0].length
+            );
+        }
+        this.size = size;
+    }
+
+    /**
+     * Add point to the end of the columns.
+     * @param point point to add
+     * @return index of the added point
+     */
+    public int add(Point point) {
+        if (point.getDimension() != getDimension()) {
+            throw new IllegalArgumentException(
+                    "PointColumns.add() illegal dimension of the point."
+            );
+        }
+        ensureCapacity(size + 1);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i][size] = point.getCoord(i);
+        }
+        return size++;
+    }
+
+    /**
+     * Add point given by its coordinates
+     * to the end of the columns.
+     * @param coords coordinates of the point
+     * @return index of the added point
+     */
+    public int add(double... coords) {
+        if (coords.length != getDimension()) {
+            throw new IllegalArgumentException(
+                    "PointColumns.add() illegal dimension of the point."
+            );
+        }
+        ensureCapacity(size + 1);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i][size] = coords[i];
+        }
+        return size++;
+    }
+
+    /**
+     * Add points given by interleaved coordinates
+     * (x0, y0, x1, y1, ... for 2 dimensions).
+     * @param coords interleaved coordinates
+     * @return index of the first added point
+     */
+    public int addAll(double[] coords) {
+        int dimension = getDimension();
+        if (coords.length % dimension != 0) {
+            throw new IllegalArgumentException(
+                    "PointColumns.addAll() number of coordinates" +
+                    " is not a multiple of the dimension."
+            );
+        }
+        int count = coords.length / dimension;
+        int first = size;
+        ensureCapacity(size + count);
+        for (int i = 0; i < dimension; i++) {
+            double[] column = columns[i];
+            for (int j = 0, k = i; j < count; j++, k += dimension) {
+                column[first + j] = coords[k];
+            }
+        }
+        size += count;
+        return first;
+    }
+
+    /**
+     * Returning coordinate of the point.
+     * @param index index of the point
+     * @param axis index of the coordinate
+     * @return coordinate of the point
+     */
+    public double getCoord(int index, int axis) {
+        checkIndex(index);
+        return columns[axis][index];
+    }
+
+    /**
+     * Creating point view of the stored coordinates.
+     * @param index index of the point
+     * @return new point
+     */
+    public Point getPoint(int index) {
+        checkIndex(index);
+        double[] coords = new double[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            coords[i] = columns[i][index];
+        }
+        return new Point(coords);
+    }
+
+    /**
+     * Copy of the column of one coordinate.
+     * @param axis index of the coordinate
+     * @return array length of size()
+     */
+    public double[] getColumn(int axis) {
+        return Arrays.copyOf(columns[axis], size);
+    }
+
+    /**
+     * Backing column without copying, for the
+     * bulk algorithms of the package.
+     * NOTE: array can be longer than size().
+     * @param axis index of the coordinate
+     * @return backing array
+     */
+    double[] column(int axis) {
+        return columns[axis];
+    }
+
+    /**
+     * Moving the points into the order,
+     * for the bulk algorithms of the package.
+     * @param order indices of the points in the new order
+     */
+    void reorder(int[] order) {
+        if (order.length != size) {
+            throw new IllegalArgumentException(
+                    "Order of " + order.length + " points for " + size + " points"
+            );
+        }
+        for (int axis = 0; axis < columns.length; axis++) {
+            double[] column = columns[axis];
+            double[] result = new double[column.length];
+            ParallelRanges.map(size, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    result[i] = column[order[i]];
+                }
+                return null;
+            });
+            columns[axis] = result;
+        }
+    }
+
+    /**
+     * Squared distance between stored point
+     * and the given one.
+     * @param index index of the stored point
+     * @param point point to measure distance to
+     * @return squared distance
+     */
+    public double distanceSquared(int index, Point point) {
+        checkIndex(index);
+        if (point.getDimension() != getDimension()) {
+            throw new IllegalArgumentException(
+                    "Points are in the distinct dimensions"
+            );
+        }
+        double result = 0;
+        for (int i = 0; i < columns.length; i++) {
+            double d = columns[i][index] - point.getCoord(i);
+            result += d * d;
+        }
+        return result;
+    }
+
+    /**
+     * Squared distance between two stored points.
+     * @param i index of the first point
+     * @param j index of the second point
+     * @return squared distance
+     */
+    public double distanceSquared(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        double result = 0;
+        for (double[] column : columns) {
+            double d = column[i] - column[j];
+            result += d * d;
+        }
+        return result;
+    }
+
+    /**
+     * Computing distances from the point
+     * to all stored points in one scan.
+     * @see BatchKernels#distances(PointColumns, Point)
+     * @param point point to measure distances to
+     * @return array length of size()
+     */
+    public double[] distances(Point point) {
+        return BatchKernels.distances(this, point);
+    }
+
+    /**
+     * Bounding box of all stored points.
+     * @return envelope of the points
+     */
+    public Envelope boundingBox() {
+        if (size == 0) {
+            throw new IllegalStateException(
+                    "There are no points to bound"
+            );
+        }
+        double[] min = new double[columns.length];
+        double[] max = new double[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            double[] column = columns[i];
+            double low = column[0];
+            double high = column[0];
+            for (int j = 1; j < size; j++) {
+                double value = column[j];
+                if (value < low) {
+                    low = value;
+                } else if (value > high) {
+                    high = value;
+                }
+            }
+            min[i] = low;
+            max[i] = high;
+        }
+        return new Envelope(min, max);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", size: " + size
+            );
+        }
+    }
+}
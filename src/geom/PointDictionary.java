@@ -0,0 +1,213 @@
+package geom;
+
+import java.util.Arrays;
+
+/**
+ * Set of the unique points giving every point a stable id:
+ * index of the point in the columns, starting from 0 in
+ * the order of adding. Lookup is an open-addressing hash
+ * table with linear probing over the raw bits of the
+ * coordinates, so no Point objects are created.
+ * Points are the same when their coordinates are equal
+ * as numbers: 0.0 and -0.0 are the same, NaN equals NaN.
+ * Points cannot be removed, so ids never change.
+ */
+final public class PointDictionary extends Dimension {
+    /** Table is grown when it is filled more than this **/
+    private static final double MAX_LOAD = 0.5;
+
+    /** Mark of the empty slot **/
+    private static final int EMPTY = -1;
+
+    /** Coordinates of the points by ids **/
+    private final PointColumns points;
+
+    /** Slots of the table: id of the point or EMPTY **/
+    private int[] slots;
+
+    /** Hash of the point in the slot, to skip coordinate comparisons **/
+    private int[] hashes;
+
+    /** Constructor **/
+    public PointDictionary(int numOfDimensions) {
+        this(numOfDimensions, 16);
+    }
+
+    /** Constructor **/
+    public PointDictionary(int numOfDimensions, int capacity) {
+        super(numOfDimensions);
+        points = new PointColumns(numOfDimensions, capacity);
+        int tableSize = Integer.highestOneBit(Math.max(2, (int) (capacity / MAX_LOAD)) - 1) << 1;
+        slots = new int[tableSize];
+        hashes = new int[tableSize];
+        Arrays.fill(slots, EMPTY);
+    }
+
+    /**
+     * @return number of the unique points
+     */
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * Adding the point if there is no such point.
+     * @param point point to add
+     * @return id of the added or already present point
+     */
+    public int add(Point point) {
+        checkDimension(point.getDimension());
+        double[] coords = new double[getDimension()];
+        for (int d = 0; d < coords.length; d++) {
+            coords[d] = point.getCoord(d);
+        }
+        return add(coords);
+    }
+
+    /**
+     * Adding the point given by its coordinates
+     * if there is no such point.
+     * @param coords coordinates of the point
+     * @return id of the added or already present point
+     */
+    public int add(double... coords) {
+        checkDimension(coords.length);
+        int hash = hash(coords);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id == EMPTY) {
+                id = points.add(coords);
+                slots[slot] = id;
+                hashes[slot] = hash;
+                if (points.size() > slots.length * MAX_LOAD) {
+                    rehash();
+                }
+                return id;
+            }
+            if (hashes[slot] == hash && matches(id, coords)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Finding the id of the point.
+     * @param point point to find
+     * @return id of the point or -1 if there is no such point
+     */
+    public int indexOf(Point point) {
+        checkDimension(point.getDimension());
+        double[] coords = new double[getDimension()];
+        for (int d = 0; d < coords.length; d++) {
+            coords[d] = point.getCoord(d);
+        }
+        return indexOf(coords);
+    }
+
+    /**
+     * Finding the id of the point given by its coordinates.
+     * @param coords coordinates of the point
+     * @return id of the point or -1 if there is no such point
+     */
+    public int indexOf(double... coords) {
+        checkDimension(coords.length);
+        int hash = hash(coords);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id == EMPTY) {
+                return -1;
+            }
+            if (hashes[slot] == hash && matches(id, coords)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Creating point by the id.
+     * @param id id of the point
+     * @return new point
+     */
+    public Point getPoint(int id) {
+        return points.getPoint(id);
+    }
+
+    /**
+     * Returning coordinate of the point.
+     * @param id id of the point
+     * @param axis index of the coordinate
+     * @return coordinate of the point
+     */
+    public double getCoord(int id, int axis) {
+        return points.getCoord(id, axis);
+    }
+
+    /**
+     * Columns of the points indexed by ids, for the
+     * space and the bulk algorithms of the package.
+     * NOTE: adding to them directly breaks the dictionary.
+     * @return backing columns
+     */
+    PointColumns columns() {
+        return points;
+    }
+
+    private boolean matches(int id, double[] coords) {
+        for (int d = 0; d < coords.length; d++) {
+            if (bits(points.column(d)[id]) != bits(coords[d])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int[] newSlots = new int[slots.length * 2];
+        int[] newHashes = new int[newSlots.length];
+        Arrays.fill(newSlots, EMPTY);
+        int mask = newSlots.length - 1;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == EMPTY) {
+                continue;
+            }
+            int slot = hashes[i] & mask;
+            while (newSlots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            newSlots[slot] = slots[i];
+            newHashes[slot] = hashes[i];
+        }
+        slots = newSlots;
+        hashes = newHashes;
+    }
+
+    private void checkDimension(int dimension) {
+        if (dimension != getDimension()) {
+            throw new IllegalArgumentException(
+                    "PointDictionary illegal dimension of the point."
+            );
+        }
+    }
+
+    /** Bits of the coordinate with the same value for 0.0 and -0.0 **/
+    private static long bits(double value) {
+        return Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+    }
+
+    /** Mixing the bits of all coordinates, finalizer of MurmurHash3 **/
+    private static int hash(double[] coords) {
+        long h = 0;
+        for (double coord : coords) {
+            h = (h ^ bits(coord)) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 32;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,469 @@
+package geom;
+
+import java.util.Arrays;
+
+/**
+ * Immutable lazy chain of the operations of points and vectors.
+ * Operations only record themselves, nothing is computed until
+ * the chain is evaluated. Evaluation runs all operations in one
+ * pass over blocks of points kept by the coordinate, without
+ * intermediate points, vectors or copies of the coordinates.
+ * Operations give the same results as the ones of Point, Vector
+ * and PointAccumulator. A chain starts either from a point or a
+ * vector with of(), or from the input of input(), which stands
+ * for each point of the columns or the space it is evaluated over:
+ * PointExpression.input(2).sub(center).mul(scale).evaluate(space).
+ */
+final public class PointExpression extends Dimension {
+    /** Points of a block evaluated together **/
+    private static final int BLOCK = 256;
+
+    /** Codes of the operations **/
+    private static final int SUB_POINT = 0;
+    private static final int SUM_POINT = 1;
+    private static final int MUL_POINT = 2;
+    private static final int SUM = 3;
+    private static final int MUL = 4;
+    private static final int DIV = 5;
+    private static final int UNIT = 6;
+
+    /** Previous part of the chain, null for the start **/
+    private final PointExpression previous;
+
+    /** Code of the last operation, -1 for the start **/
+    private final int operation;
+
+    /** Coordinates of the operand point of the operation **/
+    private final double[] operand;
+
+    /** Operand value of the operation **/
+    private final double value;
+
+    /** Coordinates of the start, null for the input **/
+    private final double[] start;
+
+    /** Number of the operations in the chain **/
+    private final int length;
+
+    private PointExpression(int numOfDimensions, double[] start) {
+        super(numOfDimensions);
+        this.previous = null;
+        this.operation = -1;
+        this.operand = null;
+        this.value = 0;
+        this.start = start;
+        this.length = 0;
+    }
+
+    private PointExpression(PointExpression previous, int operation, double[] operand, double value) {
+        super(previous.getDimension());
+        this.previous = previous;
+        this.operation = operation;
+        this.operand = operand;
+        this.value = value;
+        this.start = previous.start;
+        this.length = previous.length + 1;
+    }
+
+    /**
+     * Chain starting from the point.
+     * @param point start of the chain
+     * @return new expression
+     */
+    public static PointExpression of(Point point) {
+        return new PointExpression(point.getDimension(), point.getCoords());
+    }
+
+    /**
+     * Chain starting from the source of the vector.
+     * @param vector start of the chain
+     * @return new expression
+     */
+    public static PointExpression of(Vector vector) {
+        return of(vector.getSource());
+    }
+
+    /**
+     * Chain starting from each point it is evaluated over.
+     * @param numOfDimensions number of dimensions of the points
+     * @return new expression
+     */
+    public static PointExpression input(int numOfDimensions) {
+        return new PointExpression(numOfDimensions, null);
+    }
+
+    /**
+     * Sub as Point.sub(): coordinates become point - this.
+     * @param point point to sub with
+     * @return new expression
+     */
+    public PointExpression sub(Point point) {
+        return append(SUB_POINT, point, 0);
+    }
+
+    /**
+     * Adding the coordinates of the point.
+     * @param point point to sum with
+     * @return new expression
+     */
+    public PointExpression sum(Point point) {
+        return append(SUM_POINT, point, 0);
+    }
+
+    /**
+     * Adding the source of the vector as Vector.sum().
+     * @param vector vector to sum with
+     * @return new expression
+     */
+    public PointExpression sum(Vector vector) {
+        return sum(vector.getSource());
+    }
+
+    /**
+     * Adding the value to all coordinates.
+     * @param value value to sum with
+     * @return new expression
+     */
+    public PointExpression sum(double value) {
+        return append(SUM, null, value);
+    }
+
+    /**
+     * Multiplying the coordinates with the coordinates of the point.
+     * @param point point to multiply with
+     * @return new expression
+     */
+    public PointExpression mul(Point point) {
+        return append(MUL_POINT, point, 0);
+    }
+
+    /**
+     * Multiplying all coordinates with the value.
+     * @param value value to multiply with
+     * @return new expression
+     */
+    public PointExpression mul(double value) {
+        return append(MUL, null, value);
+    }
+
+    /**
+     * Dividing all coordinates by the value.
+     * @param value value to divide by
+     * @return new expression
+     */
+    public PointExpression div(double value) {
+        if (value == 0) {
+            throw new IllegalArgumentException(
+                    "Value should not be 0"
+            );
+        }
+        return append(DIV, null, value);
+    }
+
+    /**
+     * Turning the vector with the result as the source into the
+     * unit vector. Evaluation fails for the zero vectors.
+     * @return new expression
+     */
+    public PointExpression unitVector() {
+        return append(UNIT, null, 0);
+    }
+
+    /**
+     * @return TRUE - chain starts from the input, FALSE - from a point
+     */
+    public boolean isInput() {
+        return start == null;
+    }
+
+    /**
+     * Evaluating the chain started from a point.
+     * @return result point
+     */
+    public Point toPoint() {
+        return new Point(evaluate());
+    }
+
+    /**
+     * Evaluating the chain started from a point.
+     * @return vector with the result as the source
+     */
+    public Vector toVector() {
+        return new Vector(evaluate());
+    }
+
+    /**
+     * Evaluating the chain started from a point.
+     * @return length of the vector with the result as the source
+     */
+    public double length() {
+        double[] coords = evaluate();
+        double value = 0;
+        for (int i = 0; i < coords.length; i++) {
+            value += coords[i] * coords[i];
+        }
+        return Math.sqrt(value);
+    }
+
+    /**
+     * Evaluating the chain over each point of the columns in parallel.
+     * @param columns input points
+     * @return new columns of the results in the same order
+     */
+    public PointColumns evaluate(PointColumns columns) {
+        checkInput(columns.getDimension());
+        int size = columns.size();
+        int[] operations = operations();
+        double[][] operands = operands();
+        double[] values = values();
+        PointColumns result = new PointColumns(getDimension(), size);
+        result.setSize(size);
+        ParallelRanges.map(size, (from, to) -> {
+            double[][] block = new double[getDimension()][BLOCK];
+            double[] norms = new double[BLOCK];
+            for (int first = from; first < to; first += BLOCK) {
+                int count = Math.min(BLOCK, to - first);
+                for (int d = 0; d < getDimension(); d++) {
+                    System.arraycopy(columns.column(d), first, block[d], 0, count);
+                }
+                run(operations, operands, values, block, norms, count);
+                for (int d = 0; d < getDimension(); d++) {
+                    System.arraycopy(block[d], 0, result.column(d), first, count);
+                }
+            }
+            return null;
+        });
+        return result;
+    }
+
+    /**
+     * Evaluating the chain over each point of the space in parallel.
+     * Coordinates are read straight from the storage of the space,
+     * objects which are not points are skipped.
+     * @param space space of the input points
+     * @return new columns of the results in the order of the points
+     */
+    public PointColumns evaluate(Space space) {
+        checkInput(space.getDimension());
+        PointColumns columns = space.pointColumns();
+        if (columns != null) {
+            return evaluate(columns);
+        }
+        int[] operations = operations();
+        double[][] operands = operands();
+        double[] values = values();
+        int dimension = getDimension();
+        int size = space.size();
+        // Points of each chunk are counted first to know where their results go,
+        // both passes take the same chunks
+        int chunks = ParallelRanges.chunks(size);
+        int[] offsets = new int[chunks + 1];
+        ParallelRanges.forEach(chunks, chunk -> {
+            int count = 0;
+            for (int i = ParallelRanges.start(size, chunks, chunk),
+                 to = ParallelRanges.start(size, chunks, chunk + 1); i < to; i++) {
+                if (space.getObject(i) instanceof Point) {
+                    count++;
+                }
+            }
+            offsets[chunk + 1] = count;
+        });
+        for (int i = 0; i < chunks; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        PointColumns result = new PointColumns(dimension, offsets[chunks]);
+        result.setSize(offsets[chunks]);
+        ParallelRanges.forEach(chunks, chunk -> {
+            int from = ParallelRanges.start(size, chunks, chunk);
+            int to = ParallelRanges.start(size, chunks, chunk + 1);
+            int position = offsets[chunk];
+            double[][] block = new double[dimension][BLOCK];
+            double[] norms = new double[BLOCK];
+            int count = 0;
+            for (int i = from; i <= to; i++) {
+                if (i < to) {
+                    GeomObject object = space.getObject(i);
+                    if (!(object instanceof Point)) {
+                        continue;
+                    }
+                    Point point = (Point) object;
+                    for (int d = 0; d < dimension; d++) {
+                        block[d][count] = point.getCoord(d);
+                    }
+                    count++;
+                }
+                if (count == BLOCK || (i == to && count > 0)) {
+                    run(operations, operands, values, block, norms, count);
+                    for (int d = 0; d < dimension; d++) {
+                        System.arraycopy(block[d], 0, result.column(d), position, count);
+                    }
+                    position += count;
+                    count = 0;
+                }
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("PointExpression: {dimension: ")
+                .append(getDimension()).append(", start: ")
+                .append(start == null ? "input" : Arrays.toString(start))
+                .append(", operations: ").append(length).append("}.");
+        return result.toString();
+    }
+
+    private PointExpression append(int code, Point point, double operandValue) {
+        double[] coords = null;
+        if (point != null) {
+            if (point.getDimension() != getDimension()) {
+                throw new IllegalArgumentException(
+                        "Dimensions of the points are distinct!");
+            }
+            coords = point.getCoords();
+        }
+        return new PointExpression(this, code, coords, operandValue);
+    }
+
+    private void checkInput(int dimension) {
+        if (start != null) {
+            throw new IllegalStateException(
+                    "Expression starts from a point, not from the input"
+            );
+        }
+        if (dimension != getDimension()) {
+            throw new IllegalArgumentException(
+                    "Dimensions of the points are distinct!");
+        }
+    }
+
+    /** Evaluating the chain started from a point **/
+    private double[] evaluate() {
+        if (start == null) {
+            throw new IllegalStateException(
+                    "Expression starts from the input, evaluate it over points"
+            );
+        }
+        double[][] block = new double[getDimension()][1];
+        for (int d = 0; d < getDimension(); d++) {
+            block[d][0] = start[d];
+        }
+        run(operations(), operands(), values(), block, new double[1], 1);
+        double[] result = new double[getDimension()];
+        for (int d = 0; d < getDimension(); d++) {
+            result[d] = block[d][0];
+        }
+        return result;
+    }
+
+    /** Running the operations over the first count points of the block **/
+    private static void run(int[] operations, double[][] operands, double[] values,
+                            double[][] block, double[] norms, int count) {
+        int dimension = block.length;
+        for (int op = 0; op < operations.length; op++) {
+            double value = values[op];
+            double[] operand = operands[op];
+            switch (operations[op]) {
+                case SUB_POINT:
+                    for (int d = 0; d < dimension; d++) {
+                        double[] column = block[d];
+                        double c = operand[d];
+                        for (int k = 0; k < count; k++) {
+                            column[k] = c - column[k];
+                        }
+                    }
+                    break;
+                case SUM_POINT:
+                    for (int d = 0; d < dimension; d++) {
+                        double[] column = block[d];
+                        double c = operand[d];
+                        for (int k = 0; k < count; k++) {
+                            column[k] += c;
+                        }
+                    }
+                    break;
+                case MUL_POINT:
+                    for (int d = 0; d < dimension; d++) {
+                        double[] column = block[d];
+                        double c = operand[d];
+                        for (int k = 0; k < count; k++) {
+                            column[k] *= c;
+                        }
+                    }
+                    break;
+                case SUM:
+                    for (double[] column : block) {
+                        for (int k = 0; k < count; k++) {
+                            column[k] += value;
+                        }
+                    }
+                    break;
+                case MUL:
+                    for (double[] column : block) {
+                        for (int k = 0; k < count; k++) {
+                            column[k] *= value;
+                        }
+                    }
+                    break;
+                case DIV:
+                    for (double[] column : block) {
+                        for (int k = 0; k < count; k++) {
+                            column[k] /= value;
+                        }
+                    }
+                    break;
+                case UNIT:
+                    Arrays.fill(norms, 0, count, 0);
+                    for (double[] column : block) {
+                        for (int k = 0; k < count; k++) {
+                            norms[k] += column[k] * column[k];
+                        }
+                    }
+                    for (int k = 0; k < count; k++) {
+                        norms[k] = Math.sqrt(norms[k]);
+                        if (norms[k] == 0) {
+                            throw new IllegalArgumentException(
+                                    "Value should not be 0"
+                            );
+                        }
+                    }
+                    for (double[] column : block) {
+                        for (int k = 0; k < count; k++) {
+                            column[k] /= norms[k];
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException(
+                            "Unknown operation " + operations[op]
+                    );
+            }
+        }
+    }
+
+    /** Codes of the operations from the first one **/
+    private int[] operations() {
+        int[] result = new int[length];
+        for (PointExpression e = this; e.previous != null; e = e.previous) {
+            result[e.length - 1] = e.operation;
+        }
+        return result;
+    }
+
+    private double[][] operands() {
+        double[][] result = new double[length][];
+        for (PointExpression e = this; e.previous != null; e = e.previous) {
+            result[e.length - 1] = e.operand;
+        }
+        return result;
+    }
+
+    private double[] values() {
+        double[] result = new double[length];
+        for (PointExpression e = this; e.previous != null; e = e.previous) {
+            result[e.length - 1] = e.value;
+        }
+        return result;
+    }
+}
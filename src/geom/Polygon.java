@@ -0,0 +1,333 @@
+package geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable 2-dimensional polygon given by its vertices,
+ * the edge from the last vertex to the first one closes it.
+ * Coordinates are kept in primitive arrays. The first query
+ * of contains() builds the slab index of the edges, so the
+ * point is located in logarithmic time, see PolygonIndex.
+ * Points on the boundary are inside the polygon, points of a
+ * self-intersecting polygon are located by the even-odd rule.
+ */
+final public class Polygon extends GeomObject {
+    /** Coordinates of the vertices **/
+    private final double[] x;
+    private final double[] y;
+
+    /** Envelope of the vertices **/
+    private final Envelope envelope;
+
+    /** Index of the edges, null - not built yet **/
+    private volatile PolygonIndex index;
+
+    /**
+     * Constructor of the polygon by its vertices. Repeated
+     * neighbouring vertices are joined, so the closing vertex
+     * equal to the first one may be given as well.
+     * @param vertices at least 3 distinct 2-dimensional vertices
+     */
+    public Polygon(Point... vertices) {
+        this(coords(vertices, 0), coords(vertices, 1));
+    }
+
+    /**
+     * Constructor of the polygon by its vertices.
+     * @param vertices at least 3 distinct 2-dimensional vertices
+     */
+    public Polygon(List<Point> vertices) {
+        this(vertices.toArray(new Point[0]));
+    }
+
+    /**
+     * Constructor of the polygon by the coordinates of its vertices.
+     * @param x X coordinates of the vertices
+     * @param y Y coordinates of the vertices
+     */
+    public Polygon(double[] x, double[] y) {
+        super(2);
+        if (x.length != y.length) {
+            throw new IllegalArgumentException(
+                    "Numbers of X and Y coordinates are distinct"
+            );
+        }
+        double[] px = new double[x.length];
+        double[] py = new double[y.length];
+        int count = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (!Double.isFinite(x[i]) || !Double.isFinite(y[i])) {
+                throw new IllegalArgumentException(
+                        "Vertex " + i + " has not finite coordinates"
+                );
+            }
+            // adding zero turns -0.0 into 0.0 for the binary searches
+            double vx = x[i] + 0.0;
+            double vy = y[i] + 0.0;
+            if (count == 0 || vx != px[count - 1] || vy != py[count - 1]) {
+                px[count] = vx;
+                py[count] = vy;
+                count++;
+            }
+        }
+        while (count > 1 && px[count - 1] == px[0] && py[count - 1] == py[0]) {
+            count--;
+        }
+        if (count < 3) {
+            throw new IllegalArgumentException(
+                    "Polygon needs at least 3 distinct vertices"
+            );
+        }
+        this.x = Arrays.copyOf(px, count);
+        this.y = Arrays.copyOf(py, count);
+        double minX = this.x[0];
+        double maxX = this.x[0];
+        double minY = this.y[0];
+        double maxY = this.y[0];
+        for (int i = 1; i < count; i++) {
+            minX = Math.min(minX, this.x[i]);
+            maxX = Math.max(maxX, this.x[i]);
+            minY = Math.min(minY, this.y[i]);
+            maxY = Math.max(maxY, this.y[i]);
+        }
+        envelope = new Envelope(new double[] {minX, minY}, new double[] {maxX, maxY});
+    }
+
+    private static double[] coords(Point[] vertices, int axis) {
+        double[] result = new double[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            if (vertices[i].getDimension() != 2) {
+                throw new IllegalArgumentException(
+                        "Polygon vertices must be 2-dimensional"
+                );
+            }
+            result[i] = vertices[i].getCoord(axis);
+        }
+        return result;
+    }
+
+    /**
+     * @return number of the vertices, equal to the number of the edges
+     */
+    public int vertexCount() {
+        return x.length;
+    }
+
+    public double getX(int vertex) {
+        return x[vertex];
+    }
+
+    public double getY(int vertex) {
+        return y[vertex];
+    }
+
+    /**
+     * Creating the vertex by the index.
+     * @param vertex index of the vertex
+     * @return new point
+     */
+    public Point getVertex(int vertex) {
+        return new Point(x[vertex], y[vertex]);
+    }
+
+    /**
+     * Creating the edge from the vertex to the next one.
+     * @param edge index of the edge
+     * @return new segment
+     */
+    public Segment getEdge(int edge) {
+        int next = edge + 1 == x.length ? 0 : edge + 1;
+        return new Segment(getVertex(edge), getVertex(next));
+    }
+
+    /**
+     * Closed polyline of the edges, which ends at the first vertex.
+     * @return boundary of the polygon
+     */
+    public Polyline getBoundary() {
+        double[][] coords = new double[2][x.length + 1];
+        System.arraycopy(x, 0, coords[0], 0, x.length);
+        System.arraycopy(y, 0, coords[1], 0, y.length);
+        coords[0][x.length] = x[0];
+        coords[1][y.length] = y[0];
+        return new Polyline(coords);
+    }
+
+    /**
+     * @return envelope of the polygon
+     */
+    public Envelope getEnvelope() {
+        return envelope;
+    }
+
+    /**
+     * Area by the shoelace formula, positive if the
+     * vertices go counterclockwise, negative - else.
+     * @return signed area of the polygon
+     */
+    public double signedArea() {
+        double sum = 0;
+        for (int i = 0, j = x.length - 1; i < x.length; j = i++) {
+            // relative to the first vertex, so far polygons lose less precision
+            sum += (x[j] - x[0]) * (y[i] - y[0]) - (x[i] - x[0]) * (y[j] - y[0]);
+        }
+        return 0.5 * sum;
+    }
+
+    /**
+     * @return area of the polygon
+     */
+    public double area() {
+        return Math.abs(signedArea());
+    }
+
+    /**
+     * @return total length of the edges
+     */
+    public double perimeter() {
+        double result = 0;
+        for (int i = 0, j = x.length - 1; i < x.length; j = i++) {
+            result += Math.hypot(x[i] - x[j], y[i] - y[j]);
+        }
+        return result;
+    }
+
+    /**
+     * Finding out if the edges of the polygon intersect only
+     * at the common vertices of the neighbouring edges.
+     * @return TRUE - polygon is simple, FALSE - else
+     */
+    public boolean isSimple() {
+        int n = x.length;
+        List<Segment> edges = new ArrayList<Segment>(n);
+        for (int i = 0; i < n; i++) {
+            edges.add(getEdge(i));
+        }
+        boolean[] simple = {true};
+        SweepLineIntersector.findAll(edges, (first, second, px, py) -> {
+            if (second == first + 1) {
+                simple[0] &= !isFolded(first, second, second + 1 == n ? 0 : second + 1);
+            } else if (first == 0 && second == n - 1) {
+                simple[0] &= !isFolded(n - 1, 0, 1);
+            } else {
+                simple[0] = false;
+            }
+        });
+        return simple[0];
+    }
+
+    /** Edges (a, b) and (b, c) of the vertices lie on each other **/
+    private boolean isFolded(int a, int b, int c) {
+        return Predicates.orient2d(x[a], y[a], x[b], y[b], x[c], y[c]) == 0 &&
+                (x[a] - x[b]) * (x[c] - x[b]) + (y[a] - y[b]) * (y[c] - y[b]) > 0;
+    }
+
+    /**
+     * Finding out if the point is inside the polygon or on its boundary.
+     * @param point 2-dimensional point
+     * @return TRUE - point is in the polygon, FALSE - else
+     */
+    public boolean contains(Point point) {
+        if (point.getDimension() != 2) {
+            throw new IllegalArgumentException(
+                    "Point is not 2-dimensional"
+            );
+        }
+        return contains(point.getX(), point.getY());
+    }
+
+    /**
+     * Finding out if the point (x, y) is inside
+     * the polygon or on its boundary.
+     * @return TRUE - point is in the polygon, FALSE - else
+     */
+    public boolean contains(double x, double y) {
+        if (!(x >= envelope.getMin(0) && x <= envelope.getMax(0) &&
+                y >= envelope.getMin(1) && y <= envelope.getMax(1))) {
+            return false;
+        }
+        return index().contains(x + 0.0, y + 0.0);
+    }
+
+    /**
+     * Locating all points of the columns in parallel.
+     * Points of a space are given by Space.toColumns().
+     * @param points 2-dimensional points
+     * @return TRUE for each point in the polygon, FALSE - else
+     */
+    public boolean[] contains(PointColumns points) {
+        if (points.getDimension() != 2) {
+            throw new IllegalArgumentException(
+                    "Points are not 2-dimensional"
+            );
+        }
+        index();
+        boolean[] result = new boolean[points.size()];
+        double[] px = points.column(0);
+        double[] py = points.column(1);
+        ParallelRanges.map(points.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                result[i] = contains(px[i], py[i]);
+            }
+            return null;
+        });
+        return result;
+    }
+
+    /** Index of the edges, built once **/
+    private PolygonIndex index() {
+        PolygonIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = new PolygonIndex(x, y);
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * toString() method.
+     * @return the string representation of the polygon.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("Polygon: ");
+        for (int i = 0; i < x.length; i++) {
+            result.append(i == 0 ? "(" : " - (").append(x[i]).append(", ").append(y[i]).append(')');
+        }
+        return result.append('.').toString();
+    }
+
+    /**
+     * Overridden equals.
+     * Note: the first vertex and the direction are valuable.
+     * @param obj object to compare with
+     * @return TRUE - polygons have identical vertices, FALSE - else.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Polygon)) {
+            return false;
+        }
+        Polygon polygon = (Polygon) obj;
+        return Arrays.equals(x, polygon.x) && Arrays.equals(y, polygon.y);
+    }
+
+    /**
+     * Overridden hash code.
+     * @return hash code of the polygon.
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(x) * 31 + Arrays.hashCode(y);
+    }
+}
@@ -0,0 +1,409 @@
+package geom;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Slab decomposition of the polygon for the point location.
+ * Vertical lines through the vertices cut the plane into slabs.
+ * Edges spanning a slab are sorted from the bottom, so a point
+ * is located by two binary searches: for its slab and for the
+ * number of the edges below it, which is odd inside the polygon.
+ * A table of the slabs by the uniform buckets of X shortens the
+ * first search. Comparisons are exact (see Predicates), so the
+ * points on the boundary are found exactly and are inside.
+ * If the slabs would take more than MAX_ENTRIES_PER_EDGE entries
+ * per edge (e.g. for the spirals and serpentines), neighbouring
+ * slabs are joined into blocks. The slabs of a block are the
+ * leaves of a segment tree: an edge is kept in the few nodes
+ * which slabs it spans, and the edges of each node are sorted.
+ * A point is then located by a binary search in each node on
+ * the path from its slab to the root of the block. Edges
+ * crossing inside a node of a self-intersecting polygon cannot
+ * be sorted, so the edges of such node are scanned.
+ */
+final class PolygonIndex {
+    /** Limit of the node entries per edge, beyond it slabs are joined **/
+    private static final int MAX_ENTRIES_PER_EDGE = 32;
+
+    /** Left and right ends of the non-vertical edges, lx < rx **/
+    private final double[] lx;
+    private final double[] ly;
+    private final double[] rx;
+    private final double[] ry;
+
+    /** Distinct X coordinates of the vertices, ascending, the slab i is [xs[i], xs[i + 1]] **/
+    private final double[] xs;
+
+    /** Vertical edges at xs[i]: low and high Y in [verticalStart[i], verticalStart[i + 1]) **/
+    private final int[] verticalStart;
+    private final double[] verticalLow;
+    private final double[] verticalHigh;
+
+    /**
+     * Number of the slabs joined into one block, a power of two.
+     * Node k of the block b is b * 2 * group + k, its children are
+     * 2k and 2k + 1, the node of the slab j of the block is group + j.
+     */
+    private final int group;
+
+    /** Edges of the node i are edges[nodeStart[i]..nodeStart[i + 1]) **/
+    private final int[] nodeStart;
+    private final int[] edges;
+
+    /** Edges of the node span its slabs and are sorted from the bottom **/
+    private final boolean[] sorted;
+
+    /** Vertices with the bucket less than b are xs[0..buckets[b]) **/
+    private final int[] buckets;
+    private final double bucketScale;
+
+    /**
+     * Building the index.
+     * @param x X coordinates of the vertices
+     * @param y Y coordinates of the vertices
+     */
+    PolygonIndex(double[] x, double[] y) {
+        int n = x.length;
+        int[] rank = new int[n];
+        xs = rank(x, rank);
+        int slabs = xs.length - 1;
+
+        // vertical edges by their X, the other ones from the left to the right
+        int[] verticalCount = new int[xs.length];
+        int edgeCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (rank[i] == rank[i + 1 == n ? 0 : i + 1]) {
+                verticalCount[rank[i]]++;
+            } else {
+                edgeCount++;
+            }
+        }
+        verticalStart = new int[xs.length + 1];
+        for (int i = 0; i < xs.length; i++) {
+            verticalStart[i + 1] = verticalStart[i] + verticalCount[i];
+        }
+        verticalLow = new double[verticalStart[xs.length]];
+        verticalHigh = new double[verticalStart[xs.length]];
+        lx = new double[edgeCount];
+        ly = new double[edgeCount];
+        rx = new double[edgeCount];
+        ry = new double[edgeCount];
+        int[] leftRank = new int[edgeCount];
+        int[] rightRank = new int[edgeCount];
+        int edge = 0;
+        for (int i = 0; i < n; i++) {
+            int j = i + 1 == n ? 0 : i + 1;
+            if (rank[i] == rank[j]) {
+                int place = verticalStart[rank[i] + 1] - verticalCount[rank[i]]--;
+                verticalLow[place] = Math.min(y[i], y[j]);
+                verticalHigh[place] = Math.max(y[i], y[j]);
+            } else {
+                int left = x[i] < x[j] ? i : j;
+                int right = left == i ? j : i;
+                lx[edge] = x[left];
+                ly[edge] = y[left];
+                rx[edge] = x[right];
+                ry[edge] = y[right];
+                leftRank[edge] = rank[left];
+                rightRank[edge] = rank[right];
+                edge++;
+            }
+        }
+
+        long budget = Math.min((long) MAX_ENTRIES_PER_EDGE * edgeCount + xs.length, Integer.MAX_VALUE - 8);
+        int joined = 1;
+        while (joined < slabs && entries(leftRank, rightRank, joined) > budget) {
+            joined *= 2;
+        }
+        group = joined;
+
+        // edge e is in the nodes covering the slabs [leftRank[e], rightRank[e])
+        int blocks = (slabs + group - 1) / group;
+        int nodes = blocks * 2 * group;
+        nodeStart = new int[nodes + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            forEachNode(leftRank[e], rightRank[e], group, node -> nodeStart[node + 1]++);
+        }
+        for (int i = 0; i < nodes; i++) {
+            nodeStart[i + 1] += nodeStart[i];
+        }
+        edges = new int[nodeStart[nodes]];
+        int[] next = Arrays.copyOf(nodeStart, nodes);
+        for (int e = 0; e < edgeCount; e++) {
+            int current = e;
+            forEachNode(leftRank[e], rightRank[e], group, node -> edges[next[node]++] = current);
+        }
+
+        sorted = new boolean[nodes];
+        double[] keys = new double[edges.length];
+        ParallelRanges.map(nodes, (from, to) -> {
+            for (int node = from; node < to; node++) {
+                sorted[node] = sortNode(node, keys);
+            }
+            return null;
+        });
+
+        int bucketCount = Math.max(1, slabs);
+        double range = xs[slabs] - xs[0];
+        bucketScale = range > 0 && range < Double.POSITIVE_INFINITY ? bucketCount / range : 0;
+        buckets = new int[bucketCount + 1];
+        int vertex = 0;
+        for (int b = 0; b <= bucketCount; b++) {
+            while (vertex < xs.length && bucket(xs[vertex]) < b) {
+                vertex++;
+            }
+            buckets[b] = vertex;
+        }
+    }
+
+    /**
+     * Locating the point.
+     * @return TRUE - point is inside or on the boundary, FALSE - else
+     */
+    boolean contains(double x, double y) {
+        int b = bucket(x);
+        // vertices of the other buckets are less or greater than x
+        int index = Arrays.binarySearch(xs, buckets[b], buckets[b + 1], x);
+        int slab;
+        if (index >= 0) {
+            for (int i = verticalStart[index]; i < verticalStart[index + 1]; i++) {
+                if (verticalLow[i] <= y && y <= verticalHigh[i]) {
+                    return true;
+                }
+            }
+            // edges ending at the left border of the slab
+            if (index > 0 && below(index - 1, x, y) < 0) {
+                return true;
+            }
+            slab = index;
+        } else {
+            slab = -index - 2;
+        }
+        if (slab < 0 || slab >= xs.length - 1) {
+            return false;
+        }
+        int count = below(slab, x, y);
+        return count < 0 || (count & 1) != 0;
+    }
+
+    /**
+     * Number of the edges spanning the slab below the point,
+     * summed over the nodes from the slab to the root.
+     * @return number of the edges, -1 if the point is on an edge
+     */
+    private int below(int slab, double x, double y) {
+        int base = slab / group * 2 * group;
+        int count = 0;
+        for (int node = group + slab % group; node > 0; node >>= 1) {
+            int found = belowInNode(base + node, x, y);
+            if (found < 0) {
+                return -1;
+            }
+            count += found;
+        }
+        return count;
+    }
+
+    /**
+     * Number of the edges of the node crossing the vertical line
+     * through the point below it, an edge with the left end on the
+     * line crosses it, one with the right end does not.
+     * @return number of the edges, -1 if the point is on an edge
+     */
+    private int belowInNode(int node, double x, double y) {
+        int from = nodeStart[node];
+        int to = nodeStart[node + 1];
+        if (sorted[node]) {
+            // first edge which is not below the point
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int e = edges[mid];
+                if (Predicates.orient2d(lx[e], ly[e], rx[e], ry[e], x, y) > 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low < to) {
+                int e = edges[low];
+                if (Predicates.orient2d(lx[e], ly[e], rx[e], ry[e], x, y) == 0) {
+                    return -1;
+                }
+            }
+            return low - from;
+        }
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int e = edges[i];
+            if (x < lx[e] || x > rx[e]) {
+                continue;
+            }
+            double side = Predicates.orient2d(lx[e], ly[e], rx[e], ry[e], x, y);
+            if (side == 0) {
+                return -1;
+            }
+            if (side > 0 && x < rx[e]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sorting the edges of the node from the bottom.
+     * @param keys buffer for the sort keys
+     * @return TRUE - neighbouring edges are ordered over all slabs of the node, FALSE - else
+     */
+    private boolean sortNode(int node, double[] keys) {
+        int from = nodeStart[node];
+        int to = nodeStart[node + 1];
+        if (to - from < 2) {
+            return true;
+        }
+        // slabs of the node: [first, first + span)
+        int k = node % (2 * group);
+        int span = group >> (31 - Integer.numberOfLeadingZeros(k));
+        int first = node / (2 * group) * group + (k * span - group);
+        // approximately by Y in the middle of the node, then exactly
+        double middle = 0.5 * xs[first] + 0.5 * xs[first + span];
+        for (int i = from; i < to; i++) {
+            int e = edges[i];
+            keys[i] = ly[e] + (ry[e] - ly[e]) * ((middle - lx[e]) / (rx[e] - lx[e]));
+        }
+        PrimitiveSort.sort(keys, edges, from, to);
+        for (int i = from + 1; i < to; i++) {
+            int e = edges[i];
+            int j = i - 1;
+            int order = compare(edges[j], e);
+            while (order > 0) {
+                edges[j + 1] = edges[j];
+                j--;
+                order = j >= from ? compare(edges[j], e) : -1;
+            }
+            edges[j + 1] = e;
+            // both new neighbours of the edge are compared, so all neighbours are in the end
+            if (order == 0) {
+                return false;
+            }
+        }
+        // ordered neighbours which touch at most by the common end stay ordered
+        for (int i = from + 1; i < to; i++) {
+            int a = edges[i - 1];
+            int b = edges[i];
+            boolean commonEnd = (lx[a] == lx[b] && ly[a] == ly[b]) || (rx[a] == rx[b] && ry[a] == ry[b]);
+            if (!commonEnd && Segment.isIntersect(lx[a], ly[a], rx[a], ry[a], lx[b], ly[b], rx[b], ry[b])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Order of two edges spanning one slab, exact if they
+     * do not cross. The left end of the edge starting later
+     * lies over the other edge, so its side decides, unless
+     * the edges share it.
+     * @return negative if the edge a is below the edge b
+     */
+    private int compare(int a, int b) {
+        if (lx[b] < lx[a]) {
+            return -compare(b, a);
+        }
+        double side = Predicates.orient2d(lx[a], ly[a], rx[a], ry[a], lx[b], ly[b]);
+        if (side == 0) {
+            // common left end: the right end lying over the other edge decides
+            if (rx[b] <= rx[a]) {
+                side = Predicates.orient2d(lx[a], ly[a], rx[a], ry[a], rx[b], ry[b]);
+            } else {
+                side = -Predicates.orient2d(lx[b], ly[b], rx[b], ry[b], rx[a], ry[a]);
+            }
+        }
+        return side > 0 ? -1 : (side < 0 ? 1 : 0);
+    }
+
+    /** Bucket of X, not decreasing with X **/
+    private int bucket(double x) {
+        int bucket = (int) ((x - xs[0]) * bucketScale);
+        return Math.max(0, Math.min(buckets.length - 2, bucket));
+    }
+
+    /**
+     * Running the action for the nodes which slabs make up [from, to):
+     * the root of each block inside the range, the fewest nodes of the
+     * segment tree in the blocks of its ends.
+     */
+    private static void forEachNode(int from, int to, int group, IntConsumer action) {
+        for (int block = from / group, last = (to - 1) / group; block <= last; block++) {
+            int base = block * 2 * group;
+            int low = Math.max(from - block * group, 0) + group;
+            int high = Math.min(to - block * group, group) + group;
+            if (low == group && high == 2 * group) {
+                action.accept(base + 1);
+                continue;
+            }
+            while (low < high) {
+                if ((low & 1) != 0) {
+                    action.accept(base + low++);
+                }
+                if ((high & 1) != 0) {
+                    action.accept(base + --high);
+                }
+                low >>= 1;
+                high >>= 1;
+            }
+        }
+    }
+
+    /** Number of the node entries for the group **/
+    private static long entries(int[] leftRank, int[] rightRank, int group) {
+        long total = 0;
+        for (int e = 0; e < leftRank.length; e++) {
+            int first = leftRank[e] / group;
+            int last = (rightRank[e] - 1) / group;
+            if (first == last) {
+                total += nodes(leftRank[e] - first * group, rightRank[e] - first * group, group);
+            } else {
+                // roots of the blocks between the ends
+                total += nodes(leftRank[e] - first * group, group, group) + (last - first - 1) +
+                        nodes(0, rightRank[e] - last * group, group);
+            }
+        }
+        return total;
+    }
+
+    /** Number of the nodes which slabs make up [from, to) of one block **/
+    private static int nodes(int from, int to, int group) {
+        int count = 0;
+        for (int low = from + group, high = to + group; low < high; low >>= 1, high >>= 1) {
+            count += (low & 1) + (high & 1);
+            low += low & 1;
+            high -= high & 1;
+        }
+        return count;
+    }
+
+    /**
+     * Distinct values in the ascending order.
+     * @param values values to rank
+     * @param rank filled with the index of each value in the result
+     * @return distinct values
+     */
+    private static double[] rank(double[] values, int[] rank) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[count - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        double[] result = Arrays.copyOf(sorted, count);
+        for (int i = 0; i < values.length; i++) {
+            rank[i] = Arrays.binarySearch(result, values[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,268 @@
+package geom;
+
+import java.util.List;
+
+/**
+ * Immutable chain of segments given by its vertices.
+ * Coordinates are kept in primitive columns,
+ * points and segments are created only on demand.
+ */
+final public class Polyline extends GeomObject {
+    /** Coordinates of the vertices: coords[axis][vertex] **/
+    private final double[][] coords;
+
+    /**
+     * Cached length, 0 - not computed yet, so zero
+     * length is recomputed. Volatile keeps it whole.
+     */
+    private volatile double length;
+
+    /**
+     * Cached envelope, null - not computed yet. Envelope is
+     * immutable, so it is safely published without locking.
+     */
+    private Envelope envelope;
+
+    /**
+     * Constructor of the polyline by its vertices.
+     * @param vertices at least 2 vertices of one dimension
+     */
+    public Polyline(Point... vertices) {
+        super(checkVertices(vertices.length, vertices.length > 0 ? vertices[0].getDimension() : 1));
+        int dimension = getDimension();
+        coords = new double[dimension][vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            if (vertices[i].getDimension() != dimension) {
+                throw new IllegalArgumentException(
+                        "Points are in the distinct dimensions!"
+                );
+            }
+            for (int d = 0; d < dimension; d++) {
+                coords[d][i] = vertices[i].getCoord(d);
+            }
+        }
+    }
+
+    /**
+     * Constructor of the polyline by its vertices.
+     * @param vertices at least 2 vertices of one dimension
+     */
+    public Polyline(List<Point> vertices) {
+        this(vertices.toArray(new Point[0]));
+    }
+
+    /**
+     * Constructor of the polyline by the vertices in the columns.
+     * @param vertices at least 2 vertices
+     */
+    public Polyline(PointColumns vertices) {
+        super(checkVertices(vertices.size(), vertices.getDimension()));
+        coords = new double[getDimension()][];
+        for (int d = 0; d < coords.length; d++) {
+            coords[d] = vertices.getColumn(d);
+        }
+    }
+
+    /** Polyline over the own columns, for the package **/
+    Polyline(double[][] coords) {
+        super(checkVertices(coords[0].length, coords.length));
+        this.coords = coords;
+    }
+
+    private static int checkVertices(int count, int dimension) {
+        if (count < 2) {
+            throw new IllegalArgumentException(
+                    "Polyline needs at least 2 vertices"
+            );
+        }
+        return dimension;
+    }
+
+    /**
+     * @return number of the vertices
+     */
+    public int vertexCount() {
+        return coords[0].length;
+    }
+
+    /**
+     * @return number of the segments
+     */
+    public int segmentCount() {
+        return coords[0].length - 1;
+    }
+
+    /**
+     * Coordinate of the vertex.
+     * @param vertex index of the vertex
+     * @param axis index of the coordinate
+     * @return coordinate of the vertex
+     */
+    public double getCoord(int vertex, int axis) {
+        return coords[axis][vertex];
+    }
+
+    /**
+     * Creating the vertex by the index.
+     * @param vertex index of the vertex
+     * @return new point
+     */
+    public Point getVertex(int vertex) {
+        double[] dots = new double[coords.length];
+        for (int d = 0; d < dots.length; d++) {
+            dots[d] = coords[d][vertex];
+        }
+        return new Point(dots);
+    }
+
+    /**
+     * Creating the segment from the vertex to the next one.
+     * @param segment index of the segment
+     * @return new segment
+     */
+    public Segment getSegment(int segment) {
+        if (segment < 0 || segment >= segmentCount()) {
+            throw new IndexOutOfBoundsException(
+                    "Segment: " + segment + ", segments: " + segmentCount()
+            );
+        }
+        return new Segment(getVertex(segment), getVertex(segment + 1));
+    }
+
+    /**
+     * Total length of the segments, computed once.
+     * @return length of the polyline
+     */
+    public double length() {
+        double result = length;
+        if (result == 0) {
+            for (int i = 0; i < segmentCount(); i++) {
+                double sum = 0;
+                for (double[] column : coords) {
+                    double diff = column[i + 1] - column[i];
+                    sum += diff * diff;
+                }
+                result += Math.sqrt(sum);
+            }
+            length = result;
+        }
+        return result;
+    }
+
+    /**
+     * Axis-aligned envelope of the vertices, computed once.
+     * @return envelope of the polyline
+     */
+    public Envelope getEnvelope() {
+        Envelope result = envelope;
+        if (result == null) {
+            double[] min = new double[coords.length];
+            double[] max = new double[coords.length];
+            for (int d = 0; d < coords.length; d++) {
+                min[d] = coords[d][0];
+                max[d] = coords[d][0];
+                for (double value : coords[d]) {
+                    min[d] = Math.min(min[d], value);
+                    max[d] = Math.max(max[d], value);
+                }
+            }
+            result = new Envelope(min, max);
+            envelope = result;
+        }
+        return result;
+    }
+
+    /**
+     * Finding out if the 2-dimensional polyline and the segment
+     * intersect, in the same sense as Segment.isIntersect().
+     * @param segment segment to check
+     * @return TRUE - any segment of the polyline intersects it, FALSE - else
+     */
+    public boolean isIntersect(Segment segment) {
+        if (getDimension() != 2 || segment.getDimension() != 2) {
+            throw new IllegalArgumentException(
+                    "Polyline and segment have dimensions which are not equal to 2"
+            );
+        }
+        if (!getEnvelope().intersects(segment.getEnvelope())) {
+            return false;
+        }
+        double x3 = segment.getFrom().getX();
+        double y3 = segment.getFrom().getY();
+        double x4 = segment.getTo().getX();
+        double y4 = segment.getTo().getY();
+        double minX = Math.min(x3, x4);
+        double maxX = Math.max(x3, x4);
+        double minY = Math.min(y3, y4);
+        double maxY = Math.max(y3, y4);
+        double[] x = coords[0];
+        double[] y = coords[1];
+        for (int i = 0; i < segmentCount(); i++) {
+            // envelopes of the segments first
+            if (Math.max(x[i], x[i + 1]) < minX || Math.min(x[i], x[i + 1]) > maxX ||
+                    Math.max(y[i], y[i + 1]) < minY || Math.min(y[i], y[i + 1]) > maxY) {
+                continue;
+            }
+            if (Segment.isIntersect(x[i], y[i], x[i + 1], y[i + 1], x3, y3, x4, y4)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * toString() method.
+     * @return the string representation of the polyline.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("Polyline: ");
+        for (int i = 0; i < vertexCount(); i++) {
+            result.append(i == 0 ? "(" : " - (");
+            for (int d = 0; d < coords.length; d++) {
+                result.append(d == 0 ? "" : ", ").append(coords[d][i]);
+            }
+            result.append(')');
+        }
+        return result.append('.').toString();
+    }
+
+    /**
+     * Overridden equals.
+     * Note: direction of the polyline is valuable.
+     * @param obj object to compare with
+     * @return TRUE - polylines have identical vertices, FALSE - else.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Polyline)) {
+            return false;
+        }
+        Polyline line = (Polyline) obj;
+        if (line.getDimension() != getDimension() || line.vertexCount() != vertexCount()) {
+            return false;
+        }
+        for (int i = 0; i < vertexCount(); i++) {
+            if (!line.getVertex(i).equals(getVertex(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Overridden hash code.
+     * @return hash code of the polyline.
+     */
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (int i = 0; i < vertexCount(); i++) {
+            result = result * 31 + getVertex(i).hashCode();
+        }
+        return result;
+    }
+}
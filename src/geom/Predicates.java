@@ -0,0 +1,312 @@
+package geom;
+
+/**
+ * Robust geometric predicates after J. R. Shewchuk, "Adaptive
+ * Precision Floating-Point Arithmetic and Fast Robust Geometric
+ * Predicates". The determinant is computed in doubles first and
+ * returned at once when its error bound proves the sign. Only the
+ * undecided, nearly degenerate inputs go on to the more precise
+ * stages, which end in exact arithmetic over expansions: sums of
+ * non-overlapping doubles. Returned values have the exact sign
+ * of the determinant and approximate its value.
+ */
+final public class Predicates {
+    /** Half of the unit roundoff of doubles **/
+    private static final double EPSILON = 0x1p-53;
+
+    /** Error bounds of the stages **/
+    private static final double RESULT_BOUND = (3.0 + 8.0 * EPSILON) * EPSILON;
+    private static final double CCW_BOUND_A = (3.0 + 16.0 * EPSILON) * EPSILON;
+    private static final double CCW_BOUND_B = (2.0 + 12.0 * EPSILON) * EPSILON;
+    private static final double CCW_BOUND_C = (9.0 + 64.0 * EPSILON) * EPSILON * EPSILON;
+    private static final double ICC_BOUND_A = (10.0 + 96.0 * EPSILON) * EPSILON;
+
+    private Predicates() {
+    }
+
+    /**
+     * Orientation of the point c relative to the line through a and b.
+     * @return positive value if a, b, c turn counterclockwise,
+     *         negative if clockwise and zero if they are collinear
+     */
+    public static double orient2d(double ax, double ay, double bx, double by,
+                                  double cx, double cy) {
+        double detLeft = (ax - cx) * (by - cy);
+        double detRight = (ay - cy) * (bx - cx);
+        double det = detLeft - detRight;
+        double detSum;
+        if (detLeft > 0) {
+            if (detRight <= 0) {
+                return det;
+            }
+            detSum = detLeft + detRight;
+        } else if (detLeft < 0) {
+            if (detRight >= 0) {
+                return det;
+            }
+            detSum = -detLeft - detRight;
+        } else {
+            return det;
+        }
+        double bound = CCW_BOUND_A * detSum;
+        if (det >= bound || -det >= bound) {
+            return det;
+        }
+        return orient2dAdapt(ax, ay, bx, by, cx, cy, detSum);
+    }
+
+    /**
+     * Orientation of the point c relative to the line through a and b.
+     * @see #orient2d(double, double, double, double, double, double)
+     */
+    public static double orient2d(Point a, Point b, Point c) {
+        return orient2d(a.getX(), a.getY(), b.getX(), b.getY(), c.getX(), c.getY());
+    }
+
+    /**
+     * Position of the point d relative to the circle through a, b and c,
+     * which go counterclockwise.
+     * @return positive value if d is inside the circle, negative if
+     *         outside and zero if the four points lie on one circle
+     */
+    public static double inCircle(double ax, double ay, double bx, double by,
+                                  double cx, double cy, double dx, double dy) {
+        double adx = ax - dx;
+        double bdx = bx - dx;
+        double cdx = cx - dx;
+        double ady = ay - dy;
+        double bdy = by - dy;
+        double cdy = cy - dy;
+
+        double bdxcdy = bdx * cdy;
+        double cdxbdy = cdx * bdy;
+        double aLift = adx * adx + ady * ady;
+
+        double cdxady = cdx * ady;
+        double adxcdy = adx * cdy;
+        double bLift = bdx * bdx + bdy * bdy;
+
+        double adxbdy = adx * bdy;
+        double bdxady = bdx * ady;
+        double cLift = cdx * cdx + cdy * cdy;
+
+        double det = aLift * (bdxcdy - cdxbdy) + bLift * (cdxady - adxcdy) + cLift * (adxbdy - bdxady);
+        double permanent = (Math.abs(bdxcdy) + Math.abs(cdxbdy)) * aLift +
+                (Math.abs(cdxady) + Math.abs(adxcdy)) * bLift +
+                (Math.abs(adxbdy) + Math.abs(bdxady)) * cLift;
+        double bound = ICC_BOUND_A * permanent;
+        if (det > bound || -det > bound) {
+            return det;
+        }
+        return inCircleExact(ax, ay, bx, by, cx, cy, dx, dy);
+    }
+
+    /**
+     * Position of the point d relative to the circle through a, b and c.
+     * @see #inCircle(double, double, double, double, double, double, double, double)
+     */
+    public static double inCircle(Point a, Point b, Point c, Point d) {
+        return inCircle(a.getX(), a.getY(), b.getX(), b.getY(),
+                c.getX(), c.getY(), d.getX(), d.getY());
+    }
+
+    /** Stages B, C and the exact one of the orientation **/
+    private static double orient2dAdapt(double ax, double ay, double bx, double by,
+                                        double cx, double cy, double detSum) {
+        double acx = ax - cx;
+        double bcx = bx - cx;
+        double acy = ay - cy;
+        double bcy = by - cy;
+
+        // products of the rounded differences, exactly
+        double[] b = sum(product(acx, bcy), negate(product(acy, bcx)));
+        double det = estimate(b);
+        double bound = CCW_BOUND_B * detSum;
+        if (det >= bound || -det >= bound) {
+            return det;
+        }
+
+        double acxTail = diffTail(ax, cx, acx);
+        double bcxTail = diffTail(bx, cx, bcx);
+        double acyTail = diffTail(ay, cy, acy);
+        double bcyTail = diffTail(by, cy, bcy);
+        if (acxTail == 0 && acyTail == 0 && bcxTail == 0 && bcyTail == 0) {
+            // differences were exact, so is the stage B
+            return det;
+        }
+
+        bound = CCW_BOUND_C * detSum + RESULT_BOUND * Math.abs(det);
+        det += (acx * bcyTail + bcy * acxTail) - (acy * bcxTail + bcx * acyTail);
+        if (det >= bound || -det >= bound) {
+            return det;
+        }
+
+        double[] acxExact = {acxTail, acx};
+        double[] bcxExact = {bcxTail, bcx};
+        double[] acyExact = {acyTail, acy};
+        double[] bcyExact = {bcyTail, bcy};
+        return mostSignificant(sum(product(acxExact, bcyExact), negate(product(acyExact, bcxExact))));
+    }
+
+    /** In-circle determinant over the exact differences **/
+    private static double inCircleExact(double ax, double ay, double bx, double by,
+                                        double cx, double cy, double dx, double dy) {
+        double[] adx = difference(ax, dx);
+        double[] bdx = difference(bx, dx);
+        double[] cdx = difference(cx, dx);
+        double[] ady = difference(ay, dy);
+        double[] bdy = difference(by, dy);
+        double[] cdy = difference(cy, dy);
+
+        double[] aLift = sum(product(adx, adx), product(ady, ady));
+        double[] bLift = sum(product(bdx, bdx), product(bdy, bdy));
+        double[] cLift = sum(product(cdx, cdx), product(cdy, cdy));
+
+        double[] bc = sum(product(bdx, cdy), negate(product(cdx, bdy)));
+        double[] ca = sum(product(cdx, ady), negate(product(adx, cdy)));
+        double[] ab = sum(product(adx, bdy), negate(product(bdx, ady)));
+
+        return mostSignificant(sum(sum(product(aLift, bc), product(bLift, ca)), product(cLift, ab)));
+    }
+
+    /** Roundoff of the difference x = a - b **/
+    private static double diffTail(double a, double b, double x) {
+        double bVirtual = a - x;
+        double aVirtual = x + bVirtual;
+        double bRound = bVirtual - b;
+        double aRound = a - aVirtual;
+        return aRound + bRound;
+    }
+
+    /** Exact difference a - b as an expansion **/
+    private static double[] difference(double a, double b) {
+        double x = a - b;
+        return compress(new double[]{diffTail(a, b, x), x}, 2);
+    }
+
+    /** Exact product a * b as an expansion **/
+    private static double[] product(double a, double b) {
+        double x = a * b;
+        return compress(new double[]{Math.fma(a, b, -x), x}, 2);
+    }
+
+    /** Product of two expansions **/
+    private static double[] product(double[] e, double[] f) {
+        double[] result = new double[0];
+        for (double component : f) {
+            result = sum(result, scale(e, component));
+        }
+        return result;
+    }
+
+    /**
+     * Product of the expansion and the double, zero components eliminated
+     * (scale_expansion_zeroelim).
+     */
+    private static double[] scale(double[] e, double b) {
+        if (e.length == 0) {
+            return e;
+        }
+        double[] h = new double[2 * e.length];
+        int length = 0;
+        double q = e[0] * b;
+        double tail = Math.fma(e[0], b, -q);
+        if (tail != 0) {
+            h[length++] = tail;
+        }
+        for (int i = 1; i < e.length; i++) {
+            double product1 = e[i] * b;
+            double product0 = Math.fma(e[i], b, -product1);
+            double sum = q + product0;
+            tail = sumTail(q, product0, sum);
+            if (tail != 0) {
+                h[length++] = tail;
+            }
+            q = product1 + sum;
+            tail = sum - (q - product1);
+            if (tail != 0) {
+                h[length++] = tail;
+            }
+        }
+        if (q != 0 || length == 0) {
+            h[length++] = q;
+        }
+        return compress(h, length);
+    }
+
+    /** Sum of two expansions, zero components eliminated **/
+    private static double[] sum(double[] e, double[] f) {
+        double[] result = e;
+        for (double component : f) {
+            result = grow(result, component);
+        }
+        return result;
+    }
+
+    /**
+     * Sum of the expansion and the double, zero components eliminated
+     * (grow_expansion_zeroelim).
+     */
+    private static double[] grow(double[] e, double b) {
+        double[] h = new double[e.length + 1];
+        int length = 0;
+        double q = b;
+        for (double component : e) {
+            double sum = q + component;
+            double tail = sumTail(q, component, sum);
+            q = sum;
+            if (tail != 0) {
+                h[length++] = tail;
+            }
+        }
+        if (q != 0 || length == 0) {
+            h[length++] = q;
+        }
+        return compress(h, length);
+    }
+
+    /** Roundoff of the sum x = a + b **/
+    private static double sumTail(double a, double b, double x) {
+        double bVirtual = x - a;
+        double aVirtual = x - bVirtual;
+        double bRound = b - bVirtual;
+        double aRound = a - aVirtual;
+        return aRound + bRound;
+    }
+
+    private static double[] negate(double[] e) {
+        double[] result = new double[e.length];
+        for (int i = 0; i < e.length; i++) {
+            result[i] = -e[i];
+        }
+        return result;
+    }
+
+    private static double[] compress(double[] e, int length) {
+        if (length == e.length) {
+            return e;
+        }
+        double[] result = new double[length];
+        System.arraycopy(e, 0, result, 0, length);
+        return result;
+    }
+
+    /** Approximate value of the expansion **/
+    private static double estimate(double[] e) {
+        double result = 0;
+        for (double component : e) {
+            result += component;
+        }
+        return result;
+    }
+
+    /** Largest component of the expansion, which has its sign **/
+    private static double mostSignificant(double[] e) {
+        for (int i = e.length - 1; i >= 0; i--) {
+            if (e[i] != 0) {
+                return e[i];
+            }
+        }
+        return 0;
+    }
+}
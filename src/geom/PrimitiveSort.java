@@ -0,0 +1,183 @@
+package geom;
+
+/**
+ * Sorting of int items by double keys
+ * without boxing, for the bulk algorithms
+ * of the package. Quicksort takes the pivot as the
+ * ninther (median of three medians) of the range and
+ * turns to the heapsort when the recursion gets too deep,
+ * so sorted, reversed and organ-pipe keys (e.g. points
+ * of a ring in the ring order) stay O(N log N).
+ */
+final class PrimitiveSort {
+    /** Ranges shorter than this are sorted by insertions **/
+    private static final int INSERTION_THRESHOLD = 24;
+
+    /** Ranges longer than this take the ninther as the pivot **/
+    private static final int NINTHER_THRESHOLD = 128;
+
+    private PrimitiveSort() {
+    }
+
+    /**
+     * Sorting keys in ascending order and
+     * moving items together with their keys.
+     * @param keys keys to sort
+     * @param items items to move with the keys
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     */
+    static void sort(double[] keys, int[] items, int from, int to) {
+        sort(keys, items, from, to, depthLimit(to - from));
+    }
+
+    private static void sort(double[] keys, int[] items, int from, int to, int depth) {
+        while (to - from > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(keys, items, from, to);
+                return;
+            }
+            double pivot = pivot(keys, from, to);
+            // three-way partition: [from, lt) < pivot, [lt, gt) == pivot, [gt, to) > pivot
+            int lt = from;
+            int gt = to;
+            int i = from;
+            while (i < gt) {
+                double key = keys[i];
+                if (key < pivot) {
+                    swap(keys, items, i++, lt++);
+                } else if (key > pivot) {
+                    swap(keys, items, i, --gt);
+                } else {
+                    i++;
+                }
+            }
+            // recursion into the smaller part keeps the stack short
+            if (lt - from < to - gt) {
+                sort(keys, items, from, lt, depth);
+                from = gt;
+            } else {
+                sort(keys, items, gt, to, depth);
+                to = lt;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            double key = keys[i];
+            int item = items[i];
+            int j = i - 1;
+            while (j >= from && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                items[j + 1] = items[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            items[j + 1] = item;
+        }
+    }
+
+    /**
+     * Partial sorting which puts the k-th smallest key to
+     * its place, smaller keys before it and bigger after it.
+     * @param keys keys to select from
+     * @param items items to move with the keys
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param k index of the key to select
+     */
+    static void select(double[] keys, int[] items, int from, int to, int k) {
+        int depth = depthLimit(to - from);
+        while (to - from > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                // bad pivots: sorting the rest is still O(N log N)
+                heapSort(keys, items, from, to);
+                return;
+            }
+            double pivot = pivot(keys, from, to);
+            int lt = from;
+            int gt = to;
+            int i = from;
+            while (i < gt) {
+                double key = keys[i];
+                if (key < pivot) {
+                    swap(keys, items, i++, lt++);
+                } else if (key > pivot) {
+                    swap(keys, items, i, --gt);
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                to = lt;
+            } else if (k >= gt) {
+                from = gt;
+            } else {
+                return;
+            }
+        }
+        sort(keys, items, from, to);
+    }
+
+    /** Twice the binary logarithm of the size **/
+    private static int depthLimit(int size) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(Math.max(size, 1)));
+    }
+
+    private static double pivot(double[] keys, int from, int to) {
+        int last = to - 1;
+        int mid = (from + to) >>> 1;
+        if (to - from <= NINTHER_THRESHOLD) {
+            return median(keys[from], keys[mid], keys[last]);
+        }
+        int step = (to - from) >>> 3;
+        return median(
+                median(keys[from], keys[from + step], keys[from + 2 * step]),
+                median(keys[mid - step], keys[mid], keys[mid + step]),
+                median(keys[last - 2 * step], keys[last - step], keys[last])
+        );
+    }
+
+    private static double median(double a, double b, double c) {
+        if (a < b) {
+            return b < c ? b : (a < c ? c : a);
+        }
+        return a < c ? a : (b < c ? c : b);
+    }
+
+    private static void heapSort(double[] keys, int[] items, int from, int to) {
+        int size = to - from;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(keys, items, from, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(keys, items, from, from + end);
+            siftDown(keys, items, from, 0, end);
+        }
+    }
+
+    /** Restoring the max-heap of the size at the offset below the node **/
+    private static void siftDown(double[] keys, int[] items, int offset, int node, int size) {
+        while (true) {
+            int child = 2 * node + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && keys[offset + child + 1] > keys[offset + child]) {
+                child++;
+            }
+            if (!(keys[offset + child] > keys[offset + node])) {
+                return;
+            }
+            swap(keys, items, offset + node, offset + child);
+            node = child;
+        }
+    }
+
+    private static void swap(double[] keys, int[] items, int i, int j) {
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+    }
+}
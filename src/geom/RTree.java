@@ -0,0 +1,757 @@
+package geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * R-tree spatial index of points and segments
+ * for any number of dimensions.
+ * Tree can be bulk loaded with Sort-Tile-Recursive
+ * packing and then changed by single inserts and removes.
+ * Boxes of the node entries are kept in primitive arrays.
+ */
+final public class RTree extends Dimension implements SpatialIndex {
+    /** Default maximal number of entries in the node **/
+    private static final int DEFAULT_MAX_ENTRIES = 16;
+
+    /** Maximal number of entries in the node **/
+    private final int maxEntries;
+
+    /** Minimal number of entries in the node (except root) **/
+    private final int minEntries;
+
+    /** Root of the tree or null for empty tree **/
+    private Node root;
+
+    /** Number of indexed objects **/
+    private int size;
+
+    /** Constructor **/
+    public RTree(int numOfDimensions) {
+        this(numOfDimensions, DEFAULT_MAX_ENTRIES);
+    }
+
+    /** Constructor **/
+    public RTree(int numOfDimensions, int maxEntries) {
+        super(numOfDimensions);
+        if (maxEntries < 4) {
+            throw new IllegalArgumentException(
+                    "Node should contain at least 4 entries"
+            );
+        }
+        this.maxEntries = maxEntries;
+        this.minEntries = Math.max(2, maxEntries * 2 / 5);
+    }
+
+    /**
+     * Building the tree of all points and
+     * segments of the space.
+     * @param space space to index
+     * @return new tree
+     */
+    public static RTree bulkLoad(Space space) {
+        return bulkLoad(space, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Building the tree of all points and
+     * segments of the space. Other objects
+     * are skipped, as by Space.attachIndex().
+     * @param space space to index
+     * @param maxEntries maximal number of entries in the node
+     * @return new tree
+     */
+    public static RTree bulkLoad(Space space, int maxEntries) {
+        List<GeomObject> objects = new ArrayList<GeomObject>(space.size());
+        for (int i = 0; i < space.size(); i++) {
+            GeomObject object = space.getObject(i);
+            if (object instanceof Point || object instanceof Segment) {
+                objects.add(object);
+            }
+        }
+        return bulkLoad(objects, space.getDimension(), maxEntries);
+    }
+
+    /**
+     * Building the tree with Sort-Tile-Recursive packing.
+     * @param objects points and segments to index
+     * @param numOfDimensions number of dimensions
+     * @param maxEntries maximal number of entries in the node
+     * @return new tree
+     */
+    public static RTree bulkLoad(List<? extends GeomObject> objects, int numOfDimensions,
+                                 int maxEntries) {
+        RTree tree = new RTree(numOfDimensions, maxEntries);
+        if (objects.isEmpty()) {
+            return tree;
+        }
+        int count = objects.size();
+        Object[] payloads = objects.toArray();
+        double[] mins = new double[count * numOfDimensions];
+        double[] maxs = new double[count * numOfDimensions];
+        double[] min = new double[numOfDimensions];
+        double[] max = new double[numOfDimensions];
+        for (int i = 0; i < count; i++) {
+            GeomObject object = (GeomObject) payloads[i];
+            tree.checkDimension(object);
+            envelopeOf(object, min, max);
+            System.arraycopy(min, 0, mins, i * numOfDimensions, numOfDimensions);
+            System.arraycopy(max, 0, maxs, i * numOfDimensions, numOfDimensions);
+        }
+        boolean leaf = true;
+        while (true) {
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            List<Node> nodes = new ArrayList<Node>((count + maxEntries - 1) / maxEntries);
+            tree.pack(payloads, mins, maxs, order, new double[count], 0, count, 0, leaf, nodes);
+            if (nodes.size() == 1) {
+                tree.root = nodes.get(0);
+                break;
+            }
+            count = nodes.size();
+            payloads = nodes.toArray();
+            for (int i = 0; i < count; i++) {
+                tree.bounds(nodes.get(i), min, max);
+                System.arraycopy(min, 0, mins, i * numOfDimensions, numOfDimensions);
+                System.arraycopy(max, 0, maxs, i * numOfDimensions, numOfDimensions);
+            }
+            leaf = false;
+        }
+        tree.size = objects.size();
+        return tree;
+    }
+
+    /**
+     * Packing of the entries into the nodes: entries are sorted
+     * by the center on the axis and cut into slices which are
+     * packed recursively by the next axis.
+     * @param payloads objects or nodes
+     * @param mins lower corners of the entries
+     * @param maxs upper corners of the entries
+     * @param order indices of the entries to pack
+     * @param keys buffer for the sort keys
+     */
+    private void pack(Object[] payloads, double[] mins, double[] maxs, int[] order, double[] keys,
+                      int from, int to, int axis, boolean leaf, List<Node> nodes) {
+        int dimension = getDimension();
+        for (int i = from; i < to; i++) {
+            int offset = order[i] * dimension + axis;
+            keys[i] = mins[offset] + maxs[offset];
+        }
+        PrimitiveSort.sort(keys, order, from, to);
+        int count = to - from;
+        if (axis == dimension - 1 || count <= maxEntries) {
+            for (int start = from; start < to; start += maxEntries) {
+                int end = Math.min(start + maxEntries, to);
+                Node node = new Node(leaf, maxEntries + 1, dimension);
+                for (int i = start; i < end; i++) {
+                    int entry = order[i];
+                    System.arraycopy(mins, entry * dimension, node.min, node.count * dimension, dimension);
+                    System.arraycopy(maxs, entry * dimension, node.max, node.count * dimension, dimension);
+                    node.children[node.count++] = payloads[entry];
+                }
+                nodes.add(node);
+            }
+            return;
+        }
+        int pages = (count + maxEntries - 1) / maxEntries;
+        int slices = (int) Math.ceil(Math.pow(pages, 1.0 / (dimension - axis)));
+        int sliceSize = maxEntries * ((pages + slices - 1) / slices);
+        for (int start = from; start < to; start += sliceSize) {
+            pack(payloads, mins, maxs, order, keys, start, Math.min(start + sliceSize, to),
+                    axis + 1, leaf, nodes);
+        }
+    }
+
+    /**
+     * @return number of indexed objects
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return envelope of all indexed objects or null for empty tree
+     */
+    public Envelope getBounds() {
+        if (root == null || root.count == 0) {
+            return null;
+        }
+        double[] min = new double[getDimension()];
+        double[] max = new double[getDimension()];
+        bounds(root, min, max);
+        return new Envelope(min, max);
+    }
+
+    /**
+     * Add point or segment to the tree.
+     * @param object object to add
+     */
+    @Override
+    public void insert(GeomObject object) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.INDEX_INSERT);
+        try {
+            checkDimension(object);
+            double[] min = new double[getDimension()];
+            double[] max = new double[getDimension()];
+            envelopeOf(object, min, max);
+            if (root == null) {
+                root = new Node(true, maxEntries + 1, getDimension());
+            }
+            Node sibling = insert(root, object, min, max);
+            if (sibling != null) {
+                Node newRoot = new Node(false, maxEntries + 1, getDimension());
+                addNode(newRoot, root);
+                addNode(newRoot, sibling);
+                root = newRoot;
+            }
+            size++;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Recursive insert.
+     * @return new sibling of the node if it was split, null - else
+     */
+    private Node insert(Node node, GeomObject object, double[] min, double[] max) {
+        if (node.leaf) {
+            add(node, object, min, max);
+        } else {
+            int index = chooseSubtree(node, min, max);
+            Node child = (Node) node.children[index];
+            Node sibling = insert(child, object, min, max);
+            updateBox(node, index);
+            if (sibling != null) {
+                addNode(node, sibling);
+            }
+        }
+        return node.count > maxEntries ? split(node) : null;
+    }
+
+    /**
+     * Remove point or segment from the tree.
+     * Object is found by equals().
+     * @param object object to remove
+     * @return TRUE - object was removed, FALSE - there is no such object
+     */
+    @Override
+    public boolean remove(GeomObject object) {
+        checkDimension(object);
+        if (root == null) {
+            return false;
+        }
+        double[] min = new double[getDimension()];
+        double[] max = new double[getDimension()];
+        envelopeOf(object, min, max);
+        List<GeomObject> orphans = new ArrayList<GeomObject>();
+        if (!remove(root, object, min, max, orphans)) {
+            return false;
+        }
+        size--;
+        while (!root.leaf && root.count == 1) {
+            root = (Node) root.children[0];
+        }
+        if (root.count == 0) {
+            root = null;
+        }
+        size -= orphans.size();
+        for (GeomObject orphan : orphans) {
+            insert(orphan);
+        }
+        return true;
+    }
+
+    /**
+     * Recursive remove. Underfilled nodes are dropped
+     * and their objects are collected for reinsertion.
+     * @return TRUE - object was removed
+     */
+    private boolean remove(Node node, GeomObject object, double[] min, double[] max,
+                           List<GeomObject> orphans) {
+        for (int i = 0; i < node.count; i++) {
+            if (!contains(node, i, min, max)) {
+                continue;
+            }
+            if (node.leaf) {
+                if (node.children[i].equals(object)) {
+                    removeEntry(node, i);
+                    return true;
+                }
+                continue;
+            }
+            Node child = (Node) node.children[i];
+            if (remove(child, object, min, max, orphans)) {
+                if (child.count < minEntries) {
+                    removeEntry(node, i);
+                    collect(child, orphans);
+                } else {
+                    updateBox(node, i);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finding objects which envelopes lie inside the window.
+     * @param window window to search in
+     * @return list of found objects
+     */
+    public List<GeomObject> window(Envelope window) {
+        List<GeomObject> result = new ArrayList<GeomObject>();
+        search(window, true, result::add);
+        return result;
+    }
+
+    /**
+     * Finding objects which envelopes lie inside the window.
+     * @param window window to search in
+     * @param consumer consumer of found objects
+     */
+    public void window(Envelope window, Consumer<GeomObject> consumer) {
+        search(window, true, consumer);
+    }
+
+    /**
+     * Finding objects which envelopes intersect the envelope.
+     * @param envelope envelope to search with
+     * @return list of found objects
+     */
+    public List<GeomObject> intersects(Envelope envelope) {
+        List<GeomObject> result = new ArrayList<GeomObject>();
+        search(envelope, false, result::add);
+        return result;
+    }
+
+    /**
+     * Finding objects which envelopes intersect the envelope.
+     * @param envelope envelope to search with
+     * @param consumer consumer of found objects
+     */
+    @Override
+    public void intersects(Envelope envelope, Consumer<GeomObject> consumer) {
+        search(envelope, false, consumer);
+    }
+
+    /**
+     * Iterative search over the nodes intersecting the query.
+     * @param query query envelope
+     * @param inside TRUE - objects should lie inside the query,
+     *               FALSE - objects should intersect it
+     * @param consumer consumer of found objects
+     */
+    private void search(Envelope query, boolean inside, Consumer<GeomObject> consumer) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.INDEX_QUERY);
+        try {
+            checkDimension(query);
+            if (root == null) {
+                return;
+            }
+            int dimension = getDimension();
+            double[] min = new double[dimension];
+            double[] max = new double[dimension];
+            for (int i = 0; i < dimension; i++) {
+                min[i] = query.getMin(i);
+                max[i] = query.getMax(i);
+            }
+            Node[] stack = new Node[16];
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                Node node = stack[--top];
+                for (int i = 0; i < node.count; i++) {
+                    if (!intersects(node, i, min, max)) {
+                        continue;
+                    }
+                    if (!node.leaf) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = (Node) node.children[i];
+                    } else if (!inside || isInside(node, i, min, max)) {
+                        consumer.accept((GeomObject) node.children[i]);
+                    }
+                }
+            }
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /** OPERATIONS WITH THE NODES **/
+
+    private void add(Node node, Object child, double[] min, double[] max) {
+        int dimension = getDimension();
+        System.arraycopy(min, 0, node.min, node.count * dimension, dimension);
+        System.arraycopy(max, 0, node.max, node.count * dimension, dimension);
+        node.children[node.count++] = child;
+    }
+
+    private void addNode(Node node, Node child) {
+        double[] min = new double[getDimension()];
+        double[] max = new double[getDimension()];
+        bounds(child, min, max);
+        add(node, child, min, max);
+    }
+
+    private void removeEntry(Node node, int index) {
+        int dimension = getDimension();
+        int last = node.count - 1;
+        if (index != last) {
+            System.arraycopy(node.min, last * dimension, node.min, index * dimension, dimension);
+            System.arraycopy(node.max, last * dimension, node.max, index * dimension, dimension);
+            node.children[index] = node.children[last];
+        }
+        node.children[last] = null;
+        node.count--;
+    }
+
+    /** Recomputing the box of the child node entry **/
+    private void updateBox(Node node, int index) {
+        int dimension = getDimension();
+        Node child = (Node) node.children[index];
+        int offset = index * dimension;
+        for (int d = 0; d < dimension; d++) {
+            node.min[offset + d] = Double.POSITIVE_INFINITY;
+            node.max[offset + d] = Double.NEGATIVE_INFINITY;
+        }
+        for (int i = 0; i < child.count; i++) {
+            for (int d = 0; d < dimension; d++) {
+                node.min[offset + d] = Math.min(node.min[offset + d], child.min[i * dimension + d]);
+                node.max[offset + d] = Math.max(node.max[offset + d], child.max[i * dimension + d]);
+            }
+        }
+    }
+
+    /** Union of the boxes of all entries of the node **/
+    private void bounds(Node node, double[] min, double[] max) {
+        int dimension = getDimension();
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < node.count; i++) {
+            for (int d = 0; d < dimension; d++) {
+                min[d] = Math.min(min[d], node.min[i * dimension + d]);
+                max[d] = Math.max(max[d], node.max[i * dimension + d]);
+            }
+        }
+    }
+
+    private void collect(Node node, List<GeomObject> objects) {
+        for (int i = 0; i < node.count; i++) {
+            if (node.leaf) {
+                objects.add((GeomObject) node.children[i]);
+            } else {
+                collect((Node) node.children[i], objects);
+            }
+        }
+    }
+
+    /**
+     * Entry which box needs the least enlargement to include the box.
+     * Ties, e.g. of the flat boxes of the points on a line or a plane
+     * which have no volume, are broken by the enlargement of the margin
+     * (sum of the extents), then by the volume and the margin.
+     */
+    private int chooseSubtree(Node node, double[] min, double[] max) {
+        int dimension = getDimension();
+        int best = 0;
+        double bestEnlargement = Double.POSITIVE_INFINITY;
+        double bestMarginEnlargement = Double.POSITIVE_INFINITY;
+        double bestVolume = Double.POSITIVE_INFINITY;
+        double bestMargin = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < node.count; i++) {
+            double volume = 1;
+            double enlarged = 1;
+            double margin = 0;
+            double enlargedMargin = 0;
+            for (int d = 0; d < dimension; d++) {
+                double low = node.min[i * dimension + d];
+                double high = node.max[i * dimension + d];
+                double extent = Math.max(high, max[d]) - Math.min(low, min[d]);
+                volume *= high - low;
+                enlarged *= extent;
+                margin += high - low;
+                enlargedMargin += extent;
+            }
+            double enlargement = enlarged - volume;
+            double marginEnlargement = enlargedMargin - margin;
+            if (enlargement != bestEnlargement ? enlargement < bestEnlargement :
+                    marginEnlargement != bestMarginEnlargement ? marginEnlargement < bestMarginEnlargement :
+                    volume != bestVolume ? volume < bestVolume : margin < bestMargin) {
+                best = i;
+                bestEnlargement = enlargement;
+                bestMarginEnlargement = marginEnlargement;
+                bestVolume = volume;
+                bestMargin = margin;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Quadratic split of the overflowed node.
+     * @return new sibling of the node
+     */
+    private Node split(Node node) {
+        int dimension = getDimension();
+        int count = node.count;
+        double[] mins = Arrays.copyOf(node.min, count * dimension);
+        double[] maxs = Arrays.copyOf(node.max, count * dimension);
+        Object[] children = Arrays.copyOf(node.children, count);
+        // seeds which waste the most space together, flat boxes by the margin
+        int seed1 = 0;
+        int seed2 = 1;
+        double worst = Double.NEGATIVE_INFINITY;
+        double worstMargin = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                double waste = unionVolume(mins, maxs, i, mins, maxs, j) -
+                        volume(mins, maxs, i) - volume(mins, maxs, j);
+                double marginWaste = unionMargin(mins, maxs, i, j) -
+                        margin(mins, maxs, i) - margin(mins, maxs, j);
+                if (waste > worst || (waste == worst && marginWaste > worstMargin)) {
+                    worst = waste;
+                    worstMargin = marginWaste;
+                    seed1 = i;
+                    seed2 = j;
+                }
+            }
+        }
+        Node sibling = new Node(node.leaf, maxEntries + 1, dimension);
+        node.count = 0;
+        Arrays.fill(node.children, null);
+        boolean[] assigned = new boolean[count];
+        copyEntry(mins, maxs, children, seed1, node);
+        copyEntry(mins, maxs, children, seed2, sibling);
+        assigned[seed1] = true;
+        assigned[seed2] = true;
+        double[] box1 = new double[2 * dimension];
+        double[] box2 = new double[2 * dimension];
+        for (int remaining = count - 2; remaining > 0; remaining--) {
+            if (node.count + remaining == minEntries || sibling.count + remaining == minEntries) {
+                Node target = node.count + remaining == minEntries ? node : sibling;
+                for (int i = 0; i < count; i++) {
+                    if (!assigned[i]) {
+                        copyEntry(mins, maxs, children, i, target);
+                    }
+                }
+                break;
+            }
+            boxOf(node, box1);
+            boxOf(sibling, box2);
+            // entry with the strongest preference to one of the groups
+            int next = -1;
+            double nextDifference = -1;
+            double nextMarginDifference = -1;
+            double nextGrowth1 = 0;
+            double nextGrowth2 = 0;
+            double nextMarginGrowth1 = 0;
+            double nextMarginGrowth2 = 0;
+            for (int i = 0; i < count; i++) {
+                if (assigned[i]) {
+                    continue;
+                }
+                double growth1 = growth(box1, mins, maxs, i);
+                double growth2 = growth(box2, mins, maxs, i);
+                double marginGrowth1 = marginGrowth(box1, mins, maxs, i);
+                double marginGrowth2 = marginGrowth(box2, mins, maxs, i);
+                double difference = Math.abs(growth1 - growth2);
+                double marginDifference = Math.abs(marginGrowth1 - marginGrowth2);
+                if (difference > nextDifference ||
+                        (difference == nextDifference && marginDifference > nextMarginDifference)) {
+                    next = i;
+                    nextDifference = difference;
+                    nextMarginDifference = marginDifference;
+                    nextGrowth1 = growth1;
+                    nextGrowth2 = growth2;
+                    nextMarginGrowth1 = marginGrowth1;
+                    nextMarginGrowth2 = marginGrowth2;
+                }
+            }
+            assigned[next] = true;
+            boolean first = nextGrowth1 != nextGrowth2 ? nextGrowth1 < nextGrowth2 :
+                    nextMarginGrowth1 != nextMarginGrowth2 ? nextMarginGrowth1 < nextMarginGrowth2 :
+                    node.count <= sibling.count;
+            copyEntry(mins, maxs, children, next, first ? node : sibling);
+        }
+        return sibling;
+    }
+
+    private void copyEntry(double[] mins, double[] maxs, Object[] children, int index, Node target) {
+        int dimension = getDimension();
+        System.arraycopy(mins, index * dimension, target.min, target.count * dimension, dimension);
+        System.arraycopy(maxs, index * dimension, target.max, target.count * dimension, dimension);
+        target.children[target.count++] = children[index];
+    }
+
+    /** Box of the node as min corner followed by max corner **/
+    private void boxOf(Node node, double[] box) {
+        int dimension = getDimension();
+        double[] min = new double[dimension];
+        double[] max = new double[dimension];
+        bounds(node, min, max);
+        System.arraycopy(min, 0, box, 0, dimension);
+        System.arraycopy(max, 0, box, dimension, dimension);
+    }
+
+    private double growth(double[] box, double[] mins, double[] maxs, int index) {
+        int dimension = getDimension();
+        double volume = 1;
+        double enlarged = 1;
+        for (int d = 0; d < dimension; d++) {
+            volume *= box[dimension + d] - box[d];
+            enlarged *= Math.max(box[dimension + d], maxs[index * dimension + d]) -
+                    Math.min(box[d], mins[index * dimension + d]);
+        }
+        return enlarged - volume;
+    }
+
+    /** Growth of the sum of the extents of the box by the entry **/
+    private double marginGrowth(double[] box, double[] mins, double[] maxs, int index) {
+        int dimension = getDimension();
+        double growth = 0;
+        for (int d = 0; d < dimension; d++) {
+            growth += Math.max(box[dimension + d], maxs[index * dimension + d]) -
+                    Math.min(box[d], mins[index * dimension + d]) -
+                    (box[dimension + d] - box[d]);
+        }
+        return growth;
+    }
+
+    /** Sum of the extents of the entry **/
+    private double margin(double[] mins, double[] maxs, int index) {
+        int dimension = getDimension();
+        double margin = 0;
+        for (int d = 0; d < dimension; d++) {
+            margin += maxs[index * dimension + d] - mins[index * dimension + d];
+        }
+        return margin;
+    }
+
+    private double unionMargin(double[] mins, double[] maxs, int index1, int index2) {
+        int dimension = getDimension();
+        double margin = 0;
+        for (int d = 0; d < dimension; d++) {
+            margin += Math.max(maxs[index1 * dimension + d], maxs[index2 * dimension + d]) -
+                    Math.min(mins[index1 * dimension + d], mins[index2 * dimension + d]);
+        }
+        return margin;
+    }
+
+    private double volume(double[] mins, double[] maxs, int index) {
+        int dimension = getDimension();
+        double volume = 1;
+        for (int d = 0; d < dimension; d++) {
+            volume *= maxs[index * dimension + d] - mins[index * dimension + d];
+        }
+        return volume;
+    }
+
+    private double unionVolume(double[] mins1, double[] maxs1, int index1,
+                               double[] mins2, double[] maxs2, int index2) {
+        int dimension = getDimension();
+        double volume = 1;
+        for (int d = 0; d < dimension; d++) {
+            volume *= Math.max(maxs1[index1 * dimension + d], maxs2[index2 * dimension + d]) -
+                    Math.min(mins1[index1 * dimension + d], mins2[index2 * dimension + d]);
+        }
+        return volume;
+    }
+
+    private boolean intersects(Node node, int index, double[] min, double[] max) {
+        int dimension = getDimension();
+        int offset = index * dimension;
+        for (int d = 0; d < dimension; d++) {
+            if (node.max[offset + d] < min[d] || node.min[offset + d] > max[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isInside(Node node, int index, double[] min, double[] max) {
+        int dimension = getDimension();
+        int offset = index * dimension;
+        for (int d = 0; d < dimension; d++) {
+            if (node.min[offset + d] < min[d] || node.max[offset + d] > max[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Finding out if the box of the entry contains the box **/
+    private boolean contains(Node node, int index, double[] min, double[] max) {
+        int dimension = getDimension();
+        int offset = index * dimension;
+        for (int d = 0; d < dimension; d++) {
+            if (min[d] < node.min[offset + d] || max[d] > node.max[offset + d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** END OF OPERATIONS WITH THE NODES **/
+
+    /**
+     * Envelope of the indexed object.
+     * @param object point or segment
+     * @param min lower corner to fill
+     * @param max upper corner to fill
+     */
+    private static void envelopeOf(GeomObject object, double[] min, double[] max) {
+        if (object instanceof Point) {
+            Point point = (Point) object;
+            for (int i = 0; i < min.length; i++) {
+                min[i] = point.getCoord(i);
+                max[i] = min[i];
+            }
+        } else if (object instanceof Segment) {
+            Envelope envelope = ((Segment) object).getEnvelope();
+            for (int i = 0; i < min.length; i++) {
+                min[i] = envelope.getMin(i);
+                max[i] = envelope.getMax(i);
+            }
+        } else {
+            throw new IllegalArgumentException(
+                    "RTree can index only points and segments"
+            );
+        }
+    }
+
+    private void checkDimension(Dimension dimension) {
+        if (dimension.getDimension() != getDimension()) {
+            throw new IllegalArgumentException(
+                    "RTree illegal dimension of the object."
+            );
+        }
+    }
+
+    /** Node of the tree **/
+    private static final class Node {
+        final boolean leaf;
+        /** Lower corners of the entries: min[index * dimension + axis] **/
+        final double[] min;
+        /** Upper corners of the entries **/
+        final double[] max;
+        /** Child nodes or indexed objects for leaves **/
+        final Object[] children;
+        int count;
+
+        Node(boolean leaf, int capacity, int dimension) {
+            this.leaf = leaf;
+            this.min = new double[capacity * dimension];
+            this.max = new double[capacity * dimension];
+            this.children = new Object[capacity];
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package geom;
+
+/**
+ * Listener of the progress of the SpaceReader.
+ */
+@FunctionalInterface
+public interface ReadProgressListener {
+    /**
+     * Called after every read chunk of the input.
+     * @param bytesRead number of bytes read so far
+     * @param totalBytes size of the input or -1 if it is unknown
+     * @param objectsRead number of points and segments added so far
+     */
+    void onProgress(long bytesRead, long totalBytes, long objectsRead);
+}
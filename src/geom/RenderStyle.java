@@ -0,0 +1,67 @@
+package geom;
+
+import java.awt.*;
+
+/**
+ * Immutable style of drawing: color and size of the points
+ * or thickness of the segments in pixels.
+ */
+final public class RenderStyle {
+    /** Color of the objects **/
+    private final Color color;
+
+    /** Size of the points or thickness of the segments **/
+    private final int size;
+
+    /** Constructor **/
+    public RenderStyle(Color color, int size) {
+        if (color == null) {
+            throw new IllegalArgumentException(
+                    "Color cannot be null"
+            );
+        }
+        if (size < 0) {
+            throw new IllegalArgumentException(
+                    "Size cannot be negative"
+            );
+        }
+        this.color = color;
+        this.size = size;
+    }
+
+    /**
+     * @return color of the objects
+     */
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * @return size of the points or thickness of the segments
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStyle: {color: " + color + ", size: " + size + "}.";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof RenderStyle)) {
+            return false;
+        }
+        RenderStyle style = (RenderStyle) obj;
+        return size == style.size && color.equals(style.color);
+    }
+
+    @Override
+    public int hashCode() {
+        return color.hashCode() * 31 + size;
+    }
+}
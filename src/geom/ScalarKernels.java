@@ -0,0 +1,63 @@
+package geom;
+
+/**
+ * Plain loops implementation of the array kernels.
+ */
+final class ScalarKernels implements ArrayKernels {
+    @Override
+    public void add(double[] a, double[] b, double[] out, int size) {
+        for (int i = 0; i < size; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void add(double[] a, double value, double[] out, int size) {
+        for (int i = 0; i < size; i++) {
+            out[i] = a[i] + value;
+        }
+    }
+
+    @Override
+    public void mul(double[] a, double[] b, double[] out, int size) {
+        for (int i = 0; i < size; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void mul(double[] a, double value, double[] out, int size) {
+        for (int i = 0; i < size; i++) {
+            out[i] = a[i] * value;
+        }
+    }
+
+    @Override
+    public void div(double[] a, double value, double[] out, int size) {
+        for (int i = 0; i < size; i++) {
+            out[i] = a[i] / value;
+        }
+    }
+
+    @Override
+    public void addProduct(double[] a, double[] b, double[] sum, int size) {
+        for (int i = 0; i < size; i++) {
+            sum[i] += a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void addSquaredDiff(double[] a, double value, double[] sum, int size) {
+        for (int i = 0; i < size; i++) {
+            double diff = a[i] - value;
+            sum[i] += diff * diff;
+        }
+    }
+
+    @Override
+    public void sqrt(double[] a, int size) {
+        for (int i = 0; i < size; i++) {
+            a[i] = Math.sqrt(a[i]);
+        }
+    }
+}
@@ -1,16 +1,30 @@
+package geom;
+
 import java.awt.*;
 import java.util.Arrays;
 
 /**
  * Immutable class of geometric segment
  */
-final public class Segment extends Dimension {
+final public class Segment extends GeomObject {
     /** Point from (where segment starts) **/
     private final Point from;
 
     /** Point to (where segment ends) **/
     private final Point to;
 
+    /**
+     * Cached length, 0 - not computed yet, so zero
+     * length is recomputed. Volatile keeps it whole.
+     */
+    private volatile double length;
+
+    /**
+     * Cached envelope, null - not computed yet. Envelope is
+     * immutable, so it is safely published without locking.
+     */
+    private Envelope envelope;
+
     /** Constructor **/
     public Segment(Point from, Point to) {
         super(from.getDimension());
@@ -48,49 +62,85 @@ final public class Segment extends Dimension {
         return to;
     }
 
+    /**
+     * Axis-aligned envelope of the segment, computed once,
+     * for the spatial indexes.
+     * @return envelope of the segment
+     */
+    public Envelope getEnvelope() {
+        Envelope result = envelope;
+        if (result == null) {
+            result = new Envelope(from, to);
+            envelope = result;
+        }
+        return result;
+    }
+
     /**
      * Method to finding out if two segment intersects.
-     * Method uses vector multiplication.
+     * Method uses vector multiplication computed
+     * directly on the coordinates without creating objects.
      * @param segment another segment
      * @return TRUE - segments intersect, FALSE - else
      */
     public boolean isIntersect(Segment segment) {
-        Vector vectorSeg1 = new Vector(this);
-        Vector vectorSeg2 = new Vector(segment);
-        Vector vecFor11 = new Vector(this.from, segment.from);
-        Vector vecFor12 = new Vector(this.from, segment.to);
-        Vector vecFor21 = new Vector(segment.from, this.from);
-        Vector vecFor22 = new Vector(segment.from, this.to);
-        double value1 = vectorSeg1.vectorMul(vecFor11);
-        double value2 = vectorSeg1.vectorMul(vecFor12);
-        double value3 = vectorSeg2.vectorMul(vecFor21);
-        double value4 = vectorSeg2.vectorMul(vecFor22);
-        if (value1 * value2 < 0 && value3 * value4 < 0) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SEGMENT_INTERSECT);
+        try {
+            if (this.getDimension() != 2 || segment.getDimension() != 2) {
+                throw new IllegalArgumentException(
+                        "Segments have dimensions which are not equal to 2"
+                );
+            }
+            return isIntersect(from.getX(), from.getY(), to.getX(), to.getY(),
+                    segment.from.getX(), segment.from.getY(),
+                    segment.to.getX(), segment.to.getY());
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Method to finding out if two 2-dimensional
+     * segments given by coordinates intersect.
+     * Segments are (x1, y1)-(x2, y2) and (x3, y3)-(x4, y4).
+     * @return TRUE - segments intersect, FALSE - else
+     */
+    public static boolean isIntersect(double x1, double y1, double x2, double y2,
+                                      double x3, double y3, double x4, double y4) {
+        // segments with disjoint bounding boxes cannot intersect
+        if (Math.max(x1, x2) < Math.min(x3, x4) || Math.max(x3, x4) < Math.min(x1, x2) ||
+                Math.max(y1, y2) < Math.min(y3, y4) || Math.max(y3, y4) < Math.min(y1, y2)) {
+            return false;
+        }
+        // signs are exact, so touching and collinear cases are found exactly
+        double value1 = Predicates.orient2d(x1, y1, x2, y2, x3, y3);
+        double value2 = Predicates.orient2d(x1, y1, x2, y2, x4, y4);
+        double value3 = Predicates.orient2d(x3, y3, x4, y4, x1, y1);
+        double value4 = Predicates.orient2d(x3, y3, x4, y4, x2, y2);
+        if (Math.signum(value1) * Math.signum(value2) < 0 && Math.signum(value3) * Math.signum(value4) < 0) {
             return true;
-        } else if (value1 == 0 && this.isOnSegment(segment.from)) {
+        } else if (value1 == 0 && isOnSegment(x1, y1, x2, y2, x3, y3)) {
             return true;
-        } else if (value2 == 0 && this.isOnSegment(segment.to)) {
+        } else if (value2 == 0 && isOnSegment(x1, y1, x2, y2, x4, y4)) {
             return true;
-        } else if (value3 == 0 && segment.isOnSegment(this.from)) {
+        } else if (value3 == 0 && isOnSegment(x3, y3, x4, y4, x1, y1)) {
             return true;
-        } else if (value4 == 0 && segment.isOnSegment(this.to)) {
+        } else if (value4 == 0 && isOnSegment(x3, y3, x4, y4, x2, y2)) {
             return true;
         }
         return false;
     }
 
     /**
-     * Finding out is point lies on the
-     * segment assuming that all 3 points
-     * lie on the one line.
-     * @param point
-     * @return
+     * Finding out is point (x, y) lies on the
+     * segment (x1, y1)-(x2, y2) assuming that
+     * all 3 points lie on the one line.
+     * @return TRUE - point is on the segment, FALSE - else
      */
-    private boolean isOnSegment(Point point) {
-        return Math.min(this.getFrom().getX(), this.getTo().getX()) <= point.getX() &&
-                point.getX() <= Math.max(this.getFrom().getX(), this.getTo().getX()) &&
-                Math.min(this.getFrom().getY(), this.getTo().getY()) <= point.getY() &&
-                point.getY() <= Math.max(this.getFrom().getY(), this.getTo().getX());
+    private static boolean isOnSegment(double x1, double y1, double x2, double y2,
+                                       double x, double y) {
+        return Math.min(x1, x2) <= x && x <= Math.max(x1, x2) &&
+                Math.min(y1, y2) <= y && y <= Math.max(y1, y2);
     }
 
     /**
@@ -98,13 +148,17 @@ final public class Segment extends Dimension {
      * @return double value of the length of the segment.
      */
     public double length() {
-        double result = 0;
-        double[] fromCoord = from.getCoords();
-        double[] toCoord = to.getCoords();
-        for (int i = 0; i < getDimension(); i++) {
-            result += (fromCoord[i] - toCoord[i]) * (fromCoord[i] - toCoord[i]);
+        double result = length;
+        if (result == 0) {
+            double sum = 0;
+            for (int i = 0; i < getDimension(); i++) {
+                double diff = from.getCoord(i) - to.getCoord(i);
+                sum += diff * diff;
+            }
+            result = Math.sqrt(sum);
+            length = result;
         }
-        return Math.sqrt(result);
+        return result;
     }
 
     /**
@@ -147,7 +201,7 @@ final public class Segment extends Dimension {
         if (seg.getDimension() != this.getDimension()) {
             return false;
         }
-        if (from.equals(from) && to.equals(to)) {
+        if (from.equals(seg.from) && to.equals(seg.to)) {
             return true;
         }
         return false;
@@ -166,6 +220,7 @@ final public class Segment extends Dimension {
 
     /**
      * Method to draw 2D-segment
+     * (to draw many objects use {@link SpaceRenderer})
      * @param g graphics instance
      * @param color color of the segment
      * @param thickness thickness of the segment
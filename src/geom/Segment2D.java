@@ -0,0 +1,112 @@
+package geom;
+
+/**
+ * Immutable segment of 2 dimensions kept in four
+ * double fields, the fixed-arity form of Segment.
+ * NOTE: direction of the segment is valuable.
+ */
+final public class Segment2D {
+    /** Coordinates of the point from **/
+    private final double x1;
+    private final double y1;
+
+    /** Coordinates of the point to **/
+    private final double x2;
+    private final double y2;
+
+    /** Constructor **/
+    public Segment2D(double x1, double y1, double x2, double y2) {
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+    }
+
+    /** Constructor **/
+    public Segment2D(Point2D from, Point2D to) {
+        this(from.getX(), from.getY(), to.getX(), to.getY());
+    }
+
+    /**
+     * Converting the segment of 2 dimensions.
+     * @param segment segment to convert
+     * @return new segment
+     */
+    public static Segment2D of(Segment segment) {
+        if (segment.getDimension() != 2) {
+            throw new IllegalArgumentException(
+                    "The segment is not 2-dimensional!"
+            );
+        }
+        return new Segment2D(segment.getFrom().getX(), segment.getFrom().getY(),
+                segment.getTo().getX(), segment.getTo().getY());
+    }
+
+    /**
+     * @return segment with the same points
+     */
+    public Segment toSegment() {
+        return new Segment(x1, y1, x2, y2);
+    }
+
+    public Point2D getFrom() {
+        return new Point2D(x1, y1);
+    }
+
+    public Point2D getTo() {
+        return new Point2D(x2, y2);
+    }
+
+    /**
+     * Method to finding out if two segment intersects,
+     * with the same computation as Segment.isIntersect().
+     * @param segment another segment
+     * @return TRUE - segments intersect, FALSE - else
+     */
+    public boolean isIntersect(Segment2D segment) {
+        return Segment.isIntersect(x1, y1, x2, y2,
+                segment.x1, segment.y1, segment.x2, segment.y2);
+    }
+
+    /**
+     * Method to return double-valued length of the segment
+     * @return double value of the length of the segment.
+     */
+    public double length() {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Override
+    public String toString() {
+        return "Segment: from (" + x1 + ", " + y1 + ") to (" + x2 + ", " + y2 + ").";
+    }
+
+    /**
+     * Equals method.
+     * @param obj object to compare with
+     * @return TRUE - if the segments have identical points from and to,
+     *         FALSE - else.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Segment2D)) {
+            return false;
+        }
+        Segment2D seg = (Segment2D) obj;
+        return getFrom().equals(seg.getFrom()) && getTo().equals(seg.getTo());
+    }
+
+    /**
+     * Hash code equal to the one of the same Segment.
+     * @return hash code of the segment.
+     */
+    @Override
+    public int hashCode() {
+        return getFrom().hashCode() * 31 + getTo().hashCode();
+    }
+}
@@ -0,0 +1,109 @@
+package geom;
+
+/**
+ * Immutable segment of 3 dimensions kept in six
+ * double fields, the fixed-arity form of Segment.
+ * NOTE: direction of the segment is valuable.
+ */
+final public class Segment3D {
+    /** Coordinates of the point from **/
+    private final double x1;
+    private final double y1;
+    private final double z1;
+
+    /** Coordinates of the point to **/
+    private final double x2;
+    private final double y2;
+    private final double z2;
+
+    /** Constructor **/
+    public Segment3D(double x1, double y1, double z1, double x2, double y2, double z2) {
+        this.x1 = x1;
+        this.y1 = y1;
+        this.z1 = z1;
+        this.x2 = x2;
+        this.y2 = y2;
+        this.z2 = z2;
+    }
+
+    /** Constructor **/
+    public Segment3D(Point3D from, Point3D to) {
+        this(from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ());
+    }
+
+    /**
+     * Converting the segment of 3 dimensions.
+     * @param segment segment to convert
+     * @return new segment
+     */
+    public static Segment3D of(Segment segment) {
+        if (segment.getDimension() != 3) {
+            throw new IllegalArgumentException(
+                    "The segment is not 3-dimensional!"
+            );
+        }
+        Point from = segment.getFrom();
+        Point to = segment.getTo();
+        return new Segment3D(from.getX(), from.getY(), from.getZ(),
+                to.getX(), to.getY(), to.getZ());
+    }
+
+    /**
+     * @return segment with the same points
+     */
+    public Segment toSegment() {
+        return new Segment(x1, y1, z1, x2, y2, z2);
+    }
+
+    public Point3D getFrom() {
+        return new Point3D(x1, y1, z1);
+    }
+
+    public Point3D getTo() {
+        return new Point3D(x2, y2, z2);
+    }
+
+    /**
+     * Method to return double-valued length of the segment
+     * @return double value of the length of the segment.
+     */
+    public double length() {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        double dz = z1 - z2;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    @Override
+    public String toString() {
+        return "Segment: from (" + x1 + ", " + y1 + ", " + z1 + ") to (" +
+                x2 + ", " + y2 + ", " + z2 + ").";
+    }
+
+    /**
+     * Equals method.
+     * @param obj object to compare with
+     * @return TRUE - if the segments have identical points from and to,
+     *         FALSE - else.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Segment3D)) {
+            return false;
+        }
+        Segment3D seg = (Segment3D) obj;
+        return getFrom().equals(seg.getFrom()) && getTo().equals(seg.getTo());
+    }
+
+    /**
+     * Hash code equal to the one of the same Segment.
+     * @return hash code of the segment.
+     */
+    @Override
+    public int hashCode() {
+        return getFrom().hashCode() * 31 + getTo().hashCode();
+    }
+}
@@ -0,0 +1,379 @@
+package geom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class to represent space
+ * in the geometric universe
+*/
+public class Space extends GeomObject {
+    /** List of points **/
+    protected List<GeomObject> objects;
+
+    /** Spatial indexes kept up to date with the space **/
+    protected final List<SpatialIndex> indexes = new ArrayList<SpatialIndex>();
+
+    /** Constructor **/
+    public Space() {
+        super();
+        objects = new ArrayList<GeomObject>();
+    }
+
+    /** Constructor **/
+    public Space(int numOfDimensions) {
+        super(numOfDimensions);
+        objects = new ArrayList<GeomObject>();
+    }
+
+    /** Constructor **/
+    public Space(GeomObject[] objects) {
+        this(objects[0].getDimension());
+        for (GeomObject object : objects) {
+            this.objects.add(object);
+        }
+    }
+
+    /** Constructor **/
+    public Space(List<GeomObject> objects) {
+        this(objects.get(0).getDimension());
+        for (GeomObject object: objects) {
+            this.objects.add(object);
+        }
+    }
+
+    /**
+     * Add point if there is no such point
+     * @param object point to add
+     * @return success of adding
+     */
+    public boolean addObject(GeomObject object) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_ADD);
+        try {
+            if (object.getDimension() != getDimension()) {
+                throw new IllegalArgumentException("Space.addObject()" +
+                        " illegal dimension of the object.");
+            }
+            objects.add(object);
+            indexObject(object);
+            return true;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Adding the object to all attached indexes.
+     * Only points and segments are indexed.
+     * @param object added object
+     */
+    protected void indexObject(GeomObject object) {
+        if (object instanceof Point || object instanceof Segment) {
+            for (SpatialIndex index : indexes) {
+                index.insert(object);
+            }
+        }
+    }
+
+    /**
+     * Attaching the spatial index to the space. All points and
+     * segments of the space are added to it and addObject()
+     * keeps it up to date.
+     * @param index index to attach
+     */
+    public void attachIndex(SpatialIndex index) {
+        for (int i = 0; i < size(); i++) {
+            GeomObject object = getObject(i);
+            if (object instanceof Point || object instanceof Segment) {
+                index.insert(object);
+            }
+        }
+        indexes.add(index);
+    }
+
+    /**
+     * Detaching the spatial index from the space.
+     * @param index index to detach
+     * @return TRUE - index was attached, FALSE - else
+     */
+    public boolean detachIndex(SpatialIndex index) {
+        return indexes.remove(index);
+    }
+
+    /**
+     * Finding points and segments which envelopes intersect
+     * the envelope. The first attached index is used if
+     * there is any, objects are scanned - else.
+     * @param envelope envelope to search with
+     * @return list of found objects
+     */
+    public List<GeomObject> intersects(Envelope envelope) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_QUERY);
+        try {
+            List<GeomObject> result = new ArrayList<GeomObject>();
+            if (!indexes.isEmpty()) {
+                indexes.get(0).intersects(envelope, result::add);
+                return result;
+            }
+            for (int i = 0; i < size(); i++) {
+                GeomObject object = getObject(i);
+                if ((object instanceof Point || object instanceof Segment) &&
+                        Envelope.of(object).intersects(envelope)) {
+                    result.add(object);
+                }
+            }
+            return result;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * @return number of objects in the space
+     */
+    public int size() {
+        return objects.size();
+    }
+
+    /**
+     * Returning object by the index.
+     * @param index index of the object
+     * @return object of the space
+     */
+    public GeomObject getObject(int index) {
+        return objects.get(index);
+    }
+
+    /**
+     * Live columns which keep the first points of the space.
+     * @return columns or null if points are kept as objects
+     */
+    PointColumns pointColumns() {
+        return null;
+    }
+
+    /**
+     * Spliterator over the objects of the space.
+     * The space must not be changed during the traversal.
+     * @return new spliterator
+     */
+    public Spliterator<GeomObject> spliterator() {
+        return new SpaceSpliterator(this, 0, size());
+    }
+
+    /**
+     * @return sequential stream of the objects
+     */
+    public Stream<GeomObject> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return parallel stream of the objects
+     */
+    public Stream<GeomObject> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Finding objects matching the predicate in parallel.
+     * The predicate must be safe to call from many threads.
+     * @param predicate predicate to match
+     * @return matching objects in the order of the space
+     */
+    public List<GeomObject> filter(Predicate<? super GeomObject> predicate) {
+        List<List<GeomObject>> chunks = ParallelRanges.map(size(), (from, to) -> {
+            List<GeomObject> found = new ArrayList<GeomObject>();
+            for (int i = from; i < to; i++) {
+                GeomObject object = getObject(i);
+                if (predicate.test(object)) {
+                    found.add(object);
+                }
+            }
+            return found;
+        });
+        int total = 0;
+        for (List<GeomObject> chunk : chunks) {
+            total += chunk.size();
+        }
+        List<GeomObject> result = new ArrayList<GeomObject>(total);
+        for (List<GeomObject> chunk : chunks) {
+            result.addAll(chunk);
+        }
+        return result;
+    }
+
+    /**
+     * Count, sum, minimum and maximum per coordinate
+     * of all points of the space, computed in parallel.
+     * @return statistics of the points
+     */
+    public CoordinateStatistics statistics() {
+        return statistics(false);
+    }
+
+    /**
+     * @return mean point of all points of the space
+     */
+    public Point centroid() {
+        return statistics(false).getCentroid();
+    }
+
+    /**
+     * Bounding box of all points and segments of the space.
+     * @return envelope of the points and segments
+     */
+    public Envelope boundingBox() {
+        return statistics(true).getEnvelope();
+    }
+
+    /**
+     * @return total length of all segments of the space
+     */
+    public double totalLength() {
+        List<double[]> chunks = ParallelRanges.map(size(), (from, to) -> {
+            double length = 0;
+            for (int i = skipColumns(from, to); i < to; i++) {
+                GeomObject object = getObject(i);
+                if (object instanceof Segment) {
+                    length += ((Segment) object).length();
+                }
+            }
+            return new double[] {length};
+        });
+        double result = 0;
+        for (double[] chunk : chunks) {
+            result += chunk[0];
+        }
+        return result;
+    }
+
+    /**
+     * Statistics of the points, with the ends
+     * of the segments if they are asked for.
+     */
+    private CoordinateStatistics statistics(boolean withSegments) {
+        List<CoordinateStatistics> chunks = ParallelRanges.map(size(), (from, to) -> {
+            CoordinateStatistics chunk = new CoordinateStatistics(getDimension());
+            int split = skipColumns(from, to);
+            if (split > from) {
+                chunk.add(pointColumns(), from, split);
+            }
+            for (int i = split; i < to; i++) {
+                GeomObject object = getObject(i);
+                if (object instanceof Point) {
+                    chunk.add((Point) object);
+                } else if (withSegments && object instanceof Segment) {
+                    chunk.add(((Segment) object).getFrom());
+                    chunk.add(((Segment) object).getTo());
+                }
+            }
+            return chunk;
+        });
+        CoordinateStatistics result = new CoordinateStatistics(getDimension());
+        for (CoordinateStatistics chunk : chunks) {
+            result.add(chunk);
+        }
+        return result;
+    }
+
+    /**
+     * Convex hull of all points of the planar space.
+     * @return vertices of the hull in the counterclockwise order
+     * @see ConvexHull#compute(PointColumns)
+     */
+    public List<Point> convexHull() {
+        if (getDimension() != 2) {
+            throw new IllegalStateException(
+                    "Space is not 2-dimensional!"
+            );
+        }
+        PointColumns columns = toColumns();
+        int[] hull = ConvexHull.compute(columns);
+        List<Point> result = new ArrayList<Point>(hull.length);
+        for (int index : hull) {
+            result.add(columns.getPoint(index));
+        }
+        return result;
+    }
+
+    /**
+     * Sorting the points of the space in the order of Point.compareTo()
+     * by the parallel radix sort. Other objects keep their places.
+     * @see SpaceOrder#sort(PointColumns)
+     */
+    public void sort() {
+        PointColumns columns = toColumns();
+        reorderPoints(columns, SpaceOrder.sort(columns));
+    }
+
+    /**
+     * Reordering the points of the space along the space-filling curve,
+     * so the points close in the space come close in the order as well.
+     * Other objects keep their places.
+     * @param curve curve to order the points along
+     * @see SpaceOrder#order(PointColumns, SpaceCurve)
+     */
+    public void reorder(SpaceCurve curve) {
+        PointColumns columns = toColumns();
+        reorderPoints(columns, SpaceOrder.order(columns, curve));
+    }
+
+    /**
+     * Moving the points of the space into the order.
+     * Attached indexes keep the same points.
+     * @param columns points of the space given by toColumns()
+     * @param order indices of the points in the columns, in the new order
+     */
+    protected void reorderPoints(PointColumns columns, int[] order) {
+        int[] places = new int[order.length];
+        int count = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i) instanceof Point) {
+                if (count == places.length) {
+                    count++;
+                    break;
+                }
+                places[count++] = i;
+            }
+        }
+        if (count != order.length) {
+            throw new IllegalStateException(
+                    "Space.reorderPoints() points are not kept in the objects"
+            );
+        }
+        GeomObject[] points = new GeomObject[order.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = objects.get(places[i]);
+        }
+        for (int i = 0; i < points.length; i++) {
+            objects.set(places[i], points[order[i]]);
+        }
+    }
+
+    /** First index of the range which is not kept in the columns **/
+    private int skipColumns(int from, int to) {
+        PointColumns columns = pointColumns();
+        return columns == null ? from : Math.max(from, Math.min(to, columns.size()));
+    }
+
+    /**
+     * Copying coordinates of all points
+     * of the space into the columns.
+     * Objects which are not points are skipped.
+     * @return columns of the points
+     */
+    public PointColumns toColumns() {
+        PointColumns columns = new PointColumns(getDimension(), objects.size());
+        for (GeomObject object : objects) {
+            if (object instanceof Point) {
+                columns.add((Point) object);
+            }
+        }
+        return columns;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package geom;
+
+/**
+ * Space-filling curves to order the points along. Coordinates
+ * are quantized over the bounding box of the points to the grid
+ * of 2^(64 / dimension) cells per axis (2^32 at most), and the
+ * points are ordered by the position of their cell on the curve.
+ */
+public enum SpaceCurve {
+    /**
+     * Z-order: bits of the cell coordinates interleaved,
+     * the last axis first. Cheap, but the curve jumps
+     * between the quadrants.
+     */
+    MORTON,
+    /**
+     * Hilbert curve: consecutive cells on the curve are
+     * always neighbours in the space, so the order keeps
+     * the locality better than MORTON.
+     */
+    HILBERT
+}
@@ -0,0 +1,133 @@
+package geom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary file format of the points and segments of a space.
+ * All numbers are little-endian. The file starts with the
+ * header of HEADER_SIZE bytes:
+ * magic "GSPC" (int), version (int), dimension (int),
+ * reserved (int), number of points (long), number of
+ * segments (long), zeros up to the end of the header.
+ * Then the columns of doubles follow without gaps:
+ * every coordinate of the points, then every coordinate
+ * of the starts of the segments, then every coordinate
+ * of the ends of the segments. Objects which are neither
+ * points nor segments are not saved.
+ */
+final public class SpaceFile {
+    /** "GSPC" **/
+    static final int MAGIC = 0x47535043;
+
+    /** Version of the format **/
+    static final int VERSION = 1;
+
+    /** Size of the header in bytes, keeps the columns aligned **/
+    static final int HEADER_SIZE = 64;
+
+    /** Size of the buffer of the writing **/
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private SpaceFile() {
+    }
+
+    /**
+     * Writing points and segments of the space sequentially.
+     * @param space space to save
+     * @param path file to write, replaced if it exists
+     * @throws IOException if writing fails
+     */
+    public static void write(Space space, Path path) throws IOException {
+        int dimension = space.getDimension();
+        PointColumns points = space.toColumns();
+        List<Segment> segments = new ArrayList<Segment>();
+        // points of the columnar space come first and are already copied
+        int first = space.pointColumns() == null ? 0 : points.size();
+        for (int i = first; i < space.size(); i++) {
+            GeomObject object = space.getObject(i);
+            if (object instanceof Segment) {
+                segments.add((Segment) object);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(dimension).putInt(0);
+            buffer.putLong(points.size()).putLong(segments.size());
+            while (buffer.position() < HEADER_SIZE) {
+                buffer.put((byte) 0);
+            }
+            for (int d = 0; d < dimension; d++) {
+                write(channel, buffer, points.column(d), points.size());
+            }
+            double[] column = new double[segments.size()];
+            for (int end = 0; end < 2; end++) {
+                for (int d = 0; d < dimension; d++) {
+                    for (int i = 0; i < column.length; i++) {
+                        Segment segment = segments.get(i);
+                        column[i] = (end == 0 ? segment.getFrom() : segment.getTo()).getCoord(d);
+                    }
+                    write(channel, buffer, column, column.length);
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Mapping the file to the memory without reading it.
+     * @param path file to open
+     * @return read-only space over the file
+     * @throws IOException if the file cannot be mapped or is not a space file
+     */
+    public static MappedSpace open(Path path) throws IOException {
+        return new MappedSpace(path);
+    }
+
+    /**
+     * Loading the file into the columnar space. Coordinates
+     * are copied in bulk from the mapped file, nothing is parsed.
+     * @param path file to read
+     * @return new space with the points and segments of the file
+     * @throws IOException if the file cannot be read or is not a space file
+     */
+    public static ColumnarSpace read(Path path) throws IOException {
+        MappedSpace mapped = open(path);
+        ColumnarSpace space = new ColumnarSpace(mapped.getDimension(), mapped.pointCount());
+        mapped.copyPoints(space.toColumns());
+        for (int i = 0; i < mapped.segmentCount(); i++) {
+            space.addObject(mapped.getSegment(i));
+        }
+        return space;
+    }
+
+    /** Writing the doubles through the buffer in bulk **/
+    private static void write(FileChannel channel, ByteBuffer buffer,
+                              double[] values, int count) throws IOException {
+        int i = 0;
+        while (i < count) {
+            if (buffer.remaining() < Double.BYTES) {
+                flush(channel, buffer);
+            }
+            int n = Math.min(count - i, buffer.remaining() / Double.BYTES);
+            buffer.asDoubleBuffer().put(values, i, n);
+            buffer.position(buffer.position() + n * Double.BYTES);
+            i += n;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,342 @@
+package geom;
+
+import java.util.List;
+
+/**
+ * Orders of the points for the bulk algorithms: the order of
+ * Point.compareTo() and the orders along the space-filling curves.
+ * Both are found by the parallel LSD radix sort of 64-bit keys,
+ * the bits of the coordinates or the positions on the curve,
+ * taken as unsigned numbers. Sorting is stable: equal points
+ * keep their order.
+ */
+final public class SpaceOrder {
+    /** Bits of one digit of the radix sort **/
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+
+    /** Cells per axis of the curves are 2^MAX_CURVE_BITS at most **/
+    private static final int MAX_CURVE_BITS = 32;
+
+    private SpaceOrder() {
+    }
+
+    /**
+     * Order of the points by Point.compareTo(): by the last
+     * coordinate, then by the previous one and so on.
+     * NOTE: -0.0 is equal to 0.0, NaN is bigger than any number.
+     * @param columns points to sort
+     * @return indices of the points in the sorted order
+     */
+    public static int[] sort(PointColumns columns) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_SORT);
+        try {
+            Radix radix = new Radix(columns.size());
+            // the last pass decides first, as the last coordinate in compareTo()
+            for (int axis = 0; axis < columns.getDimension(); axis++) {
+                double[] column = columns.column(axis);
+                long[] keys = radix.keys;
+                int[] items = radix.items;
+                ParallelRanges.map(radix.size, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        keys[i] = doubleKey(column[items[i]]);
+                    }
+                    return null;
+                });
+                radix.sort();
+            }
+            return radix.items;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Order of the points along the space-filling curve,
+     * points in one cell of the curve keep their order.
+     * NOTE: infinite coordinates go to the edge cells,
+     * NaN is taken as the minimum.
+     * @param columns points to order
+     * @param curve curve to order along
+     * @return indices of the points in the order of the curve
+     */
+    public static int[] order(PointColumns columns, SpaceCurve curve) {
+        int dimension = columns.getDimension();
+        if (dimension > Long.SIZE) {
+            throw new IllegalArgumentException(
+                    "Space-filling curves support up to " + Long.SIZE + " dimensions"
+            );
+        }
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SPACE_SORT);
+        try {
+            int size = columns.size();
+            int bits = Math.min(MAX_CURVE_BITS, Long.SIZE / dimension);
+            double cells = (double) ((1L << bits) - 1);
+            // halves keep the differences finite for any finite coordinates
+            double[] halfMin = new double[dimension];
+            double[] scale = new double[dimension];
+            double[] bounds = bounds(columns);
+            for (int d = 0; d < dimension; d++) {
+                double min = bounds[2 * d];
+                double max = bounds[2 * d + 1];
+                halfMin[d] = 0.5 * min;
+                scale[d] = max > min ? cells / (0.5 * max - 0.5 * min) : 0;
+            }
+            double[][] axes = new double[dimension][];
+            for (int d = 0; d < dimension; d++) {
+                axes[d] = columns.column(d);
+            }
+            Radix radix = new Radix(size);
+            long[] keys = radix.keys;
+            ParallelRanges.map(size, (from, to) -> {
+                long[] cell = new long[dimension];
+                for (int i = from; i < to; i++) {
+                    for (int d = 0; d < dimension; d++) {
+                        double value = (0.5 * axes[d][i] - halfMin[d]) * scale[d];
+                        if (!(value > 0)) {
+                            cell[d] = 0;
+                        } else if (value >= cells) {
+                            cell[d] = (long) cells;
+                        } else {
+                            cell[d] = (long) value;
+                        }
+                    }
+                    keys[i] = curve == SpaceCurve.HILBERT ?
+                            hilbertKey(cell, dimension, bits) :
+                            mortonKey(cell, dimension, bits);
+                }
+                return null;
+            });
+            radix.sort();
+            return radix.items;
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Minimum and maximum of the finite coordinates of each axis.
+     * @return min and max of the axes one after another, (0, 0) for no values
+     */
+    private static double[] bounds(PointColumns columns) {
+        int dimension = columns.getDimension();
+        List<double[]> chunks = ParallelRanges.map(columns.size(), (from, to) -> {
+            double[] chunk = new double[2 * dimension];
+            for (int d = 0; d < dimension; d++) {
+                double[] column = columns.column(d);
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i++) {
+                    double value = column[i];
+                    if (Double.isFinite(value)) {
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                    }
+                }
+                chunk[2 * d] = min;
+                chunk[2 * d + 1] = max;
+            }
+            return chunk;
+        });
+        double[] result = new double[2 * dimension];
+        for (int d = 0; d < dimension; d++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (double[] chunk : chunks) {
+                min = Math.min(min, chunk[2 * d]);
+                max = Math.max(max, chunk[2 * d + 1]);
+            }
+            if (min <= max) {
+                result[2 * d] = min;
+                result[2 * d + 1] = max;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bits of the double which order as unsigned numbers
+     * in the same way as the doubles order.
+     */
+    static long doubleKey(double value) {
+        // adding zero turns -0.0 into 0.0, doubleToLongBits() makes NaN canonical
+        long bits = Double.doubleToLongBits(value + 0.0);
+        return bits ^ (bits >> 63 | Long.MIN_VALUE);
+    }
+
+    /**
+     * Position of the cell on the Z-order curve.
+     * @param cell coordinates of the cell, less than 2^bits
+     * @param dimension number of the coordinates
+     * @param bits bits of each coordinate, dimension * bits <= 64
+     */
+    static long mortonKey(long[] cell, int dimension, int bits) {
+        if (dimension == 2) {
+            return spread2(cell[1]) << 1 | spread2(cell[0]);
+        }
+        if (dimension == 3) {
+            return spread3(cell[2]) << 2 | spread3(cell[1]) << 1 | spread3(cell[0]);
+        }
+        return interleave(cell, dimension, bits);
+    }
+
+    /**
+     * Position of the cell on the Hilbert curve, after J. Skilling,
+     * "Programming the Hilbert curve". The cell is used as a buffer.
+     * @param cell coordinates of the cell, less than 2^bits
+     * @param dimension number of the coordinates
+     * @param bits bits of each coordinate, dimension * bits <= 64
+     */
+    static long hilbertKey(long[] cell, int dimension, int bits) {
+        // inverse undo of the rotations and reflections, without branches
+        for (int level = bits - 1; level > 0; level--) {
+            long p = (1L << level) - 1;
+            for (int i = 0; i < dimension; i++) {
+                // all ones if the bit is set: invert, else exchange the lower bits
+                long set = -(cell[i] >>> level & 1);
+                long t = (cell[0] ^ cell[i]) & p & ~set;
+                cell[0] ^= (p & set) | t;
+                cell[i] ^= t;
+            }
+        }
+        // Gray encoding
+        for (int i = 1; i < dimension; i++) {
+            cell[i] ^= cell[i - 1];
+        }
+        long t = 0;
+        for (int level = bits - 1; level > 0; level--) {
+            t ^= ((1L << level) - 1) & -(cell[dimension - 1] >>> level & 1);
+        }
+        // the first coordinate gives the most significant bit of each level
+        for (int i = 0, j = dimension - 1; i < j; i++, j--) {
+            long swap = cell[i] ^ t;
+            cell[i] = cell[j] ^ t;
+            cell[j] = swap;
+        }
+        if ((dimension & 1) != 0) {
+            cell[dimension >> 1] ^= t;
+        }
+        return mortonKey(cell, dimension, bits);
+    }
+
+    /** Bits of the coordinates from the highest, the last coordinate first **/
+    private static long interleave(long[] cell, int dimension, int bits) {
+        long key = 0;
+        for (int b = bits - 1; b >= 0; b--) {
+            for (int d = dimension - 1; d >= 0; d--) {
+                key = key << 1 | (cell[d] >>> b & 1);
+            }
+        }
+        return key;
+    }
+
+    /** Lower 32 bits moved to the even positions **/
+    private static long spread2(long x) {
+        x &= 0xFFFFFFFFL;
+        x = (x | x << 16) & 0x0000FFFF0000FFFFL;
+        x = (x | x << 8) & 0x00FF00FF00FF00FFL;
+        x = (x | x << 4) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | x << 2) & 0x3333333333333333L;
+        x = (x | x << 1) & 0x5555555555555555L;
+        return x;
+    }
+
+    /** Lower 21 bits moved to the positions divisible by 3 **/
+    private static long spread3(long x) {
+        x &= 0x1FFFFFL;
+        x = (x | x << 32) & 0x001F00000000FFFFL;
+        x = (x | x << 16) & 0x001F0000FF0000FFL;
+        x = (x | x << 8) & 0x100F00F00F00F00FL;
+        x = (x | x << 4) & 0x10C30C30C30C30C3L;
+        x = (x | x << 2) & 0x1249249249249249L;
+        return x;
+    }
+
+    /**
+     * Keys with the items and the buffers of the LSD radix sort.
+     * Each pass counts the digits of the chunks of the keys in
+     * parallel and moves each chunk to its places in parallel,
+     * chunks in their order, so the passes are stable. Digits
+     * which are equal for all keys are skipped.
+     */
+    private static final class Radix {
+        final int size;
+        long[] keys;
+        int[] items;
+        long[] keyBuffer;
+        int[] itemBuffer;
+
+        Radix(int size) {
+            this.size = size;
+            keys = new long[size];
+            items = new int[size];
+            keyBuffer = new long[size];
+            itemBuffer = new int[size];
+            for (int i = 0; i < size; i++) {
+                items[i] = i;
+            }
+        }
+
+        /** Sorting the keys, the result is in keys and items **/
+        void sort() {
+            if (size < 2) {
+                return;
+            }
+            long first = keys[0];
+            long[] source = keys;
+            long varying = 0;
+            for (long[] chunk : ParallelRanges.map(size, (from, to) -> {
+                long bits = 0;
+                for (int i = from; i < to; i++) {
+                    bits |= source[i] ^ first;
+                }
+                return new long[] {bits};
+            })) {
+                varying |= chunk[0];
+            }
+            for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+                if ((varying >>> shift & (RADIX - 1)) != 0) {
+                    pass(shift);
+                }
+            }
+        }
+
+        private void pass(int shift) {
+            long[] sourceKeys = keys;
+            int[] sourceItems = items;
+            long[] targetKeys = keyBuffer;
+            int[] targetItems = itemBuffer;
+            List<int[]> counts = ParallelRanges.map(size, (from, to) -> {
+                int[] chunk = new int[RADIX + 2];
+                for (int i = from; i < to; i++) {
+                    chunk[(int) (sourceKeys[i] >>> shift) & (RADIX - 1)]++;
+                }
+                chunk[RADIX] = from;
+                chunk[RADIX + 1] = to;
+                return chunk;
+            });
+            // counts become the first places of the digits of each chunk
+            int position = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                for (int[] chunk : counts) {
+                    int count = chunk[digit];
+                    chunk[digit] = position;
+                    position += count;
+                }
+            }
+            ParallelRanges.forEach(counts.size(), c -> {
+                int[] places = counts.get(c);
+                for (int i = places[RADIX]; i < places[RADIX + 1]; i++) {
+                    long key = sourceKeys[i];
+                    int place = places[(int) (key >>> shift) & (RADIX - 1)]++;
+                    targetKeys[place] = key;
+                    targetItems[place] = sourceItems[i];
+                }
+            });
+            keys = targetKeys;
+            items = targetItems;
+            keyBuffer = sourceKeys;
+            itemBuffer = sourceItems;
+        }
+    }
+}
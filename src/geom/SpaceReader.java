@@ -0,0 +1,340 @@
+package geom;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming reader of the points and segments from CSV and WKT
+ * into a space. Input is read in chunks into one reused buffer
+ * and numbers are parsed straight from the bytes, so memory is
+ * bounded by the buffer and the batch whatever the input size is.
+ * Points are collected in batches and go to the ColumnarSpace as
+ * raw coordinates, without Point objects.
+ * CSV: one object per line, fields are separated by commas,
+ * semicolons, tabs or spaces. A line of dimension numbers is a
+ * point, a line of 2 * dimension numbers is a segment (from, to).
+ * Empty lines, lines starting with '#' and the first line if it
+ * does not start with a number (header) are skipped.
+ * WKT: POINT, MULTIPOINT, LINESTRING, MULTILINESTRING and POLYGON
+ * separated by any blanks; lines and rings become the segments
+ * between their consecutive points.
+ */
+final public class SpaceReader {
+    /** Size of the input buffer when nothing is specified **/
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /** Number of points in a batch when nothing is specified **/
+    private static final int DEFAULT_BATCH_SIZE = 1 << 14;
+
+    /** Space to fill **/
+    private final Space space;
+
+    /** Size of the input buffer in bytes **/
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    /** Number of points in a batch **/
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /** Listener of the progress, may be null **/
+    private ReadProgressListener listener;
+
+    /** Coordinates of the collected points **/
+    private double[] batch;
+    private int batchLength;
+
+    /** Number of added objects **/
+    private long objectsRead;
+
+    /** Constructor **/
+    public SpaceReader(Space space) {
+        this.space = space;
+    }
+
+    /**
+     * @param bufferSize size of the input buffer in bytes
+     */
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size is too small: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @param batchSize number of points added to the space at once
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size should be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param listener listener of the progress, null for none
+     */
+    public void setProgressListener(ReadProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Reading the CSV file.
+     * @param path file to read
+     * @return number of added points and segments
+     * @throws IOException if reading fails
+     */
+    public long readCsv(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readCsv(channel, channel.size());
+        }
+    }
+
+    /**
+     * Reading CSV from the channel.
+     * @param channel channel to read, not closed
+     * @param totalBytes size of the input or -1 if it is unknown
+     * @return number of added points and segments
+     * @throws IOException if reading fails
+     */
+    public long readCsv(ReadableByteChannel channel, long totalBytes) throws IOException {
+        ByteInput input = start(channel, totalBytes);
+        int dimension = space.getDimension();
+        double[] values = new double[2 * dimension];
+        int b = input.skipBlanks(false);
+        if (b != ByteInput.EOF && !ByteInput.isNumberStart(b) && b != '#') {
+            input.skipLine();
+        }
+        while (true) {
+            b = input.skipBlanks(false);
+            if (b == ByteInput.EOF) {
+                break;
+            }
+            if (b == '\n' || b == '\r' || b == '#') {
+                input.skipLine();
+                continue;
+            }
+            int count = 0;
+            while (true) {
+                if (count == values.length) {
+                    throw new IllegalArgumentException("Line " + input.line() +
+                            ": more than " + values.length + " numbers");
+                }
+                values[count++] = input.parseNumber();
+                b = input.skipBlanks(false);
+                if (b == ',' || b == ';') {
+                    input.next();
+                    b = input.skipBlanks(false);
+                }
+                if (b == '\n' || b == '\r' || b == ByteInput.EOF) {
+                    break;
+                }
+            }
+            if (count == dimension) {
+                addPoint(values, 0);
+            } else if (count == 2 * dimension) {
+                addSegment(values, 0, values, dimension);
+            } else {
+                throw new IllegalArgumentException("Line " + input.line() + ": " + count +
+                        " numbers is neither a point nor a segment of dimension " + dimension);
+            }
+        }
+        return finish(input, totalBytes);
+    }
+
+    /**
+     * Reading the WKT file.
+     * @param path file to read
+     * @return number of added points and segments
+     * @throws IOException if reading fails
+     */
+    public long readWkt(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readWkt(channel, channel.size());
+        }
+    }
+
+    /**
+     * Reading WKT from the channel.
+     * @param channel channel to read, not closed
+     * @param totalBytes size of the input or -1 if it is unknown
+     * @return number of added points and segments
+     * @throws IOException if reading fails
+     */
+    public long readWkt(ReadableByteChannel channel, long totalBytes) throws IOException {
+        ByteInput input = start(channel, totalBytes);
+        int dimension = space.getDimension();
+        double[] previous = new double[dimension];
+        double[] current = new double[dimension];
+        StringBuilder word = new StringBuilder();
+        while (input.skipBlanks(true) != ByteInput.EOF) {
+            String type = readWord(input, word);
+            // dimension markers Z, M and ZM are skipped, the number of coordinates is checked anyway
+            boolean empty = false;
+            while (!empty && Character.isLetter(input.skipBlanks(true))) {
+                empty = readWord(input, word).equals("EMPTY");
+            }
+            if (empty) {
+                continue;
+            }
+            switch (type) {
+                case "POINT":
+                    expect(input, '(');
+                    readCoordinates(input, current);
+                    expect(input, ')');
+                    addPoint(current, 0);
+                    break;
+                case "MULTIPOINT":
+                    expect(input, '(');
+                    do {
+                        boolean nested = input.skipBlanks(true) == '(';
+                        if (nested) {
+                            input.next();
+                        }
+                        readCoordinates(input, current);
+                        if (nested) {
+                            expect(input, ')');
+                        }
+                        addPoint(current, 0);
+                    } while (separator(input));
+                    expect(input, ')');
+                    break;
+                case "LINESTRING":
+                    readLine(input, previous, current);
+                    break;
+                case "MULTILINESTRING":
+                case "POLYGON":
+                    expect(input, '(');
+                    do {
+                        readLine(input, previous, current);
+                    } while (separator(input));
+                    expect(input, ')');
+                    break;
+                default:
+                    throw new IllegalArgumentException("Line " + input.line() +
+                            ": unsupported geometry " + type);
+            }
+        }
+        return finish(input, totalBytes);
+    }
+
+    private ByteInput start(ReadableByteChannel channel, long totalBytes) {
+        batch = new double[batchSize * space.getDimension()];
+        batchLength = 0;
+        objectsRead = 0;
+        ByteInput[] input = new ByteInput[1];
+        input[0] = new ByteInput(channel, bufferSize, () -> {
+            if (listener != null) {
+                listener.onProgress(input[0].bytesRead(), totalBytes, objectsRead);
+            }
+        });
+        return input[0];
+    }
+
+    private long finish(ByteInput input, long totalBytes) {
+        flushPoints();
+        if (listener != null) {
+            listener.onProgress(input.bytesRead(), totalBytes, objectsRead);
+        }
+        batch = null;
+        return objectsRead;
+    }
+
+    /** Reading "(x y, x y, ...)" as the segments between the points **/
+    private void readLine(ByteInput input, double[] previous, double[] current) throws IOException {
+        expect(input, '(');
+        readCoordinates(input, previous);
+        while (separator(input)) {
+            readCoordinates(input, current);
+            addSegment(previous, 0, current, 0);
+            System.arraycopy(current, 0, previous, 0, current.length);
+        }
+        expect(input, ')');
+    }
+
+    private void readCoordinates(ByteInput input, double[] coords) throws IOException {
+        for (int d = 0; d < coords.length; d++) {
+            input.skipBlanks(true);
+            coords[d] = input.parseNumber();
+        }
+        int b = input.skipBlanks(true);
+        if (b != ',' && b != ')') {
+            throw new IllegalArgumentException("Line " + input.line() +
+                    ": point has more than " + coords.length + " coordinates");
+        }
+    }
+
+    /** Consuming the comma if it is the next byte **/
+    private static boolean separator(ByteInput input) throws IOException {
+        if (input.skipBlanks(true) == ',') {
+            input.next();
+            return true;
+        }
+        return false;
+    }
+
+    private static void expect(ByteInput input, char expected) throws IOException {
+        int b = input.skipBlanks(true);
+        if (b != expected) {
+            throw new IllegalArgumentException("Line " + input.line() + ": '" + expected +
+                    "' expected but " + (b == ByteInput.EOF ? "end of input" : "'" + (char) b + "'") +
+                    " found");
+        }
+        input.next();
+    }
+
+    private static String readWord(ByteInput input, StringBuilder word) throws IOException {
+        word.setLength(0);
+        int b = input.peek();
+        while (Character.isLetter(b)) {
+            word.append((char) Character.toUpperCase(b));
+            input.next();
+            b = input.peek();
+        }
+        if (word.length() == 0) {
+            throw new IllegalArgumentException("Line " + input.line() + ": geometry type expected");
+        }
+        return word.toString();
+    }
+
+    private void addPoint(double[] coords, int offset) {
+        int dimension = space.getDimension();
+        if (batchLength == batch.length) {
+            flushPoints();
+        }
+        System.arraycopy(coords, offset, batch, batchLength, dimension);
+        batchLength += dimension;
+        objectsRead++;
+    }
+
+    private void addSegment(double[] from, int fromOffset, double[] to, int toOffset) {
+        int dimension = space.getDimension();
+        // points added before the segment stay before it
+        if (!(space instanceof ColumnarSpace)) {
+            flushPoints();
+        }
+        space.addObject(new Segment(
+                new Point(Arrays.copyOfRange(from, fromOffset, fromOffset + dimension)),
+                new Point(Arrays.copyOfRange(to, toOffset, toOffset + dimension))));
+        objectsRead++;
+    }
+
+    private void flushPoints() {
+        if (batchLength == 0) {
+            return;
+        }
+        if (space instanceof ColumnarSpace) {
+            ((ColumnarSpace) space).addPoints(batchLength == batch.length ?
+                    batch : Arrays.copyOf(batch, batchLength));
+        } else {
+            int dimension = space.getDimension();
+            for (int i = 0; i < batchLength; i += dimension) {
+                space.addObject(new Point(Arrays.copyOfRange(batch, i, i + dimension)));
+            }
+        }
+        batchLength = 0;
+    }
+}
@@ -0,0 +1,568 @@
+package geom;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Renderer of the points and segments of a planar space into an image.
+ * Objects are projected and culled against the image in parallel
+ * chunks and binned into square tiles, segments only into the
+ * tiles they pass through. Tiles are rasterised in parallel, each
+ * with its own clipped graphics. Inside a tile the objects are drawn
+ * in the order of the space, as a loop of draw2D() would draw them,
+ * and the color and the stroke are set once per run of objects of
+ * the same style and kind rather than per object. Other objects
+ * are not drawn.
+ */
+final public class SpaceRenderer {
+    /** Object is not drawn **/
+    private static final byte NONE = 0;
+
+    /** Object is drawn as a point **/
+    private static final byte POINT = 1;
+
+    /** Object is drawn as a segment **/
+    private static final byte SEGMENT = 2;
+
+    /** Pixel coordinates farther than this are clipped before rounding **/
+    private static final double GUARD = 1 << 20;
+
+    /** Area of the space shown in the image, null for pixel coordinates **/
+    private Envelope viewport;
+
+    /** Style of the points when no style function is set **/
+    private RenderStyle pointStyle = new RenderStyle(Color.BLACK, 3);
+
+    /** Style of the segments when no style function is set **/
+    private RenderStyle segmentStyle = new RenderStyle(Color.BLACK, 1);
+
+    /** Style of the objects, null for the point and segment styles **/
+    private Function<? super GeomObject, RenderStyle> style;
+
+    /** Side of the tiles in pixels **/
+    private int tileSize = 256;
+
+    /** Antialiasing of the drawing **/
+    private boolean antialiasing;
+
+    /**
+     * Setting the area of the space stretched over the whole image.
+     * Without the viewport coordinates of the space are in pixels,
+     * as for draw2D() of the objects.
+     * @param viewport 2-dimensional area, null for pixel coordinates
+     */
+    public void setViewport(Envelope viewport) {
+        if (viewport != null) {
+            if (viewport.getDimension() != 2) {
+                throw new IllegalArgumentException(
+                        "Viewport is not 2-dimensional!"
+                );
+            }
+            if (!(viewport.getMax(0) > viewport.getMin(0)) || !(viewport.getMax(1) > viewport.getMin(1))) {
+                throw new IllegalArgumentException(
+                        "Viewport is empty"
+                );
+            }
+        }
+        this.viewport = viewport;
+    }
+
+    /**
+     * @param pointStyle style of the points when no style function is set
+     */
+    public void setPointStyle(RenderStyle pointStyle) {
+        this.pointStyle = checkStyle(pointStyle);
+    }
+
+    /**
+     * @param segmentStyle style of the segments when no style function is set
+     */
+    public void setSegmentStyle(RenderStyle segmentStyle) {
+        this.segmentStyle = checkStyle(segmentStyle);
+    }
+
+    /**
+     * Setting the style of the objects. The function is called from
+     * several threads and objects it maps to null are not drawn.
+     * @param style function of the style, null for the point and segment styles
+     */
+    public void setStyle(Function<? super GeomObject, RenderStyle> style) {
+        this.style = style;
+    }
+
+    /**
+     * @param tileSize side of the tiles in pixels
+     */
+    public void setTileSize(int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Tile size must be positive"
+            );
+        }
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * @param antialiasing antialiasing of the drawing
+     */
+    public void setAntialiasing(boolean antialiasing) {
+        this.antialiasing = antialiasing;
+    }
+
+    /**
+     * Rendering the space into a new transparent image.
+     * @param space planar space
+     * @param width width of the image
+     * @param height height of the image
+     * @return image with the objects
+     */
+    public BufferedImage render(Space space, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        render(space, image);
+        return image;
+    }
+
+    /**
+     * Rendering the space over the image.
+     * @param space planar space
+     * @param image image to draw into
+     */
+    public void render(Space space, BufferedImage image) {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.RENDER);
+        try {
+            if (space.getDimension() != 2) {
+                throw new IllegalStateException(
+                        "Space is not 2-dimensional!"
+                );
+            }
+            Projection projection = new Projection(space, image);
+            List<Chunk> chunks = ParallelRanges.map(space.size(), projection::bin);
+
+            // Global ids of the styles in the order of their first object
+            Map<RenderStyle, Integer> ids = new LinkedHashMap<RenderStyle, Integer>();
+            for (Chunk chunk : chunks) {
+                chunk.globalStyles = new int[chunk.styles.size()];
+                for (int i = 0; i < chunk.styles.size(); i++) {
+                    Integer id = ids.get(chunk.styles.get(i));
+                    if (id == null) {
+                        id = ids.size();
+                        ids.put(chunk.styles.get(i), id);
+                    }
+                    chunk.globalStyles[i] = id;
+                }
+            }
+            RenderStyle[] styles = ids.keySet().toArray(new RenderStyle[0]);
+            Stroke[] strokes = new Stroke[styles.length];
+            for (int i = 0; i < styles.length; i++) {
+                strokes[i] = new BasicStroke(styles[i].getSize());
+            }
+            Stamp[] stamps = new Stamp[styles.length];
+            if (!antialiasing && pixelsOf(image) != null) {
+                for (int i = 0; i < styles.length; i++) {
+                    stamps[i] = Stamp.of(styles[i], image);
+                }
+            }
+
+            // Graphics are created in this thread, only drawing is parallel
+            Graphics2D[] graphics = new Graphics2D[projection.tilesX * projection.tilesY];
+            for (int tile = 0; tile < graphics.length; tile++) {
+                int x = (tile % projection.tilesX) * tileSize;
+                int y = (tile / projection.tilesX) * tileSize;
+                graphics[tile] = image.createGraphics();
+                graphics[tile].clipRect(x, y, Math.min(tileSize, image.getWidth() - x), Math.min(tileSize, image.getHeight() - y));
+                if (antialiasing) {
+                    graphics[tile].setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                }
+            }
+            try {
+                ParallelRanges.forEach(graphics.length,
+                        tile -> projection.draw(graphics[tile], tile, chunks, styles, strokes, stamps));
+            } finally {
+                for (Graphics2D g : graphics) {
+                    g.dispose();
+                }
+            }
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    private static RenderStyle checkStyle(RenderStyle style) {
+        if (style == null) {
+            throw new IllegalArgumentException(
+                    "Style cannot be null"
+            );
+        }
+        return style;
+    }
+
+    /**
+     * Pixels of the image with one int per pixel and no offset,
+     * null when the points have to be drawn through the graphics.
+     */
+    private static int[] pixelsOf(BufferedImage image) {
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB &&
+                type != BufferedImage.TYPE_INT_ARGB_PRE) {
+            return null;
+        }
+        WritableRaster raster = image.getRaster();
+        if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0 ||
+                raster.getDataBuffer().getOffset() != 0 ||
+                !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel) ||
+                ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() != image.getWidth()) {
+            return null;
+        }
+        return ((DataBufferInt) raster.getDataBuffer()).getData();
+    }
+
+    /**
+     * Pixels covered by the oval of the point style, written straight
+     * into the image instead of filling the oval through the graphics.
+     * Only for the opaque colors, which replace the pixels.
+     */
+    private static final class Stamp {
+        final int[] pixels;
+        final int stride;
+        final int pixel;
+        /** Offsets of the covered pixels from the corner of the oval **/
+        final int[] dx;
+        final int[] dy;
+
+        private Stamp(int[] pixels, int stride, int pixel, int[] dx, int[] dy) {
+            this.pixels = pixels;
+            this.stride = stride;
+            this.pixel = pixel;
+            this.dx = dx;
+            this.dy = dy;
+        }
+
+        /** Stamp of the style, null for the translucent colors **/
+        static Stamp of(RenderStyle style, BufferedImage image) {
+            if (style.getColor().getAlpha() != 255) {
+                return null;
+            }
+            int size = style.getSize();
+            // The oval is rasterised once, away from the edges of the mask
+            BufferedImage mask = new BufferedImage(size + 2, size + 2, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = mask.createGraphics();
+            g.setColor(Color.WHITE);
+            g.fillOval(1, 1, size, size);
+            g.dispose();
+            int count = 0;
+            int[] dx = new int[(size + 2) * (size + 2)];
+            int[] dy = new int[dx.length];
+            for (int y = 0; y < size + 2; y++) {
+                for (int x = 0; x < size + 2; x++) {
+                    if (mask.getRGB(x, y) != 0) {
+                        dx[count] = x - 1;
+                        dy[count] = y - 1;
+                        count++;
+                    }
+                }
+            }
+            int pixel = ((int[]) image.getColorModel().getDataElements(style.getColor().getRGB(), null))[0];
+            return new Stamp(pixelsOf(image), image.getWidth(), pixel,
+                    Arrays.copyOf(dx, count), Arrays.copyOf(dy, count));
+        }
+
+        /** Drawing the oval with the corner (x, y) clipped to the rectangle **/
+        void draw(int x, int y, int left, int top, int right, int bottom) {
+            for (int k = 0; k < dx.length; k++) {
+                int px = x + dx[k];
+                int py = y + dy[k];
+                if (px >= left && px < right && py >= top && py < bottom) {
+                    pixels[py * stride + px] = pixel;
+                }
+            }
+        }
+    }
+
+    /** Objects of a chunk of the space binned into the tiles **/
+    private static final class Chunk {
+        /** Styles of the chunk in the order of their first object **/
+        final List<RenderStyle> styles;
+        /** Indices of the objects in each tile, null for no objects **/
+        final int[][] bins;
+        /** Number of the objects in each tile **/
+        final int[] binSizes;
+        /** Global ids of the styles of the chunk **/
+        int[] globalStyles;
+
+        Chunk(List<RenderStyle> styles, int[][] bins, int[] binSizes) {
+            this.styles = styles;
+            this.bins = bins;
+            this.binSizes = binSizes;
+        }
+    }
+
+    /** Projected objects of one rendering **/
+    private final class Projection {
+        final Space space;
+        final int width;
+        final int height;
+        final int tilesX;
+        final int tilesY;
+        final double originX;
+        final double originY;
+        final double scaleX;
+        final double scaleY;
+        /** Kind of the drawing of the object **/
+        final byte[] kinds;
+        /** Style of the object, local to its chunk **/
+        final int[] styleIds;
+        /** Pixel coordinates of the point or the ends of the segment **/
+        final int[] x1;
+        final int[] y1;
+        final int[] x2;
+        final int[] y2;
+
+        Projection(Space space, BufferedImage image) {
+            this.space = space;
+            width = image.getWidth();
+            height = image.getHeight();
+            tilesX = (width + tileSize - 1) / tileSize;
+            tilesY = (height + tileSize - 1) / tileSize;
+            if (viewport == null) {
+                originX = 0;
+                originY = 0;
+                scaleX = 1;
+                scaleY = 1;
+            } else {
+                originX = viewport.getMin(0);
+                originY = viewport.getMin(1);
+                scaleX = width / (viewport.getMax(0) - originX);
+                scaleY = height / (viewport.getMax(1) - originY);
+            }
+            int size = space.size();
+            kinds = new byte[size];
+            styleIds = new int[size];
+            x1 = new int[size];
+            y1 = new int[size];
+            x2 = new int[size];
+            y2 = new int[size];
+        }
+
+        /** Projecting, culling and binning the objects [from, to) **/
+        Chunk bin(int from, int to) {
+            List<RenderStyle> styles = new ArrayList<RenderStyle>();
+            Map<RenderStyle, Integer> ids = new HashMap<RenderStyle, Integer>();
+            int[][] bins = new int[tilesX * tilesY][];
+            int[] binSizes = new int[bins.length];
+            PointColumns columns = style == null ? space.pointColumns() : null;
+            int columnsEnd = columns == null ? from : Math.max(from, Math.min(to, columns.size()));
+            for (int i = from; i < to; i++) {
+                RenderStyle objectStyle;
+                int left;
+                int top;
+                int right;
+                int bottom;
+                if (i < columnsEnd) {
+                    objectStyle = pointStyle;
+                    if (!projectPoint(i, columns.getCoord(i, 0), columns.getCoord(i, 1), objectStyle.getSize())) {
+                        continue;
+                    }
+                } else {
+                    GeomObject object = space.getObject(i);
+                    objectStyle = styleOf(object);
+                    if (objectStyle == null) {
+                        continue;
+                    }
+                    if (object instanceof Point) {
+                        Point point = (Point) object;
+                        if (!projectPoint(i, point.getX(), point.getY(), objectStyle.getSize())) {
+                            continue;
+                        }
+                    } else if (object instanceof Segment) {
+                        Segment segment = (Segment) object;
+                        if (!projectSegment(i, segment.getFrom(), segment.getTo(), objectStyle.getSize())) {
+                            continue;
+                        }
+                    } else {
+                        continue;
+                    }
+                }
+                int margin;
+                if (kinds[i] == POINT) {
+                    margin = objectStyle.getSize() / 2 + 1;
+                    left = x1[i] - margin;
+                    top = y1[i] - margin;
+                    right = x1[i] + margin;
+                    bottom = y1[i] + margin;
+                } else {
+                    // square caps reach beyond the half of the thickness
+                    margin = objectStyle.getSize() + 1;
+                    left = Math.min(x1[i], x2[i]) - margin;
+                    top = Math.min(y1[i], y2[i]) - margin;
+                    right = Math.max(x1[i], x2[i]) + margin;
+                    bottom = Math.max(y1[i], y2[i]) + margin;
+                }
+                int tileLeft = Math.max(0, Math.floorDiv(left, tileSize));
+                int tileTop = Math.max(0, Math.floorDiv(top, tileSize));
+                int tileRight = Math.min(tilesX - 1, Math.floorDiv(right, tileSize));
+                int tileBottom = Math.min(tilesY - 1, Math.floorDiv(bottom, tileSize));
+                if (tileLeft > tileRight || tileTop > tileBottom) {
+                    kinds[i] = NONE;
+                    continue;
+                }
+                Integer id = ids.get(objectStyle);
+                if (id == null) {
+                    id = styles.size();
+                    ids.put(objectStyle, id);
+                    styles.add(objectStyle);
+                }
+                styleIds[i] = id;
+                for (int ty = tileTop; ty <= tileBottom; ty++) {
+                    int rowLeft = tileLeft;
+                    int rowRight = tileRight;
+                    if (kinds[i] == SEGMENT && y1[i] != y2[i]) {
+                        // part of the segment near the row of the tiles
+                        double yFrom = Math.max(Math.min(y1[i], y2[i]), (double) ty * tileSize - margin);
+                        double yTo = Math.min(Math.max(y1[i], y2[i]), (double) (ty + 1) * tileSize + margin);
+                        double slope = (double) (x2[i] - x1[i]) / (y2[i] - y1[i]);
+                        double xFrom = x1[i] + (yFrom - y1[i]) * slope;
+                        double xTo = x1[i] + (yTo - y1[i]) * slope;
+                        rowLeft = Math.max(tileLeft, (int) Math.floor((Math.min(xFrom, xTo) - margin) / tileSize));
+                        rowRight = Math.min(tileRight, (int) Math.floor((Math.max(xFrom, xTo) + margin) / tileSize));
+                    }
+                    for (int tx = rowLeft; tx <= rowRight; tx++) {
+                        add(bins, binSizes, ty * tilesX + tx, i);
+                    }
+                }
+            }
+            return new Chunk(styles, bins, binSizes);
+        }
+
+        private void add(int[][] bins, int[] binSizes, int tile, int object) {
+            if (bins[tile] == null) {
+                bins[tile] = new int[16];
+            } else if (binSizes[tile] == bins[tile].length) {
+                bins[tile] = Arrays.copyOf(bins[tile], binSizes[tile] * 2);
+            }
+            bins[tile][binSizes[tile]++] = object;
+        }
+
+        private RenderStyle styleOf(GeomObject object) {
+            if (style != null) {
+                return style.apply(object);
+            }
+            return object instanceof Segment ? segmentStyle : pointStyle;
+        }
+
+        private boolean projectPoint(int i, double x, double y, int size) {
+            double px = (x - originX) * scaleX;
+            double py = (y - originY) * scaleY;
+            // NaN coordinates fail the checks as well
+            if (!(px + size >= 0 && px - size <= width && py + size >= 0 && py - size <= height)) {
+                return false;
+            }
+            kinds[i] = POINT;
+            x1[i] = (int) px;
+            y1[i] = (int) py;
+            return true;
+        }
+
+        private boolean projectSegment(int i, Point from, Point to, int thickness) {
+            double ax = (from.getX() - originX) * scaleX;
+            double ay = (from.getY() - originY) * scaleY;
+            double bx = (to.getX() - originX) * scaleX;
+            double by = (to.getY() - originY) * scaleY;
+            if (Math.abs(ax) > GUARD || Math.abs(ay) > GUARD || Math.abs(bx) > GUARD || Math.abs(by) > GUARD) {
+                // Liang-Barsky clipping to the image with the margin
+                double margin = thickness + 1;
+                double dx = bx - ax;
+                double dy = by - ay;
+                double[] t = {0, 1};
+                if (!clip(-dx, ax + margin, t) || !clip(dx, width + margin - ax, t) ||
+                        !clip(-dy, ay + margin, t) || !clip(dy, height + margin - ay, t)) {
+                    return false;
+                }
+                double startX = ax + t[0] * dx;
+                double startY = ay + t[0] * dy;
+                bx = ax + t[1] * dx;
+                by = ay + t[1] * dy;
+                ax = startX;
+                ay = startY;
+            } else if (Double.isNaN(ax + ay + bx + by)) {
+                return false;
+            }
+            kinds[i] = SEGMENT;
+            x1[i] = (int) ax;
+            y1[i] = (int) ay;
+            x2[i] = (int) bx;
+            y2[i] = (int) by;
+            return true;
+        }
+
+        /** Narrowing the parameter range [t[0], t[1]] by the boundary p * t <= q **/
+        private boolean clip(double p, double q, double[] t) {
+            if (p == 0) {
+                return q >= 0;
+            }
+            double r = q / p;
+            if (p < 0) {
+                if (r > t[1]) {
+                    return false;
+                }
+                t[0] = Math.max(t[0], r);
+            } else {
+                if (r < t[0]) {
+                    return false;
+                }
+                t[1] = Math.min(t[1], r);
+            }
+            return true;
+        }
+
+        /**
+         * Drawing the objects of the tile in the order of the space.
+         * Color and stroke change only between the runs of the objects
+         * of one style and kind. Points are filled with the default
+         * stroke, as a wide stroke changes the rasterisation of the fills.
+         */
+        void draw(Graphics2D g, int tile, List<Chunk> chunks, RenderStyle[] styles, Stroke[] strokes, Stamp[] stamps) {
+            int left = (tile % tilesX) * tileSize;
+            int top = (tile / tilesX) * tileSize;
+            int right = Math.min(width, left + tileSize);
+            int bottom = Math.min(height, top + tileSize);
+            Stroke defaultStroke = g.getStroke();
+            int current = -1;
+            // chunks and their bins keep the order of the space
+            for (Chunk chunk : chunks) {
+                int[] bin = chunk.bins[tile];
+                for (int k = 0; k < chunk.binSizes[tile]; k++) {
+                    int i = bin[k];
+                    int group = group(chunk, i);
+                    int size = styles[group / 2].getSize();
+                    if (group != current) {
+                        g.setColor(styles[group / 2].getColor());
+                        g.setStroke(group % 2 == 0 ? defaultStroke : strokes[group / 2]);
+                        current = group;
+                    }
+                    if (group % 2 == 1) {
+                        g.drawLine(x1[i], y1[i], x2[i], y2[i]);
+                    } else if (stamps[group / 2] != null) {
+                        stamps[group / 2].draw(x1[i] - size / 2, y1[i] - size / 2, left, top, right, bottom);
+                    } else {
+                        g.fillOval(x1[i] - size / 2, y1[i] - size / 2, size, size);
+                    }
+                }
+            }
+        }
+
+        /** Group of the object: points and segments of each style **/
+        private int group(Chunk chunk, int object) {
+            return chunk.globalStyles[styleIds[object]] * 2 + (kinds[object] == POINT ? 0 : 1);
+        }
+    }
+}
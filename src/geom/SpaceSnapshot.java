@@ -0,0 +1,74 @@
+package geom;
+
+/**
+ * Read-only view of the objects a concurrent space had
+ * published at some moment. Later additions to the space
+ * are not seen, so all operations of the snapshot work
+ * on the same objects.
+ */
+final public class SpaceSnapshot extends Space {
+    /** Space of the objects **/
+    private final ConcurrentSpace space;
+
+    /** Number of the objects **/
+    private final int size;
+
+    /** Constructor **/
+    SpaceSnapshot(ConcurrentSpace space, int size) {
+        super(space.getDimension());
+        this.space = space;
+        this.size = size;
+    }
+
+    /**
+     * Snapshot cannot be changed.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addObject(GeomObject object) {
+        throw new UnsupportedOperationException("SpaceSnapshot is read-only");
+    }
+
+    /**
+     * @return version of the space the snapshot was taken at
+     */
+    public long getVersion() {
+        return size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public GeomObject getObject(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", size: " + size
+            );
+        }
+        return space.getObject(index);
+    }
+
+    @Override
+    public PointColumns toColumns() {
+        PointColumns columns = new PointColumns(getDimension(), size);
+        for (int i = 0; i < size; i++) {
+            GeomObject object = space.getObject(i);
+            if (object instanceof Point) {
+                columns.add((Point) object);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Snapshot cannot be changed.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    protected void reorderPoints(PointColumns columns, int[] order) {
+        throw new UnsupportedOperationException("SpaceSnapshot is read-only");
+    }
+}
@@ -0,0 +1,66 @@
+package geom;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the objects of the space
+ * by their indices. Splitting halves the range.
+ * The space must not be changed during the traversal.
+ */
+final class SpaceSpliterator implements Spliterator<GeomObject> {
+    /** Traversed space **/
+    private final Space space;
+
+    /** Index of the next object **/
+    private int from;
+
+    /** End of the range (exclusive) **/
+    private final int to;
+
+    /** Constructor **/
+    SpaceSpliterator(Space space, int from, int to) {
+        this.space = space;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super GeomObject> action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(space.getObject(from++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super GeomObject> action) {
+        int end = to;
+        for (int i = from; i < end; i++) {
+            action.accept(space.getObject(i));
+        }
+        from = end;
+    }
+
+    @Override
+    public Spliterator<GeomObject> trySplit() {
+        int mid = (from + to) >>> 1;
+        if (mid <= from) {
+            return null;
+        }
+        Spliterator<GeomObject> prefix = new SpaceSpliterator(space, from, mid);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
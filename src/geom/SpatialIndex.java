@@ -0,0 +1,46 @@
+package geom;
+
+import java.util.function.Consumer;
+
+/**
+ * Spatial index of the points and segments
+ * which can be attached to a space.
+ */
+public interface SpatialIndex {
+    /**
+     * Add point or segment to the index.
+     * @param object object to add
+     */
+    void insert(GeomObject object);
+
+    /**
+     * Remove point or segment from the index.
+     * Object is found by equals().
+     * @param object object to remove
+     * @return TRUE - object was removed, FALSE - there is no such object
+     */
+    boolean remove(GeomObject object);
+
+    /**
+     * Finding objects which envelopes intersect the envelope.
+     * Index may skip segments which do not pass through
+     * the envelope, as GridIndex does.
+     * @param envelope envelope to search with
+     * @param consumer consumer of found objects
+     */
+    void intersects(Envelope envelope, Consumer<GeomObject> consumer);
+
+    /**
+     * @return number of indexed objects
+     */
+    int size();
+
+    /**
+     * Finding out if the index can be changed and
+     * queried from many threads at once.
+     * @return TRUE - index is thread-safe, FALSE - else
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+}
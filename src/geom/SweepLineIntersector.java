@@ -0,0 +1,733 @@
+package geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Bentley-Ottmann sweep-line engine for finding
+ * all intersecting pairs among 2-dimensional segments
+ * in O((N + K) log N) time.
+ * The sweep line is vertical and moves from left to right,
+ * events are ordered by X and then by Y coordinate.
+ * Pairs are reported in the same sense as Segment.isIntersect,
+ * collinear overlapping segments are reported once, at the
+ * first common point.
+ * NOTE: intersection points are computed in doubles, so when many
+ * segments cross almost at one point a pair can be reported twice.
+ */
+final public class SweepLineIntersector {
+    /** Distance (in ulps) within which a segment passes through a point **/
+    private static final double TOLERANCE_ULPS = 64;
+
+    /** Left endpoints of the segments (smaller by X, then by Y) **/
+    private final double[] lx;
+    private final double[] ly;
+
+    /** Right endpoints of the segments **/
+    private final double[] rx;
+    private final double[] ry;
+
+    /** Indices reported to the listener **/
+    private final int[] ids;
+
+    /** Listener of the results **/
+    private final IntersectionListener listener;
+
+    /** Queue of the event points **/
+    private final TreeSet<Event> queue = new TreeSet<Event>();
+
+    /** Node of the segment in the sweep line status or null **/
+    private final Node[] nodes;
+
+    /** Stamps of the segments passing through the current event **/
+    private final int[] seen;
+
+    /** Stamps of the segments inserted at the current event **/
+    private final int[] inserted;
+
+    /** Stamps of the segments starting at the current event **/
+    private final int[] started;
+
+    /** Stamps of the segments ending at the current event **/
+    private final int[] ended;
+
+    /** Root of the sweep line status (treap) **/
+    private Node root;
+
+    /** Current event point **/
+    private double px;
+    private double py;
+
+    /** Number of the current event **/
+    private int stamp;
+
+    /** State of the priority generator of the treap **/
+    private int seed = 0x2545F491;
+
+    /** Constructor **/
+    private SweepLineIntersector(double[] coords, int[] ids, IntersectionListener listener) {
+        int n = ids.length;
+        this.ids = ids;
+        this.listener = listener;
+        lx = new double[n];
+        ly = new double[n];
+        rx = new double[n];
+        ry = new double[n];
+        nodes = new Node[n];
+        seen = new int[n];
+        inserted = new int[n];
+        started = new int[n];
+        ended = new int[n];
+        for (int i = 0; i < n; i++) {
+            double x1 = coords[4 * i];
+            double y1 = coords[4 * i + 1];
+            double x2 = coords[4 * i + 2];
+            double y2 = coords[4 * i + 3];
+            if (Double.isNaN(x1) || Double.isNaN(y1) || Double.isNaN(x2) || Double.isNaN(y2)) {
+                throw new IllegalArgumentException(
+                        "Segment " + ids[i] + " has NaN coordinates"
+                );
+            }
+            if (compare(x1, y1, x2, y2) <= 0) {
+                lx[i] = x1;
+                ly[i] = y1;
+                rx[i] = x2;
+                ry[i] = y2;
+            } else {
+                lx[i] = x2;
+                ly[i] = y2;
+                rx[i] = x1;
+                ry[i] = y1;
+            }
+            eventAt(lx[i], ly[i]).starts.add(i);
+            eventAt(rx[i], ry[i]).ends.add(i);
+        }
+    }
+
+    /**
+     * Finding all intersecting pairs of the segments.
+     * Indices passed to the listener are indices in the list.
+     * @param segments 2-dimensional segments
+     * @param listener listener of the results
+     */
+    public static void findAll(List<Segment> segments, IntersectionListener listener) {
+        int[] ids = new int[segments.size()];
+        double[] coords = new double[4 * segments.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+            putCoords(segments.get(i), coords, i);
+        }
+        new SweepLineIntersector(coords, ids, listener).run();
+    }
+
+    /**
+     * Finding all intersecting pairs of the segments.
+     * @param segments 2-dimensional segments
+     * @return list of the intersections
+     */
+    public static List<Intersection> findAll(List<Segment> segments) {
+        List<Intersection> result = new ArrayList<Intersection>();
+        findAll(segments, (first, second, x, y) ->
+                result.add(new Intersection(first, second, x, y)));
+        return result;
+    }
+
+    /**
+     * Finding all intersecting pairs among the segments
+     * of the space. Other objects are ignored, indices passed
+     * to the listener are indices of the objects in the space.
+     * @param space 2-dimensional space
+     * @param listener listener of the results
+     */
+    public static void findAll(Space space, IntersectionListener listener) {
+        int count = 0;
+        int[] ids = new int[16];
+        double[] coords = new double[64];
+        for (int i = 0; i < space.size(); i++) {
+            GeomObject object = space.getObject(i);
+            if (object instanceof Segment) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    coords = Arrays.copyOf(coords, count * 8);
+                }
+                ids[count] = i;
+                putCoords((Segment) object, coords, count++);
+            }
+        }
+        new SweepLineIntersector(Arrays.copyOf(coords, 4 * count),
+                Arrays.copyOf(ids, count), listener).run();
+    }
+
+    /**
+     * Finding all intersecting pairs among the segments of the space.
+     * @param space 2-dimensional space
+     * @return list of the intersections
+     */
+    public static List<Intersection> findAll(Space space) {
+        List<Intersection> result = new ArrayList<Intersection>();
+        findAll(space, (first, second, x, y) ->
+                result.add(new Intersection(first, second, x, y)));
+        return result;
+    }
+
+    private static void putCoords(Segment segment, double[] coords, int index) {
+        if (segment.getDimension() != 2) {
+            throw new IllegalArgumentException(
+                    "Segment is not 2-dimensional!"
+            );
+        }
+        coords[4 * index] = segment.getFrom().getX();
+        coords[4 * index + 1] = segment.getFrom().getY();
+        coords[4 * index + 2] = segment.getTo().getX();
+        coords[4 * index + 3] = segment.getTo().getY();
+    }
+
+    /** Main loop of the sweep **/
+    private void run() {
+        GeomMetrics.Timer timer = GeomMetrics.start(GeomOperation.SEGMENT_SWEEP);
+        try {
+            IntList through = new IntList();
+            IntList insert = new IntList();
+            Event event;
+            while ((event = queue.pollFirst()) != null) {
+                handle(event, through, insert);
+            }
+        } finally {
+            GeomMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Handling of one event point.
+     * @param event event point
+     * @param through buffer for the segments passing through the point
+     * @param insert buffer for the segments to insert into the status
+     */
+    private void handle(Event event, IntList through, IntList insert) {
+        stamp++;
+        px = event.x;
+        py = event.y;
+        through.clear();
+        insert.clear();
+        take(event, through);
+        // segments containing the point in their interior
+        Node upper = lowerBound();
+        Node lower = upper == null ? last() : prev(upper);
+        for (Node node = upper; node != null && passesThrough(node.segment); node = next(node)) {
+            mark(node.segment, through);
+        }
+        for (Node node = lower; node != null && passesThrough(node.segment); node = prev(node)) {
+            mark(node.segment, through);
+        }
+
+        report(through);
+
+        for (int i = 0; i < through.size; i++) {
+            int segment = through.items[i];
+            boolean active = nodes[segment] != null;
+            if (active) {
+                remove(nodes[segment]);
+                nodes[segment] = null;
+            }
+            boolean ends = ended[segment] == stamp;
+            boolean starts = started[segment] == stamp;
+            if (!ends && (active || starts)) {
+                insert.add(segment);
+            }
+        }
+        for (int i = 0; i < insert.size; i++) {
+            int segment = insert.items[i];
+            inserted[segment] = stamp;
+            nodes[segment] = insert(segment);
+        }
+
+        if (insert.size == 0) {
+            upper = lowerBound();
+            lower = upper == null ? last() : prev(upper);
+            findNewEvent(lower, upper);
+            return;
+        }
+        Node lowest = nodes[insert.items[0]];
+        Node highest = lowest;
+        for (int i = 1; i < insert.size; i++) {
+            Node node = nodes[insert.items[i]];
+            if (order(node, lowest) < 0) {
+                lowest = node;
+            } else if (order(node, highest) > 0) {
+                highest = node;
+            }
+        }
+        findNewEvent(prev(lowest), lowest);
+        // segments which were not recognized as passing
+        // through the point can stay between inserted ones
+        for (Node node = lowest; node != highest; ) {
+            Node following = next(node);
+            if (inserted[node.segment] != stamp || inserted[following.segment] != stamp) {
+                findNewEvent(node, following);
+            }
+            node = following;
+        }
+        findNewEvent(highest, next(highest));
+    }
+
+    /** Taking segments of the event into the current event point **/
+    private void take(Event event, IntList through) {
+        for (int i = 0; i < event.starts.size; i++) {
+            started[event.starts.items[i]] = stamp;
+            mark(event.starts.items[i], through);
+        }
+        for (int i = 0; i < event.ends.size; i++) {
+            ended[event.ends.items[i]] = stamp;
+            mark(event.ends.items[i], through);
+        }
+        for (int i = 0; i < event.crossings.size; i++) {
+            mark(event.crossings.items[i], through);
+        }
+    }
+
+    private void mark(int segment, IntList through) {
+        if (seen[segment] != stamp) {
+            seen[segment] = stamp;
+            through.add(segment);
+        }
+    }
+
+    /**
+     * Reporting all pairs of the segments meeting at the event point.
+     * Pairs which already swapped their order in the status
+     * met before and are not reported again.
+     * @param through segments passing through the point
+     */
+    private void report(IntList through) {
+        for (int i = 0; i < through.size; i++) {
+            int a = through.items[i];
+            for (int j = i + 1; j < through.size; j++) {
+                int b = through.items[j];
+                if (isCollinear(a, b)) {
+                    if (!isOverlapStart(a, b)) {
+                        continue;
+                    }
+                } else if (nodes[a] != null && nodes[b] != null) {
+                    boolean aBelow = order(nodes[a], nodes[b]) < 0;
+                    if (aBelow ? slope(a) <= slope(b) : slope(b) <= slope(a)) {
+                        continue;
+                    }
+                }
+                if (!Segment.isIntersect(lx[a], ly[a], rx[a], ry[a], lx[b], ly[b], rx[b], ry[b])) {
+                    continue;
+                }
+                if (ids[a] < ids[b]) {
+                    listener.onIntersection(ids[a], ids[b], px, py);
+                } else {
+                    listener.onIntersection(ids[b], ids[a], px, py);
+                }
+            }
+        }
+    }
+
+    private boolean isCollinear(int a, int b) {
+        return (rx[a] - lx[a]) * (ry[b] - ly[b]) - (ry[a] - ly[a]) * (rx[b] - lx[b]) == 0;
+    }
+
+    /** Overlap of collinear segments starts at the later left endpoint **/
+    private boolean isOverlapStart(int a, int b) {
+        if (compare(lx[a], ly[a], lx[b], ly[b]) >= 0) {
+            return started[a] == stamp;
+        }
+        return started[b] == stamp;
+    }
+
+    /**
+     * Finding out if the segment from the status passes through
+     * the current event point. Computed intersection points are
+     * not exact, so the point can be a few ulps away from the segment.
+     */
+    private boolean passesThrough(int segment) {
+        if (seen[segment] == stamp) {
+            return true;
+        }
+        double scale = Math.max(Math.max(Math.abs(px), Math.abs(py)),
+                Math.max(Math.max(Math.abs(lx[segment]), Math.abs(ly[segment])),
+                        Math.max(Math.abs(rx[segment]), Math.abs(ry[segment]))));
+        double tolerance = TOLERANCE_ULPS * Math.ulp(scale);
+        double dx = rx[segment] - lx[segment];
+        double dy = ry[segment] - ly[segment];
+        return Math.abs(orientation(segment, px, py)) <= tolerance * (Math.abs(dx) + Math.abs(dy)) &&
+                lx[segment] - tolerance <= px && px <= rx[segment] + tolerance &&
+                Math.min(ly[segment], ry[segment]) - tolerance <= py &&
+                py <= Math.max(ly[segment], ry[segment]) + tolerance;
+    }
+
+    private double orientation(int segment, double x, double y) {
+        return Predicates.orient2d(lx[segment], ly[segment], rx[segment], ry[segment], x, y);
+    }
+
+    /**
+     * Scheduling the intersection of two neighbouring
+     * segments if it lies after the current event point.
+     */
+    private void findNewEvent(Node lower, Node upper) {
+        if (lower == null || upper == null) {
+            return;
+        }
+        int a = Math.min(lower.segment, upper.segment);
+        int b = Math.max(lower.segment, upper.segment);
+        if (!Segment.isIntersect(lx[a], ly[a], rx[a], ry[a], lx[b], ly[b], rx[b], ry[b])) {
+            return;
+        }
+        if (isCollinear(a, b)) {
+            // overlap starts at the left endpoint which is already swept
+            return;
+        }
+        double x;
+        double y;
+        if (orientation(a, lx[b], ly[b]) == 0) {
+            x = lx[b];
+            y = ly[b];
+        } else if (orientation(a, rx[b], ry[b]) == 0) {
+            x = rx[b];
+            y = ry[b];
+        } else if (orientation(b, lx[a], ly[a]) == 0) {
+            x = lx[a];
+            y = ly[a];
+        } else if (orientation(b, rx[a], ry[a]) == 0) {
+            x = rx[a];
+            y = ry[a];
+        } else {
+            double dxa = rx[a] - lx[a];
+            double dya = ry[a] - ly[a];
+            double dxb = rx[b] - lx[b];
+            double dyb = ry[b] - ly[b];
+            double t = ((lx[b] - lx[a]) * dyb - (ly[b] - ly[a]) * dxb) / (dxa * dyb - dya * dxb);
+            x = lx[a] + t * dxa;
+            y = ly[a] + t * dya;
+            // rounding must not move the point out of the segments
+            x = Math.max(x, Math.max(lx[a], lx[b]));
+            x = Math.min(x, Math.min(rx[a], rx[b]));
+            y = Math.max(y, Math.max(Math.min(ly[a], ry[a]), Math.min(ly[b], ry[b])));
+            y = Math.min(y, Math.min(Math.max(ly[a], ry[a]), Math.max(ly[b], ry[b])));
+            if (x == rx[a] && lx[a] != rx[a]) {
+                y = ry[a];
+            } else if (x == rx[b] && lx[b] != rx[b]) {
+                y = ry[b];
+            }
+        }
+        if (compare(x, y, px, py) > 0) {
+            Event event = eventAt(x, y);
+            event.crossings.addUnique(a);
+            event.crossings.addUnique(b);
+        }
+    }
+
+    private Event eventAt(double x, double y) {
+        Event probe = new Event(x, y);
+        Event event = queue.ceiling(probe);
+        if (event != null && event.x == x && event.y == y) {
+            return event;
+        }
+        queue.add(probe);
+        return probe;
+    }
+
+    private static int compare(double x1, double y1, double x2, double y2) {
+        if (x1 < x2) {
+            return -1;
+        } else if (x1 > x2) {
+            return 1;
+        } else if (y1 < y2) {
+            return -1;
+        } else if (y1 > y2) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /** OPERATIONS WITH THE STATUS **/
+
+    /**
+     * Y coordinate where the segment crosses the sweep line.
+     * Vertical segments are crossed at the current event point.
+     */
+    private double yAt(int segment) {
+        if (lx[segment] == rx[segment]) {
+            return Math.min(Math.max(py, ly[segment]), ry[segment]);
+        } else if (px == lx[segment]) {
+            return ly[segment];
+        } else if (px == rx[segment]) {
+            return ry[segment];
+        }
+        return ly[segment] + (px - lx[segment]) * (ry[segment] - ly[segment]) /
+                (rx[segment] - lx[segment]);
+    }
+
+    private double slope(int segment) {
+        if (lx[segment] == rx[segment]) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (ry[segment] - ly[segment]) / (rx[segment] - lx[segment]);
+    }
+
+    /**
+     * Order of the segment passing through the current event point
+     * against the segment from the status just after the point.
+     */
+    private int compareInserted(int segment, int other) {
+        double otherY = inserted[other] == stamp ? py : yAt(other);
+        if (py < otherY) {
+            return -1;
+        } else if (py > otherY) {
+            return 1;
+        }
+        int result = Double.compare(slope(segment), slope(other));
+        return result != 0 ? result : Integer.compare(segment, other);
+    }
+
+    /**
+     * @return first node of the status which is not
+     * below the current event point or null
+     */
+    private Node lowerBound() {
+        Node result = null;
+        Node node = root;
+        while (node != null) {
+            if (yAt(node.segment) >= py) {
+                result = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    private Node insert(int segment) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        Node node = new Node(segment, seed);
+        if (root == null) {
+            root = node;
+            return node;
+        }
+        Node parent = root;
+        while (true) {
+            if (compareInserted(segment, parent.segment) < 0) {
+                if (parent.left == null) {
+                    parent.left = node;
+                    break;
+                }
+                parent = parent.left;
+            } else {
+                if (parent.right == null) {
+                    parent.right = node;
+                    break;
+                }
+                parent = parent.right;
+            }
+        }
+        node.parent = parent;
+        while (node.parent != null && node.parent.priority < node.priority) {
+            if (node.parent.left == node) {
+                rotateRight(node.parent);
+            } else {
+                rotateLeft(node.parent);
+            }
+        }
+        return node;
+    }
+
+    private void remove(Node node) {
+        while (node.left != null || node.right != null) {
+            if (node.right == null ||
+                    (node.left != null && node.left.priority > node.right.priority)) {
+                rotateRight(node);
+            } else {
+                rotateLeft(node);
+            }
+        }
+        replace(node, null);
+    }
+
+    /** Rotation which lifts the left child of the node **/
+    private void rotateRight(Node node) {
+        Node child = node.left;
+        node.left = child.right;
+        if (child.right != null) {
+            child.right.parent = node;
+        }
+        replace(node, child);
+        child.right = node;
+        node.parent = child;
+    }
+
+    /** Rotation which lifts the right child of the node **/
+    private void rotateLeft(Node node) {
+        Node child = node.right;
+        node.right = child.left;
+        if (child.left != null) {
+            child.left.parent = node;
+        }
+        replace(node, child);
+        child.left = node;
+        node.parent = child;
+    }
+
+    /** Putting other node to the place of the node in its parent **/
+    private void replace(Node node, Node other) {
+        Node parent = node.parent;
+        if (parent == null) {
+            root = other;
+        } else if (parent.left == node) {
+            parent.left = other;
+        } else {
+            parent.right = other;
+        }
+        if (other != null) {
+            other.parent = parent;
+        }
+    }
+
+    /**
+     * Comparing positions of two nodes in the status.
+     * @return negative if the first node is below the second one
+     */
+    private static int order(Node first, Node second) {
+        if (first == second) {
+            return 0;
+        }
+        int firstDepth = depth(first);
+        int secondDepth = depth(second);
+        Node firstChild = null;
+        Node secondChild = null;
+        while (firstDepth > secondDepth) {
+            firstChild = first;
+            first = first.parent;
+            firstDepth--;
+        }
+        while (secondDepth > firstDepth) {
+            secondChild = second;
+            second = second.parent;
+            secondDepth--;
+        }
+        while (first != second) {
+            firstChild = first;
+            first = first.parent;
+            secondChild = second;
+            second = second.parent;
+        }
+        if (firstChild == null) {
+            return secondChild == first.left ? 1 : -1;
+        }
+        return firstChild == first.left ? -1 : 1;
+    }
+
+    private static int depth(Node node) {
+        int depth = 0;
+        while (node.parent != null) {
+            node = node.parent;
+            depth++;
+        }
+        return depth;
+    }
+
+    private Node last() {
+        Node node = root;
+        while (node != null && node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static Node next(Node node) {
+        if (node.right != null) {
+            node = node.right;
+            while (node.left != null) {
+                node = node.left;
+            }
+            return node;
+        }
+        while (node.parent != null && node.parent.right == node) {
+            node = node.parent;
+        }
+        return node.parent;
+    }
+
+    private static Node prev(Node node) {
+        if (node.left != null) {
+            node = node.left;
+            while (node.right != null) {
+                node = node.right;
+            }
+            return node;
+        }
+        while (node.parent != null && node.parent.left == node) {
+            node = node.parent;
+        }
+        return node.parent;
+    }
+
+    /** END OF OPERATIONS WITH THE STATUS **/
+
+    /** Node of the sweep line status **/
+    private static final class Node {
+        final int segment;
+        final int priority;
+        Node left;
+        Node right;
+        Node parent;
+
+        Node(int segment, int priority) {
+            this.segment = segment;
+            this.priority = priority;
+        }
+    }
+
+    /** Event point with the segments starting, ending and crossing there **/
+    private static final class Event implements Comparable<Event> {
+        final double x;
+        final double y;
+        final IntList starts = new IntList();
+        final IntList ends = new IntList();
+        final IntList crossings = new IntList();
+
+        Event(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public int compareTo(Event event) {
+            return compare(x, y, event.x, event.y);
+        }
+    }
+
+    /** Growable list of ints **/
+    private static final class IntList {
+        private static final int[] EMPTY = new int[0];
+
+        int[] items = EMPTY;
+        int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, Math.max(4, size * 2));
+            }
+            items[size++] = value;
+        }
+
+        void addUnique(int value) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == value) {
+                    return;
+                }
+            }
+            add(value);
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
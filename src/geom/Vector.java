@@ -1,3 +1,5 @@
+package geom;
+
 /**
  * Class of vector.
  */
@@ -8,6 +10,18 @@ final public class Vector extends Dimension {
      * field. Stored as a Point. */
     private final Point source;
 
+    /**
+     * Cached length, 0 - not computed yet, so zero
+     * length is recomputed. Volatile keeps it whole.
+     */
+    private volatile double length;
+
+    /**
+     * Cached unit vector, null - not computed yet. Vector is
+     * immutable, so it is safely published without locking.
+     */
+    private Vector unit;
+
     /**
      * Constructor of the vector by point.
      * NOTE: Order has value.
@@ -73,12 +87,18 @@ final public class Vector extends Dimension {
      * @return length of the vector.
      */
     public double length() {
-        double[] coords = source.getCoords();
-        double value = 0;
-        for (int i = 0; i < coords.length; i++) {
-            value += coords[i] * coords[i];
+        GeomMetrics.count(GeomOperation.VECTOR_ARITHMETIC);
+        double result = length;
+        if (result == 0) {
+            double[] coords = source.getCoords();
+            double value = 0;
+            for (int i = 0; i < coords.length; i++) {
+                value += coords[i] * coords[i];
+            }
+            result = Math.sqrt(value);
+            length = result;
         }
-        return Math.sqrt(value);
+        return result;
     }
 
     /**
@@ -86,7 +106,13 @@ final public class Vector extends Dimension {
      * @return unit vector of the current vector.
      */
     public Vector unitVector() {
-        return new Vector(source.div(length()));
+        GeomMetrics.count(GeomOperation.VECTOR_ARITHMETIC);
+        Vector result = unit;
+        if (result == null) {
+            result = new Vector(source.div(length()));
+            unit = result;
+        }
+        return result;
     }
 
     /**
@@ -95,6 +121,7 @@ final public class Vector extends Dimension {
      * @return Z coordinate of the result vector
      */
     public double vectorMul(Vector vector) {
+        GeomMetrics.count(GeomOperation.VECTOR_ARITHMETIC);
         //TODO: multidimentional multiplication
         if (this.getDimension() != vector.getDimension() ||
                 this.getDimension() != 2) {
@@ -104,7 +131,8 @@ final public class Vector extends Dimension {
         }
         double[] coord1 = this.getSource().getCoords();
         double[] coord2 = vector.getSource().getCoords();
-        return coord1[0] * coord2[1] - coord1[1] * coord2[0];
+        // exact sign for the nearly parallel vectors
+        return Predicates.orient2d(coord1[0], coord1[1], coord2[0], coord2[1], 0, 0);
     }
 
     /**
@@ -113,6 +141,7 @@ final public class Vector extends Dimension {
      * @return value of the multiplications.
      */
     public double scalarMul(Vector vector) {
+        GeomMetrics.count(GeomOperation.VECTOR_ARITHMETIC);
         double result = 0;
         double[] coords = this.getSource().mul(vector.getSource()).getCoords();
         for (int i = 0; i < coords.length; i++) {
@@ -127,6 +156,7 @@ final public class Vector extends Dimension {
      * @return new inheritance of the vector.
      */
     public Vector sum(Vector vector) {
+        GeomMetrics.count(GeomOperation.VECTOR_ARITHMETIC);
         return new Vector(this.getSource().sum(vector.getSource()));
     }
 
@@ -0,0 +1,147 @@
+package geom;
+
+/**
+ * Immutable vector of 2 dimensions kept in two
+ * double fields, the fixed-arity form of Vector.
+ */
+final public class Vector2D {
+    /** X coordinate of the source **/
+    private final double x;
+
+    /** Y coordinate of the source **/
+    private final double y;
+
+    /** Constructor **/
+    public Vector2D(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Constructor of the vector by two points.
+     * NOTE: Order has value.
+     * @param from from this point
+     * @param to to this point
+     */
+    public Vector2D(Point2D from, Point2D to) {
+        this(to.getX() - from.getX(), to.getY() - from.getY());
+    }
+
+    /**
+     * Converting the vector of 2 dimensions.
+     * @param vector vector to convert
+     * @return new vector
+     */
+    public static Vector2D of(Vector vector) {
+        if (vector.getDimension() != 2) {
+            throw new IllegalArgumentException(
+                    "Vector is not 2-dimensional!"
+            );
+        }
+        return new Vector2D(vector.getSource().getX(), vector.getSource().getY());
+    }
+
+    /**
+     * @return vector with the same coordinates
+     */
+    public Vector toVector() {
+        return new Vector(x, y);
+    }
+
+    /**
+     * @return X coordinate of the source
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return Y coordinate of the source
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Length of the vector.
+     * @return length of the vector.
+     */
+    public double length() {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * Getting the unit vector of the current vector.
+     * @return unit vector of the current vector.
+     */
+    public Vector2D unitVector() {
+        double length = length();
+        if (length == 0) {
+            throw new IllegalArgumentException(
+                    "Value should not be 0"
+            );
+        }
+        return new Vector2D(x / length, y / length);
+    }
+
+    /**
+     * Vector multiplication
+     * @param vector vector to multiply with
+     * @return Z coordinate of the result vector
+     */
+    public double vectorMul(Vector2D vector) {
+        return Predicates.orient2d(x, y, vector.x, vector.y, 0, 0);
+    }
+
+    /**
+     * Method to compute scalar multiplications.
+     * @param vector vector to multiply with
+     * @return value of the multiplications.
+     */
+    public double scalarMul(Vector2D vector) {
+        return x * vector.x + y * vector.y;
+    }
+
+    /**
+     * Summation of the two vectors.
+     * @param vector vector to sum with
+     * @return new vector
+     */
+    public Vector2D sum(Vector2D vector) {
+        return new Vector2D(x + vector.x, y + vector.y);
+    }
+
+    @Override
+    public String toString() {
+        return "Vector: <" + x + ", " + y + ">.";
+    }
+
+    /**
+     * Overridden equals.
+     * @param obj object to compare with.
+     * @return TRUE if vectors are identical.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Vector2D)) {
+            return false;
+        }
+        Vector2D vector = (Vector2D) obj;
+        return !(x > vector.x || x < vector.x || y > vector.y || y < vector.y);
+    }
+
+    /**
+     * Hash code equal to the one of the same Vector.
+     * @return hash code of the vector.
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        result += (result + (int) (x * 100)) * 31;
+        result += (result + (int) (y * 100)) * 31;
+        return result;
+    }
+}
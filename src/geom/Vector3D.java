@@ -0,0 +1,165 @@
+package geom;
+
+/**
+ * Immutable vector of 3 dimensions kept in three
+ * double fields, the fixed-arity form of Vector.
+ */
+final public class Vector3D {
+    /** X coordinate of the source **/
+    private final double x;
+
+    /** Y coordinate of the source **/
+    private final double y;
+
+    /** Z coordinate of the source **/
+    private final double z;
+
+    /** Constructor **/
+    public Vector3D(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Constructor of the vector by two points.
+     * NOTE: Order has value.
+     * @param from from this point
+     * @param to to this point
+     */
+    public Vector3D(Point3D from, Point3D to) {
+        this(to.getX() - from.getX(), to.getY() - from.getY(), to.getZ() - from.getZ());
+    }
+
+    /**
+     * Converting the vector of 3 dimensions.
+     * @param vector vector to convert
+     * @return new vector
+     */
+    public static Vector3D of(Vector vector) {
+        if (vector.getDimension() != 3) {
+            throw new IllegalArgumentException(
+                    "Vector is not 3-dimensional!"
+            );
+        }
+        Point source = vector.getSource();
+        return new Vector3D(source.getX(), source.getY(), source.getZ());
+    }
+
+    /**
+     * @return vector with the same coordinates
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    /**
+     * @return X coordinate of the source
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return Y coordinate of the source
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return Z coordinate of the source
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Length of the vector.
+     * @return length of the vector.
+     */
+    public double length() {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * Getting the unit vector of the current vector.
+     * @return unit vector of the current vector.
+     */
+    public Vector3D unitVector() {
+        double length = length();
+        if (length == 0) {
+            throw new IllegalArgumentException(
+                    "Value should not be 0"
+            );
+        }
+        return new Vector3D(x / length, y / length, z / length);
+    }
+
+    /**
+     * Vector (cross) multiplication.
+     * @param vector vector to multiply with
+     * @return vector orthogonal to both vectors
+     */
+    public Vector3D vectorMul(Vector3D vector) {
+        return new Vector3D(
+                y * vector.z - z * vector.y,
+                z * vector.x - x * vector.z,
+                x * vector.y - y * vector.x
+        );
+    }
+
+    /**
+     * Method to compute scalar multiplications.
+     * @param vector vector to multiply with
+     * @return value of the multiplications.
+     */
+    public double scalarMul(Vector3D vector) {
+        return x * vector.x + y * vector.y + z * vector.z;
+    }
+
+    /**
+     * Summation of the two vectors.
+     * @param vector vector to sum with
+     * @return new vector
+     */
+    public Vector3D sum(Vector3D vector) {
+        return new Vector3D(x + vector.x, y + vector.y, z + vector.z);
+    }
+
+    @Override
+    public String toString() {
+        return "Vector: <" + x + ", " + y + ", " + z + ">.";
+    }
+
+    /**
+     * Overridden equals.
+     * @param obj object to compare with.
+     * @return TRUE if vectors are identical.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Vector3D)) {
+            return false;
+        }
+        Vector3D vector = (Vector3D) obj;
+        return !(x > vector.x || x < vector.x || y > vector.y || y < vector.y ||
+                z > vector.z || z < vector.z);
+    }
+
+    /**
+     * Hash code equal to the one of the same Vector.
+     * @return hash code of the vector.
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        result += (result + (int) (x * 100)) * 31;
+        result += (result + (int) (y * 100)) * 31;
+        result += (result + (int) (z * 100)) * 31;
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package geom;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of the array kernels with the incubating
+ * Vector API. Needs --add-modules jdk.incubator.vector
+ * to compile and to run, BatchKernels loads it only
+ * if the module is present. Tails shorter than one
+ * vector are handled by the scalar loops.
+ */
+final class VectorKernels implements ArrayKernels {
+    /** Widest vector shape of the platform **/
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void add(double[] a, double[] b, double[] out, int size) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i)
+                    .add(DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void add(double[] a, double value, double[] out, int size) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).add(value).intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = a[i] + value;
+        }
+    }
+
+    @Override
+    public void mul(double[] a, double[] b, double[] out, int size) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i)
+                    .mul(DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void mul(double[] a, double value, double[] out, int size) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).mul(value).intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = a[i] * value;
+        }
+    }
+
+    @Override
+    public void div(double[] a, double value, double[] out, int size) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).div(value).intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = a[i] / value;
+        }
+    }
+
+    @Override
+    public void addProduct(double[] a, double[] b, double[] sum, int size) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            DoubleVector product = DoubleVector.fromArray(SPECIES, a, i)
+                    .mul(DoubleVector.fromArray(SPECIES, b, i));
+            DoubleVector.fromArray(SPECIES, sum, i).add(product).intoArray(sum, i);
+        }
+        for (; i < size; i++) {
+            sum[i] += a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void addSquaredDiff(double[] a, double value, double[] sum, int size) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            DoubleVector diff = DoubleVector.fromArray(SPECIES, a, i).sub(value);
+            DoubleVector.fromArray(SPECIES, sum, i).add(diff.mul(diff)).intoArray(sum, i);
+        }
+        for (; i < size; i++) {
+            double diff = a[i] - value;
+            sum[i] += diff * diff;
+        }
+    }
+
+    @Override
+    public void sqrt(double[] a, int size) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.SQRT).intoArray(a, i);
+        }
+        for (; i < size; i++) {
+            a[i] = Math.sqrt(a[i]);
+        }
+    }
+}
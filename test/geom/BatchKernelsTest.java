@@ -0,0 +1,141 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vector kernels against the scalar ones bit for bit, on the
+ * ranges which are not whole vectors and on the special values,
+ * and the batch operations against the ones of the single points.
+ */
+class BatchKernelsTest {
+    private static final double[] SPECIAL = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL,
+            Double.MAX_VALUE, -Double.MAX_VALUE, 1.0, -1.0, 1e-300, 1e300};
+
+    private static final int LENGTH = 70;
+
+    @Test
+    void vectorKernelsAreUsed() {
+        // the tests run with jdk.incubator.vector, see the surefire configuration
+        assertTrue(BatchKernels.isVectorized());
+    }
+
+    @Test
+    void vectorKernelsEqualScalarOnesBitForBit() {
+        ArrayKernels scalar = new ScalarKernels();
+        ArrayKernels vector = new VectorKernels();
+        Random random = new Random(1);
+        for (int test = 0; test < 20; test++) {
+            double[] a = values(random);
+            double[] b = values(random);
+            double[] sum = values(random);
+            double value = random.nextBoolean() ? SPECIAL[random.nextInt(SPECIAL.length)] : random.nextGaussian();
+            // every range [0, size) of the arrays: whole vectors, tails and no vectors at all
+            for (int size = 0; size <= LENGTH; size++) {
+                String range = "test " + test + ", size " + size + ", value " + value;
+                assertSame(a, b, sum, size, scalar, vector, (kernels, x, y, out, n) -> kernels.add(x, y, out, n), range);
+                assertSame(a, b, sum, size, scalar, vector, (kernels, x, y, out, n) -> kernels.add(x, value, out, n), range);
+                assertSame(a, b, sum, size, scalar, vector, (kernels, x, y, out, n) -> kernels.mul(x, y, out, n), range);
+                assertSame(a, b, sum, size, scalar, vector, (kernels, x, y, out, n) -> kernels.mul(x, value, out, n), range);
+                assertSame(a, b, sum, size, scalar, vector, (kernels, x, y, out, n) -> kernels.div(x, value, out, n), range);
+                assertSame(a, b, sum, size, scalar, vector, (kernels, x, y, out, n) -> kernels.addProduct(x, y, out, n), range);
+                assertSame(a, b, sum, size, scalar, vector,
+                        (kernels, x, y, out, n) -> kernels.addSquaredDiff(x, value, out, n), range);
+                assertSame(a, b, sum, size, scalar, vector, (kernels, x, y, out, n) -> {
+                    System.arraycopy(x, 0, out, 0, n);
+                    kernels.sqrt(out, n);
+                }, range);
+            }
+        }
+    }
+
+    @Test
+    void batchOperationsEqualOperationsOfPoints() {
+        Random random = new Random(2);
+        for (int size : new int[]{0, 1, 3, 7, 13, 64, 101}) {
+            PointColumns a = columns(random, size);
+            PointColumns b = columns(random, size);
+            Point point = new Point(random.nextGaussian(), -0.0, Double.NaN);
+            double value = random.nextGaussian();
+            PointColumns sums = BatchKernels.sum(a, b);
+            PointColumns shifted = BatchKernels.sum(a, point);
+            PointColumns scaled = BatchKernels.mul(a, value);
+            PointColumns divided = BatchKernels.div(a, value);
+            double[] lengths = BatchKernels.lengths(a);
+            double[] scalars = BatchKernels.scalarMul(a, b);
+            double[] distances = BatchKernels.distances(a, point);
+            for (int i = 0; i < size; i++) {
+                Point p = a.getPoint(i);
+                Point q = b.getPoint(i);
+                assertBits(p.sum(q), sums.getPoint(i));
+                assertBits(p.sum(point), shifted.getPoint(i));
+                assertBits(p.mul(new Point(value, value, value)), scaled.getPoint(i));
+                assertBits(p.div(value), divided.getPoint(i));
+                assertEquals(Double.doubleToLongBits(new Vector(p).length()), Double.doubleToLongBits(lengths[i]));
+                assertEquals(Double.doubleToLongBits(new Vector(p).scalarMul(new Vector(q))),
+                        Double.doubleToLongBits(scalars[i]));
+                assertEquals(Double.doubleToLongBits(new Vector(p.sub(point)).length()),
+                        Double.doubleToLongBits(distances[i]));
+            }
+        }
+    }
+
+    /** Operation of the kernels over the range [0, n) **/
+    private interface Operation {
+        void run(ArrayKernels kernels, double[] a, double[] b, double[] out, int n);
+    }
+
+    /** Running the operation by both kernels on copies of the arrays, items after the range stay **/
+    private static void assertSame(double[] a, double[] b, double[] sum, int size,
+                                   ArrayKernels scalar, ArrayKernels vector, Operation operation, String range) {
+        double[] expected = sum.clone();
+        double[] actual = sum.clone();
+        operation.run(scalar, a.clone(), b.clone(), expected, size);
+        operation.run(vector, a.clone(), b.clone(), actual, size);
+        assertArrayEquals(bits(expected), bits(actual), range);
+        assertArrayEquals(bits(Arrays.copyOfRange(sum, size, LENGTH)),
+                bits(Arrays.copyOfRange(actual, size, LENGTH)), range);
+    }
+
+    private static void assertBits(Point expected, Point actual) {
+        for (int d = 0; d < expected.getDimension(); d++) {
+            assertEquals(Double.doubleToLongBits(expected.getCoord(d)),
+                    Double.doubleToLongBits(actual.getCoord(d)), "coordinate " + d);
+        }
+    }
+
+    /** Raw bits, so -0.0 differs from 0.0 **/
+    private static long[] bits(double[] values) {
+        long[] bits = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bits[i] = Double.doubleToRawLongBits(values[i]);
+        }
+        return bits;
+    }
+
+    /** Random values with the special ones at random places **/
+    private static double[] values(Random random) {
+        double[] values = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            values[i] = random.nextInt(4) == 0 ? SPECIAL[random.nextInt(SPECIAL.length)] :
+                    random.nextGaussian() * Math.pow(10, random.nextInt(20) - 10);
+        }
+        return values;
+    }
+
+    private static PointColumns columns(Random random, int size) {
+        PointColumns columns = new PointColumns(3, size);
+        for (int i = 0; i < size; i++) {
+            double[] values = values(random);
+            columns.add(new Point(values[0], values[1], values[2]));
+        }
+        return columns;
+    }
+}
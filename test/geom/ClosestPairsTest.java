@@ -0,0 +1,102 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closest pair and distance joins against all pairs.
+ */
+class ClosestPairsTest {
+    @Test
+    void closestPairMatchesBruteForce() {
+        Random random = new Random(1);
+        for (int dimension = 1; dimension <= 3; dimension++) {
+            for (int test = 0; test < 20; test++) {
+                PointColumns columns = points(random, dimension, 2 + random.nextInt(1500));
+                double best = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < columns.size(); i++) {
+                    for (int j = i + 1; j < columns.size(); j++) {
+                        best = Math.min(best, columns.distanceSquared(i, j));
+                    }
+                }
+                IndexPairs pair = ClosestPairs.closestPair(columns);
+                assertEquals(1, pair.size());
+                assertTrue(pair.getFirst(0) < pair.getSecond(0));
+                assertEquals(best, columns.distanceSquared(pair.getFirst(0), pair.getSecond(0)));
+            }
+        }
+    }
+
+    @Test
+    void distanceJoinsMatchBruteForce() {
+        Random random = new Random(2);
+        for (int dimension = 1; dimension <= 3; dimension++) {
+            PointColumns first = points(random, dimension, 1500);
+            PointColumns second = points(random, dimension, 1000);
+            double distance = 0.02 * dimension;
+            Set<Long> self = new HashSet<Long>();
+            Set<Long> cross = new HashSet<Long>();
+            for (int i = 0; i < first.size(); i++) {
+                for (int j = 0; j < first.size(); j++) {
+                    if (i < j && Math.sqrt(first.distanceSquared(i, j)) <= distance) {
+                        self.add(pair(i, j));
+                    }
+                }
+                Point point = first.getPoint(i);
+                for (int j = 0; j < second.size(); j++) {
+                    if (Math.sqrt(second.distanceSquared(j, point)) <= distance) {
+                        cross.add(pair(i, j));
+                    }
+                }
+            }
+            assertEquals(self, pairs(ClosestPairs.withinDistance(first, distance)));
+            assertEquals(cross, pairs(ClosestPairs.withinDistance(first, second, distance)));
+        }
+    }
+
+    @Test
+    void handlesRingOrderQuickly() {
+        int n = 300_000;
+        PointColumns ring = new PointColumns(2, n);
+        for (int i = 0; i < n; i++) {
+            ring.add(Math.cos(2 * Math.PI * i / n), Math.sin(2 * Math.PI * i / n));
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            assertEquals(1, ClosestPairs.closestPair(ring).size());
+            assertEquals(n, ClosestPairs.withinDistance(ring, 3e-5).size());
+        });
+    }
+
+    private static PointColumns points(Random random, int dimension, int size) {
+        PointColumns columns = new PointColumns(dimension, size);
+        for (int i = 0; i < size; i++) {
+            double[] coords = new double[dimension];
+            for (int d = 0; d < dimension; d++) {
+                // repeated points and coordinates too
+                coords[d] = i % 10 == 0 ? Math.floor(random.nextDouble() * 8) / 8 : random.nextDouble();
+            }
+            columns.add(coords);
+        }
+        return columns;
+    }
+
+    private static Set<Long> pairs(IndexPairs pairs) {
+        Set<Long> result = new HashSet<Long>();
+        for (int i = 0; i < pairs.size(); i++) {
+            assertTrue(result.add(pair(pairs.getFirst(i), pairs.getSecond(i))), "pair twice");
+        }
+        return result;
+    }
+
+    private static long pair(int first, int second) {
+        return (long) first << 32 | second;
+    }
+}
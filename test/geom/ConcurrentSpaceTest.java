@@ -0,0 +1,82 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent appends with an attached index and queries running at once.
+ */
+class ConcurrentSpaceTest {
+    private static final Envelope ALL = new Envelope(new double[] {-1, -1}, new double[] {1001, 1001});
+
+    @Test
+    void queriesSeeEveryPublishedObjectOnce() throws InterruptedException {
+        ConcurrentSpace space = new ConcurrentSpace(2);
+        GridIndex grid = new GridIndex(10);
+        space.attachIndex(grid);
+        int writers = 4;
+        int perWriter = 20_000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[writers + 2];
+        for (int t = 0; t < writers; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    space.addObject(new Point(i % 1000, id * 250 + i / 1000.0));
+                }
+            });
+        }
+        for (int t = writers; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        int before = space.size();
+                        List<GeomObject> found = space.intersects(ALL);
+                        Set<GeomObject> distinct = Collections.newSetFromMap(new IdentityHashMap<GeomObject, Boolean>());
+                        distinct.addAll(found);
+                        assertEquals(found.size(), distinct.size(), "object found twice");
+                        assertTrue(found.size() >= before, "published object missed");
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (int t = 0; t < writers; t++) {
+            threads[t].join();
+        }
+        done.set(true);
+        for (int t = writers; t < threads.length; t++) {
+            threads[t].join();
+        }
+        assertNull(failure.get());
+        assertEquals(writers * perWriter, space.size());
+        assertEquals(writers * perWriter, grid.size());
+        assertEquals(writers * perWriter, space.intersects(ALL).size());
+
+        GridIndex late = new GridIndex(10);
+        space.attachIndex(late);
+        assertEquals(writers * perWriter, late.size());
+    }
+
+    @Test
+    void rejectsIndexWhichIsNotThreadSafe() {
+        ConcurrentSpace space = new ConcurrentSpace(2);
+        assertThrows(IllegalArgumentException.class, () -> space.attachIndex(new RTree(2)));
+    }
+}
@@ -0,0 +1,102 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Parallel hull against a sequential monotone chain
+ * with the exact orientation.
+ */
+class ConvexHullTest {
+    @Test
+    void matchesMonotoneChain() {
+        Random random = new Random(1);
+        for (int test = 0; test < 60; test++) {
+            int n = test < 30 ? 1 + random.nextInt(50) : 20_000 + random.nextInt(20_000);
+            PointColumns columns = new PointColumns(2, n);
+            for (int i = 0; i < n; i++) {
+                if (test % 3 == 0) {
+                    // many collinear and repeated points
+                    columns.add(random.nextInt(10), random.nextInt(10));
+                } else if (test % 3 == 1) {
+                    double angle = random.nextDouble() * 2 * Math.PI;
+                    columns.add(Math.cos(angle), Math.sin(angle));
+                } else {
+                    columns.add(random.nextGaussian(), random.nextGaussian());
+                }
+            }
+            assertArrayEquals(monotoneChain(columns), coords(columns, ConvexHull.compute(columns)), "test " + test);
+        }
+    }
+
+    @Test
+    void computesRingQuickly() {
+        int n = 500_000;
+        PointColumns ring = new PointColumns(2, n);
+        for (int i = 0; i < n; i++) {
+            ring.add(Math.round(1e6 * Math.cos(2 * Math.PI * i / n)), Math.round(1e6 * Math.sin(2 * Math.PI * i / n)));
+        }
+        int[] hull = assertTimeoutPreemptively(Duration.ofSeconds(20), () -> ConvexHull.compute(ring));
+        assertArrayEquals(monotoneChain(ring), coords(ring, hull));
+    }
+
+    /** Hull vertices as x0, y0, x1, y1, ... **/
+    private static double[] monotoneChain(PointColumns columns) {
+        int n = columns.size();
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = columns.getPoint(i);
+        }
+        Arrays.sort(points, Comparator.comparingDouble(Point::getX).thenComparingDouble(Point::getY));
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || !points[i].equals(points[distinct - 1])) {
+                points[distinct++] = points[i];
+            }
+        }
+        if (distinct == 1) {
+            return new double[] {points[0].getX(), points[0].getY()};
+        }
+        Point[] hull = new Point[2 * distinct];
+        int size = 0;
+        for (int i = 0; i < distinct; i++) {
+            while (size >= 2 && turn(hull[size - 2], hull[size - 1], points[i]) <= 0) {
+                size--;
+            }
+            hull[size++] = points[i];
+        }
+        for (int i = distinct - 2, lower = size + 1; i >= 0; i--) {
+            while (size >= lower && turn(hull[size - 2], hull[size - 1], points[i]) <= 0) {
+                size--;
+            }
+            hull[size++] = points[i];
+        }
+        size--;
+        double[] result = new double[2 * size];
+        for (int i = 0; i < size; i++) {
+            result[2 * i] = hull[i].getX();
+            result[2 * i + 1] = hull[i].getY();
+        }
+        return result;
+    }
+
+    private static double turn(Point a, Point b, Point c) {
+        return Predicates.orient2d(a.getX(), a.getY(), b.getX(), b.getY(), c.getX(), c.getY());
+    }
+
+    private static double[] coords(PointColumns columns, int[] indices) {
+        double[] result = new double[2 * indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            result[2 * i] = columns.getCoord(indices[i], 0);
+            result[2 * i + 1] = columns.getCoord(indices[i], 1);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Queries of the grid against checking all objects: points
+ * inside the query and segments passing through it.
+ */
+class GridIndexTest {
+    @Test
+    void queriesMatchBruteForce() {
+        Random random = new Random(1);
+        GridIndex grid = new GridIndex(1.0, 4);
+        List<GeomObject> objects = new ArrayList<GeomObject>();
+        for (int i = 0; i < 3000; i++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            GeomObject object;
+            if (i % 100 == 0) {
+                object = new Segment(x, y, random.nextDouble() * 1e6, random.nextDouble() * 1e6);
+            } else if (i % 3 == 0) {
+                // steep, flat and grid-aligned segments
+                double length = random.nextDouble() * 20;
+                double angle = random.nextDouble() * 2 * Math.PI;
+                object = i % 9 == 0
+                        ? new Segment(Math.floor(x), y, Math.floor(x), y + length)
+                        : new Segment(x, y, x + length * Math.cos(angle), y + length * Math.sin(angle));
+            } else {
+                object = new Point(x, y);
+            }
+            objects.add(object);
+            grid.insert(object);
+        }
+        for (int i = 0; i < 600; i += 2) {
+            assertTrue(grid.remove(objects.get(i)));
+        }
+        List<GeomObject> indexed = new ArrayList<GeomObject>();
+        for (int i = 0; i < objects.size(); i++) {
+            if (i >= 600 || i % 2 == 1) {
+                indexed.add(objects.get(i));
+            }
+        }
+        assertEquals(indexed.size(), grid.size());
+        for (int test = 0; test < 300; test++) {
+            double x = random.nextDouble() * 110 - 5;
+            double y = random.nextDouble() * 110 - 5;
+            double size = test % 10 == 0 ? 200 : random.nextDouble() * 4;
+            Envelope query = new Envelope(new double[] {x, y}, new double[] {x + size, y + size});
+            Set<GeomObject> expected = new HashSet<GeomObject>();
+            for (GeomObject object : indexed) {
+                if (object instanceof Point ? query.contains((Point) object) : crosses((Segment) object, query)) {
+                    expected.add(object);
+                }
+            }
+            List<GeomObject> found = grid.intersects(query);
+            assertEquals(expected.size(), found.size(), "query " + query);
+            assertEquals(expected, new HashSet<GeomObject>(found));
+        }
+    }
+
+    @Test
+    void skipsSegmentNearQuery() {
+        GridIndex grid = new GridIndex(1.0);
+        grid.insert(new Segment(0, 0, 10, 10));
+        Envelope corner = new Envelope(new double[] {8, 0.5}, new double[] {9.5, 2});
+        assertTrue(grid.intersects(corner).isEmpty());
+        assertEquals(1, grid.intersects(new Envelope(new double[] {4.9, 5}, new double[] {5, 5.1})).size());
+    }
+
+    @Test
+    void longSegmentsTakeTheirCellsOnly() {
+        GridIndex grid = new GridIndex(1.0);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 100; i++) {
+                grid.insert(new Segment(i, 0, i + 3000, 3000));
+            }
+            grid.insert(new Segment(-1e300, -1e300, 1e300, 1e300));
+            assertTrue(grid.move(new Segment(0, 0, 3000, 3000), new Segment(0, 1, 3000, 3001)));
+            assertFalse(grid.remove(new Segment(0, 0, 3000, 3000)));
+        });
+        assertEquals(101, grid.size());
+        assertEquals(2, grid.intersects(new Envelope(new double[] {1500.5, 1500.5}, new double[] {1501.5, 1500.5})).size());
+    }
+
+    private static boolean crosses(Segment segment, Envelope box) {
+        double x1 = segment.getFrom().getX();
+        double y1 = segment.getFrom().getY();
+        double x2 = segment.getTo().getX();
+        double y2 = segment.getTo().getY();
+        double t0 = 0;
+        double t1 = 1;
+        double[] p = {-(x2 - x1), x2 - x1, -(y2 - y1), y2 - y1};
+        double[] q = {x1 - box.getMin(0), box.getMax(0) - x1, y1 - box.getMin(1), box.getMax(1) - y1};
+        // Liang-Barsky clipping
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) {
+                    return false;
+                }
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) {
+                    t0 = Math.max(t0, t);
+                } else {
+                    t1 = Math.min(t1, t);
+                }
+            }
+        }
+        return t0 <= t1;
+    }
+}
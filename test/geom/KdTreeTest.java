@@ -0,0 +1,91 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Searches of the k-d tree against the distances to all points.
+ */
+class KdTreeTest {
+    @Test
+    void searchesMatchBruteForce() {
+        Random random = new Random(1);
+        for (int dimension = 1; dimension <= 4; dimension++) {
+            PointColumns columns = new PointColumns(dimension);
+            for (int i = 0; i < 3000; i++) {
+                double[] coords = new double[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    // repeated coordinates on the first axis
+                    coords[d] = d == 0 ? random.nextInt(50) : random.nextGaussian();
+                }
+                columns.add(coords);
+            }
+            KdTree tree = new KdTree(columns);
+            for (int test = 0; test < 100; test++) {
+                double[] coords = new double[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    coords[d] = d == 0 ? random.nextDouble() * 50 : random.nextGaussian();
+                }
+                Point query = new Point(coords);
+                double[] distances = new double[columns.size()];
+                for (int i = 0; i < distances.length; i++) {
+                    distances[i] = columns.distanceSquared(i, query);
+                }
+                double[] sorted = distances.clone();
+                Arrays.sort(sorted);
+
+                assertEquals(sorted[0], distances[tree.nearest(query)]);
+
+                int k = 1 + random.nextInt(20);
+                int[] nearest = tree.kNearest(query, k);
+                double[] found = new double[nearest.length];
+                for (int i = 0; i < found.length; i++) {
+                    found[i] = distances[nearest[i]];
+                }
+                assertArrayEquals(Arrays.copyOf(sorted, k), found);
+
+                double radius = Math.sqrt(sorted[random.nextInt(100)]);
+                int[] within = tree.withinRadius(query, radius);
+                int expected = 0;
+                for (double distance : distances) {
+                    if (distance <= radius * radius) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, within.length);
+                for (int index : within) {
+                    assertEquals(true, distances[index] <= radius * radius);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keepsPointsAsBuilt() {
+        PointColumns columns = new PointColumns(2);
+        columns.add(1, 2);
+        columns.add(3, 4);
+        KdTree tree = new KdTree(columns);
+        columns.column(0)[1] = 10;
+        assertEquals(new Point(3, 4), tree.getPoint(1));
+        assertEquals(1, tree.nearest(new Point(3, 4)));
+    }
+
+    @Test
+    void buildsRingOrderQuickly() {
+        int n = 300_000;
+        PointColumns ring = new PointColumns(2, n);
+        for (int i = 0; i < n; i++) {
+            ring.add(Math.cos(2 * Math.PI * i / n), Math.sin(2 * Math.PI * i / n));
+        }
+        KdTree tree = assertTimeoutPreemptively(Duration.ofSeconds(20), () -> new KdTree(ring));
+        assertEquals(n / 4, tree.nearest(new Point(0, 2)));
+    }
+}
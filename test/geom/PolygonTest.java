@@ -0,0 +1,198 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Point location against the brute force even-odd rule
+ * over all edges, with exact boundary checks.
+ */
+class PolygonTest {
+    @Test
+    void locatesPointsOfStarPolygonsOnGrid() {
+        // integer vertices and queries: many points on the edges and vertices
+        Random random = new Random(1);
+        for (int test = 0; test < 200; test++) {
+            int n = 3 + random.nextInt(30);
+            double[] angles = new double[n];
+            for (int i = 0; i < n; i++) {
+                angles[i] = random.nextDouble() * 2 * Math.PI;
+            }
+            Arrays.sort(angles);
+            double[] x = new double[n];
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                double radius = 2 + random.nextInt(8);
+                x[i] = Math.rint(radius * Math.cos(angles[i]));
+                y[i] = Math.rint(radius * Math.sin(angles[i]));
+            }
+            Polygon polygon;
+            try {
+                polygon = new Polygon(x, y);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            for (double px = -11; px <= 11; px += 0.5) {
+                for (double py = -11; py <= 11; py += 0.5) {
+                    assertEquals(bruteForce(x, y, px, py), polygon.contains(px, py),
+                            "test " + test + ", point " + px + ", " + py);
+                }
+            }
+        }
+    }
+
+    @Test
+    void locatesPointsOfSelfIntersectingPolygons() {
+        Random random = new Random(2);
+        for (int test = 0; test < 200; test++) {
+            int n = 3 + random.nextInt(20);
+            double[] x = new double[n];
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = random.nextInt(10);
+                y[i] = random.nextInt(10);
+            }
+            Polygon polygon;
+            try {
+                polygon = new Polygon(x, y);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            for (int i = 0; i < 300; i++) {
+                double px = random.nextInt(4) == 0 ? random.nextInt(11) - 0.5 : random.nextDouble() * 11 - 1;
+                double py = random.nextInt(4) == 0 ? random.nextInt(11) : random.nextDouble() * 11 - 1;
+                assertEquals(bruteForce(x, y, px, py), polygon.contains(px, py),
+                        "test " + test + ", point " + px + ", " + py);
+            }
+        }
+    }
+
+    @Test
+    void locatesPointsOfCombWithJoinedSlabs() {
+        // every vertical line crosses all teeth, so the slabs are joined
+        double[][] comb = comb(64, 100);
+        double[] x = comb[0];
+        double[] y = comb[1];
+        Polygon polygon = new Polygon(x, y);
+        for (int i = 0; i < x.length; i++) {
+            int j = i + 1 == x.length ? 0 : i + 1;
+            assertTrue(polygon.contains(x[i], y[i]), "vertex " + i);
+            // dyadic coordinates: the middle is exactly on the edge
+            assertTrue(polygon.contains(0.5 * x[i] + 0.5 * x[j], 0.5 * y[i] + 0.5 * y[j]), "edge " + i);
+        }
+        Random random = new Random(3);
+        for (int i = 0; i < 5000; i++) {
+            double px = random.nextInt(3) == 0 ? x[random.nextInt(x.length)] : random.nextDouble() * 102 - 1;
+            double py = random.nextInt(3) == 0 ? y[random.nextInt(y.length)] : random.nextDouble() * 130 - 1;
+            assertEquals(bruteForce(x, y, px, py), polygon.contains(px, py), "point " + px + ", " + py);
+        }
+    }
+
+    @Test
+    void locatesPointsOfSpiral() {
+        List<Point> vertices = new ArrayList<Point>();
+        int turns = 40;
+        int perTurn = 200;
+        for (int i = 0; i <= turns * perTurn; i++) {
+            double angle = 2 * Math.PI * i / perTurn;
+            double radius = 1 + (double) i / perTurn;
+            vertices.add(new Point(radius * Math.cos(angle), radius * Math.sin(angle)));
+        }
+        for (int i = turns * perTurn; i >= 0; i--) {
+            double angle = 2 * Math.PI * i / perTurn;
+            double radius = 1.5 + (double) i / perTurn;
+            vertices.add(new Point(radius * Math.cos(angle), radius * Math.sin(angle)));
+        }
+        double[] x = new double[vertices.size()];
+        double[] y = new double[vertices.size()];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = vertices.get(i).getX();
+            y[i] = vertices.get(i).getY();
+        }
+        Polygon polygon = new Polygon(vertices);
+        Random random = new Random(4);
+        for (int i = 0; i < 5000; i++) {
+            double px = random.nextDouble() * 90 - 45;
+            double py = random.nextDouble() * 90 - 45;
+            assertEquals(bruteForce(x, y, px, py), polygon.contains(px, py), "point " + px + ", " + py);
+        }
+    }
+
+    @Test
+    void locatesPointsOfLongSerpentineInLogarithmicTime() {
+        // 200k vertices, 2000 edges cross each vertical line: scanning them takes seconds
+        double[][] comb = comb(1000, 100);
+        double[] x = comb[0];
+        double[] y = comb[1];
+        Polygon polygon = new Polygon(x, y);
+        Random random = new Random(5);
+        for (int i = 0; i < 100; i++) {
+            double px = random.nextDouble() * 102 - 1;
+            double py = random.nextDouble() * 2002 - 1;
+            assertEquals(bruteForce(x, y, px, py), polygon.contains(px, py), "point " + px + ", " + py);
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(4), () -> {
+            int inside = 0;
+            for (int i = 0; i < 200000; i++) {
+                inside += polygon.contains(random.nextDouble() * 102 - 1, random.nextDouble() * 2002 - 1) ? 1 : 0;
+            }
+            assertTrue(inside > 0);
+        });
+    }
+
+    /**
+     * Comb with the teeth to the right of the spine, the teeth have
+     * wavy sides with a vertex at each X, shifted a bit for each
+     * tooth, so the slabs are narrow and each is crossed by all teeth.
+     * @param teeth number of the teeth, up to 1024
+     * @param length length of the teeth
+     * @return X and Y coordinates of the vertices
+     */
+    private static double[][] comb(int teeth, int length) {
+        double[] x = new double[2 * teeth * length + 2];
+        double[] y = new double[x.length];
+        int count = 0;
+        x[count] = 0;
+        y[count++] = 0;
+        for (int r = 0; r < teeth; r++) {
+            double shift = r / 1024.0;
+            for (int i = 1; i <= length; i++) {
+                x[count] = i + shift;
+                y[count++] = 2 * r + (i % 2) / 4.0;
+            }
+            for (int i = length; i >= 1; i--) {
+                x[count] = i + shift;
+                y[count++] = 2 * r + 1 + (i % 2) / 4.0;
+            }
+        }
+        x[count] = 0;
+        y[count++] = 2 * teeth - 1;
+        return new double[][]{x, y};
+    }
+
+    /** Exact even-odd rule by a ray to the right, points on the edges are inside **/
+    private static boolean bruteForce(double[] x, double[] y, double px, double py) {
+        boolean inside = false;
+        for (int i = 0; i < x.length; i++) {
+            int j = i + 1 == x.length ? 0 : i + 1;
+            double side = Predicates.orient2d(x[i], y[i], x[j], y[j], px, py);
+            if (side == 0 && Math.min(x[i], x[j]) <= px && px <= Math.max(x[i], x[j]) &&
+                    Math.min(y[i], y[j]) <= py && py <= Math.max(y[i], y[j])) {
+                return true;
+            }
+            if ((y[i] > py) != (y[j] > py) && (y[j] > y[i] ? side > 0 : side < 0)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,146 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Signs of the predicates against the determinants computed
+ * exactly in BigDecimal, mostly for nearly degenerate inputs
+ * where the double determinant has a wrong sign.
+ */
+class PredicatesTest {
+    @Test
+    void orientationOfRandomPoints() {
+        Random random = new Random(1);
+        for (int test = 0; test < 10000; test++) {
+            double[] p = new double[6];
+            for (int i = 0; i < p.length; i++) {
+                p[i] = random.nextDouble() * 200 - 100;
+            }
+            checkOrient(p[0], p[1], p[2], p[3], p[4], p[5]);
+        }
+    }
+
+    @Test
+    void orientationOfPointsNearLine() {
+        // the grid of ulps around a point of the line, as in Shewchuk's paper
+        double x = 0.5;
+        double y = 0.5;
+        for (int i = 0; i < 64; i++) {
+            double cy = y;
+            for (int j = 0; j < 64; j++) {
+                checkOrient(12, 12, 24, 24, x, cy);
+                checkOrient(24, 24, 12, 12, x, cy);
+                checkOrient(x, cy, 12, 12, 24, 24);
+                cy = Math.nextUp(cy);
+            }
+            x = Math.nextUp(x);
+        }
+    }
+
+    @Test
+    void orientationOfRoundedCollinearPoints() {
+        Random random = new Random(2);
+        for (int test = 0; test < 10000; test++) {
+            double ax = random.nextDouble() * 1e6;
+            double ay = random.nextDouble() * 1e6;
+            double bx = random.nextDouble() * 1e6;
+            double by = random.nextDouble() * 1e6;
+            double t = random.nextDouble() * 3 - 1;
+            double cx = ax + t * (bx - ax);
+            double cy = ay + t * (by - ay);
+            if (random.nextBoolean()) {
+                cx = random.nextBoolean() ? Math.nextUp(cx) : Math.nextDown(cx);
+            }
+            checkOrient(ax, ay, bx, by, cx, cy);
+        }
+    }
+
+    @Test
+    void exactlyCollinearPointsAreZero() {
+        assertEquals(0, Predicates.orient2d(0, 0, 1, 1, 3, 3));
+        assertEquals(0, Predicates.orient2d(0.1, 0.1, 0.3, 0.3, 1e100, 1e100));
+        assertEquals(0, Predicates.orient2d(1, 2, 1, 2, 5, -7));
+    }
+
+    @Test
+    void circleOfRandomPoints() {
+        Random random = new Random(3);
+        for (int test = 0; test < 10000; test++) {
+            double[] p = new double[8];
+            for (int i = 0; i < p.length; i++) {
+                p[i] = random.nextDouble() * 200 - 100;
+            }
+            checkInCircle(p);
+        }
+    }
+
+    @Test
+    void circleOfRoundedCocircularPoints() {
+        Random random = new Random(4);
+        for (int test = 0; test < 10000; test++) {
+            double centerX = random.nextDouble() * 1e4;
+            double centerY = random.nextDouble() * 1e4;
+            double radius = 1e-3 + random.nextDouble() * 1e3;
+            double[] p = new double[8];
+            double angle = random.nextDouble();
+            for (int i = 0; i < 4; i++) {
+                // counterclockwise for the first three
+                angle += 0.1 + random.nextDouble() * 1.4;
+                p[2 * i] = centerX + radius * Math.cos(angle);
+                p[2 * i + 1] = centerY + radius * Math.sin(angle);
+            }
+            if (random.nextBoolean()) {
+                p[7] = random.nextBoolean() ? Math.nextUp(p[7]) : Math.nextDown(p[7]);
+            }
+            checkInCircle(p);
+        }
+    }
+
+    @Test
+    void circleOfPointsNearSquareCorner() {
+        double x = 1;
+        for (int i = 0; i < 32; i++) {
+            double y = 1;
+            for (int j = 0; j < 32; j++) {
+                checkInCircle(new double[]{0, 0, 1, 0, 0, 1, x, y});
+                checkInCircle(new double[]{1e8, 1e8, 1e8 + 1, 1e8, 1e8, 1e8 + 1, 1e8 + x, 1e8 + y});
+                y = Math.nextDown(y);
+            }
+            x = Math.nextUp(x);
+        }
+        assertEquals(0, Predicates.inCircle(0, 0, 1, 0, 0, 1, 1, 1));
+    }
+
+    private static void checkOrient(double ax, double ay, double bx, double by, double cx, double cy) {
+        BigDecimal det = big(ax).subtract(big(cx)).multiply(big(by).subtract(big(cy)))
+                .subtract(big(ay).subtract(big(cy)).multiply(big(bx).subtract(big(cx))));
+        assertEquals(det.signum(), (int) Math.signum(Predicates.orient2d(ax, ay, bx, by, cx, cy)),
+                "orient2d(" + ax + ", " + ay + ", " + bx + ", " + by + ", " + cx + ", " + cy + ")");
+    }
+
+    private static void checkInCircle(double[] p) {
+        BigDecimal[][] rows = new BigDecimal[3][3];
+        for (int i = 0; i < 3; i++) {
+            BigDecimal dx = big(p[2 * i]).subtract(big(p[6]));
+            BigDecimal dy = big(p[2 * i + 1]).subtract(big(p[7]));
+            rows[i][0] = dx;
+            rows[i][1] = dy;
+            rows[i][2] = dx.multiply(dx).add(dy.multiply(dy));
+        }
+        BigDecimal det = rows[0][0].multiply(rows[1][1].multiply(rows[2][2]).subtract(rows[1][2].multiply(rows[2][1])))
+                .subtract(rows[0][1].multiply(rows[1][0].multiply(rows[2][2]).subtract(rows[1][2].multiply(rows[2][0]))))
+                .add(rows[0][2].multiply(rows[1][0].multiply(rows[2][1]).subtract(rows[1][1].multiply(rows[2][0]))));
+        double result = Predicates.inCircle(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7]);
+        assertEquals(det.signum(), (int) Math.signum(result), "inCircle" + Arrays.toString(p));
+    }
+
+    private static BigDecimal big(double value) {
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,93 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sorting and selection against Arrays.sort,
+ * including the keys which break simple pivots.
+ */
+class PrimitiveSortTest {
+    @Test
+    void sortsLikeArraysSort() {
+        Random random = new Random(1);
+        for (double[] keys : inputs(random)) {
+            int[] items = identity(keys.length);
+            double[] sorted = keys.clone();
+            PrimitiveSort.sort(sorted, items, 0, sorted.length);
+            double[] expected = keys.clone();
+            Arrays.sort(expected);
+            assertArrayEquals(expected, sorted);
+            for (int i = 0; i < items.length; i++) {
+                assertEquals(keys[items[i]], sorted[i]);
+            }
+        }
+    }
+
+    @Test
+    void selectsLikeArraysSort() {
+        Random random = new Random(2);
+        for (double[] keys : inputs(random)) {
+            double[] expected = keys.clone();
+            Arrays.sort(expected);
+            int k = random.nextInt(keys.length);
+            double[] selected = keys.clone();
+            int[] items = identity(keys.length);
+            PrimitiveSort.select(selected, items, 0, selected.length, k);
+            assertEquals(expected[k], selected[k]);
+            for (int i = 0; i < selected.length; i++) {
+                assertTrue(i <= k ? selected[i] <= selected[k] : selected[i] >= selected[k]);
+                assertEquals(keys[items[i]], selected[i]);
+            }
+        }
+    }
+
+    @Test
+    void sortsRingOrderInLinearithmicTime() {
+        // X of the points of a ring in the ring order: V-shaped keys
+        int n = 1_000_000;
+        double[] keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = Math.cos(2 * Math.PI * i / n);
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            PrimitiveSort.sort(keys.clone(), identity(n), 0, n);
+            PrimitiveSort.select(keys.clone(), identity(n), 0, n, n / 2);
+            double[] organPipe = new double[n];
+            for (int i = 0; i < n; i++) {
+                organPipe[i] = Math.min(i, n - i);
+            }
+            PrimitiveSort.sort(organPipe, identity(n), 0, n);
+        });
+    }
+
+    private static double[][] inputs(Random random) {
+        int n = 5000;
+        double[][] result = new double[6][n];
+        for (int i = 0; i < n; i++) {
+            result[0][i] = random.nextDouble();
+            result[1][i] = i;
+            result[2][i] = n - i;
+            result[3][i] = Math.min(i, n - i);
+            result[4][i] = random.nextInt(4);
+            result[5][i] = Math.cos(2 * Math.PI * i / n);
+        }
+        return result;
+    }
+
+    private static int[] identity(int n) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+}
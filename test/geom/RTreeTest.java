@@ -0,0 +1,147 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Window and intersection queries of the
+ * R-tree against checking all objects.
+ */
+class RTreeTest {
+    @Test
+    void queriesMatchBruteForce() {
+        Random random = new Random(1);
+        List<GeomObject> objects = new ArrayList<GeomObject>();
+        for (int i = 0; i < 3000; i++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            objects.add(i % 3 == 0
+                    ? new Segment(x, y, x + random.nextDouble() * 5, y - random.nextDouble() * 5)
+                    : new Point(x, y));
+        }
+        RTree tree = RTree.bulkLoad(objects.subList(0, 2000), 2, 8);
+        for (GeomObject object : objects.subList(2000, 3000)) {
+            tree.insert(object);
+        }
+        for (int i = 0; i < 500; i += 2) {
+            tree.remove(objects.get(i));
+        }
+        List<GeomObject> indexed = new ArrayList<GeomObject>(objects);
+        for (int i = 0; i < 500; i += 2) {
+            indexed.remove(objects.get(i));
+        }
+        assertEquals(indexed.size(), tree.size());
+        for (int test = 0; test < 200; test++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            Envelope query = new Envelope(new double[] {x, y},
+                    new double[] {x + random.nextDouble() * 20, y + random.nextDouble() * 20});
+            Set<GeomObject> inside = new HashSet<GeomObject>();
+            Set<GeomObject> intersecting = new HashSet<GeomObject>();
+            for (GeomObject object : indexed) {
+                Envelope envelope = Envelope.of(object);
+                if (query.contains(envelope)) {
+                    inside.add(object);
+                }
+                if (query.intersects(envelope)) {
+                    intersecting.add(object);
+                }
+            }
+            assertEquals(inside, new HashSet<GeomObject>(tree.window(query)));
+            assertEquals(intersecting, new HashSet<GeomObject>(tree.intersects(query)));
+        }
+    }
+
+    @Test
+    void bulkLoadsRingOrderQuickly() {
+        int n = 300_000;
+        List<GeomObject> ring = new ArrayList<GeomObject>(n);
+        for (int i = 0; i < n; i++) {
+            ring.add(new Point(Math.cos(2 * Math.PI * i / n), Math.sin(2 * Math.PI * i / n)));
+        }
+        RTree tree = assertTimeoutPreemptively(Duration.ofSeconds(20), () -> RTree.bulkLoad(ring, 2, 16));
+        assertEquals(n, tree.size());
+    }
+
+    @Test
+    void bulkLoadsOnlyPointsAndSegmentsOfSpace() {
+        Space space = new Space(2);
+        Space nested = new Space(2);
+        nested.addObject(new Point(1, 1));
+        Point point = new Point(1, 2);
+        Segment segment = new Segment(0, 0, 2, 2);
+        space.addObject(point);
+        space.addObject(nested);
+        space.addObject(new Polygon(new Point(0, 0), new Point(3, 0), new Point(0, 3)));
+        space.addObject(segment);
+        RTree tree = RTree.bulkLoad(space);
+        assertEquals(2, tree.size());
+        assertEquals(new HashSet<GeomObject>(Arrays.asList(point, segment)),
+                new HashSet<GeomObject>(tree.intersects(new Envelope(new double[] {0, 0}, new double[] {3, 3}))));
+    }
+
+    @Test
+    void insertsCollinearPointsIntoNarrowNodes() {
+        // boxes of the points and of the nodes on a horizontal line have no area
+        int n = 200_000;
+        List<Point> points = new ArrayList<Point>(n);
+        for (int i = 0; i < n; i++) {
+            points.add(new Point(i, 5));
+        }
+        Collections.shuffle(points, new Random(1));
+        RTree tree = new RTree(2);
+        for (Point point : points) {
+            tree.insert(point);
+        }
+        assertEquals(n, tree.size());
+        // each window has 5 points
+        assertEquals(2000 * 5, findInSmallWindows(tree, n, (i, size) -> new Envelope(
+                new double[] {i - 0.5, 4}, new double[] {i + size + 0.5, 6})));
+    }
+
+    @Test
+    void insertsCoplanarPointsIntoNarrowNodes() {
+        int side = 400;
+        RTree tree = new RTree(3);
+        Random random = new Random(2);
+        for (int i = 0; i < side * side; i++) {
+            tree.insert(new Point(random.nextInt(side), random.nextInt(side), 7));
+        }
+        Envelope plane = new Envelope(new double[] {0, 0, 7}, new double[] {side, side, 7});
+        assertEquals(side * side, tree.intersects(plane).size());
+        assertTrue(findInSmallWindows(tree, side, (i, size) -> new Envelope(
+                new double[] {i, side - i - size, 6}, new double[] {i + size, side - i, 8})) > 0);
+    }
+
+    /** Window function of the start and the size of the window **/
+    private interface WindowFunction {
+        Envelope apply(int start, int size);
+    }
+
+    /**
+     * Searching 2000 small windows quickly, as in a tree of the compact nodes.
+     * @return number of the found objects
+     */
+    private static int findInSmallWindows(RTree tree, int range, WindowFunction windows) {
+        Random random = new Random(3);
+        return assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            int found = 0;
+            for (int i = 0; i < 2000; i++) {
+                found += tree.intersects(windows.apply(random.nextInt(range - 10), 4)).size();
+            }
+            return found;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Intersection of the segments, including the
+ * bounding box reject and its allocations.
+ */
+class SegmentTest {
+    @Test
+    void findsTouchingAndCollinearSegments() {
+        assertTrue(new Segment(0, 0, 2, 2).isIntersect(new Segment(0, 2, 2, 0)));
+        assertTrue(new Segment(0, 0, 2, 2).isIntersect(new Segment(2, 2, 3, 0)));
+        assertTrue(new Segment(0, 0, 2, 0).isIntersect(new Segment(1, 0, 3, 0)));
+        assertTrue(new Segment(0, 0, 2, 0).isIntersect(new Segment(1, 0, 1, 5)));
+        assertFalse(new Segment(0, 0, 2, 0).isIntersect(new Segment(3, 0, 4, 0)));
+        // boxes overlap, the segments do not
+        assertFalse(new Segment(0, 0, 2, 2).isIntersect(new Segment(1.5, 0, 2, 1)));
+        // boxes are disjoint in one axis only
+        assertFalse(new Segment(0, 0, 1, 1).isIntersect(new Segment(0, 2, 1, 3)));
+        assertFalse(new Segment(0, 0, 1, 1).isIntersect(new Segment(2, 0, 3, 1)));
+    }
+
+    @Test
+    void intersectsWithoutAllocating() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Segment first = new Segment(0, 0, 2, 2);
+        Segment crossing = new Segment(0, 2, 2, 0);
+        Segment apart = new Segment(5, 5, 6, 7);
+        int found = 0;
+        for (int i = 0; i < 1000; i++) {
+            found += first.isIntersect(crossing) ? 1 : 0;
+            found += first.isIntersect(apart) ? 1 : 0;
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100000; i++) {
+            found += first.isIntersect(crossing) ? 1 : 0;
+            found += first.isIntersect(apart) ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertEquals(101000, found);
+        // a few bytes for the measurement itself
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+}
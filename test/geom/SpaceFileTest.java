@@ -0,0 +1,201 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writing the spaces to the binary file and mapping them back,
+ * bit for bit, and rejecting the files which are not valid.
+ */
+class SpaceFileTest {
+    private static final double[] SPECIAL = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mapsWrittenPointsAndSegments() throws IOException {
+        Random random = new Random(1);
+        for (int dimension = 1; dimension <= 4; dimension++) {
+            for (int size : new int[]{0, 1, 5, 1000}) {
+                List<Point> points = new ArrayList<Point>();
+                List<Segment> segments = new ArrayList<Segment>();
+                Space space = new Space(dimension);
+                for (int i = 0; i < size; i++) {
+                    if (random.nextInt(3) == 0) {
+                        Segment segment = new Segment(point(random, dimension), point(random, dimension));
+                        segments.add(segment);
+                        space.addObject(segment);
+                    } else {
+                        Point point = point(random, dimension);
+                        points.add(point);
+                        space.addObject(point);
+                    }
+                }
+                if (dimension == 2) {
+                    // not saved
+                    space.addObject(new Polygon(new double[]{0, 1, 0}, new double[]{0, 0, 1}));
+                }
+                String message = "dimension " + dimension + ", size " + size;
+                Path file = directory.resolve("space" + dimension + "_" + size + ".gspc");
+                SpaceFile.write(space, file);
+                assertEquals(SpaceFile.HEADER_SIZE + 8L * dimension * (points.size() + 2L * segments.size()),
+                        Files.size(file), message);
+
+                MappedSpace mapped = SpaceFile.open(file);
+                assertEquals(dimension, mapped.getDimension(), message);
+                assertEquals(points.size(), mapped.pointCount(), message);
+                assertEquals(segments.size(), mapped.segmentCount(), message);
+                assertEquals(points.size() + segments.size(), mapped.size(), message);
+                for (int i = 0; i < points.size(); i++) {
+                    for (int d = 0; d < dimension; d++) {
+                        assertBits(points.get(i).getCoord(d), mapped.getCoord(i, d), message);
+                    }
+                    assertPoint(points.get(i), (Point) mapped.getObject(i), message);
+                }
+                for (int i = 0; i < segments.size(); i++) {
+                    Segment segment = segments.get(i);
+                    for (int d = 0; d < dimension; d++) {
+                        assertBits(segment.getFrom().getCoord(d), mapped.getFromCoord(i, d), message);
+                        assertBits(segment.getTo().getCoord(d), mapped.getToCoord(i, d), message);
+                    }
+                    assertSegment(segment, (Segment) mapped.getObject(points.size() + i), message);
+                }
+
+                ColumnarSpace read = SpaceFile.read(file);
+                assertEquals(mapped.size(), read.size(), message);
+                PointColumns columns = mapped.toColumns();
+                for (int i = 0; i < points.size(); i++) {
+                    assertPoint(points.get(i), read.getPoint(i), message);
+                    assertPoint(points.get(i), columns.getPoint(i), message);
+                }
+                for (int i = 0; i < segments.size(); i++) {
+                    assertSegment(segments.get(i), (Segment) read.getObject(points.size() + i), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void writesColumnarAndMappedSpaces() throws IOException {
+        Random random = new Random(2);
+        ColumnarSpace space = new ColumnarSpace(3);
+        for (int i = 0; i < 500; i++) {
+            space.addObject(random.nextInt(4) == 0 ?
+                    new Segment(point(random, 3), point(random, 3)) : point(random, 3));
+        }
+        Path first = directory.resolve("columnar.gspc");
+        Path second = directory.resolve("mapped.gspc");
+        SpaceFile.write(space, first);
+        SpaceFile.write(SpaceFile.open(first), second);
+        assertTrue(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(second)));
+        MappedSpace mapped = SpaceFile.open(second);
+        assertEquals(space.size(), mapped.size());
+        for (int i = 0; i < space.size(); i++) {
+            GeomObject expected = space.getObject(i);
+            if (expected instanceof Point) {
+                assertPoint((Point) expected, (Point) mapped.getObject(i), "object " + i);
+            } else {
+                assertSegment((Segment) expected, (Segment) mapped.getObject(i), "object " + i);
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidFiles() throws IOException {
+        Space space = new Space(2);
+        space.addObject(new Point(1, 2));
+        space.addObject(new Segment(0, 0, 3, 4));
+        Path file = directory.resolve("valid.gspc");
+        SpaceFile.write(space, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] magic = bytes.clone();
+        magic[0] ^= 1;
+        assertRejected(magic, "Not a space file");
+        assertRejected(Arrays.copyOf(bytes, SpaceFile.HEADER_SIZE - 1), "Not a space file");
+        assertRejected(new byte[0], "Not a space file");
+
+        byte[] version = bytes.clone();
+        ByteBuffer.wrap(version).order(ByteOrder.LITTLE_ENDIAN).putInt(4, SpaceFile.VERSION + 1);
+        assertRejected(version, "Unsupported space file version " + (SpaceFile.VERSION + 1));
+
+        byte[] count = bytes.clone();
+        ByteBuffer.wrap(count).order(ByteOrder.LITTLE_ENDIAN).putLong(16, -1);
+        assertRejected(count, "Corrupted space file header");
+        byte[] dimension = bytes.clone();
+        ByteBuffer.wrap(dimension).order(ByteOrder.LITTLE_ENDIAN).putInt(8, 0);
+        assertRejected(dimension, "Corrupted space file header");
+
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 1), "Space file is truncated");
+        assertRejected(Arrays.copyOf(bytes, SpaceFile.HEADER_SIZE), "Space file is truncated");
+        // the valid file is still mapped
+        assertEquals(2, SpaceFile.open(file).size());
+    }
+
+    @Test
+    void mappedSpaceIsReadOnly() throws IOException {
+        Space space = new Space(2);
+        space.addObject(new Point(2, 1));
+        space.addObject(new Point(1, 2));
+        Path file = directory.resolve("read-only.gspc");
+        SpaceFile.write(space, file);
+        MappedSpace mapped = SpaceFile.open(file);
+        assertThrows(UnsupportedOperationException.class, () -> mapped.addObject(new Point(3, 3)));
+        assertThrows(UnsupportedOperationException.class, () -> mapped.addObject(new Segment(0, 0, 1, 1)));
+        assertThrows(UnsupportedOperationException.class, mapped::sort);
+        assertEquals(2, mapped.size());
+        assertPoint(new Point(2, 1), mapped.getPoint(0), "first point");
+        assertThrows(IndexOutOfBoundsException.class, () -> mapped.getPoint(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> mapped.getSegment(0));
+    }
+
+    private void assertRejected(byte[] bytes, String message) throws IOException {
+        Path file = Files.write(directory.resolve("invalid.gspc"), bytes);
+        IOException e = assertThrows(IOException.class, () -> SpaceFile.open(file), message);
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+        assertThrows(IOException.class, () -> SpaceFile.read(file), message);
+    }
+
+    /** Random point with the special coordinates at random places **/
+    private static Point point(Random random, int dimension) {
+        double[] coords = new double[dimension];
+        for (int d = 0; d < dimension; d++) {
+            coords[d] = random.nextInt(10) == 0 ? SPECIAL[random.nextInt(SPECIAL.length)] :
+                    random.nextGaussian() * 1000;
+        }
+        return new Point(coords);
+    }
+
+    private static void assertPoint(Point expected, Point actual, String message) {
+        assertEquals(expected.getDimension(), actual.getDimension(), message);
+        for (int d = 0; d < expected.getDimension(); d++) {
+            assertBits(expected.getCoord(d), actual.getCoord(d), message + ", coordinate " + d);
+        }
+    }
+
+    private static void assertSegment(Segment expected, Segment actual, String message) {
+        assertPoint(expected.getFrom(), actual.getFrom(), message + ", start");
+        assertPoint(expected.getTo(), actual.getTo(), message + ", end");
+    }
+
+    /** Raw bits, so -0.0 differs from 0.0 and NaN is compared too **/
+    private static void assertBits(double expected, double actual, String message) {
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual), message);
+    }
+}
@@ -0,0 +1,133 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Radix sort against the stable sort by Point.compareTo,
+ * curve keys against their definitions.
+ */
+class SpaceOrderTest {
+    private static final double[] SPECIAL = {0.0, -0.0, 1.0, -1.0, Double.MIN_VALUE, -Double.MIN_VALUE,
+            Double.MAX_VALUE, -Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+    @Test
+    void sortsAsCompareTo() {
+        Random random = new Random(1);
+        for (int dimension = 1; dimension <= 3; dimension++) {
+            // enough points for several parallel chunks, with many equal coordinates
+            List<Point> points = new ArrayList<Point>();
+            for (int i = 0; i < 20000; i++) {
+                double[] coords = new double[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    coords[d] = random.nextInt(4) == 0 ? SPECIAL[random.nextInt(SPECIAL.length)] :
+                            random.nextInt(50) - 25 + (random.nextBoolean() ? 0 : random.nextGaussian());
+                }
+                points.add(new Point(coords));
+            }
+            PointColumns columns = new PointColumns(dimension, points.size());
+            for (Point point : points) {
+                columns.add(point);
+            }
+            Integer[] expected = new Integer[points.size()];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = i;
+            }
+            Arrays.sort(expected, (a, b) -> points.get(a).compareTo(points.get(b)));
+            assertArrayEquals(Arrays.stream(expected).mapToInt(Integer::intValue).toArray(),
+                    SpaceOrder.sort(columns), "dimension " + dimension);
+        }
+    }
+
+    @Test
+    void curveOrdersArePermutations() {
+        Random random = new Random(2);
+        PointColumns columns = new PointColumns(3, 10000);
+        for (int i = 0; i < 10000; i++) {
+            columns.add(new Point(random.nextGaussian(), random.nextInt(4) == 0 ? Double.NaN : random.nextDouble(),
+                    SPECIAL[random.nextInt(SPECIAL.length)]));
+        }
+        for (SpaceCurve curve : SpaceCurve.values()) {
+            int[] order = SpaceOrder.order(columns, curve);
+            int[] sorted = order.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                assertEquals(i, sorted[i], curve.name());
+            }
+        }
+    }
+
+    @Test
+    void mortonKeysInterleaveBits() {
+        Random random = new Random(3);
+        for (int dimension = 2; dimension <= 5; dimension++) {
+            int bits = 64 / dimension;
+            for (int test = 0; test < 1000; test++) {
+                long[] cell = new long[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    cell[d] = random.nextLong() >>> (64 - bits);
+                }
+                long expected = 0;
+                for (int b = bits - 1; b >= 0; b--) {
+                    for (int d = dimension - 1; d >= 0; d--) {
+                        expected = expected << 1 | (cell[d] >>> b & 1);
+                    }
+                }
+                assertEquals(expected, SpaceOrder.mortonKey(cell, dimension, bits));
+            }
+        }
+    }
+
+    @Test
+    void hilbertCurveVisitsEachCellOnceByNeighbours() {
+        checkHilbert(2, 5);
+        checkHilbert(3, 3);
+        checkHilbert(4, 2);
+    }
+
+    @Test
+    void spaceSortKeepsOtherObjectsInPlace() {
+        Space space = new Space(2);
+        Segment segment = new Segment(0, 0, 1, 1);
+        space.addObject(new Point(3, 1));
+        space.addObject(segment);
+        space.addObject(new Point(1, 2));
+        space.addObject(new Point(2, 1));
+        space.sort();
+        assertEquals(new Point(2, 1), space.getObject(0));
+        assertSame(segment, space.getObject(1));
+        assertEquals(new Point(3, 1), space.getObject(2));
+        assertEquals(new Point(1, 2), space.getObject(3));
+    }
+
+    /** Keys of all cells are 0..cells-1 and the cells of the next keys are neighbours **/
+    private static void checkHilbert(int dimension, int bits) {
+        int count = 1 << (dimension * bits);
+        long[][] cells = new long[count][];
+        for (int index = 0; index < count; index++) {
+            long[] cell = new long[dimension];
+            for (int d = 0; d < dimension; d++) {
+                cell[d] = index >>> (d * bits) & ((1 << bits) - 1);
+            }
+            long key = SpaceOrder.hilbertKey(cell.clone(), dimension, bits);
+            assertTrue(key >= 0 && key < count && cells[(int) key] == null, "key " + key + " of " + Arrays.toString(cell));
+            cells[(int) key] = cell;
+        }
+        for (int key = 1; key < count; key++) {
+            long distance = 0;
+            for (int d = 0; d < dimension; d++) {
+                distance += Math.abs(cells[key][d] - cells[key - 1][d]);
+            }
+            assertEquals(1, distance, "dimension " + dimension + ", key " + key);
+        }
+    }
+}
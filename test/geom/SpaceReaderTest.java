@@ -0,0 +1,318 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parsing of the numbers against Double.parseDouble, also across
+ * the chunks of a small buffer, and reading of the points and
+ * segments from CSV and WKT with the progress reports.
+ */
+class SpaceReaderTest {
+    private static final String[] NUMBERS = {"0", "-0", "+0", "0.0", "-0.0", "1", "-1", "+1", ".5", "-.5",
+            "1.", "007", "123.456", "-98765.4321", "1e0", "1E5", "1e+5", "1e-5", "-2.5E-3", "6.02214076e23",
+            "1e22", "1e23", "1e-22", "1e-23", "9007199254740993", "123456789012345678901234567890",
+            "0.1000000000000000055511151231257827", "3.14159265358979323846264338327950288",
+            "2.2250738585072014E-308", "2.2250738585072011e-308", "4.9e-324", "-4.9e-324", "2e-324",
+            "1e-400", "1.7976931348623157e308", "1.7976931348623159e308", "1e400", "-1e400",
+            "0.000000000000000000000000000001", "100000000000000000000000000000000e-32", "0e999",
+            "4503599627370496.5", "4503599627370497.5", "9007199254740991", "900719925474099.1"};
+
+    @Test
+    void parsesNumbersAsParseDouble() throws IOException {
+        Random random = new Random(1);
+        List<String> numbers = new ArrayList<String>(List.of(NUMBERS));
+        for (int i = 0; i < 2000; i++) {
+            numbers.add(randomNumber(random));
+        }
+        String text = String.join(" ", numbers) + "\n";
+        for (int bufferSize : new int[]{1, 2, 3, 5, 7, 16, 64, 1 << 16}) {
+            ByteInput input = new ByteInput(channel(text), bufferSize, () -> { });
+            for (String number : numbers) {
+                input.skipBlanks(true);
+                assertBits(Double.parseDouble(number), input.parseNumber(), number + ", buffer " + bufferSize);
+            }
+            assertEquals(ByteInput.EOF, input.skipBlanks(true));
+        }
+    }
+
+    @Test
+    void parsesNumbersAtEveryPlaceOfChunk() throws IOException {
+        // every number starts at every offset of a 64 bytes buffer, so it straddles the chunk boundary
+        for (String number : NUMBERS) {
+            for (int shift = 0; shift < 64; shift++) {
+                String text = " ".repeat(shift) + number + "," + number;
+                ByteInput input = new ByteInput(channel(text), 64, () -> { });
+                String message = number + ", shift " + shift;
+                input.skipBlanks(true);
+                assertBits(Double.parseDouble(number), input.parseNumber(), message);
+                assertEquals(',', input.next(), message);
+                assertBits(Double.parseDouble(number), input.parseNumber(), message);
+                assertEquals(ByteInput.EOF, input.peek(), message);
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedNumbers() {
+        for (String text : new String[]{"-", "+", ".", "-.", "x", "1e", "1e+", "-e5"}) {
+            ByteInput input = new ByteInput(channel(text), 64, () -> { });
+            assertThrows(IllegalArgumentException.class, input::parseNumber, text);
+        }
+    }
+
+    @Test
+    void readsPointsAndSegmentsFromCsv() throws IOException {
+        String text = "x,y\n" +
+                "1,2\n" +
+                "\n" +
+                "# comment\n" +
+                "3;4;5;6\n" +
+                "  -1.5e1\t2.5E-1\r\n" +
+                "7 8 9 10\n" +
+                ".5, -0";
+        Space space = new Space(2);
+        SpaceReader reader = new SpaceReader(space);
+        reader.setBatchSize(1);
+        assertEquals(5, reader.readCsv(channel(text), -1));
+        assertEquals(5, space.size());
+        assertPoint(space.getObject(0), 1, 2);
+        assertSegment(space.getObject(1), 3, 4, 5, 6);
+        assertPoint(space.getObject(2), -15, 0.25);
+        assertSegment(space.getObject(3), 7, 8, 9, 10);
+        // the last line has no line end
+        assertPoint(space.getObject(4), 0.5, -0.0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpaceReader(new Space(2)).readCsv(channel("1,2,3\n"), -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpaceReader(new Space(2)).readCsv(channel("1,2,3,4,5\n"), -1));
+    }
+
+    @Test
+    void readsCsvAcrossChunksAsParseDouble() throws IOException {
+        for (int dimension = 2; dimension <= 3; dimension++) {
+            Random random = new Random(dimension);
+            StringBuilder text = new StringBuilder("# random points and segments\n");
+            List<double[]> points = new ArrayList<double[]>();
+            List<double[]> segments = new ArrayList<double[]>();
+            for (int i = 0; i < 3000; i++) {
+                boolean segment = random.nextInt(3) == 0;
+                double[] coords = new double[segment ? 2 * dimension : dimension];
+                for (int d = 0; d < coords.length; d++) {
+                    String number = randomNumber(random);
+                    coords[d] = Double.parseDouble(number);
+                    text.append(d == 0 ? "" : random.nextBoolean() ? ", " : "\t").append(number);
+                }
+                text.append(random.nextBoolean() ? "\n" : "\r\n");
+                (segment ? segments : points).add(coords);
+            }
+            for (Space space : new Space[]{new Space(dimension), new ColumnarSpace(dimension)}) {
+                SpaceReader reader = new SpaceReader(space);
+                reader.setBufferSize(64);
+                reader.setBatchSize(100);
+                assertEquals(3000, reader.readCsv(channel(text.toString()), -1));
+                assertObjects(points, segments, space);
+            }
+        }
+    }
+
+    @Test
+    void readsPointsAndSegmentsFromWkt() throws IOException {
+        String text = "POINT (1 2)\n" +
+                "multipoint ((3 4), (5 6))\n" +
+                "MULTIPOINT (7 8,9 10)\n" +
+                "POINT EMPTY\n" +
+                "LINESTRING (0 0, 1 1, 2 0)\n" +
+                "MULTILINESTRING ((0 0, 1 0), (5 5, 6 6))\n" +
+                "  POLYGON ((0 0, 4 0, 4 4, 0 0))";
+        Space space = new Space(2);
+        SpaceReader reader = new SpaceReader(space);
+        reader.setBufferSize(64);
+        assertEquals(12, reader.readWkt(channel(text), -1));
+        assertPoint(space.getObject(0), 1, 2);
+        assertPoint(space.getObject(1), 3, 4);
+        assertPoint(space.getObject(2), 5, 6);
+        assertPoint(space.getObject(3), 7, 8);
+        assertPoint(space.getObject(4), 9, 10);
+        assertSegment(space.getObject(5), 0, 0, 1, 1);
+        assertSegment(space.getObject(6), 1, 1, 2, 0);
+        assertSegment(space.getObject(7), 0, 0, 1, 0);
+        assertSegment(space.getObject(8), 5, 5, 6, 6);
+        assertSegment(space.getObject(9), 0, 0, 4, 0);
+        assertSegment(space.getObject(10), 4, 0, 4, 4);
+        assertSegment(space.getObject(11), 4, 4, 0, 0);
+
+        Space space3D = new Space(3);
+        assertEquals(2, new SpaceReader(space3D).readWkt(channel("POINT Z (1 2 3) LINESTRING Z (0 0 0, 1 2 3)"), -1));
+        assertEquals(3, ((Point) space3D.getObject(0)).getCoord(2));
+        assertSegment(space3D.getObject(1), 0, 0, 0, 1, 2, 3);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpaceReader(new Space(2)).readWkt(channel("POINT (1 2 3)"), -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpaceReader(new Space(2)).readWkt(channel("CIRCLE (1 2)"), -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpaceReader(new Space(2)).readWkt(channel("LINESTRING (1 2, 3 4"), -1));
+    }
+
+    @Test
+    void readsWktAcrossChunksAsParseDouble() throws IOException {
+        Random random = new Random(4);
+        StringBuilder text = new StringBuilder();
+        List<double[]> points = new ArrayList<double[]>();
+        List<double[]> segments = new ArrayList<double[]>();
+        for (int i = 0; i < 500; i++) {
+            double[] previous = null;
+            boolean line = random.nextBoolean();
+            int count = line ? 2 + random.nextInt(5) : 1;
+            text.append(line ? "LINESTRING (" : "POINT (");
+            for (int j = 0; j < count; j++) {
+                String x = randomNumber(random);
+                String y = randomNumber(random);
+                double[] current = {Double.parseDouble(x), Double.parseDouble(y)};
+                text.append(j == 0 ? "" : ",").append(random.nextBoolean() ? "\n" : " ").append(x).append(' ').append(y);
+                if (!line) {
+                    points.add(current);
+                } else if (previous != null) {
+                    segments.add(new double[]{previous[0], previous[1], current[0], current[1]});
+                }
+                previous = current;
+            }
+            text.append(")\n");
+        }
+        Space space = new ColumnarSpace(2);
+        SpaceReader reader = new SpaceReader(space);
+        reader.setBufferSize(64);
+        assertEquals(points.size() + segments.size(), reader.readWkt(channel(text.toString()), -1));
+        assertObjects(points, segments, space);
+    }
+
+    @Test
+    void reportsProgressAfterEveryChunk(@TempDir Path directory) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append(i).append(',').append(i + 0.5).append('\n');
+        }
+        Path file = directory.resolve("points.csv");
+        Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+        long size = Files.size(file);
+        List<long[]> reports = new ArrayList<long[]>();
+        SpaceReader reader = new SpaceReader(new ColumnarSpace(2));
+        reader.setBufferSize(64);
+        reader.setBatchSize(10);
+        reader.setProgressListener((bytesRead, totalBytes, objectsRead) ->
+                reports.add(new long[]{bytesRead, totalBytes, objectsRead}));
+        assertEquals(1000, reader.readCsv(file));
+        assertTrue(reports.size() >= size / 64, reports.size() + " reports");
+        long[] previous = {0, size, 0};
+        for (long[] report : reports) {
+            assertEquals(size, report[1]);
+            assertTrue(report[0] >= previous[0] && report[0] <= size);
+            assertTrue(report[2] >= previous[2] && report[2] <= 1000);
+            // about a line per 8 bytes, the objects follow the bytes
+            assertTrue(report[2] <= report[0] / 6, report[2] + " objects of " + report[0] + " bytes");
+            previous = report;
+        }
+        assertArrayEquals(new long[]{size, size, 1000}, reports.get(reports.size() - 1));
+        assertTrue(reports.get(reports.size() / 2)[2] > 0);
+
+        // unknown size of the input is reported as is
+        reports.clear();
+        reader.readCsv(channel(text.toString()), -1);
+        assertArrayEquals(new long[]{size, -1, 1000}, reports.get(reports.size() - 1));
+    }
+
+    /** Number of the random form: any double, long mantissa, exponent, subnormal or integer **/
+    private static String randomNumber(Random random) {
+        switch (random.nextInt(5)) {
+            case 0: {
+                double value = Double.longBitsToDouble(random.nextLong());
+                return Double.isFinite(value) ? Double.toString(value) : "-0.0";
+            }
+            case 1: {
+                StringBuilder number = new StringBuilder(random.nextBoolean() ? "-" : "");
+                int digits = 1 + random.nextInt(30);
+                int point = random.nextInt(digits + 1);
+                for (int i = 0; i < digits; i++) {
+                    number.append(i == point ? "." : "").append((char) ('0' + random.nextInt(10)));
+                }
+                return number.toString();
+            }
+            case 2:
+                return (random.nextBoolean() ? "+" : "-") + (random.nextInt(100000) / 1000.0) +
+                        (random.nextBoolean() ? "e" : "E") + (random.nextInt(700) - 350);
+            case 3:
+                return Double.toString(Double.MIN_VALUE * random.nextInt(1 << 20));
+            default:
+                return Long.toString(random.nextLong() >> random.nextInt(64));
+        }
+    }
+
+    private static ReadableByteChannel channel(String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /** Points and segments of the space, in the order of adding of each kind **/
+    private static void assertObjects(List<double[]> points, List<double[]> segments, Space space) {
+        assertEquals(points.size() + segments.size(), space.size());
+        int point = 0;
+        int segment = 0;
+        for (int i = 0; i < space.size(); i++) {
+            GeomObject object = space.getObject(i);
+            if (object instanceof Point) {
+                assertCoords(points.get(point++), ((Point) object).getCoords(), "point " + (point - 1));
+            } else {
+                assertCoords(segments.get(segment++), coords((Segment) object), "segment " + (segment - 1));
+            }
+        }
+        assertEquals(points.size(), point);
+        assertEquals(segments.size(), segment);
+    }
+
+    private static void assertPoint(GeomObject object, double... coords) {
+        assertCoords(coords, ((Point) object).getCoords(), object.toString());
+    }
+
+    private static void assertSegment(GeomObject object, double... coords) {
+        assertCoords(coords, coords((Segment) object), object.toString());
+    }
+
+    /** Coordinates of the ends one after another **/
+    private static double[] coords(Segment segment) {
+        int dimension = segment.getDimension();
+        double[] coords = new double[2 * dimension];
+        System.arraycopy(segment.getFrom().getCoords(), 0, coords, 0, dimension);
+        System.arraycopy(segment.getTo().getCoords(), 0, coords, dimension, dimension);
+        return coords;
+    }
+
+    private static void assertCoords(double[] expected, double[] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int i = 0; i < expected.length; i++) {
+            assertBits(expected[i], actual[i], message + ", coordinate " + i);
+        }
+    }
+
+    /** Raw bits, so -0.0 differs from 0.0 **/
+    private static void assertBits(double expected, double actual, String message) {
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual),
+                message + ": " + expected + " expected, " + actual + " found");
+    }
+}
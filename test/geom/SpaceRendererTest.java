@@ -0,0 +1,67 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tiled rendering against the loop of draw2D() over the objects.
+ */
+class SpaceRendererTest {
+    private static final RenderStyle[] STYLES = {
+            new RenderStyle(Color.RED, 1),
+            new RenderStyle(Color.BLUE, 5),
+            new RenderStyle(new Color(0, 160, 0, 120), 3),
+            new RenderStyle(Color.RED, 7)
+    };
+
+    @Test
+    void drawsLikeDrawLoop() {
+        Random random = new Random(1);
+        Space space = new Space(2);
+        for (int i = 0; i < 3000; i++) {
+            double x = random.nextDouble() * 360 - 30;
+            double y = random.nextDouble() * 260 - 30;
+            if (i % 2 == 0) {
+                space.addObject(new Point(x, y));
+            } else {
+                space.addObject(new Segment(x, y, x + random.nextGaussian() * 60, y + random.nextGaussian() * 60));
+            }
+        }
+        // red, blue and red again over the same pixels
+        space.addObject(new Segment(10, 10, 200, 150));
+        space.addObject(new Segment(200, 10, 10, 150));
+        space.addObject(new Point(105, 80));
+        SpaceRenderer renderer = new SpaceRenderer();
+        renderer.setStyle(object -> STYLES[Math.floorMod(object.hashCode(), STYLES.length)]);
+
+        BufferedImage expected = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = expected.createGraphics();
+        for (int i = 0; i < space.size(); i++) {
+            GeomObject object = space.getObject(i);
+            RenderStyle style = STYLES[Math.floorMod(object.hashCode(), STYLES.length)];
+            if (object instanceof Point) {
+                ((Point) object).draw2D(g, style.getColor(), style.getSize());
+            } else {
+                ((Segment) object).draw2D(g, style.getColor(), style.getSize());
+            }
+        }
+        g.dispose();
+
+        for (int tileSize : new int[] {16, 64, 1000}) {
+            renderer.setTileSize(tileSize);
+            BufferedImage actual = renderer.render(space, 300, 200);
+            for (int y = 0; y < 200; y++) {
+                for (int x = 0; x < 300; x++) {
+                    assertEquals(expected.getRGB(x, y), actual.getRGB(x, y),
+                            "tile " + tileSize + ", pixel " + x + ", " + y);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sweep line against the brute force check of all pairs
+ * by Segment.isIntersect.
+ */
+class SweepLineIntersectorTest {
+    @Test
+    void findsSamePairsAsBruteForceOnGrid() {
+        // small integer grid: many shared ends, touching and collinear segments
+        Random random = new Random(1);
+        for (int test = 0; test < 200; test++) {
+            List<Segment> segments = new ArrayList<Segment>();
+            int count = 2 + random.nextInt(40);
+            for (int i = 0; i < count; i++) {
+                segments.add(new Segment(random.nextInt(8), random.nextInt(8),
+                        random.nextInt(8), random.nextInt(8)));
+            }
+            assertEquals(bruteForce(segments), sweep(segments), "test " + test);
+        }
+    }
+
+    @Test
+    void findsSamePairsAsBruteForceInGeneralPosition() {
+        Random random = new Random(2);
+        List<Segment> segments = new ArrayList<Segment>();
+        for (int i = 0; i < 1000; i++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            segments.add(new Segment(x, y, x + random.nextGaussian() * 5, y + random.nextGaussian() * 5));
+        }
+        assertEquals(bruteForce(segments), sweep(segments));
+    }
+
+    @Test
+    void reportsPairsOnce() {
+        // all segments through one point
+        List<Segment> segments = new ArrayList<Segment>();
+        for (int i = 0; i < 20; i++) {
+            segments.add(new Segment(-i - 1, -10, i + 1, 10));
+        }
+        List<Intersection> result = SweepLineIntersector.findAll(segments);
+        assertEquals(20 * 19 / 2, result.size());
+        for (Intersection intersection : result) {
+            assertTrue(intersection.getFirst() < intersection.getSecond());
+            assertEquals(0, intersection.getX(), 1e-12);
+            assertEquals(0, intersection.getY(), 1e-12);
+        }
+    }
+
+    @Test
+    void takesSegmentsOfSpace() {
+        Space space = new Space(2);
+        space.addObject(new Segment(0, 0, 2, 2));
+        space.addObject(new Point(1, 1));
+        space.addObject(new Segment(0, 2, 2, 0));
+        List<Intersection> result = SweepLineIntersector.findAll(space);
+        assertEquals(1, result.size());
+        assertEquals(0, result.get(0).getFirst());
+        assertEquals(2, result.get(0).getSecond());
+    }
+
+    private static Set<Long> sweep(List<Segment> segments) {
+        Set<Long> pairs = new TreeSet<Long>();
+        SweepLineIntersector.findAll(segments, (first, second, x, y) ->
+                assertTrue(pairs.add(pair(first, second)), "pair " + first + ", " + second + " twice"));
+        return pairs;
+    }
+
+    private static Set<Long> bruteForce(List<Segment> segments) {
+        Set<Long> pairs = new TreeSet<Long>();
+        for (int i = 0; i < segments.size(); i++) {
+            for (int j = i + 1; j < segments.size(); j++) {
+                if (segments.get(i).isIntersect(segments.get(j))) {
+                    pairs.add(pair(i, j));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static long pair(int first, int second) {
+        return (long) Math.min(first, second) << 32 | Math.max(first, second);
+    }
+}